@@ -0,0 +1,119 @@
+package org.plugin.timetools.config;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.support.SyntheticTasks;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 配置与任务文件读写基准测试
+ *
+ * <ul>
+ *     <li>saveTasks / loadTasks：按任务数量测量tasks.yml的写入和读取耗时，fileBytes为每次写入的字节数</li>
+ *     <li>getConfig / getMessage：运行时频繁调用的配置和消息查找</li>
+ * </ul>
+ * 分配速率由 -prof gc 给出，运行方式见 README 的“基准测试”一节。
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigManagerBenchmark {
+
+    private static final Logger LOGGER = NOPLogger.NOP_LOGGER;
+
+    @Param({"100", "1000", "10000"})
+    public int taskCount;
+
+    private Path dataDirectory;
+    private Path tasksFile;
+    private ConfigManager configManager;
+    private List<Task> tasks;
+    private final Map<String, String> placeholders = Map.of("id", "daily-backup");
+
+    /**
+     * 每次写入的文件大小
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WriteCounters {
+        public long fileBytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("timetools-bench");
+        tasksFile = dataDirectory.resolve("tasks.yml");
+        configManager = new ConfigManager(dataDirectory, LOGGER);
+        tasks = SyntheticTasks.generate(taskCount, 42);
+        configManager.saveTasks(tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void saveTasks(WriteCounters counters) throws IOException {
+        configManager.saveTasks(tasks);
+        counters.fileBytes = Files.size(tasksFile);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public List<Task> loadTasks() {
+        return configManager.loadTasks();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object getConfig() {
+        return configManager.getConfig("performance.lateness-warning-ms", 50);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object getConfigMissing() {
+        return configManager.getConfig("performance.not-configured.value", 0);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public String getMessage() {
+        return configManager.getMessage("task-not-found", placeholders);
+    }
+}
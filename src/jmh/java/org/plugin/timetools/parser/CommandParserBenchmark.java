@@ -0,0 +1,86 @@
+package org.plugin.timetools.parser;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 创建命令解析基准测试
+ *
+ * 对一组常见的创建命令逐条解析，每次调用解析整个语料。legacyCorpus 使用测试目录中保留的
+ * 正则实现 {@link LegacyCommandParser} 解析旧语法可表达的部分，与 currentLegacyCorpus 对照。
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CommandParserBenchmark {
+
+    // 旧语法可表达的命令，包括少量错误输入
+    private static final String[][] LEGACY_CORPUS = {
+            {"create", "{/say hello}", "14:00", "Eve"},
+            {"create", "{/say Good morning everyone}", "8:00", "Mon,Tue,Wed,Thu,Fri"},
+            {"create", "{/velocity plugins}", "E", "Eve,10s"},
+            {"create", "{/backup}", "02:00-04:00,E", "Eve,30m"},
+            {"create", "{/a,/b,/c,All}", "12:00-12:30", "Sat,Sun"},
+            {"create", "{/server lobby,Obo,/say done,20}", "23:59", "Eve"},
+            {"create", "{ /alert restart , /save-all , Obo }", "E", "Mon,Fri,1h"},
+            {"create", "{/x}", "24:00", "Eve"},
+            {"create", "{/x}", "12:00", "Monday"},
+            {"create", "{/x", "12:00", "Eve"},
+    };
+
+    // 当前语法的新形式：时间列表、跨零点区间、步长、tick/毫秒间隔
+    private static final String[][] EXTENDED_CORPUS = {
+            {"create", "{/say hello}", "06:00,12:00,18:00", "Eve"},
+            {"create", "{/night}", "22:00-02:00", "Fri,Sat"},
+            {"create", "{/heartbeat}", "*/15m", "Eve"},
+            {"create", "{/patrol}", "*/2h", "within", "08:00-20:00", "Mon,Wed"},
+            {"create", "{/tick}", "E", "Eve,20t"},
+            {"create", "{/fast}", "E", "Eve,250ms"},
+            {"create", "{/x}", "*/0m", "Eve"},
+            {"create", "{/x}", "E", "Eve,5ms"},
+    };
+
+    @Benchmark
+    public void currentLegacyCorpus(Blackhole blackhole) {
+        parseAll(LEGACY_CORPUS, blackhole);
+    }
+
+    @Benchmark
+    public void currentExtendedCorpus(Blackhole blackhole) {
+        parseAll(EXTENDED_CORPUS, blackhole);
+    }
+
+    @Benchmark
+    public void legacyCorpus(Blackhole blackhole) {
+        for (String[] args : LEGACY_CORPUS) {
+            try {
+                blackhole.consume(LegacyCommandParser.parseCreateCommand(args));
+            } catch (CommandParser.ParseException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    private static void parseAll(String[][] corpus, Blackhole blackhole) {
+        for (String[] args : corpus) {
+            try {
+                blackhole.consume(CommandParser.parseCreateCommand(args));
+            } catch (CommandParser.ParseException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.plugin.timetools.scheduler;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.support.FakeProxyServer;
+import org.plugin.timetools.support.SyntheticTasks;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 调度引擎基准测试
+ *
+ * 使用 {@link FakeProxyServer} 替代Velocity，任务由 {@link SyntheticTasks} 生成（不写入文件）。
+ * <ul>
+ *     <li>tick：一次分钟检查（触发时间索引 + 执行到期任务）的耗时</li>
+ *     <li>shouldExecuteTask / fullScan：对全部任务逐个判断的吞吐，作为没有索引时的对照</li>
+ *     <li>intervalDispatch：虚拟时间推进一分钟，所有间隔任务各分发一次</li>
+ * </ul>
+ * 运行方式见 README 的“基准测试”一节。
+ */
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TaskSchedulerBenchmark {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+    private static final Logger LOGGER = NOPLogger.NOP_LOGGER;
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private Path dataDirectory;
+    private FakeProxyServer server;
+    private TaskManager taskManager;
+    private TaskScheduler scheduler;
+    private List<Task> tasks;
+    private int minute;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dataDirectory = Files.createTempDirectory("timetools-bench");
+        server = new FakeProxyServer();
+        server.setRecordCommands(false);
+
+        ConfigManager configManager = new ConfigManager(dataDirectory, LOGGER);
+        taskManager = new TaskManager(configManager, LOGGER);
+        tasks = SyntheticTasks.generate(taskCount, 42);
+        for (Task task : tasks) {
+            task.setPersistent(false);
+        }
+        taskManager.importTasks(tasks);
+
+        scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, LOGGER,
+                new TaskEventDispatcher(server.getEventManager(), LOGGER, false));
+        scheduler.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        scheduler.shutdown();
+        try (Stream<Path> files = Files.walk(dataDirectory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * 丢弃执行过程中调度的延迟命令（ALL/逐个模式），避免跨迭代累积
+     */
+    @TearDown(Level.Iteration)
+    public void drainPending() {
+        server.getScheduler().advance(TimeUnit.MINUTES.toMillis(1));
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void tick() {
+        // 在一天内轮转，覆盖空闲分钟和任务集中的整点
+        int current = minute;
+        minute = (current + 7) % 1440;
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(current / 60, current % 60));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void shouldExecuteTask(Blackhole blackhole) {
+        int current = minute;
+        minute = (current + 7) % 1440;
+        for (Task task : tasks) {
+            blackhole.consume(scheduler.shouldExecuteTask(task, current, DayOfWeek.MONDAY));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void fullScan(Blackhole blackhole) {
+        // 旧实现：每分钟遍历全部启用任务并按时间判断
+        LocalTime time = LocalTime.of(minute / 60, minute % 60);
+        minute = (minute + 7) % 1440;
+        for (Task task : taskManager.getEnabledTasks()) {
+            blackhole.consume(task.shouldExecuteAt(time, DayOfWeek.MONDAY));
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int intervalDispatch() {
+        return server.getScheduler().advance(TimeUnit.MINUTES.toMillis(1));
+    }
+}
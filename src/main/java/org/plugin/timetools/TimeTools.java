@@ -9,13 +9,21 @@ import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.plugin.annotation.DataDirectory;
 import com.velocitypowered.api.proxy.ProxyServer;
 
+import org.plugin.timetools.api.TaskService;
 import org.plugin.timetools.command.TimeToolsCommand;
 import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.log.ExecutionHistory;
+import org.plugin.timetools.log.ExecutionLog;
 import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.metrics.PrometheusExporter;
+import org.plugin.timetools.scheduler.ExecutionPool;
 import org.plugin.timetools.scheduler.TaskScheduler;
 import org.slf4j.Logger;
 
 import java.nio.file.Path;
+import java.time.Clock;
+import java.util.concurrent.TimeUnit;
 
 @Plugin(
         id = "timetools",
@@ -39,6 +47,12 @@ public class TimeTools {
     private ConfigManager configManager;
     private TaskManager taskManager;
     private TaskScheduler taskScheduler;
+    private TaskService taskService;
+    private TimeToolsCommand timeToolsCommand;
+    private PrometheusExporter metricsExporter;
+    private ExecutionLog executionLog;
+    private ExecutionHistory executionHistory;
+    private ExecutionPool executionPool;
 
     @Subscribe
     public void onProxyInitialization(ProxyInitializeEvent event) {
@@ -55,18 +69,66 @@ public class TimeTools {
             // 初始化任务管理器
             this.taskManager = new TaskManager(configManager, logger);
 
+            // 初始化事件分发器
+            boolean fireEventsAlways = Boolean.TRUE.equals(configManager.getConfig("events.fire-always", false));
+            long preExecuteTimeout = configManager.getLong("events.pre-execute-timeout-ms",
+                    TaskEventDispatcher.DEFAULT_PRE_EXECUTE_TIMEOUT_MS);
+            if (preExecuteTimeout <= 0) {
+                logger.warn("events.pre-execute-timeout-ms 必须大于0，使用默认值 {}ms",
+                        TaskEventDispatcher.DEFAULT_PRE_EXECUTE_TIMEOUT_MS);
+                preExecuteTimeout = TaskEventDispatcher.DEFAULT_PRE_EXECUTE_TIMEOUT_MS;
+            }
+            TaskEventDispatcher eventDispatcher = new TaskEventDispatcher(server.getEventManager(), logger,
+                    fireEventsAlways, preExecuteTimeout);
+
             // 初始化任务调度器
-            this.taskScheduler = new TaskScheduler(this, server, taskManager, logger);
+            Clock clock = Clock.system(configManager.getZoneId());
+            this.taskScheduler = new TaskScheduler(this, server, taskManager, logger, eventDispatcher, clock);
+
+            // 初始化专用执行池，创建失败时在调度线程中直接执行
+            try {
+                this.executionPool = ExecutionPool.fromConfig(configManager, logger);
+                taskScheduler.setExecutionPool(executionPool);
+            } catch (Exception e) {
+                logger.error("创建执行池失败，任务将在调度线程中执行", e);
+            }
+
+            // 初始化执行日志（logging 配置项全部关闭时不启动）
+            try {
+                this.executionLog = ExecutionLog.fromConfig(configManager, dataDirectory.resolve("logs"), logger);
+                executionLog.start();
+                taskScheduler.setExecutionLog(executionLog);
+            } catch (Exception e) {
+                logger.error("启动执行日志失败", e);
+            }
+
+            // 打开执行历史文件
+            if (Boolean.TRUE.equals(configManager.getConfig("history.enabled", true))) {
+                try {
+                    int capacity = (int) configManager.getLong("history.capacity", 65536);
+                    this.executionHistory = ExecutionHistory.open(dataDirectory.resolve("history.dat"), capacity, logger);
+                    taskScheduler.setExecutionHistory(executionHistory);
+                } catch (Exception e) {
+                    logger.error("打开执行历史失败", e);
+                }
+            }
+
+            // 初始化供其他插件使用的任务服务
+            this.taskService = new TaskService(taskManager, taskScheduler, eventDispatcher, logger);
 
             // 注册命令
             CommandManager commandManager = server.getCommandManager();
+            this.timeToolsCommand = new TimeToolsCommand(taskManager, taskScheduler, commandManager, logger);
             commandManager.register(commandManager.metaBuilder("timetools")
                     .plugin(this)
-                    .build(), new TimeToolsCommand(taskManager, taskScheduler, logger));
+                    .build(), timeToolsCommand);
 
             // 启动任务调度器
             taskScheduler.start();
 
+            // 启动指标端点（可选）
+            startMetricsExporter();
+
             logger.info("TimeTools插件初始化完成！");
         } catch (Exception e) {
             logger.error("TimeTools插件初始化失败", e);
@@ -77,10 +139,34 @@ public class TimeTools {
     public void onProxyShutdown(ProxyShutdownEvent event) {
         logger.info("TimeTools插件正在关闭...");
 
+        if (metricsExporter != null) {
+            metricsExporter.stop();
+        }
+
+        if (timeToolsCommand != null) {
+            timeToolsCommand.shutdown();
+        }
+
         if (taskScheduler != null) {
             taskScheduler.shutdown();
         }
 
+        if (executionPool != null) {
+            executionPool.shutdown(5, TimeUnit.SECONDS);
+        }
+
+        if (executionLog != null) {
+            executionLog.stop();
+        }
+
+        if (executionHistory != null) {
+            try {
+                executionHistory.close();
+            } catch (Exception e) {
+                logger.error("关闭执行历史失败", e);
+            }
+        }
+
         if (taskManager != null) {
             taskManager.saveAllTasks();
         }
@@ -88,6 +174,24 @@ public class TimeTools {
         logger.info("TimeTools插件已关闭");
     }
 
+    /**
+     * 按配置启动Prometheus指标端点，启动失败不影响插件其他功能
+     */
+    private void startMetricsExporter() {
+        if (!Boolean.TRUE.equals(configManager.getConfig("metrics.enabled", false))) {
+            return;
+        }
+        String host = String.valueOf(configManager.getConfig("metrics.host", "127.0.0.1"));
+        int port = (int) configManager.getLong("metrics.port", 9464);
+        PrometheusExporter exporter = new PrometheusExporter(taskManager, taskScheduler, logger);
+        try {
+            exporter.start(host, port);
+            this.metricsExporter = exporter;
+        } catch (Exception e) {
+            logger.error("启动指标端点失败: " + host + ":" + port, e);
+        }
+    }
+
     public TaskManager getTaskManager() {
         return taskManager;
     }
@@ -99,4 +203,11 @@ public class TimeTools {
     public ConfigManager getConfigManager() {
         return configManager;
     }
+
+    /**
+     * 获取任务服务，供其他插件以编程方式注册任务
+     */
+    public TaskService getTaskService() {
+        return taskService;
+    }
 }
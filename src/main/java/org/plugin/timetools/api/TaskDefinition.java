@@ -0,0 +1,421 @@
+package org.plugin.timetools.api;
+
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.MisfirePolicy;
+import org.plugin.timetools.model.OverlapPolicy;
+import org.plugin.timetools.model.RangeMode;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * 任务定义
+ *
+ * 供其他插件以类型安全的方式描述任务，无需拼接 /timetools create 命令字符串。
+ * 通过 {@link #builder(String)} 创建，交给 {@link TaskService} 注册。
+ */
+public final class TaskDefinition {
+
+    private final String id;
+    private final List<String> commands;
+    private final Consumer<Task> callback;
+    private final TaskScheduleType scheduleType;
+    private final LocalTime startTime;
+    private final LocalTime endTime;
+    private final List<LocalTime> fireTimes;
+    private final int stepMinutes;
+    private final RangeMode rangeMode;
+    private final LocalDate validFrom;
+    private final LocalDate validUntil;
+    private final Set<DayOfWeek> daysOfWeek;
+    private final long intervalTicks;
+    private final long intervalMillis;
+    private final String intervalUnit;
+    private final ExecutionMode executionMode;
+    private final int executionInterval;
+    private final OverlapPolicy overlapPolicy;
+    private final MisfirePolicy misfirePolicy;
+    private final Set<String> tags;
+    private final Set<String> calendars;
+    private final boolean persistent;
+    private final boolean enabled;
+
+    private TaskDefinition(Builder builder) {
+        this.id = builder.id;
+        this.commands = List.copyOf(builder.commands);
+        this.callback = builder.callback;
+        this.scheduleType = builder.scheduleType;
+        this.startTime = builder.startTime;
+        this.endTime = builder.endTime;
+        this.fireTimes = List.copyOf(builder.fireTimes);
+        this.stepMinutes = builder.stepMinutes;
+        this.rangeMode = builder.rangeMode;
+        this.validFrom = builder.validFrom;
+        this.validUntil = builder.validUntil;
+        this.daysOfWeek = builder.daysOfWeek.isEmpty()
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(EnumSet.copyOf(builder.daysOfWeek));
+        this.intervalTicks = builder.intervalTicks;
+        this.intervalMillis = builder.intervalMillis;
+        this.intervalUnit = builder.intervalUnit;
+        this.executionMode = builder.executionMode != null
+                ? builder.executionMode
+                : (commands.size() > 1 ? ExecutionMode.ALL : ExecutionMode.SINGLE);
+        this.executionInterval = builder.executionInterval;
+        this.overlapPolicy = builder.overlapPolicy;
+        this.misfirePolicy = builder.misfirePolicy;
+        this.tags = Set.copyOf(builder.tags);
+        this.calendars = Set.copyOf(builder.calendars);
+        this.persistent = builder.persistent;
+        this.enabled = builder.enabled;
+    }
+
+    /**
+     * 创建任务定义构建器
+     *
+     * @param id 任务ID，在所有任务中必须唯一
+     */
+    public static Builder builder(String id) {
+        return new Builder(id);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public List<String> getCommands() {
+        return commands;
+    }
+
+    public Consumer<Task> getCallback() {
+        return callback;
+    }
+
+    public TaskScheduleType getScheduleType() {
+        return scheduleType;
+    }
+
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * 转换为调度引擎使用的任务对象
+     */
+    Task toTask() {
+        Task task = new Task(id, commands, scheduleType, startTime, endTime,
+                new HashSet<>(daysOfWeek), daysOfWeek.isEmpty(), intervalTicks, intervalUnit,
+                executionMode, executionInterval, enabled);
+        task.setFireTimes(fireTimes);
+        task.setStepMinutes(stepMinutes);
+        task.setRangeMode(rangeMode);
+        task.setValidity(validFrom, validUntil);
+        task.setIntervalMillis(intervalMillis);
+        task.setOverlapPolicy(overlapPolicy);
+        task.setMisfirePolicy(misfirePolicy);
+        task.setTags(tags);
+        task.setCalendars(calendars);
+        task.setCallback(callback);
+        task.setPersistent(persistent);
+        return task;
+    }
+
+    /**
+     * 任务定义构建器
+     */
+    public static final class Builder {
+
+        private final String id;
+        private final List<String> commands = new ArrayList<>();
+        private Consumer<Task> callback;
+        private TaskScheduleType scheduleType;
+        private LocalTime startTime;
+        private LocalTime endTime;
+        private final List<LocalTime> fireTimes = new ArrayList<>();
+        private int stepMinutes;
+        private RangeMode rangeMode = RangeMode.EVERY;
+        private LocalDate validFrom;
+        private LocalDate validUntil;
+        private final Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+        private long intervalTicks;
+        private long intervalMillis;
+        private String intervalUnit;
+        private ExecutionMode executionMode;
+        private int executionInterval;
+        private OverlapPolicy overlapPolicy = OverlapPolicy.ALLOW;
+        private MisfirePolicy misfirePolicy = MisfirePolicy.SKIP;
+        private final Set<String> tags = new LinkedHashSet<>();
+        private final Set<String> calendars = new LinkedHashSet<>();
+        private Boolean persistentOverride;
+        private boolean persistent;
+        private boolean enabled = true;
+
+        private Builder(String id) {
+            if (id == null || id.trim().isEmpty()) {
+                throw new IllegalArgumentException("任务ID不能为空");
+            }
+            this.id = id;
+        }
+
+        /**
+         * 添加一条以控制台身份执行的命令
+         */
+        public Builder command(String command) {
+            if (command == null || command.trim().isEmpty()) {
+                throw new IllegalArgumentException("命令不能为空");
+            }
+            commands.add(command);
+            return this;
+        }
+
+        public Builder commands(String... commands) {
+            for (String command : commands) {
+                command(command);
+            }
+            return this;
+        }
+
+        /**
+         * 设置触发时运行的回调，在执行池线程上执行，可能与其他任务的回调并发
+         */
+        public Builder callback(Runnable callback) {
+            Objects.requireNonNull(callback, "callback");
+            this.callback = task -> callback.run();
+            return this;
+        }
+
+        /**
+         * 设置触发时运行的回调，参数为被触发的任务
+         */
+        public Builder callback(Consumer<Task> callback) {
+            this.callback = Objects.requireNonNull(callback, "callback");
+            return this;
+        }
+
+        /**
+         * 在每天的一个或多个固定时间执行
+         */
+        public Builder at(LocalTime time, LocalTime... moreTimes) {
+            this.scheduleType = TaskScheduleType.FIXED_TIME;
+            this.fireTimes.clear();
+            this.fireTimes.add(truncate(time));
+            for (LocalTime more : moreTimes) {
+                this.fireTimes.add(truncate(more));
+            }
+            this.startTime = Collections.min(fireTimes);
+            this.endTime = null;
+            return this;
+        }
+
+        /**
+         * 一次性任务：只在指定日期的指定时间执行一次，之后过期并归档
+         */
+        public Builder once(LocalDateTime dateTime) {
+            Objects.requireNonNull(dateTime, "dateTime");
+            at(dateTime.toLocalTime());
+            this.validFrom = dateTime.toLocalDate();
+            this.validUntil = dateTime.toLocalDate();
+            return this;
+        }
+
+        /**
+         * 从指定日期起生效（包含当天）
+         */
+        public Builder validFrom(LocalDate date) {
+            this.validFrom = Objects.requireNonNull(date, "date");
+            return this;
+        }
+
+        /**
+         * 在指定日期结束后过期（包含当天），过期的任务被移出调度并归档
+         */
+        public Builder validUntil(LocalDate date) {
+            this.validUntil = Objects.requireNonNull(date, "date");
+            return this;
+        }
+
+        /**
+         * 在时间区间内执行，结束早于开始表示跨零点；若同时调用 {@link #every(Duration)} 则在区间内按间隔执行
+         */
+        public Builder between(LocalTime start, LocalTime end) {
+            this.scheduleType = intervalTicks > 0 ? TaskScheduleType.TIME_RANGE_WITH_INTERVAL : TaskScheduleType.TIME_RANGE;
+            this.startTime = truncate(start);
+            this.endTime = truncate(end);
+            return this;
+        }
+
+        /**
+         * 在时间区间内（未指定区间时为全天）从开始时间起按整分钟步长执行，对应命令中的 *\/15m within
+         */
+        public Builder step(Duration step) {
+            long minutes = Objects.requireNonNull(step, "step").toMinutes();
+            if (minutes <= 0 || minutes > 24 * 60) {
+                throw new IllegalArgumentException("步长必须在1分钟到24小时之间");
+            }
+            this.stepMinutes = (int) minutes;
+            if (scheduleType == null) {
+                this.scheduleType = TaskScheduleType.TIME_RANGE;
+                this.startTime = LocalTime.MIN;
+                this.endTime = LocalTime.of(23, 59);
+            }
+            return this;
+        }
+
+        /**
+         * 设置时间区间内的触发方式：每分钟（或按步长）、每个区间开始时一次、每个区间随机一次，默认 {@link RangeMode#EVERY}
+         */
+        public Builder rangeMode(RangeMode rangeMode) {
+            this.rangeMode = Objects.requireNonNull(rangeMode, "rangeMode");
+            return this;
+        }
+
+        /**
+         * 按固定间隔执行。整tick的间隔按tick调度，其余按毫秒精确调度（最小10ms）；
+         * 小于1秒的间隔使用高精度定时器
+         */
+        public Builder every(Duration interval) {
+            long millis = Objects.requireNonNull(interval, "interval").toMillis();
+            if (millis < 10) {
+                throw new IllegalArgumentException("间隔不能小于10ms");
+            }
+            everyTicks(Math.max(1, millis / 50));
+            if (millis % 50 != 0) {
+                this.intervalMillis = millis;
+                this.intervalUnit = "ms";
+            }
+            return this;
+        }
+
+        /**
+         * 按固定tick间隔执行
+         */
+        public Builder everyTicks(long ticks) {
+            if (ticks <= 0) {
+                throw new IllegalArgumentException("间隔必须大于0");
+            }
+            this.intervalTicks = ticks;
+            this.intervalMillis = 0;
+            this.intervalUnit = ticks % 72000 == 0 ? "h" : ticks % 1200 == 0 ? "m" : ticks % 20 == 0 ? "s" : "t";
+            if (scheduleType == TaskScheduleType.TIME_RANGE) {
+                scheduleType = TaskScheduleType.TIME_RANGE_WITH_INTERVAL;
+            } else if (scheduleType == null) {
+                scheduleType = TaskScheduleType.INTERVAL;
+            }
+            return this;
+        }
+
+        /**
+         * 限制执行的星期，不调用则每天执行
+         */
+        public Builder days(DayOfWeek... days) {
+            daysOfWeek.addAll(Arrays.asList(days));
+            return this;
+        }
+
+        public Builder executionMode(ExecutionMode executionMode) {
+            this.executionMode = Objects.requireNonNull(executionMode, "executionMode");
+            return this;
+        }
+
+        /**
+         * 设置逐个执行模式下命令之间的间隔（2-120ticks）
+         */
+        public Builder executionInterval(int ticks) {
+            if (ticks < 2 || ticks > 120) {
+                throw new IllegalArgumentException("执行间隔必须在2-120ticks之间");
+            }
+            this.executionInterval = ticks;
+            return this;
+        }
+
+        /**
+         * 设置上一次执行未完成时再次触发的处理方式，默认 {@link OverlapPolicy#ALLOW}
+         */
+        public Builder overlapPolicy(OverlapPolicy overlapPolicy) {
+            this.overlapPolicy = Objects.requireNonNull(overlapPolicy, "overlapPolicy");
+            return this;
+        }
+
+        /**
+         * 设置错过触发的处理方式（仅固定时间和时间区间任务），默认 {@link MisfirePolicy#SKIP}
+         */
+        public Builder misfirePolicy(MisfirePolicy misfirePolicy) {
+            this.misfirePolicy = Objects.requireNonNull(misfirePolicy, "misfirePolicy");
+            return this;
+        }
+
+        public Builder tags(String... tags) {
+            this.tags.addAll(Arrays.asList(tags));
+            return this;
+        }
+
+        /**
+         * 引用的排除日历中的日期不执行，日历在 config.yml 或 calendars.yml 中按名称定义
+         */
+        public Builder excludeOn(String... calendars) {
+            this.calendars.addAll(Arrays.asList(calendars));
+            return this;
+        }
+
+        /**
+         * 是否写入tasks.yml。默认只有纯命令任务可以持久化；
+         * 注册方插件通常在每次启动时重新注册任务，因此默认不持久化
+         */
+        public Builder persistent(boolean persistent) {
+            this.persistentOverride = persistent;
+            return this;
+        }
+
+        public Builder enabled(boolean enabled) {
+            this.enabled = enabled;
+            return this;
+        }
+
+        /**
+         * 构建任务定义
+         *
+         * @throws IllegalArgumentException 定义不完整或不合法时抛出
+         */
+        public TaskDefinition build() {
+            if (commands.isEmpty() && callback == null) {
+                throw new IllegalArgumentException("至少需要一个命令或回调");
+            }
+            if (scheduleType == null) {
+                throw new IllegalArgumentException("必须指定执行时间(at/between)或间隔(every)");
+            }
+            if (scheduleType == TaskScheduleType.FIXED_TIME && intervalTicks > 0) {
+                throw new IllegalArgumentException("固定时间任务不能同时指定间隔");
+            }
+            if (endTime != null && endTime.equals(startTime)) {
+                throw new IllegalArgumentException("结束时间不能与开始时间相同");
+            }
+            if (stepMinutes > 0 && scheduleType != TaskScheduleType.TIME_RANGE) {
+                throw new IllegalArgumentException("步长只能用于时间区间，且不能与间隔同时使用");
+            }
+            if (rangeMode != RangeMode.EVERY && scheduleType != TaskScheduleType.TIME_RANGE) {
+                throw new IllegalArgumentException("区间触发方式只能用于时间区间，且不能与间隔同时使用");
+            }
+            if (validFrom != null && validUntil != null && validUntil.isBefore(validFrom)) {
+                throw new IllegalArgumentException("有效期的结束日期不能早于开始日期");
+            }
+            if (persistentOverride != null && persistentOverride && callback != null) {
+                throw new IllegalArgumentException("带回调的任务不能持久化");
+            }
+            persistent = persistentOverride != null && persistentOverride;
+            return new TaskDefinition(this);
+        }
+
+        private static LocalTime truncate(LocalTime time) {
+            Objects.requireNonNull(time, "time");
+            // 调度器以分钟为精度检查固定时间
+            return LocalTime.of(time.getHour(), time.getMinute());
+        }
+    }
+}
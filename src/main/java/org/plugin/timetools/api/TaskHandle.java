@@ -0,0 +1,65 @@
+package org.plugin.timetools.api;
+
+import org.plugin.timetools.model.Task;
+
+/**
+ * 已注册任务的句柄
+ *
+ * 由 {@link TaskService} 返回，用于在不持有任务ID字符串的情况下控制任务。
+ */
+public final class TaskHandle {
+
+    private final TaskService service;
+    private final Task task;
+
+    TaskHandle(TaskService service, Task task) {
+        this.service = service;
+        this.task = task;
+    }
+
+    public String getId() {
+        return task.getId();
+    }
+
+    /**
+     * 获取底层任务（只读使用）
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * 任务是否仍然注册在TimeTools中
+     */
+    public boolean isRegistered() {
+        return service.isRegistered(task);
+    }
+
+    public boolean isEnabled() {
+        return task.isEnabled();
+    }
+
+    public void enable() {
+        service.setEnabled(task, true);
+    }
+
+    public void disable() {
+        service.setEnabled(task, false);
+    }
+
+    /**
+     * 立即执行一次（不影响原有调度）
+     */
+    public void runNow() {
+        service.runNow(task);
+    }
+
+    /**
+     * 注销任务
+     *
+     * @return 任务此前是否处于注册状态
+     */
+    public boolean unregister() {
+        return service.unregister(task.getId());
+    }
+}
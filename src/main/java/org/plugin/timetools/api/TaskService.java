@@ -0,0 +1,135 @@
+package org.plugin.timetools.api;
+
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.scheduler.TaskScheduler;
+import org.slf4j.Logger;
+
+import java.util.*;
+
+/**
+ * 任务服务
+ *
+ * 供其他Velocity插件以编程方式注册任务的入口，通过 {@link org.plugin.timetools.TimeTools#getTaskService()} 获取。
+ * 注册的任务与命令创建的任务共用同一个调度引擎。回调在执行池线程上执行（执行池创建失败时在调度线程上执行），
+ * 不同任务的回调可能并发运行，同一任务设置了允许重叠时也可能并发，回调需要自行保证线程安全。
+ *
+ * <pre>{@code
+ * TaskHandle handle = timeTools.getTaskService().register(
+ *         TaskDefinition.builder("myplugin-broadcast")
+ *                 .callback(() -> broadcaster.next())
+ *                 .every(Duration.ofMinutes(5))
+ *                 .build());
+ * }</pre>
+ */
+public class TaskService {
+
+    private final TaskManager taskManager;
+    private final TaskScheduler taskScheduler;
+    private final TaskEventDispatcher eventDispatcher;
+    private final Logger logger;
+
+    public TaskService(TaskManager taskManager, TaskScheduler taskScheduler,
+                       TaskEventDispatcher eventDispatcher, Logger logger) {
+        this.taskManager = taskManager;
+        this.taskScheduler = taskScheduler;
+        this.eventDispatcher = eventDispatcher;
+        this.logger = logger;
+    }
+
+    /**
+     * 注册单个任务
+     *
+     * @throws IllegalArgumentException 任务ID已存在时抛出
+     */
+    public TaskHandle register(TaskDefinition definition) {
+        return registerAll(List.of(definition)).get(0);
+    }
+
+    /**
+     * 批量注册任务，只进行一次持久化写入和一次调度更新
+     *
+     * @throws IllegalArgumentException 任一任务ID已存在或重复时抛出，此时不会注册任何任务
+     */
+    public List<TaskHandle> registerAll(Collection<TaskDefinition> definitions) {
+        List<Task> tasks = new ArrayList<>(definitions.size());
+        for (TaskDefinition definition : definitions) {
+            tasks.add(definition.toTask());
+        }
+
+        // 在任务管理器的修改锁内检查ID，避免与并发注册之间的竞争
+        List<Task> imported = taskManager.registerTasks(tasks);
+        taskScheduler.applyTaskChanges(imported, Collections.emptyList());
+
+        List<TaskHandle> handles = new ArrayList<>(imported.size());
+        for (Task task : imported) {
+            handles.add(new TaskHandle(this, task));
+        }
+
+        logger.debug("通过TaskService注册 {} 个任务", handles.size());
+        return handles;
+    }
+
+    /**
+     * 注销任务
+     *
+     * @return 任务是否存在并被注销
+     */
+    public boolean unregister(String taskId) {
+        return unregisterAll(List.of(taskId)) > 0;
+    }
+
+    /**
+     * 批量注销任务，只进行一次持久化写入和一次调度更新
+     *
+     * @return 实际注销的任务数量
+     */
+    public int unregisterAll(Collection<String> taskIds) {
+        List<Task> targets = new ArrayList<>(taskIds.size());
+        for (String taskId : taskIds) {
+            Task task = taskManager.getTask(taskId);
+            if (task != null) {
+                targets.add(task);
+            }
+        }
+
+        List<Task> removed = taskManager.removeTasks(targets);
+        taskScheduler.applyTaskChanges(Collections.emptyList(), removed.stream().map(Task::getId).toList());
+        return removed.size();
+    }
+
+    /**
+     * 订阅 {@link org.plugin.timetools.event.TaskPreExecuteEvent} 和
+     * {@link org.plugin.timetools.event.TaskPostExecuteEvent}
+     *
+     * 只有存在订阅时TimeTools才会构造并触发事件。在Velocity的EventManager上注册监听器后调用此方法，
+     * 插件卸载时关闭返回的对象。
+     */
+    public AutoCloseable subscribeEvents() {
+        return eventDispatcher.subscribe();
+    }
+
+    /**
+     * 获取已注册任务的句柄
+     */
+    public Optional<TaskHandle> getHandle(String taskId) {
+        Task task = taskManager.getTask(taskId);
+        return task != null ? Optional.of(new TaskHandle(this, task)) : Optional.empty();
+    }
+
+    boolean isRegistered(Task task) {
+        return taskManager.getTask(task.getId()) == task;
+    }
+
+    void setEnabled(Task task, boolean enabled) {
+        List<Task> changed = enabled
+                ? taskManager.enableTasks(List.of(task))
+                : taskManager.disableTasks(List.of(task));
+        taskScheduler.applyTaskChanges(changed, Collections.emptyList());
+    }
+
+    void runNow(Task task) {
+        taskScheduler.runTaskNow(task);
+    }
+}
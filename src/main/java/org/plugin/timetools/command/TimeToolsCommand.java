@@ -1,18 +1,41 @@
 package org.plugin.timetools.command;
 
+import com.velocitypowered.api.command.CommandManager;
 import com.velocitypowered.api.command.CommandSource;
 import com.velocitypowered.api.command.SimpleCommand;
 import com.velocitypowered.api.proxy.ConsoleCommandSource;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
+import org.plugin.timetools.log.ExecutionHistory;
+import org.plugin.timetools.manager.CalendarManager;
+import org.plugin.timetools.manager.TaskGroup;
 import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.metrics.ExecutionLatency;
+import org.plugin.timetools.metrics.LatencyHistogram;
+import org.plugin.timetools.metrics.SkewTracker;
+import org.plugin.timetools.model.HolidayCalendar;
+import org.plugin.timetools.model.MisfirePolicy;
+import org.plugin.timetools.model.OverlapPolicy;
+import org.plugin.timetools.model.RangeMode;
 import org.plugin.timetools.model.Task;
 import org.plugin.timetools.parser.CommandParser;
+import org.plugin.timetools.scheduler.LatenessStats;
+import org.plugin.timetools.scheduler.ExecutionPool;
+import org.plugin.timetools.scheduler.OverlapGuard;
 import org.plugin.timetools.scheduler.TaskScheduler;
 import org.plugin.timetools.util.PluginInfo;
+import org.plugin.timetools.util.PrefixIndex;
 import org.slf4j.Logger;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.stream.Collectors;
 
 /**
@@ -24,13 +47,91 @@ public class TimeToolsCommand implements SimpleCommand {
     private final TaskScheduler taskScheduler;
     private final Logger logger;
     
+    private static final List<String> SUB_COMMANDS = List.of(
+            "create", "list", "delete", "enable", "disable", "bulk", "import", "tag", "overlap", "misfire", "range", "valid", "calendar", "group", "stats", "history", "help", "reload", "info");
+
+    // stats 概览中显示的命令根数量
+    private static final int STATS_ROOT_LIMIT = 10;
+    
+    // history 默认和最多显示的记录数
+    private static final int HISTORY_DEFAULT_LIMIT = 10;
+    private static final int HISTORY_MAX_LIMIT = 100;
+    
+    private static final DateTimeFormatter HISTORY_TIME_FORMAT = DateTimeFormatter.ofPattern("MM-dd HH:mm:ss");
+
+    // 每次补全最多返回的条目数
+    private static final int SUGGESTION_LIMIT = 50;
+
+    // 命令根索引的刷新间隔（其他插件可能在运行时注册新命令）
+    private static final long COMMAND_ROOT_REFRESH_MS = 30_000;
+    
+    private final CommandManager commandManager;
+    private volatile PrefixIndex commandRootIndex;
+    private volatile long commandRootsRefreshedAt;
+    
     // 待删除确认的任务ID
-    private final Map<String, String> pendingDeletions = new HashMap<>();
+    private final Map<String, String> pendingDeletions = new ConcurrentHashMap<>();
+    
+    // 修改类子命令（解析、修改任务、保存YAML、更新调度）在单线程上按顺序执行，不占用代理的命令线程
+    private final ExecutorService commandExecutor;
+    
+    // Tab补全在独立线程上计算，不会排在耗时的保存操作之后
+    private final ExecutorService suggestionExecutor;
     
     public TimeToolsCommand(TaskManager taskManager, TaskScheduler taskScheduler, Logger logger) {
+        this(taskManager, taskScheduler, null, logger);
+    }
+    
+    public TimeToolsCommand(TaskManager taskManager, TaskScheduler taskScheduler,
+                            CommandManager commandManager, Logger logger) {
         this.taskManager = taskManager;
+        this.commandManager = commandManager;
         this.taskScheduler = taskScheduler;
         this.logger = logger;
+        this.commandExecutor = Executors.newSingleThreadExecutor(daemonThreadFactory("TimeTools-Command"));
+        this.suggestionExecutor = Executors.newSingleThreadExecutor(daemonThreadFactory("TimeTools-Suggest"));
+    }
+    
+    private static ThreadFactory daemonThreadFactory(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * 关闭命令执行线程，等待已提交的修改完成
+     */
+    public void shutdown() {
+        suggestionExecutor.shutdownNow();
+        commandExecutor.shutdown();
+        try {
+            if (!commandExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                logger.warn("等待命令执行线程结束超时");
+                commandExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            commandExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * 在命令执行线程上异步运行处理器，处理器完成时将结果消息发送给命令源
+     */
+    private CompletableFuture<Void> runAsync(CommandSource source, String subCommand, Runnable handler) {
+        try {
+            return CompletableFuture.runAsync(handler, commandExecutor)
+                    .exceptionally(throwable -> {
+                        sendMessage(source, "§c执行命令时发生内部错误");
+                        logger.error("执行子命令失败: " + subCommand, throwable);
+                        return null;
+                    });
+        } catch (RejectedExecutionException e) {
+            sendMessage(source, "§c插件正在关闭，无法执行命令");
+            return CompletableFuture.completedFuture(null);
+        }
     }
     
     @Override
@@ -53,25 +154,58 @@ public class TimeToolsCommand implements SimpleCommand {
         
         switch (subCommand) {
             case "create":
-                handleCreate(source, args);
+                runAsync(source, subCommand, () -> handleCreate(source, args));
                 break;
             case "list":
                 handleList(source, args);
                 break;
             case "delete":
-                handleDelete(source, args);
+                runAsync(source, subCommand, () -> handleDelete(source, args));
                 break;
             case "enable":
-                handleEnable(source, args);
+                runAsync(source, subCommand, () -> handleEnable(source, args));
                 break;
             case "disable":
-                handleDisable(source, args);
+                runAsync(source, subCommand, () -> handleDisable(source, args));
+                break;
+            case "bulk":
+                runAsync(source, subCommand, () -> handleBulk(source, args));
+                break;
+            case "import":
+                runAsync(source, subCommand, () -> handleImport(source, args));
+                break;
+            case "tag":
+                runAsync(source, subCommand, () -> handleTag(source, args));
+                break;
+            case "overlap":
+                runAsync(source, subCommand, () -> handleOverlap(source, args));
+                break;
+            case "misfire":
+                runAsync(source, subCommand, () -> handleMisfire(source, args));
+                break;
+            case "range":
+                runAsync(source, subCommand, () -> handleRange(source, args));
+                break;
+            case "valid":
+                runAsync(source, subCommand, () -> handleValid(source, args));
+                break;
+            case "calendar":
+                runAsync(source, subCommand, () -> handleCalendar(source, args));
+                break;
+            case "group":
+                runAsync(source, subCommand, () -> handleGroup(source, args));
+                break;
+            case "stats":
+                handleStats(source, args);
+                break;
+            case "history":
+                handleHistory(source, args);
                 break;
             case "help":
                 handleHelp(source, args);
                 break;
             case "reload":
-                handleReload(source);
+                runAsync(source, subCommand, () -> handleReload(source));
                 break;
             case "info":
                 handleInfo(source, args);
@@ -86,9 +220,9 @@ public class TimeToolsCommand implements SimpleCommand {
      * 处理创建任务命令
      */
     private void handleCreate(CommandSource source, String[] args) {
+        // 重新组合被空格分割的参数
+        String[] reconstructedArgs = reconstructCreateArgs(args);
         try {
-            // 重新组合被空格分割的参数
-            String[] reconstructedArgs = reconstructCreateArgs(args);
 
             Task task = CommandParser.parseCreateCommand(reconstructedArgs);
             String taskId = taskManager.addTask(task);
@@ -104,12 +238,24 @@ public class TimeToolsCommand implements SimpleCommand {
 
         } catch (CommandParser.ParseException e) {
             sendMessage(source, "§c创建任务失败: " + e.getMessage());
+            if (e.getPosition() >= 0) {
+                sendMessage(source, formatErrorPosition(String.join(" ", reconstructedArgs), e.getPosition()));
+            }
         } catch (Exception e) {
             sendMessage(source, "§c创建任务时发生内部错误");
             logger.error("创建任务失败", e);
         }
     }
 
+    /**
+     * 标出解析错误所在位置：出错位置之前为白色，之后为红色
+     */
+    private String formatErrorPosition(String input, int position) {
+        int split = Math.min(position, input.length());
+        String after = split < input.length() ? input.substring(split) : "_";
+        return "§7位置 " + position + ": §f" + input.substring(0, split) + "§c" + after;
+    }
+
     /**
      * 重新组合create命令的参数，处理被空格分割的情况
      */
@@ -234,9 +380,10 @@ public class TimeToolsCommand implements SimpleCommand {
         
         String taskId = args[1];
         
-        if (taskManager.enableTask(taskId)) {
-            // 重新加载调度器以应用更改
-            taskScheduler.reloadTasks();
+        Task task = taskManager.enableTask(taskId);
+        if (task != null) {
+            // 只更新该任务的调度，无需完整重载
+            taskScheduler.applyTaskChanges(List.of(task), Collections.emptyList());
             
             Map<String, String> placeholders = new HashMap<>();
             placeholders.put("id", taskId);
@@ -261,9 +408,10 @@ public class TimeToolsCommand implements SimpleCommand {
         
         String taskId = args[1];
         
-        if (taskManager.disableTask(taskId)) {
-            // 重新加载调度器以应用更改
-            taskScheduler.reloadTasks();
+        Task task = taskManager.disableTask(taskId);
+        if (task != null) {
+            // 只更新该任务的调度，无需完整重载
+            taskScheduler.applyTaskChanges(List.of(task), Collections.emptyList());
             
             Map<String, String> placeholders = new HashMap<>();
             placeholders.put("id", taskId);
@@ -277,6 +425,561 @@ public class TimeToolsCommand implements SimpleCommand {
         }
     }
     
+    /**
+     * 处理批量操作命令
+     */
+    private void handleBulk(CommandSource source, String[] args) {
+        if (args.length < 3) {
+            sendMessage(source, "§c用法: /timetools bulk <enable|disable|delete> <ID通配符|search:关键词|tag:标签>");
+            return;
+        }
+        
+        String action = args[1].toLowerCase();
+        String selector = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+        String sourceName = getSourceName(source);
+        
+        List<Task> selected = taskManager.selectTasks(selector);
+        if (selected.isEmpty()) {
+            sendMessage(source, "§e没有匹配 " + selector + " 的任务");
+            return;
+        }
+        
+        switch (action) {
+            case "enable": {
+                List<Task> changed = taskManager.enableTasks(selected);
+                taskScheduler.applyTaskChanges(changed, Collections.emptyList());
+                sendMessage(source, "§a已启用 " + changed.size() + " 个任务（匹配 " + selected.size() + " 个）");
+                logger.info("用户 {} 批量启用了 {} 个任务: {}", sourceName, changed.size(), selector);
+                break;
+            }
+            case "disable": {
+                List<Task> changed = taskManager.disableTasks(selected);
+                taskScheduler.applyTaskChanges(changed, Collections.emptyList());
+                sendMessage(source, "§c已禁用 " + changed.size() + " 个任务（匹配 " + selected.size() + " 个）");
+                logger.info("用户 {} 批量禁用了 {} 个任务: {}", sourceName, changed.size(), selector);
+                break;
+            }
+            case "delete": {
+                String confirmKey = "bulk:" + selector;
+                if (!confirmKey.equals(pendingDeletions.get(sourceName))) {
+                    pendingDeletions.put(sourceName, confirmKey);
+                    sendMessage(source, "§e确认删除匹配 " + selector + " 的 " + selected.size() + " 个任务？再次执行相同命令以确认删除。");
+                    return;
+                }
+                pendingDeletions.remove(sourceName);
+                
+                List<Task> removed = taskManager.removeTasks(selected);
+                List<String> removedIds = removed.stream().map(Task::getId).toList();
+                taskScheduler.applyTaskChanges(Collections.emptyList(), removedIds);
+                sendMessage(source, "§a已删除 " + removed.size() + " 个任务");
+                logger.info("用户 {} 批量删除了 {} 个任务: {}", sourceName, removed.size(), selector);
+                break;
+            }
+            default:
+                sendMessage(source, "§c未知的批量操作: " + action + "，可用: enable, disable, delete");
+        }
+    }
+    
+    /**
+     * 处理标签命令
+     */
+    private void handleTag(CommandSource source, String[] args) {
+        if (args.length < 4) {
+            sendMessage(source, "§c用法: /timetools tag <add|remove> <标签> <任务ID|选择器>");
+            return;
+        }
+        
+        String action = args[1].toLowerCase();
+        String tag = args[2];
+        String selector = String.join(" ", Arrays.copyOfRange(args, 3, args.length));
+        
+        List<Task> selected = taskManager.selectTasks(selector);
+        if (selected.isEmpty()) {
+            sendMessage(source, "§e没有匹配 " + selector + " 的任务");
+            return;
+        }
+        
+        List<Task> changed;
+        switch (action) {
+            case "add":
+                changed = taskManager.addTags(selected, List.of(tag));
+                sendMessage(source, "§a已为 " + changed.size() + " 个任务添加标签 " + tag);
+                break;
+            case "remove":
+                changed = taskManager.removeTags(selected, List.of(tag));
+                sendMessage(source, "§a已为 " + changed.size() + " 个任务移除标签 " + tag);
+                break;
+            default:
+                sendMessage(source, "§c未知的标签操作: " + action + "，可用: add, remove");
+                return;
+        }
+        
+        logger.info("用户 {} {}标签 {}: {} 个任务", getSourceName(source), action, tag, changed.size());
+    }
+    
+    /**
+     * 处理重叠策略命令
+     */
+    private void handleOverlap(CommandSource source, String[] args) {
+        if (args.length < 3) {
+            sendMessage(source, "§c用法: /timetools overlap <skip|queue|allow> <任务ID|选择器>");
+            return;
+        }
+        
+        OverlapPolicy policy;
+        switch (args[1].toLowerCase()) {
+            case "skip":
+                policy = OverlapPolicy.SKIP_IF_RUNNING;
+                break;
+            case "queue":
+                policy = OverlapPolicy.QUEUE_ONE;
+                break;
+            case "allow":
+                policy = OverlapPolicy.ALLOW;
+                break;
+            default:
+                sendMessage(source, "§c未知的重叠策略: " + args[1] + "，可用: skip, queue, allow");
+                return;
+        }
+        
+        String selector = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+        List<Task> selected = taskManager.selectTasks(selector);
+        if (selected.isEmpty()) {
+            sendMessage(source, "§e没有匹配 " + selector + " 的任务");
+            return;
+        }
+        
+        List<Task> changed = taskManager.setOverlapPolicy(selected, policy);
+        sendMessage(source, "§a已将 " + changed.size() + " 个任务的重叠策略设为 " + policy);
+        logger.info("用户 {} 设置重叠策略 {}: {} 个任务", getSourceName(source), policy, changed.size());
+    }
+    
+    /**
+     * 处理错过触发策略命令
+     */
+    private void handleMisfire(CommandSource source, String[] args) {
+        if (args.length < 3) {
+            sendMessage(source, "§c用法: /timetools misfire <skip|once|all> <任务ID|选择器>");
+            return;
+        }
+        
+        MisfirePolicy policy;
+        switch (args[1].toLowerCase()) {
+            case "skip":
+                policy = MisfirePolicy.SKIP;
+                break;
+            case "once":
+                policy = MisfirePolicy.FIRE_ONCE;
+                break;
+            case "all":
+                policy = MisfirePolicy.FIRE_ALL;
+                break;
+            default:
+                sendMessage(source, "§c未知的错过触发策略: " + args[1] + "，可用: skip, once, all");
+                return;
+        }
+        
+        String selector = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+        List<Task> selected = taskManager.selectTasks(selector);
+        if (selected.isEmpty()) {
+            sendMessage(source, "§e没有匹配 " + selector + " 的任务");
+            return;
+        }
+        
+        List<Task> changed = taskManager.setMisfirePolicy(selected, policy);
+        sendMessage(source, "§a已将 " + changed.size() + " 个任务的错过触发策略设为 " + policy);
+        logger.info("用户 {} 设置错过触发策略 {}: {} 个任务", getSourceName(source), policy, changed.size());
+    }
+    
+    /**
+     * 处理区间触发方式命令
+     */
+    private void handleRange(CommandSource source, String[] args) {
+        if (args.length < 3) {
+            sendMessage(source, "§c用法: /timetools range <every|start|random> <任务ID|选择器>");
+            return;
+        }
+        
+        RangeMode mode;
+        switch (args[1].toLowerCase()) {
+            case "every":
+                mode = RangeMode.EVERY;
+                break;
+            case "start":
+                mode = RangeMode.ONCE_AT_START;
+                break;
+            case "random":
+                mode = RangeMode.ONCE_RANDOM;
+                break;
+            default:
+                sendMessage(source, "§c未知的区间触发方式: " + args[1] + "，可用: every, start, random");
+                return;
+        }
+        
+        String selector = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+        List<Task> selected = taskManager.selectTasks(selector);
+        if (selected.isEmpty()) {
+            sendMessage(source, "§e没有匹配 " + selector + " 的任务");
+            return;
+        }
+        
+        List<Task> changed = taskManager.setRangeMode(selected, mode);
+        if (!changed.isEmpty()) {
+            taskScheduler.applyTaskChanges(changed, Collections.emptyList());
+        }
+        sendMessage(source, "§a已将 " + changed.size() + " 个时间区间任务的触发方式设为 " + mode);
+        logger.info("用户 {} 设置区间触发方式 {}: {} 个任务", getSourceName(source), mode, changed.size());
+    }
+    
+    /**
+     * 处理有效期命令：单个日期（一次性）、开始..结束（任一端可省略）或 clear
+     */
+    private void handleValid(CommandSource source, String[] args) {
+        if (args.length < 3) {
+            sendMessage(source, "§c用法: /timetools valid <YYYY-MM-DD|开始..结束|clear> <任务ID|选择器>");
+            return;
+        }
+        
+        LocalDate from = null;
+        LocalDate until = null;
+        String range = args[1];
+        try {
+            if (!range.equalsIgnoreCase("clear")) {
+                int separator = range.indexOf("..");
+                if (separator < 0) {
+                    from = LocalDate.parse(range);
+                    until = from;
+                } else {
+                    String start = range.substring(0, separator);
+                    String end = range.substring(separator + 2);
+                    from = start.isEmpty() ? null : LocalDate.parse(start);
+                    until = end.isEmpty() ? null : LocalDate.parse(end);
+                }
+            }
+        } catch (DateTimeParseException e) {
+            sendMessage(source, "§c日期格式错误: " + range + "，应为 YYYY-MM-DD");
+            return;
+        }
+        if (from != null && until != null && until.isBefore(from)) {
+            sendMessage(source, "§c有效期的结束日期不能早于开始日期");
+            return;
+        }
+        
+        String selector = String.join(" ", Arrays.copyOfRange(args, 2, args.length));
+        List<Task> selected = taskManager.selectTasks(selector);
+        if (selected.isEmpty()) {
+            sendMessage(source, "§e没有匹配 " + selector + " 的任务");
+            return;
+        }
+        
+        List<Task> changed = taskManager.setValidity(selected, from, until);
+        if (!changed.isEmpty()) {
+            taskScheduler.applyTaskChanges(changed, Collections.emptyList());
+        }
+        sendMessage(source, "§a已将 " + changed.size() + " 个任务的有效期设为 " + describeValidity(from, until));
+        logger.info("用户 {} 设置有效期 {}: {} 个任务", getSourceName(source), describeValidity(from, until),
+                changed.size());
+    }
+    
+    private static String describeValidity(LocalDate from, LocalDate until) {
+        if (from == null && until == null) {
+            return "长期有效";
+        }
+        if (from != null && from.equals(until)) {
+            return from + " 当天";
+        }
+        return (from != null ? from : "") + ".." + (until != null ? until : "");
+    }
+    
+    /**
+     * 处理排除日历命令
+     *
+     * 日历在触发时按名称查找，添加/移除引用和重载日历都不需要重新调度任务
+     */
+    private void handleCalendar(CommandSource source, String[] args) {
+        if (args.length < 2) {
+            sendMessage(source, "§c用法: /timetools calendar <list|reload|add|remove> [日历] [选择器]");
+            return;
+        }
+        
+        CalendarManager calendarManager = taskManager.getCalendarManager();
+        String action = args[1].toLowerCase();
+        switch (action) {
+            case "list":
+                showCalendars(source);
+                return;
+            case "reload":
+                int count = calendarManager.reload();
+                calendarManager.warnUnknown(taskManager.getAllTasks());
+                sendMessage(source, "§a已重载 " + count + " 个排除日历");
+                logger.info("用户 {} 重载了排除日历", getSourceName(source));
+                return;
+            case "add":
+            case "remove":
+                break;
+            default:
+                sendMessage(source, "§c未知的日历操作: " + action + "，可用: list, reload, add, remove");
+                return;
+        }
+        
+        if (args.length < 4) {
+            sendMessage(source, "§c用法: /timetools calendar <add|remove> <日历> <任务ID|选择器>");
+            return;
+        }
+        
+        String calendar = args[2].toLowerCase();
+        String selector = String.join(" ", Arrays.copyOfRange(args, 3, args.length));
+        List<Task> selected = taskManager.selectTasks(selector);
+        if (selected.isEmpty()) {
+            sendMessage(source, "§e没有匹配 " + selector + " 的任务");
+            return;
+        }
+        
+        boolean add = action.equals("add");
+        List<Task> changed = add
+                ? taskManager.addCalendar(selected, calendar)
+                : taskManager.removeCalendar(selected, calendar);
+        sendMessage(source, "§a已为 " + changed.size() + " 个任务" + (add ? "添加" : "移除") + "排除日历 " + calendar);
+        if (add && calendarManager.getCalendar(calendar) == null) {
+            sendMessage(source, "§e日历 " + calendar + " 尚未定义，定义并重载前不会排除任何日期");
+        }
+        logger.info("用户 {} {}排除日历 {}: {} 个任务", getSourceName(source), add ? "添加" : "移除",
+                calendar, changed.size());
+    }
+    
+    /**
+     * 显示排除日历
+     */
+    private void showCalendars(CommandSource source) {
+        Collection<HolidayCalendar> calendars = taskManager.getCalendarManager().getCalendars();
+        if (calendars.isEmpty()) {
+            sendMessage(source, "§7暂无排除日历");
+            return;
+        }
+        
+        LocalDate today = LocalDate.now(taskScheduler.getClock());
+        for (HolidayCalendar calendar : calendars) {
+            int referenced = 0;
+            for (Task task : taskManager.getAllTasks()) {
+                if (task.getCalendars().contains(calendar.getName())) {
+                    referenced++;
+                }
+            }
+            sendMessage(source, String.format("§e%s §7- 日期: §f%d §7- 引用任务: §f%d §7- 今天: %s",
+                    calendar.getName(), calendar.getDateCount(), referenced,
+                    calendar.contains(today) ? "§c排除" : "§a执行"));
+        }
+    }
+    
+    /**
+     * 处理任务组命令
+     */
+    private void handleGroup(CommandSource source, String[] args) {
+        if (args.length < 2) {
+            sendMessage(source, "§c用法: /timetools group <list|pause|resume> [标签]");
+            return;
+        }
+        
+        String action = args[1].toLowerCase();
+        if (action.equals("list")) {
+            showGroupStats(source);
+            return;
+        }
+        
+        if (args.length < 3) {
+            sendMessage(source, "§c用法: /timetools group <pause|resume> <标签>");
+            return;
+        }
+        
+        String tag = args[2];
+        switch (action) {
+            case "pause":
+                taskManager.pauseGroup(tag);
+                sendMessage(source, "§c任务组已暂停: " + tag);
+                break;
+            case "resume":
+                taskManager.resumeGroup(tag);
+                sendMessage(source, "§a任务组已恢复: " + tag);
+                break;
+            default:
+                sendMessage(source, "§c未知的任务组操作: " + action + "，可用: list, pause, resume");
+                return;
+        }
+        
+        logger.info("用户 {} {}了任务组: {}", getSourceName(source), action.equals("pause") ? "暂停" : "恢复", tag);
+    }
+    
+    /**
+     * 显示任务组统计
+     */
+    private void showGroupStats(CommandSource source) {
+        Collection<TaskGroup> groups = taskManager.getGroups();
+        if (groups.isEmpty()) {
+            sendMessage(source, "§7暂无任务组");
+            return;
+        }
+        
+        for (TaskGroup group : groups) {
+            int enabled = 0;
+            for (Task task : taskManager.getTasksByTag(group.getName())) {
+                if (task.isEnabled()) {
+                    enabled++;
+                }
+            }
+            sendMessage(source, String.format("§e%s §7- %s §7- 任务: §f%d §7(启用 %d) §7- 执行次数: §f%d",
+                    group.getName(), group.isPaused() ? "§c已暂停" : "§a活动",
+                    group.size(), enabled, group.getFireCount()));
+        }
+    }
+    
+    /**
+     * 处理批量导入命令
+     */
+    private void handleImport(CommandSource source, String[] args) {
+        if (args.length < 2) {
+            sendMessage(source, "§c用法: /timetools import <文件名>");
+            return;
+        }
+        
+        Path dataDirectory = taskManager.getConfigManager().getDataDirectory().toAbsolutePath().normalize();
+        Path file = dataDirectory.resolve(args[1]).normalize();
+        
+        // 只允许导入数据目录中的文件
+        if (!file.startsWith(dataDirectory)) {
+            sendMessage(source, "§c只能导入插件数据目录中的文件");
+            return;
+        }
+        if (!Files.exists(file)) {
+            sendMessage(source, "§c文件不存在: " + args[1]);
+            return;
+        }
+        
+        List<Task> loaded = taskManager.getConfigManager().loadTasks(file);
+        List<Task> imported = taskManager.importTasks(loaded);
+        taskScheduler.applyTaskChanges(imported, Collections.emptyList());
+        
+        sendMessage(source, "§a已导入 " + imported.size() + " 个任务，跳过 " + (loaded.size() - imported.size()) + " 个已存在的任务");
+        logger.info("用户 {} 从 {} 导入了 {} 个任务", getSourceName(source), args[1], imported.size());
+    }
+    
+    /**
+     * 处理统计命令
+     */
+    private void handleStats(CommandSource source, String[] args) {
+        if (args.length >= 2) {
+            showTaskStats(source, args[1]);
+            return;
+        }
+        
+        Map<String, ExecutionLatency> roots = taskScheduler.getExecutionMetrics().getCommandRootLatencies();
+        sendMessage(source, "§6=== 命令执行延迟 ===");
+        if (roots.isEmpty()) {
+            sendMessage(source, "§7暂无执行记录");
+            return;
+        }
+        
+        // 按完成次数排序，只显示执行最多的命令根
+        List<Map.Entry<String, LatencyHistogram.Snapshot>> snapshots = new ArrayList<>();
+        for (Map.Entry<String, ExecutionLatency> entry : roots.entrySet()) {
+            snapshots.add(Map.entry(entry.getKey(), entry.getValue().getCompletion().snapshot()));
+        }
+        snapshots.sort((a, b) -> Long.compare(b.getValue().getCount(), a.getValue().getCount()));
+        
+        for (int i = 0; i < Math.min(STATS_ROOT_LIMIT, snapshots.size()); i++) {
+            Map.Entry<String, LatencyHistogram.Snapshot> entry = snapshots.get(i);
+            sendMessage(source, String.format("§e/%s §7- 次数: §f%d §7- 失败: §f%d §7- %s",
+                    entry.getKey(), entry.getValue().getCount(),
+                    roots.get(entry.getKey()).getFailureCount(), formatPercentiles(entry.getValue())));
+        }
+        if (snapshots.size() > STATS_ROOT_LIMIT) {
+            sendMessage(source, "§7... 另有 " + (snapshots.size() - STATS_ROOT_LIMIT) + " 个命令");
+        }
+        sendMessage(source, "§7使用 /timetools stats <ID> 查看任务的延迟");
+    }
+    
+    /**
+     * 显示单个任务的延迟统计
+     */
+    private void showTaskStats(CommandSource source, String taskId) {
+        if (!taskManager.taskExists(taskId)) {
+            Map<String, String> placeholders = new HashMap<>();
+            placeholders.put("id", taskId);
+            sendMessage(source, taskManager.getConfigManager().getMessage("task-not-found", placeholders));
+            return;
+        }
+        
+        ExecutionLatency latency = taskScheduler.getExecutionMetrics().getTaskLatency(taskId);
+        sendMessage(source, "§6=== 任务延迟: " + taskId + " ===");
+        if (latency == null) {
+            sendMessage(source, "§7该任务还没有执行记录");
+            return;
+        }
+        
+        LatencyHistogram.Snapshot dispatch = latency.getDispatchLag().snapshot();
+        LatencyHistogram.Snapshot completion = latency.getCompletion().snapshot();
+        sendMessage(source, "§e分派延迟: §f" + formatPercentiles(dispatch));
+        sendMessage(source, "§e命令完成: §f" + formatPercentiles(completion));
+        sendMessage(source, String.format("§e命令数: §f%d §7(失败 %d)", completion.getCount(), latency.getFailureCount()));
+    }
+    
+    /**
+     * 处理执行历史命令，已删除的任务也可以查询
+     */
+    private void handleHistory(CommandSource source, String[] args) {
+        if (args.length < 2) {
+            sendMessage(source, taskManager.getConfigManager().getMessage("insufficient-args"));
+            return;
+        }
+        ExecutionHistory history = taskScheduler.getExecutionHistory();
+        if (history == null) {
+            sendMessage(source, "§c执行历史未启用");
+            return;
+        }
+        
+        int limit = HISTORY_DEFAULT_LIMIT;
+        if (args.length >= 3) {
+            try {
+                limit = Math.min(Math.max(Integer.parseInt(args[2]), 1), HISTORY_MAX_LIMIT);
+            } catch (NumberFormatException e) {
+                sendMessage(source, "§c无效的记录数: " + args[2]);
+                return;
+            }
+        }
+        
+        String taskId = args[1];
+        List<ExecutionHistory.Record> records = history.query(taskId, limit);
+        sendMessage(source, "§6=== 执行历史: " + taskId + " ===");
+        if (records.isEmpty()) {
+            sendMessage(source, "§7没有执行记录");
+            return;
+        }
+        
+        ZoneId zone = taskScheduler.getClock().getZone();
+        for (ExecutionHistory.Record record : records) {
+            String time = HISTORY_TIME_FORMAT.format(Instant.ofEpochMilli(record.getActualMillis()).atZone(zone));
+            long lateMillis = record.getActualMillis() - record.getScheduledMillis();
+            String result;
+            if (record.isCancelled()) {
+                result = "§e已取消";
+            } else if (record.isSuccess()) {
+                result = "§a成功 " + record.getCommandCount() + "/" + record.getCommandCount();
+            } else if (record.isTimedOut()) {
+                result = "§c超时 " + record.getFailureCount() + "/" + record.getCommandCount();
+            } else {
+                result = "§c失败 " + record.getFailureCount() + "/" + record.getCommandCount();
+            }
+            sendMessage(source, String.format("§e%s §7延迟 %.1fs - 耗时 %dms - %s",
+                    time, lateMillis / 1000.0, record.getDurationMillis(), result));
+        }
+        sendMessage(source, String.format("§7共保存 %d/%d 条记录", history.getRecordCount(), history.getCapacity()));
+    }
+    
+    private static String formatPercentiles(LatencyHistogram.Snapshot snapshot) {
+        return String.format("p50 %.2fms, p95 %.2fms, p99 %.2fms, 最大 %.2fms",
+                snapshot.getPercentileMillis(50), snapshot.getPercentileMillis(95),
+                snapshot.getPercentileMillis(99), snapshot.getMaxMillis());
+    }
+    
     /**
      * 处理帮助命令
      */
@@ -298,6 +1001,7 @@ public class TimeToolsCommand implements SimpleCommand {
     private void handleReload(CommandSource source) {
         try {
             taskScheduler.reloadTasks();
+            taskManager.getCalendarManager().reload();
             sendMessage(source, "§a配置重载完成！");
             logger.info("用户 {} 重载了配置", getSourceName(source));
         } catch (Exception e) {
@@ -324,6 +1028,24 @@ public class TimeToolsCommand implements SimpleCommand {
         sendMessage(source, "§e启用任务数: §f" + taskManager.getEnabledTaskCount());
         sendMessage(source, "§e调度器状态: §f" + (taskScheduler.isRunning() ? "§a运行中" : "§c已停止"));
         sendMessage(source, "§e活跃间隔任务: §f" + taskScheduler.getActiveIntervalTaskCount());
+        sendMessage(source, "§e高精度间隔任务: §f" + taskScheduler.getPrecisionTaskCount());
+        SkewTracker skew = taskScheduler.getSkewTracker();
+        sendMessage(source, String.format("§e触发偏差: §fp50 %dms §7/ §fp99 %dms §7/ §f最大 %dms §7(最近 %d 次) - 跳过检查: §f%d 分钟",
+                skew.getPercentileMillis(50), skew.getPercentileMillis(99), skew.getPercentileMillis(100),
+                Math.min(skew.getRecordedCount(), skew.getCapacity()), skew.getSkippedMinutes()));
+        sendMessage(source, "§e补执行: §f" + taskScheduler.getCatchUpFireCount() + " 次 §7(等待 "
+                + taskScheduler.getPendingCatchUpCount() + " 次)");
+        sendMessage(source, "§e过期归档: §f" + taskScheduler.getExpiredTaskCount() + " 个任务");
+        sendMessage(source, "§e排除日历: §f" + taskManager.getCalendarManager().getCalendarCount() + " 个");
+        ExecutionPool pool = taskScheduler.getExecutionPool();
+        if (pool != null) {
+            sendMessage(source, String.format("§e执行池: §f%d/%d 执行中 §7/ §f%d/%d 等待 §7(%s) - 已丢弃: §f%d §7- 调度线程执行: §f%d",
+                    pool.getActiveCount(), pool.getMaxThreads(), pool.getQueuedCount(), pool.getQueueCapacity(),
+                    pool.isVirtual() ? "虚拟线程" : "平台线程", pool.getRejectedCount(), pool.getCallerRunsCount()));
+        }
+        sendMessage(source, "");
+        sendMessage(source, "§6=== 任务组 ===");
+        showGroupStats(source);
         sendMessage(source, "");
         sendMessage(source, "§7项目地址: " + info.getUrl());
         sendMessage(source, "§7许可证: " + info.getLicenseUrl());
@@ -365,18 +1087,42 @@ public class TimeToolsCommand implements SimpleCommand {
         sendMessage(source, "§e状态: " + (task.isEnabled() ? "§a启用" : "§c禁用"));
         sendMessage(source, "§e命令: §f" + String.join(", ", task.getCommands()));
         sendMessage(source, "§e调度类型: §f" + task.getScheduleType());
-        sendMessage(source, "§e开始时间: §f" + task.getStartTime());
-        if (task.getEndTime() != null) {
-            sendMessage(source, "§e结束时间: §f" + task.getEndTime());
-        }
+        sendMessage(source, "§e时间: §f" + task.describeTime() + (task.isWrapping() ? " §7(跨零点)" : ""));
         sendMessage(source, "§e执行日期: §f" + (task.isEveryDay() ? "每天" : task.getDaysOfWeek().toString()));
         sendMessage(source, "§e执行模式: §f" + task.getExecutionMode());
         if (task.getIntervalTicks() > 0) {
-            sendMessage(source, "§e间隔: §f" + task.getIntervalTicks() + " ticks (" + task.getIntervalUnit() + ")");
+            sendMessage(source, "§e间隔: §f" + task.getIntervalTicks() + " ticks (" + task.getIntervalUnit() + ")"
+                    + ("ms".equals(task.getIntervalUnit()) ? " §7= " + task.getIntervalMillis() + "ms" : ""));
+        }
+        LatenessStats lateness = taskScheduler.getLatenessStats(task.getId());
+        if (lateness != null) {
+            sendMessage(source, String.format("§e触发延迟: §f平均 %.2fms, 最大 %.2fms, 共 %d 次, 跳过 %d 次",
+                    lateness.getMeanLatenessMillis(), lateness.getMaxLatenessMillis(),
+                    lateness.getFireCount(), lateness.getMissedCount()));
         }
         if (task.getExecutionInterval() > 0) {
             sendMessage(source, "§e执行间隔: §f" + task.getExecutionInterval() + " ticks");
         }
+        OverlapGuard overlap = taskScheduler.getOverlapGuard(task.getId());
+        if (task.getOverlapPolicy() != OverlapPolicy.ALLOW || overlap != null) {
+            sendMessage(source, String.format("§e重叠策略: §f%s §7- 跳过 %d 次, 等待 %d 次%s",
+                    task.getOverlapPolicy(),
+                    overlap != null ? overlap.getSkippedCount() : 0,
+                    overlap != null ? overlap.getQueuedCount() : 0,
+                    overlap != null && overlap.isRunning() ? " §e(执行中)" : ""));
+        }
+        if (task.getMisfirePolicy() != MisfirePolicy.SKIP) {
+            sendMessage(source, "§e错过触发: §f" + task.getMisfirePolicy());
+        }
+        if (task.getValidFrom() != null || task.getValidUntil() != null) {
+            sendMessage(source, "§e有效期: §f" + describeValidity(task.getValidFrom(), task.getValidUntil()));
+        }
+        if (!task.getCalendars().isEmpty()) {
+            sendMessage(source, "§e排除日历: §f" + String.join(", ", task.getCalendars()));
+        }
+        if (!task.getTags().isEmpty()) {
+            sendMessage(source, "§e标签: §f" + String.join(", ", task.getTags()));
+        }
     }
     
     /**
@@ -389,6 +1135,17 @@ public class TimeToolsCommand implements SimpleCommand {
         sendMessage(source, "§e/timetools delete <ID> §7- 删除任务");
         sendMessage(source, "§e/timetools enable <ID> §7- 启用任务");
         sendMessage(source, "§e/timetools disable <ID> §7- 禁用任务");
+        sendMessage(source, "§e/timetools bulk <enable|disable|delete> <选择器> §7- 批量操作任务");
+        sendMessage(source, "§e/timetools import <文件名> §7- 从数据目录批量导入任务");
+        sendMessage(source, "§e/timetools tag <add|remove> <标签> <选择器> §7- 管理任务标签");
+        sendMessage(source, "§e/timetools overlap <skip|queue|allow> <选择器> §7- 设置上次执行未完成时的处理方式");
+        sendMessage(source, "§e/timetools misfire <skip|once|all> <选择器> §7- 设置错过的触发是否补执行");
+        sendMessage(source, "§e/timetools range <every|start|random> <选择器> §7- 设置时间区间内每分钟、开始时或随机触发一次");
+        sendMessage(source, "§e/timetools valid <日期|开始..结束|clear> <选择器> §7- 设置有效期，过期后自动归档");
+        sendMessage(source, "§e/timetools calendar <list|reload|add|remove> [日历] [选择器] §7- 管理排除日历");
+        sendMessage(source, "§e/timetools group <list|pause|resume> [标签] §7- 管理任务组");
+        sendMessage(source, "§e/timetools stats [ID] §7- 查看命令或任务的执行延迟");
+        sendMessage(source, "§e/timetools history <ID> [条数] §7- 查看任务最近的执行记录");
         sendMessage(source, "§e/timetools reload §7- 重载配置");
         sendMessage(source, "§e/timetools info §7- 显示插件信息");
         sendMessage(source, "§e/timetools help §7- 显示此帮助");
@@ -397,6 +1154,8 @@ public class TimeToolsCommand implements SimpleCommand {
         sendMessage(source, "§7/timetools create {/say hello} 14:00 Eve");
         sendMessage(source, "§7/timetools create {/say test} E Eve,1m");
         sendMessage(source, "§7/timetools create {/cmd1},{/cmd2},Obo,5 09:00 Mon,Tue");
+        sendMessage(source, "§7/timetools create {/say hi} 06:00,12:00,18:00 Eve");
+        sendMessage(source, "§7/timetools create {/say hi} */15m within 09:00-17:00 Eve");
     }
     
     /**
@@ -430,12 +1189,33 @@ public class TimeToolsCommand implements SimpleCommand {
     }
 
     @Override
-    public List<String> suggest(Invocation invocation) {
+    public CompletableFuture<List<String>> suggestAsync(Invocation invocation) {
         String[] args = invocation.arguments();
+        try {
+            return CompletableFuture.supplyAsync(() -> computeSuggestions(args), suggestionExecutor)
+                    .exceptionally(throwable -> {
+                        logger.debug("计算补全建议失败", throwable);
+                        return Collections.emptyList();
+                    });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+    }
 
+    /**
+     * 计算补全建议
+     */
+    private List<String> computeSuggestions(String[] args) {
         if (args.length == 0) {
             // 没有参数时，返回所有子命令
-            return Arrays.asList("create", "list", "delete", "enable", "disable", "help", "reload", "info");
+            return SUB_COMMANDS;
+        }
+
+        if (args.length == 1) {
+            String typed = args[0].toLowerCase();
+            return SUB_COMMANDS.stream()
+                    .filter(sub -> sub.startsWith(typed))
+                    .collect(Collectors.toList());
         }
 
         String subCommand = args[0].toLowerCase();
@@ -447,7 +1227,77 @@ public class TimeToolsCommand implements SimpleCommand {
             case "delete":
             case "enable":
             case "disable":
+            case "stats":
+            case "history":
                 return suggestTaskId(args);
+            case "bulk":
+                if (args.length == 2) {
+                    return Arrays.asList("enable", "disable", "delete");
+                }
+                if (args.length == 3) {
+                    return Arrays.asList("*", TaskManager.SEARCH_SELECTOR_PREFIX, TaskManager.TAG_SELECTOR_PREFIX);
+                }
+                break;
+            case "tag":
+                if (args.length == 2) {
+                    return Arrays.asList("add", "remove");
+                }
+                break;
+            case "overlap":
+                if (args.length == 2) {
+                    return Arrays.asList("skip", "queue", "allow");
+                }
+                if (args.length == 3) {
+                    return taskManager.suggestTaskIds(args[2], SUGGESTION_LIMIT);
+                }
+                break;
+            case "misfire":
+                if (args.length == 2) {
+                    return Arrays.asList("skip", "once", "all");
+                }
+                if (args.length == 3) {
+                    return taskManager.suggestTaskIds(args[2], SUGGESTION_LIMIT);
+                }
+                break;
+            case "range":
+                if (args.length == 2) {
+                    return Arrays.asList("every", "start", "random");
+                }
+                if (args.length == 3) {
+                    return taskManager.suggestTaskIds(args[2], SUGGESTION_LIMIT);
+                }
+                break;
+            case "valid":
+                if (args.length == 2) {
+                    return Arrays.asList("clear", LocalDate.now(taskScheduler.getClock()).toString());
+                }
+                if (args.length == 3) {
+                    return taskManager.suggestTaskIds(args[2], SUGGESTION_LIMIT);
+                }
+                break;
+            case "calendar":
+                if (args.length == 2) {
+                    return Arrays.asList("list", "reload", "add", "remove");
+                }
+                if (args.length == 3 && (args[1].equalsIgnoreCase("add") || args[1].equalsIgnoreCase("remove"))) {
+                    return taskManager.getCalendarManager().getCalendars().stream()
+                            .map(HolidayCalendar::getName)
+                            .collect(Collectors.toList());
+                }
+                if (args.length == 4) {
+                    return taskManager.suggestTaskIds(args[3], SUGGESTION_LIMIT);
+                }
+                break;
+            case "group":
+                if (args.length == 2) {
+                    return Arrays.asList("list", "pause", "resume");
+                }
+                if (args.length == 3) {
+                    return taskManager.getGroups().stream()
+                            .map(TaskGroup::getName)
+                            .collect(Collectors.toList());
+                }
+                break;
             case "help":
                 if (args.length == 2) {
                     return Arrays.asList("1", "2", "3");
@@ -463,6 +1313,10 @@ public class TimeToolsCommand implements SimpleCommand {
      */
     private List<String> suggestCreate(String[] args) {
         if (args.length == 2) {
+            List<String> commandRoots = suggestCommandRoots(args[1]);
+            if (commandRoots != null) {
+                return commandRoots;
+            }
             // 命令部分补全
             return Arrays.asList(
                 "{/say hello}",
@@ -488,7 +1342,9 @@ public class TimeToolsCommand implements SimpleCommand {
                 "Sat,Sun",
                 "Eve,1m",
                 "Eve,30s",
-                "Mon,5m"
+                "Mon,5m",
+                "Eve,5t",
+                "Eve,250ms"
             );
         }
         return Collections.emptyList();
@@ -499,12 +1355,51 @@ public class TimeToolsCommand implements SimpleCommand {
      */
     private List<String> suggestTaskId(String[] args) {
         if (args.length == 2) {
-            // 返回所有任务ID
-            Collection<Task> tasks = taskManager.getAllTasks();
-            return tasks.stream()
-                    .map(Task::getId)
-                    .collect(Collectors.toList());
+            // 只返回匹配已输入前缀的前K个任务ID
+            return taskManager.suggestTaskIds(args[1], SUGGESTION_LIMIT);
         }
         return Collections.emptyList();
     }
+
+    /**
+     * 根据已注册的命令补全create命令中正在输入的命令根
+     *
+     * 例如 "{/sa" -> "{/save-all", "{/say"；"{/say hi,/we" -> "{/say hi,/weather"
+     *
+     * @return 尚未输入命令根时返回null，由调用方提供示例
+     */
+    private List<String> suggestCommandRoots(String typed) {
+        if (commandManager == null || !typed.startsWith("{")) {
+            return null;
+        }
+
+        int segmentStart = Math.max(typed.lastIndexOf(','), 0) + 1;
+        String segment = typed.substring(segmentStart);
+        boolean slash = segment.startsWith("/");
+        String rootPrefix = slash ? segment.substring(1) : segment;
+        if (rootPrefix.isEmpty() || rootPrefix.indexOf(' ') >= 0) {
+            return null;
+        }
+
+        String head = typed.substring(0, segmentStart) + (slash ? "/" : "");
+        List<String> suggestions = new ArrayList<>();
+        for (String root : getCommandRootIndex().complete(rootPrefix.toLowerCase(), SUGGESTION_LIMIT)) {
+            suggestions.add(head + root);
+        }
+        return suggestions;
+    }
+
+    /**
+     * 获取已注册命令根的前缀索引，定期从CommandManager刷新
+     */
+    private PrefixIndex getCommandRootIndex() {
+        long now = System.currentTimeMillis();
+        PrefixIndex index = commandRootIndex;
+        if (index == null || now - commandRootsRefreshedAt > COMMAND_ROOT_REFRESH_MS) {
+            index = new PrefixIndex(commandManager.getAliases());
+            commandRootIndex = index;
+            commandRootsRefreshedAt = now;
+        }
+        return index;
+    }
 }
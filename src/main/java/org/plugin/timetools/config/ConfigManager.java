@@ -1,6 +1,11 @@
 package org.plugin.timetools.config;
 
+import org.plugin.timetools.jfr.TasksLoadedEvent;
+import org.plugin.timetools.jfr.TasksSavedEvent;
 import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.MisfirePolicy;
+import org.plugin.timetools.model.OverlapPolicy;
+import org.plugin.timetools.model.RangeMode;
 import org.plugin.timetools.model.Task;
 import org.plugin.timetools.model.TaskScheduleType;
 import org.slf4j.Logger;
@@ -9,9 +14,15 @@ import org.yaml.snakeyaml.Yaml;
 
 import java.io.*;
 import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
 
 /**
@@ -24,6 +35,9 @@ public class ConfigManager {
     private final Path dataDirectory;
     private final Path configFile;
     private final Path tasksFile;
+    private final Path groupsFile;
+    private final Path archiveFile;
+    private final Path calendarsFile;
     private final Logger logger;
     private final Yaml yaml;
     
@@ -33,6 +47,9 @@ public class ConfigManager {
         this.dataDirectory = dataDirectory;
         this.configFile = dataDirectory.resolve("config.yml");
         this.tasksFile = dataDirectory.resolve("tasks.yml");
+        this.groupsFile = dataDirectory.resolve("groups.yml");
+        this.archiveFile = dataDirectory.resolve("tasks-archive.yml");
+        this.calendarsFile = dataDirectory.resolve("calendars.yml");
         this.logger = logger;
         
         // 配置YAML格式
@@ -147,6 +164,32 @@ public class ConfigManager {
         return current != null ? current : defaultValue;
     }
     
+    /**
+     * 获取整数配置，未配置或不是数字时返回默认值
+     */
+    public long getLong(String key, long defaultValue) {
+        Object value = getConfig(key, defaultValue);
+        return value instanceof Number ? ((Number) value).longValue() : defaultValue;
+    }
+    
+    /**
+     * 获取调度使用的时区，未配置或无效时使用系统默认时区
+     */
+    public ZoneId getZoneId() {
+        Object value = getConfig("timezone", "");
+        String timezone = value.toString().trim();
+        if (timezone.isEmpty()) {
+            return ZoneId.systemDefault();
+        }
+        
+        try {
+            return ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            logger.warn("无效的时区设置: {}，使用系统默认时区", timezone);
+            return ZoneId.systemDefault();
+        }
+    }
+    
     /**
      * 获取消息
      */
@@ -168,39 +211,14 @@ public class ConfigManager {
      * 保存任务到文件
      */
     public void saveTasks(Collection<Task> tasks) {
+        TasksSavedEvent event = new TasksSavedEvent();
+        event.begin();
+        boolean success = false;
         try {
             List<Map<String, Object>> taskList = new ArrayList<>();
             
             for (Task task : tasks) {
-                Map<String, Object> taskMap = new HashMap<>();
-                taskMap.put("id", task.getId());
-                taskMap.put("commands", task.getCommands());
-                taskMap.put("scheduleType", task.getScheduleType().name());
-                if (task.getStartTime() != null) {
-                    taskMap.put("startTime", task.getStartTime().toString());
-                } else {
-                    taskMap.put("startTime", null);
-                }
-                if (task.getEndTime() != null) {
-                    taskMap.put("endTime", task.getEndTime().toString());
-                } else {
-                    taskMap.put("endTime", null);
-                }
-                
-                List<String> daysOfWeek = new ArrayList<>();
-                for (DayOfWeek day : task.getDaysOfWeek()) {
-                    daysOfWeek.add(day.name());
-                }
-                taskMap.put("daysOfWeek", daysOfWeek);
-                taskMap.put("everyDay", task.isEveryDay());
-                taskMap.put("intervalTicks", task.getIntervalTicks());
-                taskMap.put("intervalUnit", task.getIntervalUnit());
-                taskMap.put("executionMode", task.getExecutionMode().name());
-                taskMap.put("executionInterval", task.getExecutionInterval());
-                taskMap.put("enabled", task.isEnabled());
-                taskMap.put("lastExecutionTime", task.getLastExecutionTime());
-                
-                taskList.add(taskMap);
+                taskList.add(toMap(task));
             }
             
             Map<String, Object> data = new HashMap<>();
@@ -209,45 +227,271 @@ public class ConfigManager {
             try (OutputStream outputStream = Files.newOutputStream(tasksFile)) {
                 yaml.dump(data, new OutputStreamWriter(outputStream, "UTF-8"));
             }
+            success = true;
             
         } catch (IOException e) {
             logger.error("保存任务失败", e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = tasksFile.toString();
+                event.taskCount = tasks.size();
+                event.bytes = tasksFile.toFile().length();
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * 任务的持久化格式
+     */
+    private Map<String, Object> toMap(Task task) {
+        Map<String, Object> taskMap = new HashMap<>();
+        taskMap.put("id", task.getId());
+        taskMap.put("commands", task.getCommands());
+        taskMap.put("scheduleType", task.getScheduleType().name());
+        if (task.getStartTime() != null) {
+            taskMap.put("startTime", task.getStartTime().toString());
+        } else {
+            taskMap.put("startTime", null);
+        }
+        if (task.getEndTime() != null) {
+            taskMap.put("endTime", task.getEndTime().toString());
+        } else {
+            taskMap.put("endTime", null);
+        }
+        
+        List<String> daysOfWeek = new ArrayList<>();
+        for (DayOfWeek day : task.getDaysOfWeek()) {
+            daysOfWeek.add(day.name());
+        }
+        taskMap.put("daysOfWeek", daysOfWeek);
+        taskMap.put("everyDay", task.isEveryDay());
+        taskMap.put("intervalTicks", task.getIntervalTicks());
+        taskMap.put("intervalUnit", task.getIntervalUnit());
+        taskMap.put("executionMode", task.getExecutionMode().name());
+        taskMap.put("executionInterval", task.getExecutionInterval());
+        taskMap.put("enabled", task.isEnabled());
+        taskMap.put("lastExecutionTime", task.getLastExecutionTime());
+        if (!task.getTags().isEmpty()) {
+            taskMap.put("tags", new ArrayList<>(task.getTags()));
+        }
+        if (task.getFireTimes().size() > 1) {
+            List<String> fireTimes = new ArrayList<>();
+            for (LocalTime time : task.getFireTimes()) {
+                fireTimes.add(time.toString());
+            }
+            taskMap.put("fireTimes", fireTimes);
+        }
+        if (task.getStepMinutes() > 0) {
+            taskMap.put("stepMinutes", task.getStepMinutes());
+        }
+        if (task.getRangeMode() != RangeMode.EVERY) {
+            taskMap.put("rangeMode", task.getRangeMode().name());
+        }
+        if (task.getOverlapPolicy() != OverlapPolicy.ALLOW) {
+            taskMap.put("overlapPolicy", task.getOverlapPolicy().name());
+        }
+        if (task.getMisfirePolicy() != MisfirePolicy.SKIP) {
+            taskMap.put("misfirePolicy", task.getMisfirePolicy().name());
         }
+        if (!task.getCalendars().isEmpty()) {
+            taskMap.put("calendars", new ArrayList<>(task.getCalendars()));
+        }
+        if (task.getValidFrom() != null) {
+            taskMap.put("validFrom", task.getValidFrom().toString());
+        }
+        if (task.getValidUntil() != null) {
+            taskMap.put("validUntil", task.getValidUntil().toString());
+        }
+        if ("ms".equals(task.getIntervalUnit())) {
+            taskMap.put("intervalMillis", task.getIntervalMillis());
+        }
+        return taskMap;
+    }
+    
+    /**
+     * 将过期的任务追加到 tasks-archive.yml，归档文件可以用 import 命令重新导入
+     *
+     * 只写归档文件，tasks.yml 由调用方在移除任务后另行保存
+     *
+     * @return 是否写入成功，失败时调用方应保留这些任务
+     */
+    public boolean archiveTasks(Collection<Task> tasks, long archivedAt) {
+        if (tasks.isEmpty()) {
+            return true;
+        }
+        List<Map<String, Object>> taskList = new ArrayList<>();
+        for (Task task : tasks) {
+            Map<String, Object> taskMap = toMap(task);
+            taskMap.put("archivedAt", archivedAt);
+            taskList.add(taskMap);
+        }
+        
+        // 顶层为列表，追加时直接接在文件末尾
+        try {
+            Files.writeString(archiveFile, yaml.dump(taskList), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            logger.error("归档任务失败", e);
+            return false;
+        }
+    }
+    
+    public Path getArchiveFile() {
+        return archiveFile;
     }
     
     /**
      * 从文件加载任务
      */
-    @SuppressWarnings("unchecked")
     public List<Task> loadTasks() {
+        return loadTasks(tasksFile);
+    }
+    
+    /**
+     * 从指定文件加载任务（格式与tasks.yml相同，用于批量导入）
+     */
+    public List<Task> loadTasks(Path file) {
+        TasksLoadedEvent event = new TasksLoadedEvent();
+        event.begin();
         List<Task> tasks = new ArrayList<>();
+        int failed = readTasks(file, tasks);
         
-        if (!Files.exists(tasksFile)) {
-            return tasks;
+        event.end();
+        if (event.shouldCommit()) {
+            event.file = file.toString();
+            event.taskCount = tasks.size();
+            event.failedCount = failed;
+            event.commit();
+        }
+        return tasks;
+    }
+    
+    /**
+     * 读取任务文件
+     *
+     * @return 解析失败的任务数
+     */
+    @SuppressWarnings("unchecked")
+    private int readTasks(Path file, List<Task> tasks) {
+        int failed = 0;
+        if (!Files.exists(file)) {
+            return failed;
         }
         
-        try (InputStream inputStream = Files.newInputStream(tasksFile)) {
-            Map<String, Object> data = yaml.load(inputStream);
-            if (data == null || !data.containsKey("tasks")) {
-                return tasks;
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            Object data = yaml.load(inputStream);
+            List<Map<String, Object>> taskList;
+            if (data instanceof List) {
+                // 归档文件的顶层为任务列表
+                taskList = (List<Map<String, Object>>) data;
+            } else if (data instanceof Map && ((Map<String, Object>) data).containsKey("tasks")) {
+                taskList = (List<Map<String, Object>>) ((Map<String, Object>) data).get("tasks");
+            } else {
+                return failed;
             }
             
-            List<Map<String, Object>> taskList = (List<Map<String, Object>>) data.get("tasks");
-            
             for (Map<String, Object> taskMap : taskList) {
                 try {
                     Task task = createTaskFromMap(taskMap);
                     tasks.add(task);
                 } catch (Exception e) {
+                    failed++;
                     logger.error("加载任务失败: " + taskMap.get("id"), e);
                 }
             }
             
         } catch (IOException e) {
-            logger.error("加载任务文件失败", e);
+            logger.error("加载任务文件失败: " + file, e);
         }
         
-        return tasks;
+        return failed;
+    }
+    
+    /**
+     * 读取排除日历的定义：config.yml 中的 calendars 部分和 calendars.yml，同名时以 calendars.yml 为准
+     *
+     * 每次调用都重新读取文件，只重载日历时不影响其他配置和任务
+     *
+     * @return 日历名（小写）到日期写法列表的映射
+     */
+    public Map<String, List<String>> loadCalendars() {
+        Map<String, List<String>> calendars = new LinkedHashMap<>();
+        readCalendars(configFile, true, calendars);
+        readCalendars(calendarsFile, false, calendars);
+        return calendars;
+    }
+    
+    private void readCalendars(Path file, boolean section, Map<String, List<String>> calendars) {
+        if (!Files.exists(file)) {
+            return;
+        }
+        
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            Object data = yaml.load(inputStream);
+            if (section && data instanceof Map) {
+                data = ((Map<?, ?>) data).get("calendars");
+            }
+            if (!(data instanceof Map)) {
+                return;
+            }
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) data).entrySet()) {
+                List<String> dates = new ArrayList<>();
+                if (entry.getValue() instanceof List) {
+                    for (Object value : (List<?>) entry.getValue()) {
+                        // 未加引号的完整日期会被YAML解析为Date
+                        dates.add(value instanceof Date ? parseDate(value).toString() : String.valueOf(value));
+                    }
+                }
+                calendars.put(String.valueOf(entry.getKey()).trim().toLowerCase(), dates);
+            }
+        } catch (IOException e) {
+            logger.error("读取日历文件失败: " + file, e);
+        }
+    }
+    
+    /**
+     * 保存已暂停的任务组（标签）
+     */
+    public void savePausedGroups(Collection<String> pausedGroups) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("paused", new ArrayList<>(pausedGroups));
+        
+        try (OutputStream outputStream = Files.newOutputStream(groupsFile)) {
+            yaml.dump(data, new OutputStreamWriter(outputStream, "UTF-8"));
+        } catch (IOException e) {
+            logger.error("保存任务组状态失败", e);
+        }
+    }
+    
+    /**
+     * 加载已暂停的任务组（标签）
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> loadPausedGroups() {
+        if (!Files.exists(groupsFile)) {
+            return new ArrayList<>();
+        }
+        
+        try (InputStream inputStream = Files.newInputStream(groupsFile)) {
+            Map<String, Object> data = yaml.load(inputStream);
+            if (data != null && data.get("paused") instanceof List) {
+                return new ArrayList<>((List<String>) data.get("paused"));
+            }
+        } catch (IOException e) {
+            logger.error("加载任务组状态失败", e);
+        }
+        return new ArrayList<>();
+    }
+    
+    /**
+     * 获取数据目录
+     */
+    public Path getDataDirectory() {
+        return dataDirectory;
     }
     
     /**
@@ -287,6 +531,59 @@ public class ConfigManager {
             task.setLastExecutionTime(((Number) taskMap.get("lastExecutionTime")).longValue());
         }
         
+        if (taskMap.get("tags") instanceof List) {
+            task.setTags((List<String>) taskMap.get("tags"));
+        }
+        
+        if (taskMap.get("calendars") instanceof List) {
+            task.setCalendars((List<String>) taskMap.get("calendars"));
+        }
+        
+        if (taskMap.get("fireTimes") instanceof List) {
+            List<LocalTime> fireTimes = new ArrayList<>();
+            for (String time : (List<String>) taskMap.get("fireTimes")) {
+                fireTimes.add(LocalTime.parse(time));
+            }
+            task.setFireTimes(fireTimes);
+        }
+        
+        if (taskMap.containsKey("stepMinutes")) {
+            task.setStepMinutes(((Number) taskMap.get("stepMinutes")).intValue());
+        }
+        
+        if (taskMap.containsKey("validFrom") || taskMap.containsKey("validUntil")) {
+            task.setValidity(parseDate(taskMap.get("validFrom")), parseDate(taskMap.get("validUntil")));
+        }
+        
+        if (taskMap.containsKey("rangeMode")) {
+            task.setRangeMode(RangeMode.valueOf((String) taskMap.get("rangeMode")));
+        }
+        
+        if (taskMap.containsKey("intervalMillis")) {
+            task.setIntervalMillis(((Number) taskMap.get("intervalMillis")).longValue());
+        }
+        
+        if (taskMap.containsKey("overlapPolicy")) {
+            task.setOverlapPolicy(OverlapPolicy.valueOf((String) taskMap.get("overlapPolicy")));
+        }
+        
+        if (taskMap.containsKey("misfirePolicy")) {
+            task.setMisfirePolicy(MisfirePolicy.valueOf((String) taskMap.get("misfirePolicy")));
+        }
+        
         return task;
     }
+    
+    /**
+     * 解析日期字段，未加引号的日期会被YAML解析为Date
+     */
+    private static LocalDate parseDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Date) {
+            return ((Date) value).toInstant().atOffset(ZoneOffset.UTC).toLocalDate();
+        }
+        return LocalDate.parse(value.toString());
+    }
 }
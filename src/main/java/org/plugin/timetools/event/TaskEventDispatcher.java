@@ -0,0 +1,116 @@
+package org.plugin.timetools.event;
+
+import com.velocitypowered.api.event.EventManager;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.scheduler.CommandResult;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 任务事件分发器
+ *
+ * Velocity的EventManager不提供查询监听器是否存在的接口，因此由需要事件的插件通过
+ * {@link #subscribe()}（或 TaskService#subscribeEvents）声明订阅，也可以在配置中打开
+ * events.fire-always。没有订阅时 {@link #hasListeners()} 为false，调用方完全跳过事件构造。
+ * 执行前事件不在触发线程上等待，监听器处理完成（或超时）后由调用方继续执行。
+ */
+public class TaskEventDispatcher {
+
+    // 默认等待执行前事件监听器的最长时间，超时视为允许执行
+    public static final long DEFAULT_PRE_EXECUTE_TIMEOUT_MS = 1000;
+
+    private final EventManager eventManager;
+    private final Logger logger;
+    private final boolean fireAlways;
+    private final long preExecuteTimeoutMillis;
+    private final AtomicInteger subscribers;
+
+    public TaskEventDispatcher(EventManager eventManager, Logger logger, boolean fireAlways) {
+        this(eventManager, logger, fireAlways, DEFAULT_PRE_EXECUTE_TIMEOUT_MS);
+    }
+
+    /**
+     * @param preExecuteTimeoutMillis 等待执行前事件监听器的最长时间
+     */
+    public TaskEventDispatcher(EventManager eventManager, Logger logger, boolean fireAlways,
+                               long preExecuteTimeoutMillis) {
+        if (preExecuteTimeoutMillis <= 0) {
+            throw new IllegalArgumentException("执行前事件超时时间必须大于0");
+        }
+        this.eventManager = eventManager;
+        this.logger = logger;
+        this.fireAlways = fireAlways;
+        this.preExecuteTimeoutMillis = preExecuteTimeoutMillis;
+        this.subscribers = new AtomicInteger();
+    }
+
+    /**
+     * 是否需要触发事件
+     */
+    public boolean hasListeners() {
+        return fireAlways || subscribers.get() > 0;
+    }
+
+    /**
+     * 声明需要接收TimeTools事件
+     *
+     * @return 关闭后取消订阅（重复关闭无效）
+     */
+    public AutoCloseable subscribe() {
+        subscribers.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean(false);
+        return () -> {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.decrementAndGet();
+            }
+        };
+    }
+
+    /**
+     * 触发执行前事件，不阻塞调用线程
+     *
+     * @return 监听器处理完成后得到是否允许执行；超时或出错时视为允许
+     */
+    public CompletableFuture<Boolean> firePreExecute(Task task) {
+        CompletableFuture<TaskPreExecuteEvent> fired;
+        try {
+            // 复制一份再设置超时，不影响事件管理器持有的future
+            fired = eventManager.fire(new TaskPreExecuteEvent(task)).copy();
+        } catch (Exception e) {
+            logger.error("触发执行前事件失败: " + task.getId(), e);
+            return CompletableFuture.completedFuture(true);
+        }
+        return fired.orTimeout(preExecuteTimeoutMillis, TimeUnit.MILLISECONDS).handle((event, error) -> {
+            if (error == null) {
+                return event.getResult().isAllowed();
+            }
+            if (error instanceof TimeoutException) {
+                logger.warn("任务 {} 的执行前事件处理超时（{}ms），继续执行", task.getId(), preExecuteTimeoutMillis);
+            } else {
+                logger.error("触发执行前事件失败: " + task.getId(), error);
+            }
+            return true;
+        });
+    }
+
+    public long getPreExecuteTimeoutMillis() {
+        return preExecuteTimeoutMillis;
+    }
+
+    /**
+     * 异步触发执行后事件
+     */
+    public void firePostExecute(Task task, List<CommandResult> results, long durationNanos) {
+        try {
+            eventManager.fireAndForget(new TaskPostExecuteEvent(task, results, durationNanos));
+        } catch (Exception e) {
+            logger.error("触发执行后事件失败: " + task.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.plugin.timetools.event;
+
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.scheduler.CommandResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 任务执行后事件
+ *
+ * 在任务的所有命令完成（包括逐个执行模式的最后一条命令）后触发，仅用于观察。
+ */
+public final class TaskPostExecuteEvent {
+
+    private final Task task;
+    private final List<CommandResult> results;
+    private final long durationNanos;
+
+    public TaskPostExecuteEvent(Task task, List<CommandResult> results, long durationNanos) {
+        this.task = Objects.requireNonNull(task, "task");
+        this.results = List.copyOf(results);
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * 获取已执行的任务
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    /**
+     * 获取每条命令的执行结果，顺序与任务命令一致
+     */
+    public List<CommandResult> getResults() {
+        return results;
+    }
+
+    /**
+     * 获取从开始执行到最后一条命令完成的总耗时
+     */
+    public Duration getDuration() {
+        return Duration.ofNanos(durationNanos);
+    }
+
+    /**
+     * 所有命令是否都执行成功
+     */
+    public boolean isAllSuccessful() {
+        for (CommandResult result : results) {
+            if (!result.isSuccess()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPostExecuteEvent{task=" + task.getId() + ", results=" + results +
+                ", durationMs=" + (durationNanos / 1_000_000.0) + "}";
+    }
+}
@@ -0,0 +1,45 @@
+package org.plugin.timetools.event;
+
+import com.velocitypowered.api.event.ResultedEvent;
+import org.plugin.timetools.model.Task;
+
+import java.util.Objects;
+
+/**
+ * 任务执行前事件
+ *
+ * 在调度器触发任务、执行任何命令之前触发。将结果设置为
+ * {@link ResultedEvent.GenericResult#denied()} 可取消本次执行。
+ */
+public final class TaskPreExecuteEvent implements ResultedEvent<ResultedEvent.GenericResult> {
+
+    private final Task task;
+    private GenericResult result;
+
+    public TaskPreExecuteEvent(Task task) {
+        this.task = Objects.requireNonNull(task, "task");
+        this.result = GenericResult.allowed();
+    }
+
+    /**
+     * 获取即将执行的任务
+     */
+    public Task getTask() {
+        return task;
+    }
+
+    @Override
+    public GenericResult getResult() {
+        return result;
+    }
+
+    @Override
+    public void setResult(GenericResult result) {
+        this.result = Objects.requireNonNull(result, "result");
+    }
+
+    @Override
+    public String toString() {
+        return "TaskPreExecuteEvent{task=" + task.getId() + ", result=" + result.isAllowed() + "}";
+    }
+}
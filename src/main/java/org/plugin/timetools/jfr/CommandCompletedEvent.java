@@ -0,0 +1,34 @@
+package org.plugin.timetools.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 命令执行完成（在完成结果的线程上提交）
+ */
+@Name("org.plugin.timetools.CommandCompleted")
+@Label("Command Completed")
+@Category({"TimeTools", "Commands"})
+@Description("A dispatched task command completed")
+@StackTrace(false)
+public class CommandCompletedEvent extends Event {
+
+    @Label("Task ID")
+    public String taskId;
+
+    @Label("Command")
+    public String command;
+
+    @Label("Success")
+    public boolean success;
+
+    @Label("Latency")
+    @Description("Time between dispatch and completion")
+    @Timespan(Timespan.NANOSECONDS)
+    public long latency;
+}
@@ -0,0 +1,31 @@
+package org.plugin.timetools.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * 命令交给Velocity执行
+ */
+@Name("org.plugin.timetools.CommandDispatched")
+@Label("Command Dispatched")
+@Category({"TimeTools", "Commands"})
+@Description("A task command was passed to the proxy command manager")
+@StackTrace(false)
+public class CommandDispatchedEvent extends Event {
+
+    @Label("Task ID")
+    public String taskId;
+
+    @Label("Command")
+    public String command;
+
+    @Label("Dispatch Lag")
+    @Description("Time between the planned and the actual dispatch")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dispatchLag;
+}
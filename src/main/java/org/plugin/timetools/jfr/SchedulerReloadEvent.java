@@ -0,0 +1,44 @@
+package org.plugin.timetools.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 调度重载（完整重载或按差异更新）
+ */
+@Name("org.plugin.timetools.SchedulerReload")
+@Label("Scheduler Reload")
+@Category({"TimeTools", "Scheduler"})
+@Description("The fire time index and interval timers were rebuilt or updated")
+@StackTrace(false)
+public class SchedulerReloadEvent extends Event {
+
+    /**
+     * 完整重载
+     */
+    public static final String FULL = "full";
+
+    /**
+     * 按差异更新
+     */
+    public static final String INCREMENTAL = "incremental";
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Changed Tasks")
+    public int changedCount;
+
+    @Label("Removed Tasks")
+    public int removedCount;
+
+    @Label("Interval Timers Started")
+    public int intervalStarted;
+
+    @Label("Interval Timers Stopped")
+    public int intervalStopped;
+}
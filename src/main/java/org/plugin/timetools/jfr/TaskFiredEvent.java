@@ -0,0 +1,35 @@
+package org.plugin.timetools.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 任务触发（持续时间为执行前事件和命令分派所用的时间，不包含命令完成）
+ */
+@Name("org.plugin.timetools.TaskFired")
+@Label("Task Fired")
+@Category({"TimeTools", "Scheduler"})
+@Description("A scheduled task fired and its commands were dispatched")
+@StackTrace(false)
+public class TaskFiredEvent extends Event {
+
+    @Label("Task ID")
+    public String taskId;
+
+    @Label("Schedule Type")
+    public String scheduleType;
+
+    @Label("Execution Mode")
+    public String executionMode;
+
+    @Label("Command Count")
+    public int commandCount;
+
+    @Label("Cancelled")
+    @Description("Cancelled by a TaskPreExecuteEvent listener")
+    public boolean cancelled;
+}
@@ -0,0 +1,29 @@
+package org.plugin.timetools.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 加载任务文件（启动或批量导入）
+ */
+@Name("org.plugin.timetools.TasksLoaded")
+@Label("Tasks Loaded")
+@Category({"TimeTools", "Persistence"})
+@Description("A task file was read and parsed")
+@StackTrace(false)
+public class TasksLoadedEvent extends Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Task Count")
+    public int taskCount;
+
+    @Label("Failed Count")
+    @Description("Entries that could not be parsed")
+    public int failedCount;
+}
@@ -0,0 +1,33 @@
+package org.plugin.timetools.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * 保存任务文件
+ */
+@Name("org.plugin.timetools.TasksSaved")
+@Label("Tasks Saved")
+@Category({"TimeTools", "Persistence"})
+@Description("The task file was written")
+@StackTrace(false)
+public class TasksSavedEvent extends Event {
+
+    @Label("File")
+    public String file;
+
+    @Label("Task Count")
+    public int taskCount;
+
+    @Label("File Size")
+    @DataAmount
+    public long bytes;
+
+    @Label("Success")
+    public boolean success;
+}
@@ -0,0 +1,278 @@
+package org.plugin.timetools.log;
+
+import org.slf4j.Logger;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 内存映射的执行历史
+ *
+ * 固定大小的环形文件，每条记录40字节：序号、任务ID的哈希、计划时间、实际时间、耗时和结果位。
+ * 追加只需一次原子自增取得槽位，再写入映射内存，不加锁也不占用堆内存；写满后覆盖最旧的记录。
+ * 记录的序号最后写入，读取时前后两次检查序号，丢弃正在被覆盖的记录。重启后扫描全部槽位恢复写入位置。
+ */
+public class ExecutionHistory implements Closeable {
+
+    private static final int MAGIC = 0x54544831;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 40;
+
+    // 记录内的字段偏移，序号字段保存 序号+1，0表示空槽位，-1表示正在写入
+    private static final int SEQUENCE = 0;
+    private static final int TASK_HASH = 8;
+    private static final int SCHEDULED = 16;
+    private static final int ACTUAL = 24;
+    private static final int DURATION = 32;
+    private static final int FLAGS = 36;
+
+    // 结果位：bit0 全部成功，bit1 被取消，bit2 执行超时，bit8-15 命令数，bit16-23 失败数（均最多255）
+    private static final int SUCCESS_BIT = 1;
+    private static final int CANCELLED_BIT = 1 << 1;
+    private static final int TIMED_OUT_BIT = 1 << 2;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private final AtomicLong next;
+
+    private ExecutionHistory(FileChannel channel, MappedByteBuffer buffer, int capacity, long next) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.next = new AtomicLong(next);
+    }
+
+    /**
+     * 打开或创建历史文件，已有文件的容量或格式不一致时清空重建
+     *
+     * @param capacity 保留的记录数
+     */
+    public static ExecutionHistory open(Path file, int capacity, Logger logger) throws IOException {
+        if (capacity <= 0 || capacity > (Integer.MAX_VALUE - HEADER_SIZE) / RECORD_SIZE) {
+            throw new IllegalArgumentException("执行历史容量无效: " + capacity);
+        }
+        long size = HEADER_SIZE + (long) capacity * RECORD_SIZE;
+
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() > 0 && !headerMatches(channel, capacity)) {
+                logger.warn("执行历史文件格式或容量不一致，已清空: {}", file);
+                channel.truncate(0);
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, capacity);
+            buffer.putInt(12, RECORD_SIZE);
+
+            long next = 0;
+            for (int slot = 0; slot < capacity; slot++) {
+                next = Math.max(next, buffer.getLong(HEADER_SIZE + slot * RECORD_SIZE + SEQUENCE));
+            }
+            return new ExecutionHistory(channel, buffer, capacity, next);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static boolean headerMatches(FileChannel channel, int capacity) throws IOException {
+        if (channel.size() != HEADER_SIZE + (long) capacity * RECORD_SIZE) {
+            return false;
+        }
+        // 用普通读取而不是映射，避免映射未释放时无法截断文件
+        ByteBuffer header = ByteBuffer.allocate(16);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+            // 读满16字节
+        }
+        return header.getInt(0) == MAGIC && header.getInt(4) == VERSION
+                && header.getInt(8) == capacity && header.getInt(12) == RECORD_SIZE;
+    }
+
+    /**
+     * 追加一条记录
+     *
+     * @param failureCount 执行失败的命令数
+     * @param timedOut 执行超过任务超时时间，剩余命令被取消
+     */
+    public void append(String taskId, long scheduledMillis, long actualMillis, long durationMillis,
+                       int commandCount, int failureCount, boolean cancelled, boolean timedOut) {
+        long sequence = next.getAndIncrement();
+        int offset = offset(sequence);
+
+        int flags = (Math.min(commandCount, 255) << 8) | (Math.min(failureCount, 255) << 16);
+        if (cancelled) {
+            flags |= CANCELLED_BIT;
+        } else if (failureCount == 0) {
+            flags |= SUCCESS_BIT;
+        }
+        if (timedOut) {
+            flags |= TIMED_OUT_BIT;
+        }
+
+        LONGS.setRelease(buffer, offset + SEQUENCE, -1L);
+        // 写入中标记必须先于后续字段可见，否则读取方可能两次看到旧序号而读到一半被覆盖的记录
+        VarHandle.storeStoreFence();
+        LONGS.set(buffer, offset + TASK_HASH, hash(taskId));
+        LONGS.set(buffer, offset + SCHEDULED, scheduledMillis);
+        LONGS.set(buffer, offset + ACTUAL, actualMillis);
+        INTS.set(buffer, offset + DURATION, (int) Math.min(Math.max(durationMillis, 0), Integer.MAX_VALUE));
+        INTS.set(buffer, offset + FLAGS, flags);
+        LONGS.setRelease(buffer, offset + SEQUENCE, sequence + 1);
+    }
+
+    /**
+     * 从最新的记录向前查找任务的执行记录
+     *
+     * @param limit 最多返回的条数
+     * @return 按时间从新到旧排列
+     */
+    public List<Record> query(String taskId, int limit) {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        long hash = hash(taskId);
+        long end = next.get();
+        long start = Math.max(0, end - capacity);
+
+        List<Record> records = new ArrayList<>(Math.min(limit, 16));
+        for (long sequence = end - 1; sequence >= start && records.size() < limit; sequence--) {
+            int offset = offset(sequence);
+            if ((long) LONGS.getAcquire(buffer, offset + SEQUENCE) != sequence + 1
+                    || (long) LONGS.get(buffer, offset + TASK_HASH) != hash) {
+                continue;
+            }
+            long scheduled = (long) LONGS.get(buffer, offset + SCHEDULED);
+            long actual = (long) LONGS.get(buffer, offset + ACTUAL);
+            int duration = (int) INTS.get(buffer, offset + DURATION);
+            int flags = (int) INTS.get(buffer, offset + FLAGS);
+
+            // 读取期间被覆盖的记录丢弃
+            VarHandle.acquireFence();
+            if ((long) LONGS.getAcquire(buffer, offset + SEQUENCE) != sequence + 1) {
+                continue;
+            }
+            records.add(new Record(sequence, scheduled, actual, duration, flags));
+        }
+        return records;
+    }
+
+    /**
+     * 当前保存的记录数
+     */
+    public long getRecordCount() {
+        return Math.min(next.get(), capacity);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 将映射内存写回磁盘并关闭文件
+     */
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private int offset(long sequence) {
+        return HEADER_SIZE + (int) (sequence % capacity) * RECORD_SIZE;
+    }
+
+    /**
+     * 任务ID的64位FNV-1a哈希
+     */
+    public static long hash(String taskId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < taskId.length(); i++) {
+            hash ^= taskId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 一条执行记录
+     */
+    public static final class Record {
+        private final long sequence;
+        private final long scheduledMillis;
+        private final long actualMillis;
+        private final int durationMillis;
+        private final int flags;
+
+        private Record(long sequence, long scheduledMillis, long actualMillis, int durationMillis, int flags) {
+            this.sequence = sequence;
+            this.scheduledMillis = scheduledMillis;
+            this.actualMillis = actualMillis;
+            this.durationMillis = durationMillis;
+            this.flags = flags;
+        }
+
+        /**
+         * 写入顺序，越大越新
+         */
+        public long getSequence() {
+            return sequence;
+        }
+
+        public long getScheduledMillis() {
+            return scheduledMillis;
+        }
+
+        public long getActualMillis() {
+            return actualMillis;
+        }
+
+        /**
+         * 从触发到所有命令完成的耗时
+         */
+        public int getDurationMillis() {
+            return durationMillis;
+        }
+
+        public boolean isSuccess() {
+            return (flags & SUCCESS_BIT) != 0;
+        }
+
+        /**
+         * 被执行前事件取消
+         */
+        public boolean isCancelled() {
+            return (flags & CANCELLED_BIT) != 0;
+        }
+
+        public boolean isTimedOut() {
+            return (flags & TIMED_OUT_BIT) != 0;
+        }
+
+        public int getCommandCount() {
+            return (flags >>> 8) & 0xff;
+        }
+
+        public int getFailureCount() {
+            return (flags >>> 16) & 0xff;
+        }
+    }
+}
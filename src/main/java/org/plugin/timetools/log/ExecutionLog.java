@@ -0,0 +1,516 @@
+package org.plugin.timetools.log;
+
+import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.metrics.ExecutionMetrics;
+import org.plugin.timetools.metrics.SkewTracker;
+import org.plugin.timetools.model.Task;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 异步执行日志
+ *
+ * 以JSON Lines格式记录任务触发、命令结果和每分钟的性能统计。调用方只把记录放入有界的无锁队列，
+ * 格式化和写入由后台线程完成：每次取出一批记录，一次写入文件。文件超过大小上限或打开时间超过轮换间隔时
+ * 重命名为带时间戳的文件，只保留最近的若干个。队列已满时丢弃新记录并计数。
+ */
+public class ExecutionLog {
+
+    private static final String FILE_NAME = "executions.jsonl";
+    private static final String ROTATED_PREFIX = "executions-";
+    private static final String ROTATED_SUFFIX = ".jsonl";
+    private static final DateTimeFormatter ROTATED_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int STAMP_LENGTH = "yyyyMMdd-HHmmss".length();
+
+    // 已轮换文件按时间戳排序，同一秒内轮换的按序号排序
+    private static final Comparator<Path> ROTATION_ORDER = Comparator
+            .comparing(ExecutionLog::rotatedStamp)
+            .thenComparingInt(ExecutionLog::rotatedIndex);
+
+    // 单次写入的最大记录数
+    private static final int MAX_BATCH = 512;
+
+    // 队列为空时后台线程的等待时间
+    private static final long FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    // 写入失败时错误日志的最短间隔
+    private static final long ERROR_COOLDOWN_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Path directory;
+    private final Logger logger;
+
+    private boolean logExecutions;
+    private boolean logCommandResults;
+    private boolean logPerformance;
+    private int capacity = 8192;
+    private long maxFileBytes = 10L * 1024 * 1024;
+    private long rotateIntervalMillis = TimeUnit.HOURS.toMillis(24);
+    private int maxFiles = 7;
+
+    private final ConcurrentLinkedQueue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    // 以下字段只在后台线程中访问
+    private final StringBuilder text = new StringBuilder(16 * 1024);
+    private FileChannel channel;
+    private long fileBytes;
+    private long fileOpenedMillis;
+    private long lastErrorMillis;
+
+    public ExecutionLog(Path directory, Logger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    /**
+     * 按 config.yml 的 logging 部分创建
+     */
+    public static ExecutionLog fromConfig(ConfigManager configManager, Path directory, Logger logger) {
+        ExecutionLog log = new ExecutionLog(directory, logger);
+        log.setLogExecutions(Boolean.TRUE.equals(configManager.getConfig("logging.log-executions", true)));
+        log.setLogCommandResults(Boolean.TRUE.equals(configManager.getConfig("logging.log-command-results", true)));
+        log.setLogPerformance(Boolean.TRUE.equals(configManager.getConfig("logging.log-performance", false)));
+        log.setMaxFileBytes(configManager.getLong("logging.max-file-size-mb", 10) * 1024 * 1024);
+        log.setRotateIntervalMillis(TimeUnit.HOURS.toMillis(configManager.getLong("logging.rotate-interval-hours", 24)));
+        log.setMaxFiles((int) configManager.getLong("logging.max-files", 7));
+        log.setCapacity((int) configManager.getLong("logging.queue-capacity", 8192));
+        return log;
+    }
+
+    /**
+     * 启动后台写入线程，所有记录类型都关闭时不启动
+     */
+    public void start() throws IOException {
+        if (running || !(logExecutions || logCommandResults || logPerformance)) {
+            return;
+        }
+        Files.createDirectories(directory);
+        openFile();
+        running = true;
+        writer = new Thread(this::writeLoop, "TimeTools-ExecutionLog");
+        writer.setDaemon(true);
+        writer.start();
+        logger.info("执行日志已启用: {}", directory.resolve(FILE_NAME));
+    }
+
+    /**
+     * 写入队列中剩余的记录并关闭文件
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+    }
+
+    public boolean isLoggingExecutions() {
+        return running && logExecutions;
+    }
+
+    public boolean isLoggingCommandResults() {
+        return running && logCommandResults;
+    }
+
+    public boolean isLoggingPerformance() {
+        return running && logPerformance;
+    }
+
+    /**
+     * 记录一次任务触发
+     */
+    public void logFire(Task task, long timeMillis) {
+        if (isLoggingExecutions()) {
+            offer(new FireEntry(timeMillis, task.getId(), task.getExecutionMode().name(), task.getCommands()));
+        }
+    }
+
+    /**
+     * 记录一条命令的执行结果
+     *
+     * @param taskId 所属任务，可以为null
+     */
+    public void logCommand(String taskId, String command, boolean success, long latencyNanos, long timeMillis) {
+        if (isLoggingCommandResults()) {
+            offer(new CommandEntry(timeMillis, taskId, command, success, latencyNanos));
+        }
+    }
+
+    /**
+     * 记录当前的累计统计（由主检查每分钟调用一次）
+     */
+    public void logPerformance(long timeMillis, ExecutionMetrics metrics, SkewTracker skew) {
+        if (isLoggingPerformance()) {
+            offer(new PerformanceEntry(timeMillis, metrics.getFireCount(), metrics.getCommandSuccessCount(),
+                    metrics.getCommandFailureCount(), metrics.getQueuedCommandCount(),
+                    skew.getPercentileMillis(50), skew.getPercentileMillis(99), skew.getSkippedMinutes(),
+                    dropped.sum()));
+        }
+    }
+
+    /**
+     * 因队列已满丢弃的记录数
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void offer(Entry entry) {
+        if (queued.incrementAndGet() > capacity) {
+            queued.decrementAndGet();
+            dropped.increment();
+            return;
+        }
+        queue.offer(entry);
+    }
+
+    private void writeLoop() {
+        while (running || !queue.isEmpty()) {
+            int count = 0;
+            text.setLength(0);
+            Entry entry;
+            while (count < MAX_BATCH && (entry = queue.poll()) != null) {
+                queued.decrementAndGet();
+                entry.appendTo(text);
+                text.append('\n');
+                count++;
+            }
+
+            try {
+                if (count > 0) {
+                    write();
+                }
+                if (fileBytes >= maxFileBytes
+                        || System.currentTimeMillis() - fileOpenedMillis >= rotateIntervalMillis) {
+                    rotate();
+                }
+            } catch (IOException e) {
+                long now = System.currentTimeMillis();
+                if (now - lastErrorMillis >= ERROR_COOLDOWN_MILLIS) {
+                    lastErrorMillis = now;
+                    logger.error("写入执行日志失败", e);
+                }
+            }
+
+            if (count < MAX_BATCH && running) {
+                LockSupport.parkNanos(this, FLUSH_INTERVAL_NANOS);
+            }
+        }
+        closeFile();
+    }
+
+    private void write() throws IOException {
+        if (channel == null) {
+            openFile();
+        }
+        ByteBuffer buffer = StandardCharsets.UTF_8.encode(CharBuffer.wrap(text));
+        while (buffer.hasRemaining()) {
+            fileBytes += channel.write(buffer);
+        }
+    }
+
+    private void openFile() throws IOException {
+        channel = FileChannel.open(directory.resolve(FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        fileBytes = channel.size();
+        fileOpenedMillis = System.currentTimeMillis();
+    }
+
+    private void closeFile() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("关闭执行日志失败", e);
+        }
+        channel = null;
+    }
+
+    /**
+     * 轮换当前文件并删除超出数量的旧文件
+     */
+    private void rotate() throws IOException {
+        if (fileBytes == 0) {
+            // 空文件不轮换，只重新计时
+            fileOpenedMillis = System.currentTimeMillis();
+            return;
+        }
+        closeFile();
+
+        String stamp = LocalDateTime.now().format(ROTATED_FORMAT);
+        Path target = directory.resolve(ROTATED_PREFIX + stamp + ROTATED_SUFFIX);
+        for (int i = 1; Files.exists(target); i++) {
+            target = directory.resolve(ROTATED_PREFIX + stamp + "-" + i + ROTATED_SUFFIX);
+        }
+        Files.move(directory.resolve(FILE_NAME), target);
+        deleteOldFiles();
+        openFile();
+    }
+
+    private void deleteOldFiles() throws IOException {
+        List<Path> rotated = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory,
+                ROTATED_PREFIX + "*" + ROTATED_SUFFIX)) {
+            for (Path file : files) {
+                rotated.add(file);
+            }
+        }
+        rotated.sort(ROTATION_ORDER);
+        for (int i = 0; i < rotated.size() - maxFiles; i++) {
+            Files.deleteIfExists(rotated.get(i));
+        }
+    }
+
+    private static String rotatedStamp(Path file) {
+        String name = file.getFileName().toString();
+        return name.substring(ROTATED_PREFIX.length(), Math.min(name.length(), ROTATED_PREFIX.length() + STAMP_LENGTH));
+    }
+
+    private static int rotatedIndex(Path file) {
+        String name = file.getFileName().toString();
+        int start = ROTATED_PREFIX.length() + STAMP_LENGTH + 1;
+        int end = name.length() - ROTATED_SUFFIX.length();
+        if (start >= end) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(name.substring(start, end));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    public void setLogExecutions(boolean logExecutions) {
+        this.logExecutions = logExecutions;
+    }
+
+    public void setLogCommandResults(boolean logCommandResults) {
+        this.logCommandResults = logCommandResults;
+    }
+
+    public void setLogPerformance(boolean logPerformance) {
+        this.logPerformance = logPerformance;
+    }
+
+    public void setCapacity(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("队列容量必须大于0");
+        }
+        this.capacity = capacity;
+    }
+
+    public void setMaxFileBytes(long maxFileBytes) {
+        if (maxFileBytes <= 0) {
+            throw new IllegalArgumentException("文件大小上限必须大于0");
+        }
+        this.maxFileBytes = maxFileBytes;
+    }
+
+    public void setRotateIntervalMillis(long rotateIntervalMillis) {
+        if (rotateIntervalMillis <= 0) {
+            throw new IllegalArgumentException("轮换间隔必须大于0");
+        }
+        this.rotateIntervalMillis = rotateIntervalMillis;
+    }
+
+    public void setMaxFiles(int maxFiles) {
+        if (maxFiles < 0) {
+            throw new IllegalArgumentException("保留文件数不能为负数");
+        }
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * 队列中的一条记录，在后台线程中格式化
+     */
+    private abstract static class Entry {
+        final long timeMillis;
+
+        Entry(long timeMillis) {
+            this.timeMillis = timeMillis;
+        }
+
+        void appendTo(StringBuilder out) {
+            out.append("{\"time\":\"").append(Instant.ofEpochMilli(timeMillis)).append("\",\"type\":\"")
+                    .append(type()).append('"');
+            appendFields(out);
+            out.append('}');
+        }
+
+        abstract String type();
+
+        abstract void appendFields(StringBuilder out);
+    }
+
+    private static final class FireEntry extends Entry {
+        private final String taskId;
+        private final String mode;
+        private final List<String> commands;
+
+        FireEntry(long timeMillis, String taskId, String mode, List<String> commands) {
+            super(timeMillis);
+            this.taskId = taskId;
+            this.mode = mode;
+            this.commands = commands;
+        }
+
+        @Override
+        String type() {
+            return "fire";
+        }
+
+        @Override
+        void appendFields(StringBuilder out) {
+            appendString(out.append(",\"task\":"), taskId);
+            appendString(out.append(",\"mode\":"), mode);
+            out.append(",\"commands\":[");
+            for (int i = 0; i < commands.size(); i++) {
+                if (i > 0) {
+                    out.append(',');
+                }
+                appendString(out, commands.get(i));
+            }
+            out.append(']');
+        }
+    }
+
+    private static final class CommandEntry extends Entry {
+        private final String taskId;
+        private final String command;
+        private final boolean success;
+        private final long latencyNanos;
+
+        CommandEntry(long timeMillis, String taskId, String command, boolean success, long latencyNanos) {
+            super(timeMillis);
+            this.taskId = taskId;
+            this.command = command;
+            this.success = success;
+            this.latencyNanos = latencyNanos;
+        }
+
+        @Override
+        String type() {
+            return "command";
+        }
+
+        @Override
+        void appendFields(StringBuilder out) {
+            appendString(out.append(",\"task\":"), taskId);
+            appendString(out.append(",\"command\":"), command);
+            out.append(",\"success\":").append(success);
+            out.append(",\"latencyMs\":").append(latencyNanos / (double) TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private static final class PerformanceEntry extends Entry {
+        private final long fires;
+        private final long commandSuccesses;
+        private final long commandFailures;
+        private final long queuedCommands;
+        private final long skewP50Millis;
+        private final long skewP99Millis;
+        private final long skippedMinutes;
+        private final long droppedEntries;
+
+        PerformanceEntry(long timeMillis, long fires, long commandSuccesses, long commandFailures,
+                         long queuedCommands, long skewP50Millis, long skewP99Millis, long skippedMinutes,
+                         long droppedEntries) {
+            super(timeMillis);
+            this.fires = fires;
+            this.commandSuccesses = commandSuccesses;
+            this.commandFailures = commandFailures;
+            this.queuedCommands = queuedCommands;
+            this.skewP50Millis = skewP50Millis;
+            this.skewP99Millis = skewP99Millis;
+            this.skippedMinutes = skippedMinutes;
+            this.droppedEntries = droppedEntries;
+        }
+
+        @Override
+        String type() {
+            return "performance";
+        }
+
+        @Override
+        void appendFields(StringBuilder out) {
+            out.append(",\"fires\":").append(fires);
+            out.append(",\"commandSuccesses\":").append(commandSuccesses);
+            out.append(",\"commandFailures\":").append(commandFailures);
+            out.append(",\"queuedCommands\":").append(queuedCommands);
+            out.append(",\"skewP50Ms\":").append(skewP50Millis);
+            out.append(",\"skewP99Ms\":").append(skewP99Millis);
+            out.append(",\"skippedMinutes\":").append(skippedMinutes);
+            out.append(",\"droppedEntries\":").append(droppedEntries);
+        }
+    }
+
+    /**
+     * 写入JSON字符串（null写为null）
+     */
+    static void appendString(StringBuilder out, String value) {
+        if (value == null) {
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+}
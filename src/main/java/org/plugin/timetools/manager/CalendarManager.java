@@ -0,0 +1,98 @@
+package org.plugin.timetools.manager;
+
+import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.model.HolidayCalendar;
+import org.plugin.timetools.model.Task;
+import org.slf4j.Logger;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 排除日历管理器
+ *
+ * 任务只按名称引用日历，重载时整体替换编译好的日历表，不需要修改或重新调度任务。
+ */
+public class CalendarManager {
+
+    private final ConfigManager configManager;
+    private final Logger logger;
+    private volatile Map<String, HolidayCalendar> calendars = Collections.emptyMap();
+
+    public CalendarManager(ConfigManager configManager, Logger logger) {
+        this.configManager = configManager;
+        this.logger = logger;
+    }
+
+    /**
+     * 重新读取并编译所有日历，编译失败的日历保留旧版本
+     *
+     * @return 生效的日历数量
+     */
+    public int reload() {
+        Map<String, HolidayCalendar> previous = calendars;
+        Map<String, HolidayCalendar> compiled = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> entry : configManager.loadCalendars().entrySet()) {
+            try {
+                compiled.put(entry.getKey(), HolidayCalendar.compile(entry.getKey(), entry.getValue()));
+            } catch (IllegalArgumentException e) {
+                logger.error("编译日历失败: {}", e.getMessage());
+                HolidayCalendar old = previous.get(entry.getKey());
+                if (old != null) {
+                    compiled.put(entry.getKey(), old);
+                }
+            }
+        }
+        calendars = Collections.unmodifiableMap(compiled);
+        logger.info("成功加载 {} 个排除日历", compiled.size());
+        return compiled.size();
+    }
+
+    /**
+     * 检查引用的日历是否都已定义，未定义的日历不排除任何日期
+     */
+    public void warnUnknown(Collection<Task> tasks) {
+        Map<String, HolidayCalendar> current = calendars;
+        for (Task task : tasks) {
+            for (String name : task.getCalendars()) {
+                if (!current.containsKey(name)) {
+                    logger.warn("任务 {} 引用了未定义的日历: {}", task.getId(), name);
+                }
+            }
+        }
+    }
+
+    /**
+     * 指定日期是否被任务引用的任一日历排除
+     */
+    public boolean isExcluded(Task task, LocalDate date) {
+        Collection<String> names = task.getCalendars();
+        if (names.isEmpty()) {
+            return false;
+        }
+        Map<String, HolidayCalendar> current = calendars;
+        for (String name : names) {
+            HolidayCalendar calendar = current.get(name);
+            if (calendar != null && calendar.contains(date)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public HolidayCalendar getCalendar(String name) {
+        return calendars.get(name.toLowerCase());
+    }
+
+    public Collection<HolidayCalendar> getCalendars() {
+        return calendars.values();
+    }
+
+    public int getCalendarCount() {
+        return calendars.size();
+    }
+}
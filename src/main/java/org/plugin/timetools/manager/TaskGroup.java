@@ -0,0 +1,60 @@
+package org.plugin.timetools.manager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 任务组
+ *
+ * 由标签定义，记录组内任务ID、组级暂停状态和执行统计。
+ * 暂停/恢复只翻转一个标志位，调度器在触发时检查，不需要逐个修改任务或重新调度。
+ */
+public class TaskGroup {
+
+    private final String name;
+    private final Set<String> taskIds;
+    private final LongAdder fireCount;
+    private volatile boolean paused;
+
+    public TaskGroup(String name) {
+        this.name = name;
+        this.taskIds = ConcurrentHashMap.newKeySet();
+        this.fireCount = new LongAdder();
+        this.paused = false;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取组内任务ID（实时视图）
+     */
+    public Set<String> getTaskIds() {
+        return taskIds;
+    }
+
+    public int size() {
+        return taskIds.size();
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * 获取组内任务自启动以来的执行次数
+     */
+    public long getFireCount() {
+        return fireCount.sum();
+    }
+
+    void recordFire() {
+        fireCount.increment();
+    }
+}
@@ -1,9 +1,16 @@
 package org.plugin.timetools.manager;
 
 import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.metrics.LatencyHistogram;
+import org.plugin.timetools.model.MisfirePolicy;
+import org.plugin.timetools.model.OverlapPolicy;
+import org.plugin.timetools.model.RangeMode;
 import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+import org.plugin.timetools.util.PrefixIndex;
 import org.slf4j.Logger;
 
+import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -14,16 +21,40 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class TaskManager {
     
+    public static final String SEARCH_SELECTOR_PREFIX = "search:";
+    public static final String TAG_SELECTOR_PREFIX = "tag:";
+    
     private final ConfigManager configManager;
     private final Logger logger;
     private final Map<String, Task> tasks;
     
+    // 标签 -> 任务组索引
+    private final Map<String, TaskGroup> groups;
+    
+    // 任务ID前缀索引，用于Tab补全
+    private final PrefixIndex taskIdIndex;
+    
+    // 批量操作与单任务操作共用的修改锁，保证一次批量变更整体生效
+    private final Object mutationLock = new Object();
+    
+    // 每次保存任务文件的耗时
+    private final LatencyHistogram flushDuration = new LatencyHistogram();
+    
+    // 排除日历，任务按名称引用
+    private final CalendarManager calendarManager;
+    
     public TaskManager(ConfigManager configManager, Logger logger) {
         this.configManager = configManager;
         this.logger = logger;
         this.tasks = new ConcurrentHashMap<>();
+        this.groups = new ConcurrentHashMap<>();
+        this.taskIdIndex = new PrefixIndex();
+        this.calendarManager = new CalendarManager(configManager, logger);
         
         loadTasks();
+        loadPausedGroups();
+        calendarManager.reload();
+        calendarManager.warnUnknown(tasks.values());
     }
     
     /**
@@ -34,6 +65,7 @@ public class TaskManager {
             List<Task> loadedTasks = configManager.loadTasks();
             for (Task task : loadedTasks) {
                 tasks.put(task.getId(), task);
+                indexTask(task);
             }
             logger.info("成功加载 {} 个任务", tasks.size());
         } catch (Exception e) {
@@ -41,6 +73,42 @@ public class TaskManager {
         }
     }
     
+    /**
+     * 加载已暂停的任务组
+     */
+    private void loadPausedGroups() {
+        for (String tag : configManager.loadPausedGroups()) {
+            groups.computeIfAbsent(tag, TaskGroup::new).setPaused(true);
+        }
+    }
+    
+    /**
+     * 将任务加入标签索引
+     */
+    private void indexTask(Task task) {
+        taskIdIndex.add(task.getId());
+        for (String tag : task.getTags()) {
+            groups.computeIfAbsent(tag, TaskGroup::new).getTaskIds().add(task.getId());
+        }
+    }
+    
+    /**
+     * 将任务移出标签索引
+     */
+    private void unindexTask(Task task) {
+        taskIdIndex.remove(task.getId());
+        for (String tag : task.getTags()) {
+            TaskGroup group = groups.get(tag);
+            if (group != null) {
+                group.getTaskIds().remove(task.getId());
+                // 空组且未暂停时不再保留
+                if (group.size() == 0 && !group.isPaused()) {
+                    groups.remove(tag);
+                }
+            }
+        }
+    }
+    
     /**
      * 添加任务
      */
@@ -50,10 +118,16 @@ public class TaskManager {
         }
         
         String taskId = task.getId();
-        tasks.put(taskId, task);
-        
-        // 保存到文件
-        saveAllTasks();
+        synchronized (mutationLock) {
+            Task previous = tasks.put(taskId, task);
+            if (previous != null) {
+                unindexTask(previous);
+            }
+            indexTask(task);
+            
+            // 保存到文件
+            saveAllTasks();
+        }
         
         logger.info("添加任务: {}", taskId);
         return taskId;
@@ -67,12 +141,15 @@ public class TaskManager {
             return false;
         }
         
-        Task removedTask = tasks.remove(taskId);
-        if (removedTask != null) {
-            // 保存到文件
-            saveAllTasks();
-            logger.info("删除任务: {}", taskId);
-            return true;
+        synchronized (mutationLock) {
+            Task removedTask = tasks.remove(taskId);
+            if (removedTask != null) {
+                unindexTask(removedTask);
+                // 保存到文件
+                saveAllTasks();
+                logger.info("删除任务: {}", taskId);
+                return true;
+            }
         }
         
         return false;
@@ -103,30 +180,578 @@ public class TaskManager {
     
     /**
      * 启用任务
+     *
+     * @return 被启用的任务，不存在时返回null
      */
-    public boolean enableTask(String taskId) {
-        Task task = tasks.get(taskId);
-        if (task != null) {
-            task.setEnabled(true);
-            saveAllTasks();
-            logger.info("启用任务: {}", taskId);
-            return true;
+    public Task enableTask(String taskId) {
+        synchronized (mutationLock) {
+            Task task = tasks.get(taskId);
+            if (task != null) {
+                task.setEnabled(true);
+                saveAllTasks();
+                logger.info("启用任务: {}", taskId);
+            }
+            return task;
         }
-        return false;
     }
     
     /**
      * 禁用任务
+     *
+     * @return 被禁用的任务，不存在时返回null
      */
-    public boolean disableTask(String taskId) {
-        Task task = tasks.get(taskId);
-        if (task != null) {
-            task.setEnabled(false);
-            saveAllTasks();
-            logger.info("禁用任务: {}", taskId);
-            return true;
+    public Task disableTask(String taskId) {
+        synchronized (mutationLock) {
+            Task task = tasks.get(taskId);
+            if (task != null) {
+                task.setEnabled(false);
+                saveAllTasks();
+                logger.info("禁用任务: {}", taskId);
+            }
+            return task;
         }
-        return false;
+    }
+    
+    /**
+     * 按选择器查找任务
+     *
+     * 支持的选择器：
+     * 1. ID通配符：event-*、daily-?（* 匹配任意字符，? 匹配单个字符）
+     * 2. 搜索查询：search:关键词（匹配ID或命令内容）
+     * 3. 标签：tag:标签
+     */
+    public List<Task> selectTasks(String selector) {
+        if (selector == null || selector.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        if (selector.startsWith(SEARCH_SELECTOR_PREFIX)) {
+            String keyword = selector.substring(SEARCH_SELECTOR_PREFIX.length());
+            if (keyword.trim().isEmpty()) {
+                return new ArrayList<>();
+            }
+            return searchTasks(keyword);
+        }
+        
+        if (selector.startsWith(TAG_SELECTOR_PREFIX)) {
+            return getTasksByTag(selector.substring(TAG_SELECTOR_PREFIX.length()));
+        }
+        
+        return tasks.values().stream()
+                .filter(task -> matchesGlob(selector, task.getId()))
+                .toList();
+    }
+    
+    /**
+     * 批量启用任务
+     *
+     * @return 状态实际发生变化的任务
+     */
+    public List<Task> enableTasks(Collection<Task> targets) {
+        return setTasksEnabled(targets, true);
+    }
+    
+    /**
+     * 批量禁用任务
+     *
+     * @return 状态实际发生变化的任务
+     */
+    public List<Task> disableTasks(Collection<Task> targets) {
+        return setTasksEnabled(targets, false);
+    }
+    
+    private List<Task> setTasksEnabled(Collection<Task> targets, boolean enabled) {
+        List<Task> changed = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.get(target.getId());
+                if (task != null && task.isEnabled() != enabled) {
+                    task.setEnabled(enabled);
+                    changed.add(task);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量{}任务: {} 个", enabled ? "启用" : "禁用", changed.size());
+        return changed;
+    }
+    
+    /**
+     * 批量删除任务
+     *
+     * @return 实际被删除的任务
+     */
+    public List<Task> removeTasks(Collection<Task> targets) {
+        List<Task> removed = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.remove(target.getId());
+                if (task != null) {
+                    unindexTask(task);
+                    removed.add(task);
+                }
+            }
+            
+            if (!removed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量删除任务: {} 个", removed.size());
+        return removed;
+    }
+    
+    /**
+     * 将过期的任务追加到归档文件并移出任务列表
+     *
+     * 先在修改锁之外写入归档文件，写入失败时不移除任何任务；写入成功后再移除并重写tasks.yml，
+     * 重启后不会再次加载并重复归档。包含文件写入，不应在主检查线程上调用
+     *
+     * @return 实际被归档的任务
+     */
+    public List<Task> archiveTasks(Collection<Task> targets) {
+        List<Task> present = new ArrayList<>();
+        for (Task target : targets) {
+            Task task = tasks.get(target.getId());
+            if (task != null) {
+                present.add(task);
+            }
+        }
+        if (present.isEmpty()) {
+            return Collections.emptyList();
+        }
+        
+        if (!configManager.archiveTasks(present.stream().filter(Task::isPersistent).toList(),
+                System.currentTimeMillis())) {
+            logger.warn("写入归档文件失败，{} 个过期任务保留在任务列表中", present.size());
+            return Collections.emptyList();
+        }
+        
+        List<Task> archived = new ArrayList<>();
+        synchronized (mutationLock) {
+            for (Task task : present) {
+                // 写入归档期间被替换的任务不移除
+                if (tasks.remove(task.getId(), task)) {
+                    unindexTask(task);
+                    archived.add(task);
+                }
+            }
+            
+            if (!archived.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("归档过期任务: {} 个", archived.size());
+        return archived;
+    }
+    
+    /**
+     * 批量设置任务的有效期
+     *
+     * @return 有效期实际发生变化的任务
+     */
+    public List<Task> setValidity(Collection<Task> targets, LocalDate validFrom, LocalDate validUntil) {
+        List<Task> changed = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.get(target.getId());
+                if (task != null && (!Objects.equals(task.getValidFrom(), validFrom)
+                        || !Objects.equals(task.getValidUntil(), validUntil))) {
+                    task.setValidity(validFrom, validUntil);
+                    changed.add(task);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量设置有效期 {} - {}: {} 个任务", validFrom, validUntil, changed.size());
+        return changed;
+    }
+    
+    /**
+     * 批量导入任务，ID已存在的任务会被跳过
+     *
+     * @return 实际导入的任务
+     */
+    public List<Task> importTasks(Collection<Task> imported) {
+        List<Task> added = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task task : imported) {
+                if (tasks.putIfAbsent(task.getId(), task) == null) {
+                    indexTask(task);
+                    added.add(task);
+                }
+            }
+            
+            if (added.stream().anyMatch(Task::isPersistent)) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量导入任务: {} 个，跳过 {} 个", added.size(), imported.size() - added.size());
+        return added;
+    }
+    
+    /**
+     * 批量注册任务，全部成功或全部不注册
+     *
+     * 与 {@link #importTasks(Collection)} 不同，ID已存在或重复时不跳过而是抛出异常；
+     * 检查与加入在同一次修改中完成，并发注册同一ID时只有一方成功
+     *
+     * @throws IllegalArgumentException 任一任务ID已存在或重复时抛出
+     */
+    public List<Task> registerTasks(Collection<Task> registered) {
+        List<Task> added = new ArrayList<>(registered);
+        
+        synchronized (mutationLock) {
+            Set<String> ids = new HashSet<>();
+            for (Task task : added) {
+                if (!ids.add(task.getId()) || tasks.containsKey(task.getId())) {
+                    throw new IllegalArgumentException("任务ID已存在: " + task.getId());
+                }
+            }
+            for (Task task : added) {
+                tasks.put(task.getId(), task);
+                indexTask(task);
+            }
+            
+            if (added.stream().anyMatch(Task::isPersistent)) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量注册任务: {} 个", added.size());
+        return added;
+    }
+    
+    /**
+     * 批量为任务添加标签
+     *
+     * @return 标签实际发生变化的任务
+     */
+    public List<Task> addTags(Collection<Task> targets, Collection<String> tagsToAdd) {
+        return updateTags(targets, tagsToAdd, true);
+    }
+    
+    /**
+     * 批量移除任务的标签
+     *
+     * @return 标签实际发生变化的任务
+     */
+    public List<Task> removeTags(Collection<Task> targets, Collection<String> tagsToRemove) {
+        return updateTags(targets, tagsToRemove, false);
+    }
+    
+    private List<Task> updateTags(Collection<Task> targets, Collection<String> tagChanges, boolean add) {
+        List<Task> changed = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.get(target.getId());
+                if (task == null) {
+                    continue;
+                }
+                
+                Set<String> newTags = new LinkedHashSet<>(task.getTags());
+                boolean modified = false;
+                for (String tag : tagChanges) {
+                    String normalized = tag.trim().toLowerCase();
+                    modified |= add ? newTags.add(normalized) : newTags.remove(normalized);
+                }
+                
+                if (modified) {
+                    unindexTask(task);
+                    task.setTags(newTags);
+                    indexTask(task);
+                    changed.add(task);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量{}标签 {}: {} 个任务", add ? "添加" : "移除", tagChanges, changed.size());
+        return changed;
+    }
+    
+    /**
+     * 批量为任务添加排除日历
+     *
+     * @return 日历实际发生变化的任务
+     */
+    public List<Task> addCalendar(Collection<Task> targets, String calendar) {
+        return updateCalendar(targets, calendar, true);
+    }
+    
+    /**
+     * 批量移除任务的排除日历
+     *
+     * @return 日历实际发生变化的任务
+     */
+    public List<Task> removeCalendar(Collection<Task> targets, String calendar) {
+        return updateCalendar(targets, calendar, false);
+    }
+    
+    private List<Task> updateCalendar(Collection<Task> targets, String calendar, boolean add) {
+        List<Task> changed = new ArrayList<>();
+        String normalized = calendar.trim().toLowerCase();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.get(target.getId());
+                if (task == null) {
+                    continue;
+                }
+                
+                Set<String> newCalendars = new LinkedHashSet<>(task.getCalendars());
+                if (add ? newCalendars.add(normalized) : newCalendars.remove(normalized)) {
+                    task.setCalendars(newCalendars);
+                    changed.add(task);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量{}排除日历 {}: {} 个任务", add ? "添加" : "移除", normalized, changed.size());
+        return changed;
+    }
+    
+    /**
+     * 批量设置任务的重叠策略
+     *
+     * @return 策略实际发生变化的任务
+     */
+    public List<Task> setOverlapPolicy(Collection<Task> targets, OverlapPolicy policy) {
+        List<Task> changed = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.get(target.getId());
+                if (task != null && task.getOverlapPolicy() != policy) {
+                    task.setOverlapPolicy(policy);
+                    changed.add(task);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量设置重叠策略 {}: {} 个任务", policy, changed.size());
+        return changed;
+    }
+    
+    /**
+     * 批量设置时间区间任务的触发方式，其他类型的任务忽略
+     *
+     * @return 触发方式实际发生变化的任务（触发时间表已改变，需要更新调度）
+     */
+    public List<Task> setRangeMode(Collection<Task> targets, RangeMode mode) {
+        List<Task> changed = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.get(target.getId());
+                if (task != null && task.getScheduleType() == TaskScheduleType.TIME_RANGE
+                        && task.getRangeMode() != mode) {
+                    task.setRangeMode(mode);
+                    changed.add(task);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量设置区间触发方式 {}: {} 个任务", mode, changed.size());
+        return changed;
+    }
+    
+    /**
+     * 批量设置任务的错过触发策略
+     *
+     * @return 策略实际发生变化的任务
+     */
+    public List<Task> setMisfirePolicy(Collection<Task> targets, MisfirePolicy policy) {
+        List<Task> changed = new ArrayList<>();
+        
+        synchronized (mutationLock) {
+            for (Task target : targets) {
+                Task task = tasks.get(target.getId());
+                if (task != null && task.getMisfirePolicy() != policy) {
+                    task.setMisfirePolicy(policy);
+                    changed.add(task);
+                }
+            }
+            
+            if (!changed.isEmpty()) {
+                saveAllTasks();
+            }
+        }
+        
+        logger.info("批量设置错过触发策略 {}: {} 个任务", policy, changed.size());
+        return changed;
+    }
+    
+    /**
+     * 获取带有指定标签的任务
+     */
+    public List<Task> getTasksByTag(String tag) {
+        TaskGroup group = groups.get(tag.trim().toLowerCase());
+        if (group == null) {
+            return new ArrayList<>();
+        }
+        
+        List<Task> result = new ArrayList<>(group.size());
+        for (String taskId : group.getTaskIds()) {
+            Task task = tasks.get(taskId);
+            if (task != null) {
+                result.add(task);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取任务组
+     */
+    public TaskGroup getGroup(String tag) {
+        return groups.get(tag.trim().toLowerCase());
+    }
+    
+    /**
+     * 获取所有任务组
+     */
+    public Collection<TaskGroup> getGroups() {
+        return new ArrayList<>(groups.values());
+    }
+    
+    /**
+     * 暂停任务组（O(1)，不修改任务本身也不重新调度）
+     */
+    public void pauseGroup(String tag) {
+        setGroupPaused(tag, true);
+    }
+    
+    /**
+     * 恢复任务组
+     */
+    public void resumeGroup(String tag) {
+        setGroupPaused(tag, false);
+    }
+    
+    private void setGroupPaused(String tag, boolean paused) {
+        String normalized = tag.trim().toLowerCase();
+        synchronized (mutationLock) {
+            TaskGroup group = groups.computeIfAbsent(normalized, TaskGroup::new);
+            group.setPaused(paused);
+            if (!paused && group.size() == 0) {
+                groups.remove(normalized);
+            }
+            
+            configManager.savePausedGroups(groups.values().stream()
+                    .filter(TaskGroup::isPaused)
+                    .map(TaskGroup::getName)
+                    .toList());
+        }
+        logger.info("{}任务组: {}", paused ? "暂停" : "恢复", normalized);
+    }
+    
+    /**
+     * 检查任务所在的组是否全部处于活动状态
+     */
+    public boolean isTaskGroupActive(Task task) {
+        for (String tag : task.getTags()) {
+            TaskGroup group = groups.get(tag);
+            if (group != null && group.isPaused()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 检查指定日期是否被任务的排除日历排除
+     */
+    public boolean isExcludedOn(Task task, LocalDate date) {
+        return calendarManager.isExcluded(task, date);
+    }
+    
+    /**
+     * 获取排除日历管理器
+     */
+    public CalendarManager getCalendarManager() {
+        return calendarManager;
+    }
+    
+    /**
+     * 记录任务所在组的执行次数
+     */
+    public void recordGroupFire(Task task) {
+        for (String tag : task.getTags()) {
+            TaskGroup group = groups.get(tag);
+            if (group != null) {
+                group.recordFire();
+            }
+        }
+    }
+    
+    /**
+     * 通配符匹配（* 匹配任意字符序列，? 匹配单个字符）
+     */
+    static boolean matchesGlob(String pattern, String text) {
+        int p = 0;
+        int t = 0;
+        int starPattern = -1;
+        int starText = -1;
+        
+        while (t < text.length()) {
+            if (p < pattern.length() && (pattern.charAt(p) == '?' || pattern.charAt(p) == text.charAt(t))) {
+                p++;
+                t++;
+            } else if (p < pattern.length() && pattern.charAt(p) == '*') {
+                starPattern = p++;
+                starText = t;
+            } else if (starPattern != -1) {
+                p = starPattern + 1;
+                t = ++starText;
+            } else {
+                return false;
+            }
+        }
+        
+        while (p < pattern.length() && pattern.charAt(p) == '*') {
+            p++;
+        }
+        return p == pattern.length();
+    }
+    
+    /**
+     * 按前缀补全任务ID
+     *
+     * @param limit 最多返回的数量
+     */
+    public List<String> suggestTaskIds(String prefix, int limit) {
+        return taskIdIndex.complete(prefix, limit);
     }
     
     /**
@@ -147,9 +772,26 @@ public class TaskManager {
      * 获取启用的任务数量
      */
     public int getEnabledTaskCount() {
-        return (int) tasks.values().stream()
-                .filter(Task::isEnabled)
-                .count();
+        int count = 0;
+        for (Task task : tasks.values()) {
+            if (task.isEnabled()) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * 获取已暂停的任务组数量
+     */
+    public int getPausedGroupCount() {
+        int count = 0;
+        for (TaskGroup group : groups.values()) {
+            if (group.isPaused()) {
+                count++;
+            }
+        }
+        return count;
     }
     
     /**
@@ -167,14 +809,27 @@ public class TaskManager {
      * 保存所有任务到文件
      */
     public void saveAllTasks() {
+        long startNanos = System.nanoTime();
         try {
-            configManager.saveTasks(tasks.values());
-            logger.debug("保存 {} 个任务到文件", tasks.size());
+            List<Task> persistentTasks = tasks.values().stream()
+                    .filter(Task::isPersistent)
+                    .toList();
+            configManager.saveTasks(persistentTasks);
+            logger.debug("保存 {} 个任务到文件", persistentTasks.size());
         } catch (Exception e) {
             logger.error("保存任务失败", e);
+        } finally {
+            flushDuration.record(System.nanoTime() - startNanos);
         }
     }
     
+    /**
+     * 获取保存任务文件的耗时分布
+     */
+    public LatencyHistogram getFlushDuration() {
+        return flushDuration;
+    }
+    
     /**
      * 获取任务列表（分页）
      */
@@ -220,8 +875,15 @@ public class TaskManager {
      * 清空所有任务
      */
     public void clearAllTasks() {
-        tasks.clear();
-        saveAllTasks();
+        synchronized (mutationLock) {
+            tasks.clear();
+            taskIdIndex.clear();
+            groups.values().removeIf(group -> {
+                group.getTaskIds().clear();
+                return !group.isPaused();
+            });
+            saveAllTasks();
+        }
         logger.info("清空所有任务");
     }
     
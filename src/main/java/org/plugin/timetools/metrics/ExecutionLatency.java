@@ -0,0 +1,55 @@
+package org.plugin.timetools.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 一个任务或一个命令根的执行延迟
+ *
+ * 分派延迟为命令计划分派时刻到实际调用 executeAsync 的间隔（ALL/逐个模式中包含调度器的排队延迟），
+ * 完成耗时为调用 executeAsync 到其结果完成的间隔。任务的统计数量与任务数相同，使用低精度直方图。
+ */
+public final class ExecutionLatency {
+
+    private final LatencyHistogram dispatchLag;
+    private final LatencyHistogram completion;
+    private final LongAdder failures = new LongAdder();
+
+    private ExecutionLatency(LatencyHistogram dispatchLag, LatencyHistogram completion) {
+        this.dispatchLag = dispatchLag;
+        this.completion = completion;
+    }
+
+    static ExecutionLatency forCommandRoot() {
+        return new ExecutionLatency(new LatencyHistogram(), new LatencyHistogram());
+    }
+
+    static ExecutionLatency forTask() {
+        return new ExecutionLatency(LatencyHistogram.coarse(), LatencyHistogram.coarse());
+    }
+
+    void recordDispatchLag(long nanos) {
+        dispatchLag.record(nanos);
+    }
+
+    void recordCompletion(long nanos, boolean success) {
+        completion.record(nanos);
+        if (!success) {
+            failures.increment();
+        }
+    }
+
+    public LatencyHistogram getDispatchLag() {
+        return dispatchLag;
+    }
+
+    public LatencyHistogram getCompletion() {
+        return completion;
+    }
+
+    /**
+     * 执行失败（返回false或异常）的命令数
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+}
@@ -0,0 +1,165 @@
+package org.plugin.timetools.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 命令执行延迟统计
+ *
+ * 按任务和按命令根（命令的第一个词，例如 say、server）分别记录。任务的统计在首次触发时创建，
+ * 任务删除时移除，之后才完成的命令只计入命令根；命令根最多记录 {@link #MAX_COMMAND_ROOTS} 个，超出的归入 {@link #OTHER_ROOT}。
+ * 另外统计触发次数、命令成功/失败总数和已调度但尚未分派的命令数。
+ */
+public class ExecutionMetrics {
+
+    /**
+     * 单独统计的命令根数量上限
+     */
+    public static final int MAX_COMMAND_ROOTS = 256;
+
+    /**
+     * 超出上限的命令根使用的名称
+     */
+    public static final String OTHER_ROOT = "(other)";
+
+    private final Map<String, ExecutionLatency> tasks = new ConcurrentHashMap<>();
+    private final Map<String, ExecutionLatency> commandRoots = new ConcurrentHashMap<>();
+    private final LongAdder fires = new LongAdder();
+    private final LongAdder commandSuccesses = new LongAdder();
+    private final LongAdder commandFailures = new LongAdder();
+    private final LongAdder queuedCommands = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+
+    /**
+     * 记录一次任务触发
+     *
+     * @param taskId 触发的任务，为null时只计数
+     */
+    public void recordFire(String taskId) {
+        fires.increment();
+        if (taskId != null) {
+            tasks.computeIfAbsent(taskId, id -> ExecutionLatency.forTask());
+        }
+    }
+
+    /**
+     * 记录一次执行超时
+     */
+    public void recordTimeout() {
+        timeouts.increment();
+    }
+
+    /**
+     * 命令已交给调度器延迟分派
+     */
+    public void commandQueued() {
+        queuedCommands.increment();
+    }
+
+    /**
+     * 延迟分派的命令开始执行
+     */
+    public void commandDequeued() {
+        queuedCommands.decrement();
+    }
+
+    /**
+     * 记录命令从计划分派到实际分派的延迟
+     *
+     * @param taskId 所属任务，为null时只按命令根统计
+     * @param command 不含前导斜杠的命令
+     */
+    public void recordDispatchLag(String taskId, String command, long nanos) {
+        ExecutionLatency latency = taskId == null ? null : tasks.get(taskId);
+        if (latency != null) {
+            latency.recordDispatchLag(nanos);
+        }
+        forCommandRoot(command).recordDispatchLag(nanos);
+    }
+
+    /**
+     * 记录命令从分派到完成的耗时
+     */
+    public void recordCompletion(String taskId, String command, long nanos, boolean success) {
+        (success ? commandSuccesses : commandFailures).increment();
+        ExecutionLatency latency = taskId == null ? null : tasks.get(taskId);
+        if (latency != null) {
+            latency.recordCompletion(nanos, success);
+        }
+        forCommandRoot(command).recordCompletion(nanos, success);
+    }
+
+    public long getFireCount() {
+        return fires.sum();
+    }
+
+    public long getCommandSuccessCount() {
+        return commandSuccesses.sum();
+    }
+
+    public long getCommandFailureCount() {
+        return commandFailures.sum();
+    }
+
+    /**
+     * 已调度但尚未分派的命令数（ALL/逐个模式）
+     */
+    public long getQueuedCommandCount() {
+        return queuedCommands.sum();
+    }
+
+    /**
+     * 执行超时的次数
+     */
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    /**
+     * 获取任务的统计，尚未执行过时返回null
+     */
+    public ExecutionLatency getTaskLatency(String taskId) {
+        return tasks.get(taskId);
+    }
+
+    public Map<String, ExecutionLatency> getTaskLatencies() {
+        return Collections.unmodifiableMap(tasks);
+    }
+
+    public Map<String, ExecutionLatency> getCommandRootLatencies() {
+        return Collections.unmodifiableMap(commandRoots);
+    }
+
+    /**
+     * 删除任务时移除其统计
+     */
+    public void removeTask(String taskId) {
+        tasks.remove(taskId);
+    }
+
+    private ExecutionLatency forCommandRoot(String command) {
+        String root = commandRoot(command);
+        ExecutionLatency latency = commandRoots.get(root);
+        if (latency != null) {
+            return latency;
+        }
+        if (commandRoots.size() >= MAX_COMMAND_ROOTS) {
+            root = OTHER_ROOT;
+        }
+        return commandRoots.computeIfAbsent(root, key -> ExecutionLatency.forCommandRoot());
+    }
+
+    /**
+     * 命令根：去掉前导斜杠后的第一个词（小写）
+     */
+    public static String commandRoot(String command) {
+        if (command == null) {
+            return "";
+        }
+        int start = command.startsWith("/") ? 1 : 0;
+        int end = command.indexOf(' ', start);
+        return (end < 0 ? command.substring(start) : command.substring(start, end)).toLowerCase();
+    }
+}
@@ -0,0 +1,219 @@
+package org.plugin.timetools.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 固定内存的对数分桶延迟直方图
+ *
+ * 以微秒为单位记录。每个2的幂区间再等分为8个子桶，相对误差不超过12.5%，覆盖0到约71分钟，
+ * 超出范围的值计入最后一个桶。记录只做原子自增，没有锁，可以在多线程同时写入时读取。
+ * 数量很多的直方图（例如每个任务一个）使用 {@link #coarse()}，每个2的幂区间只有一个桶，内存约为八分之一。
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int MAX_EXPONENT = 31;
+
+    /**
+     * 默认精度的桶数量
+     */
+    public static final int BUCKET_COUNT = bucketCount(SUB_BUCKET_BITS);
+
+    private final int subBucketBits;
+    private final int bucketCount;
+    private final long maxTrackableMicros;
+    private final AtomicLongArray counts;
+    private final LongAdder totalMicros = new LongAdder();
+    private final AtomicLong maxMicros = new AtomicLong();
+
+    public LatencyHistogram() {
+        this(SUB_BUCKET_BITS);
+    }
+
+    private LatencyHistogram(int subBucketBits) {
+        this.subBucketBits = subBucketBits;
+        this.bucketCount = bucketCount(subBucketBits);
+        this.maxTrackableMicros = upperBoundMicros(subBucketBits, bucketCount - 1);
+        this.counts = new AtomicLongArray(bucketCount);
+    }
+
+    /**
+     * 低精度直方图：每个2的幂区间一个桶，百分位最多偏大一倍
+     */
+    public static LatencyHistogram coarse() {
+        return new LatencyHistogram(0);
+    }
+
+    /**
+     * 记录一次耗时（纳秒），负值按0处理
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos) / 1000;
+        counts.incrementAndGet(bucketIndex(subBucketBits, maxTrackableMicros, micros));
+        totalMicros.add(micros);
+
+        long current;
+        while (micros > (current = maxMicros.get())) {
+            if (maxMicros.compareAndSet(current, micros)) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 记录次数（逐桶求和，与并发写入之间不保证严格一致）
+     */
+    public long getCount() {
+        long count = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * 所有记录的总和（微秒）
+     */
+    public long getTotalMicros() {
+        return totalMicros.sum();
+    }
+
+    /**
+     * 将各桶的计数复制到调用方提供的数组中，用于不分配内存的导出
+     *
+     * @param target 长度不小于 {@link #getBucketCount()}
+     * @return 复制的计数之和
+     */
+    public long copyCounts(long[] target) {
+        long count = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            target[i] = counts.get(i);
+            count += target[i];
+        }
+        return count;
+    }
+
+    /**
+     * 获取当前数据的快照，用于一次计算多个百分位
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[bucketCount];
+        long count = 0;
+        for (int i = 0; i < bucketCount; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(subBucketBits, copy, count, totalMicros.sum(), maxMicros.get());
+    }
+
+    /**
+     * 本直方图的桶数量
+     */
+    public int getBucketCount() {
+        return bucketCount;
+    }
+
+    static int bucketIndex(long micros) {
+        return bucketIndex(SUB_BUCKET_BITS, upperBoundMicros(BUCKET_COUNT - 1), micros);
+    }
+
+    /**
+     * 默认精度下桶能容纳的最大值（微秒，含）
+     */
+    public static long upperBoundMicros(int index) {
+        return upperBoundMicros(SUB_BUCKET_BITS, index);
+    }
+
+    private static int bucketCount(int subBucketBits) {
+        return (MAX_EXPONENT - subBucketBits + 2) << subBucketBits;
+    }
+
+    private static int bucketIndex(int subBucketBits, long maxTrackableMicros, long micros) {
+        int subBuckets = 1 << subBucketBits;
+        if (micros < subBuckets) {
+            return (int) micros;
+        }
+        if (micros > maxTrackableMicros) {
+            return bucketCount(subBucketBits) - 1;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int subBucket = (int) (micros >>> (exponent - subBucketBits)) & (subBuckets - 1);
+        return (exponent - subBucketBits + 1) * subBuckets + subBucket;
+    }
+
+    private static long upperBoundMicros(int subBucketBits, int index) {
+        int subBuckets = 1 << subBucketBits;
+        if (index < subBuckets) {
+            return index;
+        }
+        int exponent = index / subBuckets + subBucketBits - 1;
+        int subBucket = index % subBuckets;
+        long width = 1L << (exponent - subBucketBits);
+        return ((long) (subBuckets + subBucket) << (exponent - subBucketBits)) + width - 1;
+    }
+
+    /**
+     * 直方图在某一时刻的只读副本
+     */
+    public static final class Snapshot {
+        private final int subBucketBits;
+        private final long[] counts;
+        private final long count;
+        private final long totalMicros;
+        private final long maxMicros;
+
+        private Snapshot(int subBucketBits, long[] counts, long count, long totalMicros, long maxMicros) {
+            this.subBucketBits = subBucketBits;
+            this.counts = counts;
+            this.count = count;
+            this.totalMicros = totalMicros;
+            this.maxMicros = maxMicros;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * 百分位（毫秒），取所在桶的上界且不超过最大值
+         *
+         * @param percentile 0到100之间
+         */
+        public double getPercentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return toMillis(Math.min(upperBoundMicros(subBucketBits, i), maxMicros));
+                }
+            }
+            return toMillis(maxMicros);
+        }
+
+        public double getMeanMillis() {
+            return count == 0 ? 0 : toMillis(totalMicros) / count;
+        }
+
+        public double getMaxMillis() {
+            return toMillis(maxMicros);
+        }
+
+        /**
+         * 桶内的记录次数
+         */
+        public long getBucketCount(int index) {
+            return counts[index];
+        }
+
+        private static double toMillis(long micros) {
+            return micros / (double) TimeUnit.MILLISECONDS.toMicros(1);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package org.plugin.timetools.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.scheduler.ExecutionPool;
+import org.plugin.timetools.scheduler.TaskScheduler;
+import org.slf4j.Logger;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prometheus文本格式的指标端点
+ *
+ * 使用JDK自带的HTTP服务器，在 /metrics 上导出任务数量、间隔定时器、触发次数、命令结果、
+ * 待分派命令数、执行池饱和度、任务文件保存耗时和触发延迟。请求由单个后台线程处理，只读取原子计数器，
+ * 不获取调度器或任务管理器的锁；输出缓冲区在多次请求之间复用。
+ */
+public class PrometheusExporter {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    // 直方图导出的桶上界（秒），计数按内部桶的边界近似
+    private static final Buckets LATENESS_BUCKETS =
+            new Buckets(0.005, 0.01, 0.05, 0.1, 0.5, 1, 5, 10, 30, 60, 120, 300);
+    private static final Buckets FLUSH_BUCKETS =
+            new Buckets(0.001, 0.005, 0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10);
+
+    private final TaskManager taskManager;
+    private final TaskScheduler taskScheduler;
+    private final Logger logger;
+
+    // 只在请求线程中使用
+    private final StringBuilder text = new StringBuilder(4096);
+    private final long[] bucketCounts = new long[LatencyHistogram.BUCKET_COUNT];
+    private byte[] body = new byte[4096];
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    public PrometheusExporter(TaskManager taskManager, TaskScheduler taskScheduler, Logger logger) {
+        this.taskManager = taskManager;
+        this.taskScheduler = taskScheduler;
+        this.logger = logger;
+    }
+
+    /**
+     * 启动HTTP服务器
+     *
+     * @param port 为0时使用随机端口
+     */
+    public void start(String host, int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("指标端点已启动");
+        }
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TimeTools-Metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        server = HttpServer.create(new InetSocketAddress(host, port), 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("指标端点已启动: http://{}:{}/metrics", host, getPort());
+    }
+
+    public void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+        logger.info("指标端点已关闭");
+    }
+
+    /**
+     * 实际监听的端口，未启动时为-1
+     */
+    public int getPort() {
+        return server != null ? server.getAddress().getPort() : -1;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+
+            int length = encode(render());
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body, 0, length);
+            }
+        } catch (RuntimeException e) {
+            logger.error("生成指标失败", e);
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * 生成指标文本，返回的内容在下一次调用前有效
+     */
+    CharSequence render() {
+        StringBuilder out = text;
+        out.setLength(0);
+
+        int total = taskManager.getTaskCount();
+        int enabled = taskManager.getEnabledTaskCount();
+        header(out, "timetools_tasks", "gauge", "Tasks by state");
+        out.append("timetools_tasks{state=\"enabled\"} ").append(enabled).append('\n');
+        out.append("timetools_tasks{state=\"disabled\"} ").append(Math.max(0, total - enabled)).append('\n');
+        gauge(out, "timetools_task_groups_paused", "Paused task groups", taskManager.getPausedGroupCount());
+
+        header(out, "timetools_interval_timers", "gauge", "Active interval timers");
+        out.append("timetools_interval_timers{timer=\"scheduler\"} ")
+                .append(taskScheduler.getSchedulerIntervalTaskCount()).append('\n');
+        out.append("timetools_interval_timers{timer=\"precision\"} ")
+                .append(taskScheduler.getPrecisionTaskCount()).append('\n');
+
+        ExecutionMetrics metrics = taskScheduler.getExecutionMetrics();
+        counter(out, "timetools_fires_total", "Task fires", metrics.getFireCount());
+        header(out, "timetools_commands_total", "counter", "Completed commands by result");
+        out.append("timetools_commands_total{result=\"success\"} ").append(metrics.getCommandSuccessCount()).append('\n');
+        out.append("timetools_commands_total{result=\"failure\"} ").append(metrics.getCommandFailureCount()).append('\n');
+        counter(out, "timetools_task_timeouts_total", "Executions cancelled by task-timeout",
+                metrics.getTimeoutCount());
+        gauge(out, "timetools_dispatch_queue_depth", "Commands scheduled but not yet dispatched",
+                Math.max(0, metrics.getQueuedCommandCount()));
+
+        ExecutionPool pool = taskScheduler.getExecutionPool();
+        if (pool != null) {
+            gauge(out, "timetools_execution_pool_threads", "Maximum concurrent executions", pool.getMaxThreads());
+            gauge(out, "timetools_execution_pool_active", "Executions currently running", pool.getActiveCount());
+            gauge(out, "timetools_execution_pool_queued", "Executions waiting for a thread", pool.getQueuedCount());
+            counter(out, "timetools_execution_pool_completed_total", "Executions finished on the pool",
+                    pool.getCompletedCount());
+            header(out, "timetools_execution_pool_rejected_total", "counter",
+                    "Executions that found the pool saturated by handling");
+            out.append("timetools_execution_pool_rejected_total{policy=\"discard\"} ")
+                    .append(pool.getRejectedCount()).append('\n');
+            out.append("timetools_execution_pool_rejected_total{policy=\"caller_runs\"} ")
+                    .append(pool.getCallerRunsCount()).append('\n');
+        }
+
+        SkewTracker skew = taskScheduler.getSkewTracker();
+        counter(out, "timetools_skipped_minutes_total", "Minutes missed by the main check",
+                skew.getSkippedMinutes());
+        counter(out, "timetools_catch_up_fires_total", "Missed fires executed by the misfire policy",
+                taskScheduler.getCatchUpFireCount());
+        gauge(out, "timetools_catch_up_pending", "Missed fires waiting for rate-limited dispatch",
+                taskScheduler.getPendingCatchUpCount());
+        counter(out, "timetools_tasks_expired_total", "Tasks archived after their validity ended",
+                taskScheduler.getExpiredTaskCount());
+        gauge(out, "timetools_calendars", "Exclusion calendars currently loaded",
+                taskManager.getCalendarManager().getCalendarCount());
+        histogram(out, "timetools_fire_lateness_seconds", "Delay between planned and actual fire time",
+                skew.getLatenessHistogram(), LATENESS_BUCKETS);
+        histogram(out, "timetools_persistence_flush_seconds", "Time spent writing the task file",
+                taskManager.getFlushDuration(), FLUSH_BUCKETS);
+        return out;
+    }
+
+    private static void header(StringBuilder out, String name, String type, String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void gauge(StringBuilder out, String name, String help, long value) {
+        header(out, name, "gauge", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private static void counter(StringBuilder out, String name, String help, long value) {
+        header(out, name, "counter", help);
+        out.append(name).append(' ').append(value).append('\n');
+    }
+
+    private void histogram(StringBuilder out, String name, String help, LatencyHistogram histogram, Buckets buckets) {
+        header(out, name, "histogram", help);
+        long count = histogram.copyCounts(bucketCounts);
+
+        long cumulative = 0;
+        int next = 0;
+        for (int i = 0; i < buckets.labels.length; i++) {
+            for (; next <= buckets.lastIndex[i]; next++) {
+                cumulative += bucketCounts[next];
+            }
+            out.append(name).append("_bucket{le=\"").append(buckets.labels[i]).append("\"} ")
+                    .append(cumulative).append('\n');
+        }
+        out.append(name).append("_bucket{le=\"+Inf\"} ").append(count).append('\n');
+        out.append(name).append("_sum ").append(histogram.getTotalMicros() / (double) TimeUnit.SECONDS.toMicros(1))
+                .append('\n');
+        out.append(name).append("_count ").append(count).append('\n');
+    }
+
+    /**
+     * 输出只包含ASCII字符，逐字符写入复用的缓冲区
+     */
+    private int encode(CharSequence content) {
+        int length = content.length();
+        if (body.length < length) {
+            body = new byte[Math.max(length, body.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            body[i] = (byte) content.charAt(i);
+        }
+        return length;
+    }
+
+    /**
+     * 导出的桶上界及其对应的最后一个内部桶
+     */
+    private static final class Buckets {
+        private final String[] labels;
+        private final int[] lastIndex;
+
+        private Buckets(double... boundsSeconds) {
+            labels = new String[boundsSeconds.length];
+            lastIndex = new int[boundsSeconds.length];
+            for (int i = 0; i < boundsSeconds.length; i++) {
+                labels[i] = Double.toString(boundsSeconds[i]);
+                long boundMicros = (long) (boundsSeconds[i] * TimeUnit.SECONDS.toMicros(1));
+                int index = 0;
+                while (index + 1 < LatencyHistogram.BUCKET_COUNT
+                        && LatencyHistogram.upperBoundMicros(index + 1) <= boundMicros) {
+                    index++;
+                }
+                lastIndex[i] = index;
+            }
+        }
+    }
+}
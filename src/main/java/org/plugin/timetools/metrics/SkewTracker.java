@@ -0,0 +1,98 @@
+package org.plugin.timetools.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 触发偏差记录
+ *
+ * 记录每次触发的实际执行时间相对计划时间的偏差（毫秒）。最近的样本保存在固定大小的环形缓冲区中，
+ * 写入只是一次原子自增和一次数组写入；百分位在读取时对缓冲区的副本排序计算。
+ * 提前触发（负偏差）之外的样本同时累计到一个 {@link LatencyHistogram} 中，用于导出完整分布。
+ * 同时统计因主检查延迟而整分钟被跳过的次数。
+ */
+public final class SkewTracker {
+
+    private final AtomicLongArray samples;
+    private final int mask;
+    private final AtomicLong written = new AtomicLong();
+    private final LongAdder skippedMinutes = new LongAdder();
+    private final LatencyHistogram lateness = new LatencyHistogram();
+
+    /**
+     * @param capacity 保留的最近样本数，向上取整为2的幂
+     */
+    public SkewTracker(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("容量必须大于0");
+        }
+        int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.samples = new AtomicLongArray(size);
+        this.mask = size - 1;
+    }
+
+    public void record(long skewMillis) {
+        long index = written.getAndIncrement();
+        samples.lazySet((int) (index & mask), skewMillis);
+        lateness.record(TimeUnit.MILLISECONDS.toNanos(skewMillis));
+    }
+
+    /**
+     * 记录主检查跳过的分钟数（这些分钟内的固定时间任务没有执行）
+     */
+    public void recordSkippedMinutes(long minutes) {
+        skippedMinutes.add(minutes);
+    }
+
+    /**
+     * 累计记录的触发次数
+     */
+    public long getRecordedCount() {
+        return written.get();
+    }
+
+    public long getSkippedMinutes() {
+        return skippedMinutes.sum();
+    }
+
+    /**
+     * 自启动以来全部触发的延迟分布
+     */
+    public LatencyHistogram getLatenessHistogram() {
+        return lateness;
+    }
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * 最近样本的百分位（毫秒），没有样本时为0
+     *
+     * @param percentile 0到100之间
+     */
+    public long getPercentileMillis(double percentile) {
+        long[] recent = recentSamples();
+        if (recent.length == 0) {
+            return 0;
+        }
+        Arrays.sort(recent);
+        int rank = (int) Math.ceil(percentile / 100.0 * recent.length);
+        return recent[Math.min(recent.length, Math.max(rank, 1)) - 1];
+    }
+
+    /**
+     * 最近样本的副本（不排序）
+     */
+    public long[] recentSamples() {
+        int count = (int) Math.min(written.get(), samples.length());
+        long[] copy = new long[count];
+        for (int i = 0; i < count; i++) {
+            copy[i] = samples.get(i);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,314 @@
+package org.plugin.timetools.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 预编译的触发时间表
+ *
+ * 将任务的时间定义（单个时间、时间列表、区间、跨零点区间、步长）编译为一天1440分钟的位图，
+ * 调度器判断是否触发只需一次位运算。跨零点区间零点之后的部分记在单独的位图中，
+ * 归属于区间开始的那一天，因此 "Mon 22:00-02:00" 会在周二凌晨继续执行。
+ * 时间区间任务的每个区间是一个窗口：只在开始时触发的窗口只编译开始分钟，随机触发的窗口编译整个区间，
+ * 由 {@link #windowKey} 判断是否已到本窗口的随机时刻。
+ */
+public final class FireSchedule {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * {@link #windowKey} 的返回值：本窗口尚未到随机触发时刻
+     */
+    public static final long NOT_DUE = -1;
+
+    private static final int WORDS = (MINUTES_PER_DAY + 63) / 64;
+    private static final int ALL_DAYS = 0x7F;
+
+    private final long[] sameDay;
+    private final long[] nextDay;
+    private final int dayMask;
+    private final boolean minuteDriven;
+    private final boolean allDay;
+    private final int fireMinuteCount;
+    // 时间区间任务的窗口，其他任务 rangeMode 为null
+    private final RangeMode rangeMode;
+    private final int windowStart;
+    private final int windowLength;
+    private final int windowStep;
+    private final long seed;
+
+    private FireSchedule(long[] sameDay, long[] nextDay, int dayMask, boolean minuteDriven, boolean allDay) {
+        this(sameDay, nextDay, dayMask, minuteDriven, allDay, null, 0, 0, 1, 0);
+    }
+
+    private FireSchedule(long[] sameDay, long[] nextDay, int dayMask, boolean minuteDriven, boolean allDay,
+                         RangeMode rangeMode, int windowStart, int windowLength, int windowStep, long seed) {
+        this.sameDay = sameDay;
+        this.nextDay = nextDay;
+        this.dayMask = dayMask;
+        this.minuteDriven = minuteDriven;
+        this.allDay = allDay;
+        this.fireMinuteCount = countUnion(sameDay, nextDay);
+        this.rangeMode = rangeMode;
+        this.windowStart = windowStart;
+        this.windowLength = windowLength;
+        this.windowStep = windowStep;
+        this.seed = seed;
+    }
+
+    /**
+     * 编译任务的时间定义
+     */
+    public static FireSchedule compile(Task task) {
+        int dayMask = task.isEveryDay() ? ALL_DAYS : toDayMask(task.getDaysOfWeek());
+        long[] sameDay = new long[WORDS];
+        long[] nextDay = null;
+
+        switch (task.getScheduleType()) {
+            case FIXED_TIME:
+                for (LocalTime time : task.getFireTimes()) {
+                    set(sameDay, minuteOf(time));
+                }
+                return new FireSchedule(sameDay, null, dayMask, true, false);
+
+            case TIME_RANGE:
+            case TIME_RANGE_WITH_INTERVAL:
+                int start = minuteOf(task.getStartTime());
+                int end = minuteOf(task.getEndTime());
+                int length = Math.floorMod(end - start, MINUTES_PER_DAY) + 1;
+                int step = task.getStepMinutes() > 0 ? task.getStepMinutes() : 1;
+                boolean range = task.getScheduleType() == TaskScheduleType.TIME_RANGE;
+                RangeMode mode = task.getRangeMode();
+                // 只在开始时触发的窗口只登记开始分钟
+                int compiledStep = range && mode == RangeMode.ONCE_AT_START ? length : step;
+                for (int offset = 0; offset < length; offset += compiledStep) {
+                    int minute = start + offset;
+                    if (minute < MINUTES_PER_DAY) {
+                        set(sameDay, minute);
+                    } else {
+                        if (nextDay == null) {
+                            nextDay = new long[WORDS];
+                        }
+                        set(nextDay, minute - MINUTES_PER_DAY);
+                    }
+                }
+                if (!range) {
+                    return new FireSchedule(sameDay, nextDay, dayMask, false, false);
+                }
+                return new FireSchedule(sameDay, nextDay, dayMask, true, false,
+                        mode, start, length, step, task.getId().hashCode());
+
+            case INTERVAL:
+            default:
+                return new FireSchedule(sameDay, null, dayMask, false, true);
+        }
+    }
+
+    /**
+     * 是否应在指定星期的指定分钟触发（仅对由分钟调度器驱动的任务有意义）
+     */
+    public boolean firesAt(DayOfWeek day, int minuteOfDay) {
+        return minuteDriven && isWithinWindow(day, minuteOfDay);
+    }
+
+    public boolean firesAt(DayOfWeek day, LocalTime time) {
+        return firesAt(day, minuteOf(time));
+    }
+
+    /**
+     * 指定时刻是否处于任务的执行窗口内（间隔任务用于判断区间，纯间隔任务只检查星期）
+     */
+    public boolean isWithinWindow(DayOfWeek day, int minuteOfDay) {
+        int dayBit = 1 << (day.getValue() - 1);
+        if (allDay) {
+            return (dayMask & dayBit) != 0;
+        }
+        if ((dayMask & dayBit) != 0 && get(sameDay, minuteOfDay)) {
+            return true;
+        }
+        if (nextDay != null) {
+            int previousDayBit = 1 << (day.minus(1).getValue() - 1);
+            return (dayMask & previousDayBit) != 0 && get(nextDay, minuteOfDay);
+        }
+        return false;
+    }
+
+    public boolean isWithinWindow(DayOfWeek day, LocalTime time) {
+        return isWithinWindow(day, minuteOf(time));
+    }
+
+    /**
+     * 是否由分钟调度器驱动（固定时间和时间区间任务）
+     */
+    public boolean isMinuteDriven() {
+        return minuteDriven;
+    }
+
+    /**
+     * 是否为时间区间任务（按窗口去重）
+     */
+    public boolean isWindowed() {
+        return rangeMode != null;
+    }
+
+    /**
+     * 时间区间任务在指定日期的指定分钟触发时的去重键（本地时间自1970-01-01起的分钟数）
+     *
+     * 每分钟或按步长触发时为该分钟，每个窗口只触发一次时为窗口的开始分钟；
+     * 随机触发且尚未到本窗口的随机时刻时返回 {@link #NOT_DUE}。只对 {@link #firesAt} 为true的分钟有意义
+     */
+    public long windowKey(LocalDate date, int minuteOfDay) {
+        long epochMinute = date.toEpochDay() * MINUTES_PER_DAY + minuteOfDay;
+        if (rangeMode != RangeMode.ONCE_RANDOM) {
+            return epochMinute;
+        }
+        int offset = Math.floorMod(minuteOfDay - windowStart, MINUTES_PER_DAY);
+        long start = epochMinute - offset;
+        return offset >= randomOffset(start) ? start : NOT_DUE;
+    }
+
+    /**
+     * 窗口内随机触发的分钟相对窗口开始的偏移，只落在步长上，由任务和窗口开始时间决定
+     */
+    private int randomOffset(long windowStartEpochMinute) {
+        int points = (windowLength - 1) / windowStep + 1;
+        long hash = seed ^ (windowStartEpochMinute * 0x9E3779B97F4A7C15L);
+        hash = (hash ^ (hash >>> 30)) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94D049BB133111EBL;
+        hash ^= hash >>> 31;
+        return (int) Math.floorMod(hash, (long) points) * windowStep;
+    }
+
+    /**
+     * 随机触发的窗口中，该分钟是否正是本窗口的随机时刻
+     */
+    private boolean isRandomPick(LocalDate date, int minuteOfDay) {
+        int offset = Math.floorMod(minuteOfDay - windowStart, MINUTES_PER_DAY);
+        return offset == randomOffset(date.toEpochDay() * MINUTES_PER_DAY + minuteOfDay - offset);
+    }
+
+    /**
+     * 一天中可能触发的分钟数（跨零点部分合并计算）
+     */
+    public int getFireMinuteCount() {
+        return fireMinuteCount;
+    }
+
+    /**
+     * 一天中可能触发的所有分钟（升序），用于建立调度索引
+     */
+    public int[] fireMinutes() {
+        int[] minutes = new int[fireMinuteCount];
+        int count = 0;
+        for (int word = 0; word < WORDS; word++) {
+            long bits = sameDay[word] | (nextDay != null ? nextDay[word] : 0L);
+            while (bits != 0) {
+                minutes[count++] = word * 64 + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        return minutes;
+    }
+
+    /**
+     * [from, to) 之间的触发时刻（整分钟），从最近的开始最多取 limit 个，按时间升序返回
+     *
+     * 按天逐个64位字扫描位图，不逐分钟判断；用于计算错过的触发
+     */
+    public List<LocalDateTime> firesBetween(LocalDateTime from, LocalDateTime to, int limit) {
+        if (!minuteDriven || limit <= 0 || !from.isBefore(to)) {
+            return Collections.emptyList();
+        }
+        List<LocalDateTime> fires = new ArrayList<>(Math.min(limit, 16));
+        LocalDate firstDay = from.toLocalDate();
+        LocalDate lastDay = to.toLocalDate();
+        
+        for (LocalDate day = lastDay; !day.isBefore(firstDay) && fires.size() < limit; day = day.minusDays(1)) {
+            int dayBit = 1 << (day.getDayOfWeek().getValue() - 1);
+            int previousDayBit = 1 << (day.getDayOfWeek().minus(1).getValue() - 1);
+            boolean today = (dayMask & dayBit) != 0;
+            boolean carried = nextDay != null && (dayMask & previousDayBit) != 0;
+            if (!today && !carried) {
+                continue;
+            }
+            // 当天的分钟范围 [low, high)
+            int low = day.equals(firstDay) ? ceilMinute(from) : 0;
+            int high = day.equals(lastDay) ? ceilMinute(to) : MINUTES_PER_DAY;
+            if (low >= high) {
+                continue;
+            }
+            
+            for (int word = (high - 1) >>> 6; word >= 0 && word >= low >>> 6 && fires.size() < limit; word--) {
+                long bits = (today ? sameDay[word] : 0L) | (carried ? nextDay[word] : 0L);
+                bits &= rangeMask(word, low, high);
+                while (bits != 0 && fires.size() < limit) {
+                    int bit = 63 - Long.numberOfLeadingZeros(bits);
+                    int minute = word * 64 + bit;
+                    if (rangeMode != RangeMode.ONCE_RANDOM || isRandomPick(day, minute)) {
+                        fires.add(day.atTime(minute / 60, minute % 60));
+                    }
+                    bits &= ~(1L << bit);
+                }
+            }
+        }
+        Collections.reverse(fires);
+        return fires;
+    }
+
+    /**
+     * 不早于指定时刻的第一个整分钟（当天的分钟序号，可能为1440）
+     */
+    private static int ceilMinute(LocalDateTime time) {
+        int minute = time.getHour() * 60 + time.getMinute();
+        return time.getSecond() == 0 && time.getNano() == 0 ? minute : minute + 1;
+    }
+
+    /**
+     * 第 word 个字中位于 [low, high) 的位
+     */
+    private static long rangeMask(int word, int low, int high) {
+        int start = word * 64;
+        long mask = -1L;
+        if (low > start) {
+            mask &= -1L << (low - start);
+        }
+        if (high < start + 64) {
+            mask &= high <= start ? 0L : -1L >>> (64 - (high - start));
+        }
+        return mask;
+    }
+
+    public static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int toDayMask(Set<DayOfWeek> days) {
+        int mask = 0;
+        for (DayOfWeek day : days) {
+            mask |= 1 << (day.getValue() - 1);
+        }
+        return mask;
+    }
+
+    private static int countUnion(long[] first, long[] second) {
+        int count = 0;
+        for (int word = 0; word < WORDS; word++) {
+            count += Long.bitCount(first[word] | (second != null ? second[word] : 0L));
+        }
+        return count;
+    }
+
+    private static void set(long[] bits, int minute) {
+        bits[minute >>> 6] |= 1L << minute;
+    }
+
+    private static boolean get(long[] bits, int minute) {
+        return (bits[minute >>> 6] & (1L << minute)) != 0;
+    }
+}
@@ -0,0 +1,145 @@
+package org.plugin.timetools.model;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 预编译的排除日历
+ *
+ * 将日期列表（节假日、维护日）编译为按年排列的位图，每年366位，判断某天是否被排除只需一次数组访问和位运算。
+ * 每年重复的日期（MM-DD）单独编译为一个按闰年日序排列的366位位图，对任意年份都生效。
+ * 支持的写法：2026-12-25、2026-12-24..2026-12-26、12-25、12-24..01-02（可跨年）
+ */
+public final class HolidayCalendar {
+
+    private static final int WORDS_PER_YEAR = 6;
+    private static final int MAX_RANGE_DAYS = 3660;
+    // 闰年中每月第一天之前的天数，用于每年重复的日期
+    private static final int[] LEAP_MONTH_OFFSET = {0, 31, 60, 91, 121, 152, 182, 213, 244, 274, 305, 335};
+
+    private final String name;
+    private final int firstYear;
+    private final int yearCount;
+    private final long[] years;
+    private final long[] annual;
+    private final int dateCount;
+
+    private HolidayCalendar(String name, int firstYear, int yearCount, long[] years, long[] annual) {
+        this.name = name;
+        this.firstYear = firstYear;
+        this.yearCount = yearCount;
+        this.years = years;
+        this.annual = annual;
+        int count = 0;
+        for (long word : years) {
+            count += Long.bitCount(word);
+        }
+        for (long word : annual) {
+            count += Long.bitCount(word);
+        }
+        this.dateCount = count;
+    }
+
+    /**
+     * 编译日历
+     *
+     * @throws IllegalArgumentException 日期写法不合法或范围过大时抛出
+     */
+    public static HolidayCalendar compile(String name, Collection<String> entries) {
+        List<LocalDate[]> ranges = new ArrayList<>();
+        long[] annual = new long[WORDS_PER_YEAR];
+        int firstYear = Integer.MAX_VALUE;
+        int lastYear = Integer.MIN_VALUE;
+
+        for (String raw : entries) {
+            String entry = raw == null ? "" : raw.trim();
+            int separator = entry.indexOf("..");
+            String startText = separator < 0 ? entry : entry.substring(0, separator).trim();
+            String endText = separator < 0 ? entry : entry.substring(separator + 2).trim();
+            try {
+                if (isMonthDay(startText) && isMonthDay(endText)) {
+                    markAnnual(annual, MonthDay.parse("--" + startText), MonthDay.parse("--" + endText));
+                    continue;
+                }
+                LocalDate start = LocalDate.parse(startText);
+                LocalDate end = LocalDate.parse(endText);
+                if (end.isBefore(start)) {
+                    throw new IllegalArgumentException("日历 " + name + " 的日期范围结束早于开始: " + entry);
+                }
+                if (ChronoUnit.DAYS.between(start, end) > MAX_RANGE_DAYS) {
+                    throw new IllegalArgumentException("日历 " + name + " 的日期范围过大: " + entry);
+                }
+                ranges.add(new LocalDate[]{start, end});
+                firstYear = Math.min(firstYear, start.getYear());
+                lastYear = Math.max(lastYear, end.getYear());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("日历 " + name + " 的日期格式错误: " + entry
+                        + "，应为 YYYY-MM-DD、MM-DD 或 开始..结束");
+            }
+        }
+
+        if (ranges.isEmpty()) {
+            return new HolidayCalendar(name, 0, 0, new long[0], annual);
+        }
+        int yearCount = lastYear - firstYear + 1;
+        long[] years = new long[yearCount * WORDS_PER_YEAR];
+        for (LocalDate[] range : ranges) {
+            for (LocalDate date = range[0]; !date.isAfter(range[1]); date = date.plusDays(1)) {
+                int day = date.getDayOfYear() - 1;
+                years[(date.getYear() - firstYear) * WORDS_PER_YEAR + (day >>> 6)] |= 1L << day;
+            }
+        }
+        return new HolidayCalendar(name, firstYear, yearCount, years, annual);
+    }
+
+    private static boolean isMonthDay(String text) {
+        return text.length() == 5 && text.charAt(2) == '-';
+    }
+
+    private static void markAnnual(long[] annual, MonthDay start, MonthDay end) {
+        int from = annualIndex(start.getMonthValue(), start.getDayOfMonth());
+        int to = annualIndex(end.getMonthValue(), end.getDayOfMonth());
+        // 结束早于开始表示跨年，例如 12-24..01-02
+        int length = Math.floorMod(to - from, 366) + 1;
+        for (int offset = 0; offset < length; offset++) {
+            int index = (from + offset) % 366;
+            annual[index >>> 6] |= 1L << index;
+        }
+    }
+
+    private static int annualIndex(int month, int dayOfMonth) {
+        return LEAP_MONTH_OFFSET[month - 1] + dayOfMonth - 1;
+    }
+
+    /**
+     * 指定日期是否被排除
+     */
+    public boolean contains(LocalDate date) {
+        int index = annualIndex(date.getMonthValue(), date.getDayOfMonth());
+        if ((annual[index >>> 6] & (1L << index)) != 0) {
+            return true;
+        }
+        int year = date.getYear() - firstYear;
+        if (year < 0 || year >= yearCount) {
+            return false;
+        }
+        int day = date.getDayOfYear() - 1;
+        return (years[year * WORDS_PER_YEAR + (day >>> 6)] & (1L << day)) != 0;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 编译后的日期数（每年重复的日期计为一天）
+     */
+    public int getDateCount() {
+        return dateCount;
+    }
+}
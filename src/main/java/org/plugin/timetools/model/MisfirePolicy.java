@@ -0,0 +1,23 @@
+package org.plugin.timetools.model;
+
+/**
+ * 错过触发的处理策略枚举
+ *
+ * 插件停止期间或主检查被阻塞、系统时间跳变时，固定时间和时间区间任务错过的触发如何补执行
+ */
+public enum MisfirePolicy {
+    /**
+     * 不补执行
+     */
+    SKIP,
+    
+    /**
+     * 无论错过多少次，只补执行一次
+     */
+    FIRE_ONCE,
+    
+    /**
+     * 补执行所有错过的触发（数量受 performance.misfire-max-catch-up 限制，保留最近的几次）
+     */
+    FIRE_ALL
+}
@@ -0,0 +1,23 @@
+package org.plugin.timetools.model;
+
+/**
+ * 重叠策略枚举
+ *
+ * 任务触发时上一次执行的命令还没有全部完成时的处理方式
+ */
+public enum OverlapPolicy {
+    /**
+     * 跳过本次触发
+     */
+    SKIP_IF_RUNNING,
+    
+    /**
+     * 保留最近一次触发，上一次执行完成后立即执行（最多等待一次）
+     */
+    QUEUE_ONE,
+    
+    /**
+     * 不限制，允许多次执行同时进行
+     */
+    ALLOW
+}
@@ -0,0 +1,23 @@
+package org.plugin.timetools.model;
+
+/**
+ * 时间区间任务的触发方式枚举
+ *
+ * 每个区间（例如每天 04:00-05:00）视为一个窗口，同一窗口内的触发按窗口开始时间去重
+ */
+public enum RangeMode {
+    /**
+     * 区间内每分钟触发，设置了步长时每隔步长触发一次
+     */
+    EVERY,
+    
+    /**
+     * 每个窗口只在开始时间触发一次
+     */
+    ONCE_AT_START,
+    
+    /**
+     * 每个窗口在随机的一分钟触发一次（按任务和窗口确定，重启后不变）
+     */
+    ONCE_RANDOM
+}
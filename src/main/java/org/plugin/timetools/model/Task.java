@@ -1,10 +1,16 @@
 package org.plugin.timetools.model;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.UUID;
+import java.util.function.Consumer;
 
 /**
  * 任务模型类
@@ -26,6 +32,19 @@ public class Task {
     private final int executionInterval;
     private boolean enabled;
     private long lastExecutionTime;
+    private Set<String> tags;
+    private Consumer<Task> callback;
+    private boolean persistent;
+    private List<LocalTime> fireTimes;
+    private int stepMinutes;
+    private long intervalMillis;
+    private OverlapPolicy overlapPolicy;
+    private MisfirePolicy misfirePolicy;
+    private RangeMode rangeMode;
+    private LocalDate validFrom;
+    private LocalDate validUntil;
+    private Set<String> calendars;
+    private volatile FireSchedule fireSchedule;
     
     /**
      * 构造函数
@@ -47,6 +66,15 @@ public class Task {
         this.executionInterval = executionInterval;
         this.enabled = enabled;
         this.lastExecutionTime = 0;
+        this.tags = Collections.emptySet();
+        this.callback = null;
+        this.persistent = true;
+        this.fireTimes = startTime != null ? List.of(startTime) : Collections.emptyList();
+        this.stepMinutes = 0;
+        this.overlapPolicy = OverlapPolicy.ALLOW;
+        this.misfirePolicy = MisfirePolicy.SKIP;
+        this.rangeMode = RangeMode.EVERY;
+        this.calendars = Collections.emptySet();
     }
     
     // Getters
@@ -86,6 +114,13 @@ public class Task {
         return intervalUnit;
     }
     
+    /**
+     * 获取间隔的毫秒数。毫秒单位的间隔精确保存，其余单位由ticks换算（1 tick = 50ms）
+     */
+    public long getIntervalMillis() {
+        return intervalMillis > 0 ? intervalMillis : intervalTicks * 50;
+    }
+    
     public ExecutionMode getExecutionMode() {
         return executionMode;
     }
@@ -102,6 +137,156 @@ public class Task {
         return lastExecutionTime;
     }
     
+    /**
+     * 获取任务标签（只读，标签均为小写）
+     */
+    public Set<String> getTags() {
+        return tags;
+    }
+    
+    public boolean hasTag(String tag) {
+        return tags.contains(tag);
+    }
+    
+    /**
+     * 获取回调（通过TaskService注册的任务可以使用回调代替或补充命令）
+     */
+    public Consumer<Task> getCallback() {
+        return callback;
+    }
+    
+    public boolean hasCallback() {
+        return callback != null;
+    }
+    
+    /**
+     * 是否写入tasks.yml（带回调的任务只存在于内存中）
+     */
+    public boolean isPersistent() {
+        return persistent;
+    }
+    
+    /**
+     * 获取固定时间任务的所有触发时间（升序，第一个即开始时间）
+     */
+    public List<LocalTime> getFireTimes() {
+        return fireTimes;
+    }
+    
+    /**
+     * 获取区间内的触发步长（分钟），0表示区间内每分钟触发
+     */
+    public int getStepMinutes() {
+        return stepMinutes;
+    }
+    
+    /**
+     * 获取时间区间任务的触发方式
+     */
+    public RangeMode getRangeMode() {
+        return rangeMode;
+    }
+    
+    /**
+     * 获取上一次执行未完成时再次触发的处理方式
+     */
+    public OverlapPolicy getOverlapPolicy() {
+        return overlapPolicy;
+    }
+    
+    /**
+     * 获取错过触发的处理策略
+     */
+    public MisfirePolicy getMisfirePolicy() {
+        return misfirePolicy;
+    }
+    
+    /**
+     * 获取有效期的第一天，null表示不限制
+     */
+    public LocalDate getValidFrom() {
+        return validFrom;
+    }
+    
+    /**
+     * 获取有效期的最后一天，null表示永不过期
+     */
+    public LocalDate getValidUntil() {
+        return validUntil;
+    }
+    
+    /**
+     * 指定日期是否在有效期内（按触发时刻的日期判断）
+     */
+    public boolean isValidOn(LocalDate date) {
+        return (validFrom == null || !date.isBefore(validFrom))
+                && (validUntil == null || !date.isAfter(validUntil));
+    }
+    
+    /**
+     * 有效期在指定日期之前已经结束
+     */
+    public boolean isExpiredOn(LocalDate date) {
+        return validUntil != null && date.isAfter(validUntil);
+    }
+    
+    /**
+     * 获取排除日历的名称，这些日历中的日期不执行
+     */
+    public Set<String> getCalendars() {
+        return calendars;
+    }
+    
+    /**
+     * 时间区间是否跨越零点（例如 22:00-02:00）
+     */
+    public boolean isWrapping() {
+        return startTime != null && endTime != null && endTime.isBefore(startTime);
+    }
+    
+    /**
+     * 获取预编译的触发时间表，首次访问时编译
+     */
+    public FireSchedule getFireSchedule() {
+        FireSchedule schedule = fireSchedule;
+        if (schedule == null) {
+            schedule = FireSchedule.compile(this);
+            fireSchedule = schedule;
+        }
+        return schedule;
+    }
+    
+    /**
+     * 获取时间部分的说明文本，例如 "06:00,12:00"、"22:00-02:00" 或 "*\/15m within 09:00-17:00"
+     */
+    public String describeTime() {
+        switch (scheduleType) {
+            case FIXED_TIME:
+                StringBuilder sb = new StringBuilder();
+                for (LocalTime time : fireTimes) {
+                    if (sb.length() > 0) {
+                        sb.append(',');
+                    }
+                    sb.append(time);
+                }
+                return sb.toString();
+            case TIME_RANGE:
+                String range = startTime + "-" + endTime;
+                if (rangeMode == RangeMode.ONCE_AT_START) {
+                    return "once within " + range;
+                }
+                if (rangeMode == RangeMode.ONCE_RANDOM) {
+                    return "random within " + range;
+                }
+                return stepMinutes > 0 ? "*/" + stepMinutes + "m within " + range : range;
+            case TIME_RANGE_WITH_INTERVAL:
+                return startTime + "-" + endTime + ",E";
+            case INTERVAL:
+            default:
+                return "E";
+        }
+    }
+    
     // Setters
     public void setEnabled(boolean enabled) {
         this.enabled = enabled;
@@ -111,6 +296,123 @@ public class Task {
         this.lastExecutionTime = lastExecutionTime;
     }
     
+    public void setCallback(Consumer<Task> callback) {
+        this.callback = callback;
+    }
+    
+    public void setPersistent(boolean persistent) {
+        this.persistent = persistent;
+    }
+    
+    /**
+     * 设置固定时间任务的多个触发时间，去重后按升序保存
+     */
+    public void setFireTimes(Collection<LocalTime> times) {
+        if (times == null || times.isEmpty()) {
+            this.fireTimes = startTime != null ? List.of(startTime) : Collections.emptyList();
+        } else {
+            this.fireTimes = List.copyOf(new TreeSet<>(times));
+        }
+        this.fireSchedule = null;
+    }
+    
+    /**
+     * 设置精确的毫秒间隔（用于不是整tick的 ms 单位间隔），0表示按ticks换算
+     */
+    public void setIntervalMillis(long intervalMillis) {
+        if (intervalMillis < 0) {
+            throw new IllegalArgumentException("间隔不能为负数");
+        }
+        this.intervalMillis = intervalMillis;
+    }
+    
+    /**
+     * 设置区间内的触发步长（分钟）
+     */
+    public void setStepMinutes(int stepMinutes) {
+        if (stepMinutes < 0 || stepMinutes > FireSchedule.MINUTES_PER_DAY) {
+            throw new IllegalArgumentException("步长必须在0-1440分钟之间");
+        }
+        this.stepMinutes = stepMinutes;
+        this.fireSchedule = null;
+    }
+    
+    /**
+     * 设置时间区间任务的触发方式
+     */
+    public void setRangeMode(RangeMode rangeMode) {
+        if (rangeMode == null) {
+            throw new IllegalArgumentException("区间触发方式不能为空");
+        }
+        this.rangeMode = rangeMode;
+        this.fireSchedule = null;
+    }
+    
+    /**
+     * 设置有效期（包含首尾两天），null表示该端不限制；首尾为同一天的固定时间任务即为一次性任务
+     */
+    public void setValidity(LocalDate validFrom, LocalDate validUntil) {
+        if (validFrom != null && validUntil != null && validUntil.isBefore(validFrom)) {
+            throw new IllegalArgumentException("有效期的结束日期不能早于开始日期");
+        }
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+    }
+    
+    /**
+     * 设置上一次执行未完成时再次触发的处理方式
+     */
+    public void setOverlapPolicy(OverlapPolicy overlapPolicy) {
+        if (overlapPolicy == null) {
+            throw new IllegalArgumentException("重叠策略不能为空");
+        }
+        this.overlapPolicy = overlapPolicy;
+    }
+    
+    /**
+     * 设置插件停止或主检查被阻塞期间错过的触发如何补执行
+     */
+    public void setMisfirePolicy(MisfirePolicy misfirePolicy) {
+        if (misfirePolicy == null) {
+            throw new IllegalArgumentException("错过触发策略不能为空");
+        }
+        this.misfirePolicy = misfirePolicy;
+    }
+    
+    /**
+     * 设置任务标签，标签统一转为小写
+     */
+    public void setTags(Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            this.tags = Collections.emptySet();
+            return;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String tag : tags) {
+            if (tag != null && !tag.trim().isEmpty()) {
+                normalized.add(tag.trim().toLowerCase());
+            }
+        }
+        this.tags = Collections.unmodifiableSet(normalized);
+    }
+    
+    /**
+     * 设置排除日历，名称统一转为小写
+     */
+    public void setCalendars(Collection<String> calendars) {
+        if (calendars == null || calendars.isEmpty()) {
+            this.calendars = Collections.emptySet();
+            return;
+        }
+        Set<String> normalized = new LinkedHashSet<>();
+        for (String calendar : calendars) {
+            if (calendar != null && !calendar.trim().isEmpty()) {
+                normalized.add(calendar.trim().toLowerCase());
+            }
+        }
+        this.calendars = Collections.unmodifiableSet(normalized);
+    }
+    
     /**
      * 检查任务是否应该在指定时间执行
      */
@@ -119,25 +421,8 @@ public class Task {
             return false;
         }
         
-        // 检查星期
-        if (!everyDay && !daysOfWeek.contains(dayOfWeek)) {
-            return false;
-        }
-        
-        // 检查时间
-        switch (scheduleType) {
-            case FIXED_TIME:
-                return time.equals(startTime);
-            case TIME_RANGE:
-                return !time.isBefore(startTime) && !time.isAfter(endTime);
-            case INTERVAL:
-                // 间隔执行的逻辑在调度器中处理
-                return true;
-            case TIME_RANGE_WITH_INTERVAL:
-                return !time.isBefore(startTime) && !time.isAfter(endTime);
-            default:
-                return false;
-        }
+        // 间隔执行的逻辑在调度器中处理，这里只检查执行窗口
+        return getFireSchedule().isWithinWindow(dayOfWeek, time);
     }
     
     @Override
@@ -147,19 +432,55 @@ public class Task {
         sb.append(", commands=").append(commands);
         sb.append(", scheduleType=").append(scheduleType);
         sb.append(", startTime=").append(startTime);
+        if (fireTimes.size() > 1) {
+            sb.append(", fireTimes=").append(fireTimes);
+        }
         if (endTime != null) {
             sb.append(", endTime=").append(endTime);
         }
+        if (stepMinutes > 0) {
+            sb.append(", stepMinutes=").append(stepMinutes);
+        }
+        if (rangeMode != RangeMode.EVERY) {
+            sb.append(", rangeMode=").append(rangeMode);
+        }
+        if (overlapPolicy != OverlapPolicy.ALLOW) {
+            sb.append(", overlapPolicy=").append(overlapPolicy);
+        }
+        if (misfirePolicy != MisfirePolicy.SKIP) {
+            sb.append(", misfirePolicy=").append(misfirePolicy);
+        }
+        if (validFrom != null) {
+            sb.append(", validFrom=").append(validFrom);
+        }
+        if (validUntil != null) {
+            sb.append(", validUntil=").append(validUntil);
+        }
+        if (!calendars.isEmpty()) {
+            sb.append(", calendars=").append(calendars);
+        }
         sb.append(", daysOfWeek=").append(daysOfWeek);
         sb.append(", everyDay=").append(everyDay);
         if (intervalTicks > 0) {
             sb.append(", intervalTicks=").append(intervalTicks);
+            if (intervalMillis > 0) {
+                sb.append(", intervalMillis=").append(intervalMillis);
+            }
             sb.append(", intervalUnit='").append(intervalUnit).append("'");
         }
         sb.append(", executionMode=").append(executionMode);
         if (executionInterval > 0) {
             sb.append(", executionInterval=").append(executionInterval);
         }
+        if (!tags.isEmpty()) {
+            sb.append(", tags=").append(tags);
+        }
+        if (callback != null) {
+            sb.append(", callback=true");
+        }
+        if (!persistent) {
+            sb.append(", persistent=false");
+        }
         sb.append(", enabled=").append(enabled);
         sb.append('}');
         return sb.toString();
@@ -0,0 +1,187 @@
+package org.plugin.timetools.parser;
+
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.TaskScheduleType;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * create命令的语法树
+ *
+ * 由 {@link CreateCommandParser} 生成，包含命令、时间和星期三个部分。
+ * 各节点记录其在原始输入中的起始位置，用于报告语义错误。
+ */
+public final class CreateCommandAst {
+
+    private final CommandsNode commands;
+    private final TimeNode time;
+    private final DaysNode days;
+
+    CreateCommandAst(CommandsNode commands, TimeNode time, DaysNode days) {
+        this.commands = commands;
+        this.time = time;
+        this.days = days;
+    }
+
+    public CommandsNode getCommands() {
+        return commands;
+    }
+
+    public TimeNode getTime() {
+        return time;
+    }
+
+    public DaysNode getDays() {
+        return days;
+    }
+
+    /**
+     * 命令部分：{/cmd1,/cmd2,Obo,5}
+     */
+    public static final class CommandsNode {
+        private final List<String> commands;
+        private final ExecutionMode executionMode;
+        private final int executionInterval;
+        private final int position;
+
+        CommandsNode(List<String> commands, ExecutionMode executionMode, int executionInterval, int position) {
+            this.commands = commands;
+            this.executionMode = executionMode;
+            this.executionInterval = executionInterval;
+            this.position = position;
+        }
+
+        public List<String> getCommands() {
+            return commands;
+        }
+
+        public ExecutionMode getExecutionMode() {
+            return executionMode;
+        }
+
+        public int getExecutionInterval() {
+            return executionInterval;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+    }
+
+    /**
+     * 时间部分：4:00、6:00,12:00,18:00、4:00-5:00、22:00-02:00、4:00-5:00,E、E
+     * 或步长表达式 *\/15m within 9:00-17:00
+     */
+    public static final class TimeNode {
+        private final TaskScheduleType scheduleType;
+        private final LocalTime startTime;
+        private final LocalTime endTime;
+        private final List<LocalTime> times;
+        private final int stepMinutes;
+        private final int position;
+
+        TimeNode(TaskScheduleType scheduleType, LocalTime startTime, LocalTime endTime, int position) {
+            this(scheduleType, startTime, endTime, startTime != null ? List.of(startTime) : List.of(), 0, position);
+        }
+
+        TimeNode(TaskScheduleType scheduleType, LocalTime startTime, LocalTime endTime,
+                 List<LocalTime> times, int stepMinutes, int position) {
+            this.scheduleType = scheduleType;
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.times = times;
+            this.stepMinutes = stepMinutes;
+            this.position = position;
+        }
+
+        public TaskScheduleType getScheduleType() {
+            return scheduleType;
+        }
+
+        public LocalTime getStartTime() {
+            return startTime;
+        }
+
+        public LocalTime getEndTime() {
+            return endTime;
+        }
+
+        /**
+         * 固定时间模式下的所有触发时间（按输入顺序）
+         */
+        public List<LocalTime> getTimes() {
+            return times;
+        }
+
+        /**
+         * 步长表达式的步长（分钟），0表示没有步长
+         */
+        public int getStepMinutes() {
+            return stepMinutes;
+        }
+
+        /**
+         * 是否为间隔模式（E 或 区间,E）
+         */
+        public boolean hasInterval() {
+            return scheduleType == TaskScheduleType.INTERVAL ||
+                   scheduleType == TaskScheduleType.TIME_RANGE_WITH_INTERVAL;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+    }
+
+    /**
+     * 星期部分：Eve、Mon,Tue、Eve,1m、Eve,5t、Eve,250ms
+     */
+    public static final class DaysNode {
+        private final boolean everyDay;
+        private final Set<DayOfWeek> daysOfWeek;
+        private final long intervalTicks;
+        private final long intervalMillis;
+        private final String intervalUnit;
+        private final int position;
+
+        DaysNode(boolean everyDay, Set<DayOfWeek> daysOfWeek, long intervalTicks, long intervalMillis,
+                 String intervalUnit, int position) {
+            this.everyDay = everyDay;
+            this.daysOfWeek = daysOfWeek;
+            this.intervalTicks = intervalTicks;
+            this.intervalMillis = intervalMillis;
+            this.intervalUnit = intervalUnit;
+            this.position = position;
+        }
+
+        public boolean isEveryDay() {
+            return everyDay;
+        }
+
+        public Set<DayOfWeek> getDaysOfWeek() {
+            return daysOfWeek;
+        }
+
+        public long getIntervalTicks() {
+            return intervalTicks;
+        }
+
+        /**
+         * ms 单位的精确毫秒数，其他单位为0
+         */
+        public long getIntervalMillis() {
+            return intervalMillis;
+        }
+
+        public String getIntervalUnit() {
+            return intervalUnit;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+    }
+}
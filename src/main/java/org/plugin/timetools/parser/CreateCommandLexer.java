@@ -0,0 +1,151 @@
+package org.plugin.timetools.parser;
+
+/**
+ * create命令时间/星期部分的词法分析器
+ *
+ * 逐字符单遍扫描，按需产生记号，不使用正则表达式。
+ * 位置均为在完整命令行中的偏移量，由 base 指定本段的起始偏移。
+ */
+final class CreateCommandLexer {
+
+    enum TokenType {
+        NUMBER,
+        WORD,
+        COLON,
+        DASH,
+        COMMA,
+        OTHER,
+        EOF
+    }
+
+    static final class Token {
+        final TokenType type;
+        final String text;
+        final int position;
+        final long number;
+
+        Token(TokenType type, String text, int position, long number) {
+            this.type = type;
+            this.text = text;
+            this.position = position;
+            this.number = number;
+        }
+
+        boolean is(TokenType expected) {
+            return type == expected;
+        }
+
+        boolean isWord(String word) {
+            return type == TokenType.WORD && text.equals(word);
+        }
+
+        @Override
+        public String toString() {
+            return type == TokenType.EOF ? "输入结尾" : "'" + text + "'";
+        }
+    }
+
+    // 数字记号溢出时的取值，保证后续范围检查一定失败
+    static final long NUMBER_OVERFLOW = Long.MAX_VALUE;
+
+    private final String input;
+    private final int base;
+    private int index;
+    private Token peeked;
+
+    CreateCommandLexer(String input, int base) {
+        this(input, 0, base);
+    }
+
+    /**
+     * @param start 从输入的第几个字符开始扫描（用于跳过已识别的前缀）
+     */
+    CreateCommandLexer(String input, int start, int base) {
+        this.input = input;
+        this.base = base;
+        this.index = start;
+    }
+
+    /**
+     * 查看下一个记号但不消费
+     */
+    Token peek() {
+        if (peeked == null) {
+            peeked = scan();
+        }
+        return peeked;
+    }
+
+    /**
+     * 消费并返回下一个记号
+     */
+    Token next() {
+        Token token = peek();
+        peeked = null;
+        return token;
+    }
+
+    /**
+     * 当前位置在完整命令行中的偏移量
+     */
+    int position() {
+        return peeked != null ? peeked.position : base + index;
+    }
+
+    /**
+     * 从指定偏移量（完整命令行坐标）开始到下一个逗号为止的原始文本，用于错误消息
+     */
+    String itemAt(int position) {
+        int start = position - base;
+        int end = start;
+        while (end < input.length() && input.charAt(end) != ',') {
+            end++;
+        }
+        return input.substring(start, end);
+    }
+
+    private Token scan() {
+        while (index < input.length() && Character.isWhitespace(input.charAt(index))) {
+            index++;
+        }
+
+        int start = index;
+        if (index >= input.length()) {
+            return new Token(TokenType.EOF, "", base + start, 0);
+        }
+
+        char c = input.charAt(index);
+        if (c >= '0' && c <= '9') {
+            long value = 0;
+            while (index < input.length() && input.charAt(index) >= '0' && input.charAt(index) <= '9') {
+                int digit = input.charAt(index) - '0';
+                value = value > (NUMBER_OVERFLOW - digit) / 10 ? NUMBER_OVERFLOW : value * 10 + digit;
+                index++;
+            }
+            return new Token(TokenType.NUMBER, input.substring(start, index), base + start, value);
+        }
+
+        if (isLetter(c)) {
+            while (index < input.length() && isLetter(input.charAt(index))) {
+                index++;
+            }
+            return new Token(TokenType.WORD, input.substring(start, index), base + start, 0);
+        }
+
+        index++;
+        switch (c) {
+            case ':':
+                return new Token(TokenType.COLON, ":", base + start, 0);
+            case '-':
+                return new Token(TokenType.DASH, "-", base + start, 0);
+            case ',':
+                return new Token(TokenType.COMMA, ",", base + start, 0);
+            default:
+                return new Token(TokenType.OTHER, String.valueOf(c), base + start, 0);
+        }
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
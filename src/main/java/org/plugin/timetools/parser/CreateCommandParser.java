@@ -0,0 +1,438 @@
+package org.plugin.timetools.parser;
+
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.FireSchedule;
+import org.plugin.timetools.model.TaskScheduleType;
+import org.plugin.timetools.parser.CommandParser.ParseException;
+import org.plugin.timetools.parser.CreateCommandLexer.Token;
+import org.plugin.timetools.parser.CreateCommandLexer.TokenType;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * create命令的递归下降解析器
+ *
+ * 语法：
+ * <pre>
+ * create   := "create" commands (time | step) days
+ * commands := "{" item ("," item)* "}"
+ * item     := command | "Obo" | "All" | NUMBER
+ * time     := "E" | clock ("," clock)* | range ("," "E")?
+ * step     := "*" "/" NUMBER ("m" | "h") ("within" range)?
+ * range    := clock "-" clock          （结束早于开始表示跨零点）
+ * clock    := NUMBER(1-2位) ":" NUMBER(2位)
+ * days     := dayItem ("," dayItem)* ","*
+ * dayItem  := "Eve" | "Mon" ... "Sun" | NUMBER ("ms" | "t" | "s" | "m" | "h")
+ * </pre>
+ *
+ * 每个参数只扫描一次，错误位置为在完整命令行（参数以单个空格连接）中的字符偏移。
+ * 步长表达式的 within 子句占用独立的参数，此时星期部分顺延。
+ */
+final class CreateCommandParser {
+
+    private static final DayOfWeek[] DAYS = DayOfWeek.values();
+    private static final String[] DAY_NAMES = {"MON", "TUE", "WED", "THU", "FRI", "SAT", "SUN"};
+    private static final String STEP_PREFIX = "*/";
+    private static final String WITHIN = "within";
+    private static final LocalTime LAST_MINUTE = LocalTime.of(23, 59);
+    static final long MIN_INTERVAL_MILLIS = 10;
+
+    private final String[] args;
+    private final int[] offsets;
+
+    CreateCommandParser(String[] args) {
+        this.args = args;
+        this.offsets = new int[args.length];
+        int offset = 0;
+        for (int i = 0; i < args.length; i++) {
+            offsets[i] = offset;
+            offset += args[i].length() + 1;
+        }
+    }
+
+    /**
+     * 解析为语法树（不做跨部分的组合校验）
+     */
+    CreateCommandAst parse() throws ParseException {
+        if (args.length < 4) {
+            int end = args.length == 0 ? 0 : offsets[args.length - 1] + args[args.length - 1].length();
+            throw new ParseException("参数不足，请使用 /timetools help 查看帮助", end);
+        }
+
+        CreateCommandAst.CommandsNode commands = parseCommands(args[1], offsets[1]);
+
+        CreateCommandAst.TimeNode time;
+        int daysIndex = 3;
+        if (args[2].startsWith(STEP_PREFIX)) {
+            int stepMinutes = parseStep(args[2], offsets[2]);
+            if (args[3].equalsIgnoreCase(WITHIN)) {
+                if (args.length < 6) {
+                    throw new ParseException("步长表达式格式错误，应为 */15m within HH:MM-HH:MM 星期",
+                            offsets[3] + args[3].length());
+                }
+                time = parseStepRange(args[4], offsets[4], stepMinutes, offsets[2]);
+                daysIndex = 5;
+            } else {
+                time = new CreateCommandAst.TimeNode(TaskScheduleType.TIME_RANGE, LocalTime.MIN, LAST_MINUTE,
+                        List.of(), stepMinutes, offsets[2]);
+            }
+        } else {
+            time = parseTime(args[2], offsets[2]);
+        }
+
+        CreateCommandAst.DaysNode days = parseDays(args[daysIndex], offsets[daysIndex]);
+        return new CreateCommandAst(commands, time, days);
+    }
+
+    // ---------------------------------------------------------------- 命令部分
+
+    private CreateCommandAst.CommandsNode parseCommands(String input, int base) throws ParseException {
+        int length = input.length();
+        if (length == 0 || input.charAt(0) != '{') {
+            throw new ParseException("命令格式错误，必须用{}包围", base);
+        }
+        if (length < 2 || input.charAt(length - 1) != '}') {
+            throw new ParseException("命令格式错误，必须用{}包围", base + length);
+        }
+
+        List<String> commands = new ArrayList<>();
+        ExecutionMode executionMode = ExecutionMode.SINGLE;
+        int executionInterval = 0;
+
+        int contentEnd = length - 1;
+        int itemStart = 1;
+        while (itemStart <= contentEnd) {
+            int itemEnd = itemStart;
+            while (itemEnd < contentEnd && input.charAt(itemEnd) != ',') {
+                itemEnd++;
+            }
+
+            // 去除首尾空白
+            int start = itemStart;
+            int end = itemEnd;
+            while (start < end && Character.isWhitespace(input.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+                end--;
+            }
+
+            if (start < end) {
+                int position = base + start;
+                if (regionEquals(input, start, end, "Obo")) {
+                    executionMode = ExecutionMode.ONE_BY_ONE;
+                } else if (regionEquals(input, start, end, "All")) {
+                    executionMode = ExecutionMode.ALL;
+                } else if (isDigits(input, start, end)) {
+                    long value = parseDigits(input, start, end);
+                    if (value < 2 || value > 120) {
+                        throw new ParseException("执行间隔必须在2-120ticks之间", position);
+                    }
+                    executionInterval = (int) value;
+                } else if (input.charAt(start) == '/' || containsSpace(input, start, end)) {
+                    // 允许命令包含空格
+                    commands.add(input.substring(start, end));
+                } else {
+                    throw new ParseException("无效的命令部分: " + input.substring(start, end), position);
+                }
+            }
+
+            itemStart = itemEnd + 1;
+        }
+
+        if (commands.isEmpty()) {
+            throw new ParseException("至少需要一个命令", base);
+        }
+
+        // 如果是多命令但没有指定执行模式，默认为ALL
+        if (commands.size() > 1 && executionMode == ExecutionMode.SINGLE) {
+            executionMode = ExecutionMode.ALL;
+        }
+
+        return new CreateCommandAst.CommandsNode(commands, executionMode, executionInterval, base);
+    }
+
+    // ---------------------------------------------------------------- 时间部分
+
+    private CreateCommandAst.TimeNode parseTime(String input, int base) throws ParseException {
+        CreateCommandLexer lexer = new CreateCommandLexer(input, base);
+
+        if (lexer.peek().isWord("E")) {
+            lexer.next();
+            expectEnd(lexer, "时间格式错误，E 之后不能有其他内容");
+            return new CreateCommandAst.TimeNode(TaskScheduleType.INTERVAL, null, null, base);
+        }
+
+        LocalTime startTime = parseClock(lexer, "时间格式错误，应为 HH:MM");
+
+        if (lexer.peek().is(TokenType.EOF)) {
+            return new CreateCommandAst.TimeNode(TaskScheduleType.FIXED_TIME, startTime, null, base);
+        }
+
+        if (lexer.peek().is(TokenType.COMMA)) {
+            // 时间列表：6:00,12:00,18:00
+            List<LocalTime> times = new ArrayList<>();
+            times.add(startTime);
+            while (lexer.peek().is(TokenType.COMMA)) {
+                lexer.next();
+                times.add(parseClock(lexer, "时间列表格式错误，应为 HH:MM,HH:MM"));
+            }
+            expectEnd(lexer, "时间列表格式错误，应为 HH:MM,HH:MM");
+            return new CreateCommandAst.TimeNode(TaskScheduleType.FIXED_TIME, Collections.min(times), null,
+                    List.copyOf(times), 0, base);
+        }
+
+        Token dash = lexer.next();
+        if (!dash.is(TokenType.DASH)) {
+            throw new ParseException("时间格式错误，应为 HH:MM、HH:MM,HH:MM 或 HH:MM-HH:MM", dash.position);
+        }
+        LocalTime endTime = parseRangeEnd(lexer, startTime);
+
+        if (lexer.peek().is(TokenType.EOF)) {
+            return new CreateCommandAst.TimeNode(TaskScheduleType.TIME_RANGE, startTime, endTime, base);
+        }
+
+        Token comma = lexer.next();
+        Token interval = lexer.next();
+        if (!comma.is(TokenType.COMMA) || !interval.isWord("E")) {
+            throw new ParseException("时间区间间隔格式错误，应为 HH:MM-HH:MM,E", comma.position);
+        }
+        expectEnd(lexer, "时间区间间隔格式错误，应为 HH:MM-HH:MM,E");
+
+        return new CreateCommandAst.TimeNode(TaskScheduleType.TIME_RANGE_WITH_INTERVAL, startTime, endTime, base);
+    }
+
+    /**
+     * 解析步长：*\/15m 或 *\/2h，返回分钟数
+     */
+    private int parseStep(String input, int base) throws ParseException {
+        CreateCommandLexer lexer = new CreateCommandLexer(input, STEP_PREFIX.length(), base);
+
+        Token value = lexer.next();
+        if (!value.is(TokenType.NUMBER)) {
+            throw new ParseException("步长格式错误，应为 */数字m 或 */数字h", value.position);
+        }
+        Token unit = lexer.next();
+        long minutesPerUnit;
+        if (unit.isWord("m") || unit.isWord("M")) {
+            minutesPerUnit = 1;
+        } else if (unit.isWord("h") || unit.isWord("H")) {
+            minutesPerUnit = 60;
+        } else {
+            throw new ParseException("步长单位必须为 m 或 h", unit.position);
+        }
+        expectEnd(lexer, "步长格式错误，应为 */数字m 或 */数字h");
+
+        if (value.number <= 0 || value.number > FireSchedule.MINUTES_PER_DAY / minutesPerUnit) {
+            throw new ParseException("步长必须在1分钟到24小时之间", value.position);
+        }
+        return (int) (value.number * minutesPerUnit);
+    }
+
+    private CreateCommandAst.TimeNode parseStepRange(String input, int base, int stepMinutes, int position)
+            throws ParseException {
+        CreateCommandLexer lexer = new CreateCommandLexer(input, base);
+        LocalTime startTime = parseClock(lexer, "时间区间格式错误，应为 HH:MM-HH:MM");
+        Token dash = lexer.next();
+        if (!dash.is(TokenType.DASH)) {
+            throw new ParseException("时间区间格式错误，应为 HH:MM-HH:MM", dash.position);
+        }
+        LocalTime endTime = parseRangeEnd(lexer, startTime);
+        expectEnd(lexer, "时间区间格式错误，应为 HH:MM-HH:MM");
+        return new CreateCommandAst.TimeNode(TaskScheduleType.TIME_RANGE, startTime, endTime,
+                List.of(), stepMinutes, position);
+    }
+
+    /**
+     * 解析区间结束时间，结束早于开始表示跨零点，两者相同则无意义
+     */
+    private LocalTime parseRangeEnd(CreateCommandLexer lexer, LocalTime startTime) throws ParseException {
+        int endPosition = lexer.position();
+        LocalTime endTime = parseClock(lexer, "时间区间格式错误，应为 HH:MM-HH:MM");
+        if (endTime.equals(startTime)) {
+            throw new ParseException("结束时间不能与开始时间相同", endPosition);
+        }
+        return endTime;
+    }
+
+    private LocalTime parseClock(CreateCommandLexer lexer, String formatError) throws ParseException {
+        Token hour = lexer.next();
+        if (!hour.is(TokenType.NUMBER) || hour.text.length() > 2) {
+            throw new ParseException(formatError, hour.position);
+        }
+        Token colon = lexer.next();
+        if (!colon.is(TokenType.COLON)) {
+            throw new ParseException(formatError, colon.position);
+        }
+        Token minute = lexer.next();
+        if (!minute.is(TokenType.NUMBER) || minute.text.length() != 2) {
+            throw new ParseException(formatError, minute.position);
+        }
+
+        if (hour.number > 23) {
+            throw new ParseException("时间值超出范围", hour.position);
+        }
+        if (minute.number > 59) {
+            throw new ParseException("时间值超出范围", minute.position);
+        }
+        return LocalTime.of((int) hour.number, (int) minute.number);
+    }
+
+    // ---------------------------------------------------------------- 星期部分
+
+    private CreateCommandAst.DaysNode parseDays(String input, int base) throws ParseException {
+        CreateCommandLexer lexer = new CreateCommandLexer(input, base);
+
+        boolean everyDay = false;
+        Set<DayOfWeek> daysOfWeek = EnumSet.noneOf(DayOfWeek.class);
+        long intervalTicks = 0;
+        long intervalMillis = 0;
+        String intervalUnit = null;
+
+        while (true) {
+            Token token = lexer.next();
+            int itemPosition = token.position;
+
+            if (token.is(TokenType.WORD)) {
+                String word = token.text.toUpperCase();
+                if (word.equals("EVE")) {
+                    everyDay = true;
+                } else {
+                    DayOfWeek day = lookupDay(word);
+                    if (day == null) {
+                        throw invalidDayItem(lexer, itemPosition);
+                    }
+                    daysOfWeek.add(day);
+                }
+            } else if (token.is(TokenType.NUMBER)) {
+                Token unit = lexer.next();
+                if (!unit.is(TokenType.WORD)) {
+                    throw invalidDayItem(lexer, itemPosition);
+                }
+                intervalUnit = unit.text.toLowerCase();
+                intervalTicks = toTicks(token, intervalUnit, lexer, itemPosition);
+                intervalMillis = intervalUnit.equals("ms") ? token.number : 0;
+            } else {
+                throw invalidDayItem(lexer, itemPosition);
+            }
+
+            Token separator = lexer.next();
+            if (separator.is(TokenType.EOF)) {
+                break;
+            }
+            if (!separator.is(TokenType.COMMA)) {
+                throw invalidDayItem(lexer, itemPosition);
+            }
+
+            // 允许末尾多余的逗号，中间的空项仍视为错误
+            Token following = lexer.peek();
+            if (following.is(TokenType.COMMA)) {
+                while (lexer.peek().is(TokenType.COMMA)) {
+                    lexer.next();
+                }
+                if (!lexer.peek().is(TokenType.EOF)) {
+                    throw new ParseException("无效的星期或间隔: ", following.position);
+                }
+                break;
+            }
+            if (following.is(TokenType.EOF)) {
+                break;
+            }
+        }
+
+        return new CreateCommandAst.DaysNode(everyDay, daysOfWeek, intervalTicks, intervalMillis, intervalUnit, base);
+    }
+
+    private long toTicks(Token value, String unit, CreateCommandLexer lexer, int itemPosition) throws ParseException {
+        if (value.number > Integer.MAX_VALUE) {
+            throw new ParseException("间隔时间过大: " + value.text + unit, value.position);
+        }
+
+        long ticksPerUnit;
+        switch (unit) {
+            case "ms":
+                // 毫秒精确保存在intervalMillis中，ticks向下取整且至少为1，仅用于显示和兼容
+                if (value.number > 0 && value.number < MIN_INTERVAL_MILLIS) {
+                    throw new ParseException("毫秒间隔不能小于" + MIN_INTERVAL_MILLIS + "ms", value.position);
+                }
+                return value.number == 0 ? 0 : Math.max(1, value.number / 50);
+            case "t":
+                ticksPerUnit = 1L;
+                break;
+            case "s":
+                ticksPerUnit = 20L; // 1秒 = 20ticks
+                break;
+            case "m":
+                ticksPerUnit = 20L * 60L; // 1分钟 = 1200ticks
+                break;
+            case "h":
+                ticksPerUnit = 20L * 60L * 60L; // 1小时 = 72000ticks
+                break;
+            default:
+                throw invalidDayItem(lexer, itemPosition);
+        }
+        return value.number * ticksPerUnit;
+    }
+
+    private ParseException invalidDayItem(CreateCommandLexer lexer, int position) {
+        return new ParseException("无效的星期或间隔: " + lexer.itemAt(position), position);
+    }
+
+    private static DayOfWeek lookupDay(String upperWord) {
+        for (int i = 0; i < DAY_NAMES.length; i++) {
+            if (DAY_NAMES[i].equals(upperWord)) {
+                return DAYS[i];
+            }
+        }
+        return null;
+    }
+
+    // ---------------------------------------------------------------- 工具方法
+
+    private static void expectEnd(CreateCommandLexer lexer, String message) throws ParseException {
+        Token token = lexer.peek();
+        if (!token.is(TokenType.EOF)) {
+            throw new ParseException(message, token.position);
+        }
+    }
+
+    private static boolean regionEquals(String input, int start, int end, String expected) {
+        return end - start == expected.length() && input.startsWith(expected, start);
+    }
+
+    private static boolean isDigits(String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = input.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long parseDigits(String input, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value * 10 + (input.charAt(i) - '0');
+            if (value > Integer.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return value;
+    }
+
+    private static boolean containsSpace(String input, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (input.charAt(i) == ' ') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package org.plugin.timetools.scheduler;
+
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import com.velocitypowered.api.scheduler.Scheduler;
+import org.plugin.timetools.model.Task;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 补执行队列
+ *
+ * 错过的触发按固定间隔逐个交给调度器执行，重启后大量任务需要补执行时不会在同一时刻全部分派。
+ * 队列为空时不占用定时任务；只在补执行时使用，因此直接加锁。
+ */
+final class CatchUpDispatcher {
+
+    /**
+     * 执行一次补触发
+     */
+    interface Handler {
+        void fire(Task task, long scheduledMillis);
+    }
+
+    private final Object plugin;
+    private final Scheduler scheduler;
+    private final long spacingMillis;
+    private final Handler handler;
+
+    private final Queue<PendingFire> queue = new ArrayDeque<>();
+    private final LongAdder fired = new LongAdder();
+    private ScheduledTask step;
+
+    CatchUpDispatcher(Object plugin, Scheduler scheduler, long spacingMillis, Handler handler) {
+        if (spacingMillis < 0) {
+            throw new IllegalArgumentException("补执行间隔不能为负数");
+        }
+        this.plugin = plugin;
+        this.scheduler = scheduler;
+        this.spacingMillis = spacingMillis;
+        this.handler = handler;
+    }
+
+    /**
+     * 加入一次补触发，队列原本为空时立即开始执行
+     */
+    synchronized void offer(Task task, long scheduledMillis) {
+        queue.add(new PendingFire(task, scheduledMillis));
+        if (step == null) {
+            step = scheduler.buildTask(plugin, this::drain).schedule();
+        }
+    }
+
+    private void drain() {
+        PendingFire next;
+        synchronized (this) {
+            next = queue.poll();
+            if (next == null) {
+                step = null;
+                return;
+            }
+            // 执行后至少间隔 spacingMillis 才执行下一次，队列为空时下一步直接结束
+            step = scheduler.buildTask(plugin, this::drain).delay(spacingMillis, TimeUnit.MILLISECONDS).schedule();
+        }
+        fired.increment();
+        handler.fire(next.task, next.scheduledMillis);
+    }
+
+    /**
+     * 丢弃等待中的补触发
+     */
+    synchronized void clear() {
+        queue.clear();
+        if (step != null) {
+            step.cancel();
+            step = null;
+        }
+    }
+
+    synchronized int size() {
+        return queue.size();
+    }
+
+    /**
+     * 已执行的补触发次数
+     */
+    long getFiredCount() {
+        return fired.sum();
+    }
+
+    private static final class PendingFire {
+        private final Task task;
+        private final long scheduledMillis;
+
+        private PendingFire(Task task, long scheduledMillis) {
+            this.task = task;
+            this.scheduledMillis = scheduledMillis;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package org.plugin.timetools.scheduler;
+
+/**
+ * 单条命令的执行结果
+ */
+public final class CommandResult {
+
+    private final String command;
+    private final boolean success;
+    private final long latencyNanos;
+    private final Throwable error;
+
+    public CommandResult(String command, boolean success, long latencyNanos, Throwable error) {
+        this.command = command;
+        this.success = success;
+        this.latencyNanos = latencyNanos;
+        this.error = error;
+    }
+
+    /**
+     * 获取执行的命令（不含前导斜杠）
+     */
+    public String getCommand() {
+        return command;
+    }
+
+    /**
+     * 命令是否执行成功
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+
+    /**
+     * 获取从分派到 executeAsync 完成的耗时（纳秒）
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * 获取执行异常，成功或正常失败时为null
+     */
+    public Throwable getError() {
+        return error;
+    }
+
+    @Override
+    public String toString() {
+        return "CommandResult{command='" + command + "', success=" + success +
+                ", latencyMs=" + (latencyNanos / 1_000_000.0) + "}";
+    }
+}
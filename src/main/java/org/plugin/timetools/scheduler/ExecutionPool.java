@@ -0,0 +1,273 @@
+package org.plugin.timetools.scheduler;
+
+import org.plugin.timetools.config.ConfigManager;
+import org.slf4j.Logger;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TimeTools专用的任务执行池
+ *
+ * 任务触发（执行前事件、回调和命令分派）交给固定大小的线程池，不占用Velocity调度器的共享线程，
+ * 大量任务同时触发时也不影响其他插件的异步任务。等待执行的触发数有上限，队列已满时按拒绝策略处理。
+ * 在Java 21及以上可以改为每次触发使用一个虚拟线程，同时执行的数量仍受线程数限制。
+ */
+public class ExecutionPool {
+
+    /**
+     * 队列已满时的处理方式
+     */
+    public enum RejectionPolicy {
+        /** 在提交触发的调度线程中直接执行 */
+        CALLER_RUNS,
+        /** 丢弃本次触发 */
+        DISCARD
+    }
+
+    private static final long REJECTION_WARNING_COOLDOWN_MS = 60_000;
+
+    private final int maxThreads;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final boolean virtual;
+    private final Logger logger;
+    private final ExecutorService executor;
+    private final Semaphore permits;
+
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder callerRuns = new LongAdder();
+    private volatile long lastRejectionWarning;
+
+    /**
+     * @param maxThreads 同时执行的最大触发数
+     * @param queueCapacity 等待执行的最大触发数
+     * @param virtualThreads 是否使用虚拟线程，当前Java版本不支持时改用平台线程
+     */
+    public ExecutionPool(int maxThreads, int queueCapacity, RejectionPolicy rejectionPolicy,
+                         boolean virtualThreads, Logger logger) {
+        if (maxThreads <= 0) {
+            throw new IllegalArgumentException("执行线程数必须大于0");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("执行队列容量必须大于0");
+        }
+        if (rejectionPolicy == null) {
+            throw new IllegalArgumentException("拒绝策略不能为空");
+        }
+        this.maxThreads = maxThreads;
+        this.queueCapacity = queueCapacity;
+        this.rejectionPolicy = rejectionPolicy;
+        this.logger = logger;
+
+        ExecutorService virtualExecutor = virtualThreads ? newVirtualThreadExecutor() : null;
+        if (virtualThreads && virtualExecutor == null) {
+            logger.warn("当前Java版本不支持虚拟线程，改用平台线程执行任务");
+        }
+        this.virtual = virtualExecutor != null;
+        if (virtual) {
+            // 每次触发一个虚拟线程，同时执行的数量由许可限制
+            this.executor = virtualExecutor;
+            this.permits = new Semaphore(maxThreads);
+        } else {
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxThreads, maxThreads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+            pool.allowCoreThreadTimeOut(true);
+            this.executor = pool;
+            this.permits = null;
+        }
+    }
+
+    /**
+     * 按配置创建：max-execution-threads、execution.virtual-threads、execution.queue-capacity、
+     * execution.rejection-policy
+     */
+    public static ExecutionPool fromConfig(ConfigManager configManager, Logger logger) {
+        int threads = (int) configManager.getLong("max-execution-threads", 5);
+        int capacity = (int) configManager.getLong("execution.queue-capacity", 256);
+        boolean virtualThreads = Boolean.TRUE.equals(configManager.getConfig("execution.virtual-threads", false));
+        String policy = String.valueOf(configManager.getConfig("execution.rejection-policy", "caller-runs"));
+        return new ExecutionPool(threads, capacity, parsePolicy(policy), virtualThreads, logger);
+    }
+
+    static RejectionPolicy parsePolicy(String policy) {
+        switch (policy.trim().toLowerCase(Locale.ROOT)) {
+            case "caller-runs":
+                return RejectionPolicy.CALLER_RUNS;
+            case "discard":
+                return RejectionPolicy.DISCARD;
+            default:
+                throw new IllegalArgumentException("未知的拒绝策略: " + policy);
+        }
+    }
+
+    /**
+     * 提交一次触发
+     *
+     * @return 被丢弃时返回false
+     */
+    public boolean execute(Runnable task) {
+        // 先占用队列位置，超过容量时按拒绝策略处理
+        if (queued.incrementAndGet() > queueCapacity && virtual) {
+            queued.decrementAndGet();
+            return reject(task);
+        }
+        try {
+            executor.execute(() -> run(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.decrementAndGet();
+            return reject(task);
+        }
+    }
+
+    private void run(Runnable task) {
+        if (permits != null) {
+            permits.acquireUninterruptibly();
+        }
+        queued.decrementAndGet();
+        active.incrementAndGet();
+        try {
+            task.run();
+        } catch (Throwable e) {
+            logger.error("执行池中的任务抛出异常", e);
+        } finally {
+            active.decrementAndGet();
+            completed.increment();
+            if (permits != null) {
+                permits.release();
+            }
+        }
+    }
+
+    private boolean reject(Runnable task) {
+        if (executor.isShutdown()) {
+            rejected.increment();
+            return false;
+        }
+        warnSaturated();
+        if (rejectionPolicy == RejectionPolicy.CALLER_RUNS) {
+            callerRuns.increment();
+            task.run();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    private void warnSaturated() {
+        long now = System.currentTimeMillis();
+        if (now - lastRejectionWarning >= REJECTION_WARNING_COOLDOWN_MS) {
+            lastRejectionWarning = now;
+            logger.warn("执行池已满（{} 个执行中，{} 个等待），按 {} 策略处理；已丢弃 {} 次，调度线程直接执行 {} 次",
+                    active.get(), queued.get(), rejectionPolicy, rejected.sum(), callerRuns.sum());
+        }
+    }
+
+    /**
+     * 停止接收新的触发并等待执行中的触发完成
+     */
+    public void shutdown(long timeout, TimeUnit unit) {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(timeout, unit)) {
+                logger.warn("执行池关闭超时，仍有 {} 个任务在执行", active.get());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public RejectionPolicy getRejectionPolicy() {
+        return rejectionPolicy;
+    }
+
+    /**
+     * 是否使用虚拟线程
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 正在执行的触发数
+     */
+    public int getActiveCount() {
+        return active.get();
+    }
+
+    /**
+     * 等待执行的触发数
+     */
+    public int getQueuedCount() {
+        return Math.max(0, queued.get());
+    }
+
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    /**
+     * 因队列已满或执行池已关闭被丢弃的触发数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * 队列已满时在调度线程中直接执行的触发数
+     */
+    public long getCallerRunsCount() {
+        return callerRuns.sum();
+    }
+
+    private static ThreadFactory threadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "TimeTools-Executor-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，以便在Java 17上编译和运行
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invoke();
+        } catch (NoSuchMethodException | IllegalAccessException | UnsupportedOperationException e) {
+            // Java 19/20未启用预览特性时同样不可用
+            return null;
+        } catch (Throwable e) {
+            throw new IllegalStateException("创建虚拟线程执行器失败", e);
+        }
+    }
+}
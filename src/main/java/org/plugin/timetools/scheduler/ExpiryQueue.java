@@ -0,0 +1,113 @@
+package org.plugin.timetools.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 任务过期队列
+ *
+ * 按过期时间排序的小顶堆，主检查每分钟只查看堆顶，加入和取出都是 O(log n)，不需要遍历全部任务。
+ * 每个任务只有一个有效条目：过期时间不变时重复加入不产生新条目，只有过期时间改变时旧条目才作废并留在堆中，
+ * 移除的任务只标记作废，作废的条目在到期取出时丢弃。
+ */
+final class ExpiryQueue {
+
+    private final PriorityQueue<Entry> heap = new PriorityQueue<>();
+    private final Map<String, Entry> current = new HashMap<>();
+
+    /**
+     * 加入或更新一个任务
+     *
+     * @param expiresAtMinute 过期时刻（本地时间自1970-01-01起的分钟数）
+     */
+    synchronized void offer(String taskId, long expiresAtMinute) {
+        Entry existing = current.get(taskId);
+        if (existing != null) {
+            if (existing.expiresAtMinute == expiresAtMinute) {
+                existing.active = true;
+                return;
+            }
+            existing.active = false;
+        }
+        Entry entry = new Entry(taskId, expiresAtMinute);
+        current.put(taskId, entry);
+        heap.add(entry);
+    }
+
+    /**
+     * 任务被删除或不再有过期时间
+     */
+    synchronized void remove(String taskId) {
+        Entry existing = current.get(taskId);
+        if (existing != null) {
+            existing.active = false;
+        }
+    }
+
+    /**
+     * 取出所有在指定时刻之前（含）过期的任务ID
+     */
+    synchronized List<String> pollExpired(long nowMinute) {
+        Entry head = heap.peek();
+        if (head == null || head.expiresAtMinute > nowMinute) {
+            return Collections.emptyList();
+        }
+        List<String> expired = new ArrayList<>();
+        while (head != null && head.expiresAtMinute <= nowMinute) {
+            heap.poll();
+            if (current.get(head.taskId) == head) {
+                current.remove(head.taskId);
+                if (head.active) {
+                    expired.add(head.taskId);
+                }
+            }
+            head = heap.peek();
+        }
+        return expired;
+    }
+
+    synchronized void clear() {
+        heap.clear();
+        current.clear();
+    }
+
+    /**
+     * 等待过期的任务数（不含作废的条目）
+     */
+    synchronized int size() {
+        int size = 0;
+        for (Entry entry : current.values()) {
+            if (entry.active) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * 堆中的条目数（含作废的条目）
+     */
+    synchronized int entryCount() {
+        return heap.size();
+    }
+
+    private static final class Entry implements Comparable<Entry> {
+        private final String taskId;
+        private final long expiresAtMinute;
+        private boolean active = true;
+
+        private Entry(String taskId, long expiresAtMinute) {
+            this.taskId = taskId;
+            this.expiresAtMinute = expiresAtMinute;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Long.compare(expiresAtMinute, other.expiresAtMinute);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.plugin.timetools.scheduler;
+
+import org.plugin.timetools.model.FireSchedule;
+import org.plugin.timetools.model.Task;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * 触发时间索引
+ *
+ * 按一天中的分钟把由分钟调度器驱动的任务分桶，每分钟只需检查当前分钟桶内的任务，
+ * 而不是遍历全部任务。一天中触发分钟数超过阈值的任务（例如全天的时间区间）放入常驻集合，
+ * 每分钟都检查，避免在上千个桶中重复登记。
+ */
+class FireTimeIndex {
+
+    static final int DENSE_THRESHOLD = 60;
+
+    private final AtomicReferenceArray<Map<String, Task>> buckets =
+            new AtomicReferenceArray<>(FireSchedule.MINUTES_PER_DAY);
+    private final Map<String, Task> dense = new ConcurrentHashMap<>();
+    // 任务ID -> 登记时所在的分钟桶（常驻任务为空数组），删除时不依赖任务当前的定义
+    private final Map<String, int[]> indexed = new ConcurrentHashMap<>();
+
+    /**
+     * 添加或更新任务，非分钟驱动的任务会被忽略
+     */
+    synchronized void put(Task task) {
+        remove(task.getId());
+
+        FireSchedule schedule = task.getFireSchedule();
+        if (!schedule.isMinuteDriven()) {
+            return;
+        }
+
+        int[] minutes;
+        if (schedule.getFireMinuteCount() > DENSE_THRESHOLD) {
+            dense.put(task.getId(), task);
+            minutes = new int[0];
+        } else {
+            minutes = schedule.fireMinutes();
+            for (int minute : minutes) {
+                Map<String, Task> bucket = buckets.get(minute);
+                if (bucket == null) {
+                    bucket = new ConcurrentHashMap<>();
+                    buckets.set(minute, bucket);
+                }
+                bucket.put(task.getId(), task);
+            }
+        }
+        indexed.put(task.getId(), minutes);
+    }
+
+    synchronized void remove(String taskId) {
+        int[] minutes = indexed.remove(taskId);
+        if (minutes == null) {
+            return;
+        }
+
+        dense.remove(taskId);
+        for (int minute : minutes) {
+            Map<String, Task> bucket = buckets.get(minute);
+            if (bucket != null) {
+                bucket.remove(taskId);
+            }
+        }
+    }
+
+    synchronized void rebuild(Collection<Task> tasks) {
+        clear();
+        for (Task task : tasks) {
+            put(task);
+        }
+    }
+
+    synchronized void clear() {
+        for (int minute = 0; minute < buckets.length(); minute++) {
+            buckets.set(minute, null);
+        }
+        dense.clear();
+        indexed.clear();
+    }
+
+    /**
+     * 遍历可能在指定分钟触发的任务（仍需由调用方检查星期和启用状态）
+     */
+    void forEachCandidate(int minuteOfDay, Consumer<Task> action) {
+        Map<String, Task> bucket = buckets.get(minuteOfDay);
+        if (bucket != null) {
+            bucket.values().forEach(action);
+        }
+        dense.values().forEach(action);
+    }
+
+    int size() {
+        return indexed.size();
+    }
+}
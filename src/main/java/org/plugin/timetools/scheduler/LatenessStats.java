@@ -0,0 +1,48 @@
+package org.plugin.timetools.scheduler;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 触发延迟统计
+ *
+ * 记录高精度任务每次实际触发时间相对计划时间的延迟，以及因来不及执行而跳过的触发次数。
+ */
+public class LatenessStats {
+
+    private final LongAdder fireCount = new LongAdder();
+    private final LongAdder missedCount = new LongAdder();
+    private final LongAdder totalLatenessNanos = new LongAdder();
+    private final AtomicLong maxLatenessNanos = new AtomicLong();
+
+    void record(long latenessNanos) {
+        long lateness = Math.max(0, latenessNanos);
+        fireCount.increment();
+        totalLatenessNanos.add(lateness);
+        maxLatenessNanos.accumulateAndGet(lateness, Math::max);
+    }
+
+    void recordMissed(long missed) {
+        missedCount.add(missed);
+    }
+
+    public long getFireCount() {
+        return fireCount.sum();
+    }
+
+    /**
+     * 被跳过的触发次数（延迟超过一个周期时合并为一次执行）
+     */
+    public long getMissedCount() {
+        return missedCount.sum();
+    }
+
+    public double getMeanLatenessMillis() {
+        long fires = fireCount.sum();
+        return fires == 0 ? 0 : totalLatenessNanos.sum() / (double) fires / 1_000_000.0;
+    }
+
+    public double getMaxLatenessMillis() {
+        return maxLatenessNanos.get() / 1_000_000.0;
+    }
+}
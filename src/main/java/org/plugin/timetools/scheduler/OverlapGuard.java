@@ -0,0 +1,95 @@
+package org.plugin.timetools.scheduler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个任务的重叠控制
+ *
+ * 记录任务是否有执行尚未完成（所有命令都有结果才算完成），以及 QUEUE_ONE 策略下等待的一次触发。
+ * 只用原子变量实现，触发线程和命令完成回调之间不加锁。
+ */
+public class OverlapGuard {
+
+    /**
+     * 没有等待中的触发
+     */
+    static final long NONE = Long.MIN_VALUE;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong pending = new AtomicLong(NONE);
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder queuedCount = new LongAdder();
+
+    /**
+     * 没有执行中的触发时占用
+     */
+    boolean tryAcquire() {
+        return inFlight.compareAndSet(0, 1);
+    }
+
+    /**
+     * 记录一次等待的触发（计划时间），已有等待的触发时本次计为跳过
+     */
+    boolean offer(long scheduledMillis) {
+        if (pending.compareAndSet(NONE, scheduledMillis)) {
+            queuedCount.increment();
+            return true;
+        }
+        skippedCount.increment();
+        return false;
+    }
+
+    void skip() {
+        skippedCount.increment();
+    }
+
+    /**
+     * 执行完成：有等待的触发时继续占用并返回其计划时间，否则释放并返回 {@link #NONE}
+     */
+    long release() {
+        while (true) {
+            long next = pending.getAndSet(NONE);
+            if (next != NONE) {
+                return next;
+            }
+            inFlight.set(0);
+            // 释放前后有新的触发进入等待时，由释放方重新占用并执行
+            if (pending.get() == NONE || !inFlight.compareAndSet(0, 1)) {
+                return NONE;
+            }
+        }
+    }
+
+    /**
+     * 进入等待后执行中的触发可能已经释放，此时由提交方取走等待的触发
+     */
+    long pollIfIdle() {
+        if (pending.get() == NONE || !tryAcquire()) {
+            return NONE;
+        }
+        return release();
+    }
+
+    /**
+     * 是否有执行尚未完成
+     */
+    public boolean isRunning() {
+        return inFlight.get() > 0;
+    }
+
+    /**
+     * 因上一次执行未完成而跳过的触发次数
+     */
+    public long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    /**
+     * 进入等待、在上一次执行完成后才执行的触发次数
+     */
+    public long getQueuedCount() {
+        return queuedCount.sum();
+    }
+}
@@ -0,0 +1,147 @@
+package org.plugin.timetools.scheduler;
+
+import org.slf4j.Logger;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 高精度定时器
+ *
+ * 用于亚秒级间隔（tick、毫秒单位）的任务。每个任务的触发时间按 起始时间 + k × 周期 的绝对时刻计算，
+ * 单次延迟不会累积成漂移；延迟超过一个周期时跳过错过的触发并计数，而不是连续补发。
+ * 每次触发都会记录相对计划时间的延迟，用于判断调度是否跟得上。
+ */
+class PrecisionTimer {
+
+    private static final long WARNING_COOLDOWN_NANOS = TimeUnit.SECONDS.toNanos(60);
+
+    private final Logger logger;
+    private final long warningThresholdNanos;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    PrecisionTimer(Logger logger, long warningThresholdMillis) {
+        this.logger = logger;
+        this.warningThresholdNanos = TimeUnit.MILLISECONDS.toNanos(warningThresholdMillis);
+        this.executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "TimeTools-PrecisionTimer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * 按固定周期调度，已存在的同ID调度会被替换
+     */
+    void schedule(String id, long periodNanos, Runnable action) {
+        cancel(id);
+        Entry entry = new Entry(id, periodNanos, action);
+        entries.put(id, entry);
+        entry.start();
+    }
+
+    boolean cancel(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancel();
+        return true;
+    }
+
+    void cancelAll() {
+        for (Entry entry : entries.values()) {
+            entry.cancel();
+        }
+        entries.clear();
+    }
+
+    boolean isScheduled(String id) {
+        return entries.containsKey(id);
+    }
+
+    LatenessStats getStats(String id) {
+        Entry entry = entries.get(id);
+        return entry != null ? entry.stats : null;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    void shutdown() {
+        cancelAll();
+        executor.shutdownNow();
+    }
+
+    private final class Entry implements Runnable {
+        private final String id;
+        private final long periodNanos;
+        private final Runnable action;
+        private final LatenessStats stats = new LatenessStats();
+        private long nextDeadline;
+        private long lastWarning;
+        private boolean warned;
+        private volatile boolean cancelled;
+        private volatile ScheduledFuture<?> future;
+
+        Entry(String id, long periodNanos, Runnable action) {
+            this.id = id;
+            this.periodNanos = periodNanos;
+            this.action = action;
+        }
+
+        void start() {
+            nextDeadline = System.nanoTime() + periodNanos;
+            future = executor.schedule(this, periodNanos, TimeUnit.NANOSECONDS);
+        }
+
+        void cancel() {
+            cancelled = true;
+            ScheduledFuture<?> current = future;
+            if (current != null) {
+                current.cancel(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (cancelled) {
+                return;
+            }
+
+            long lateness = System.nanoTime() - nextDeadline;
+            stats.record(lateness);
+            if (lateness > warningThresholdNanos && (!warned || nextDeadline - lastWarning > WARNING_COOLDOWN_NANOS)) {
+                warned = true;
+                lastWarning = nextDeadline;
+                logger.warn("高精度任务 {} 触发延迟 {}ms，超过阈值 {}ms", id,
+                        TimeUnit.NANOSECONDS.toMillis(lateness), TimeUnit.NANOSECONDS.toMillis(warningThresholdNanos));
+            }
+
+            try {
+                action.run();
+            } catch (Exception e) {
+                logger.error("执行高精度任务失败: " + id, e);
+            }
+
+            // 下一次触发时间以计划时间为基准推进，已经错过的周期直接跳过
+            nextDeadline += periodNanos;
+            long now = System.nanoTime();
+            if (nextDeadline <= now) {
+                long missed = (now - nextDeadline) / periodNanos + 1;
+                nextDeadline += missed * periodNanos;
+                stats.recordMissed(missed);
+            }
+
+            if (!cancelled) {
+                future = executor.schedule(this, nextDeadline - now, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.plugin.timetools.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+
+/**
+ * 一次任务执行的句柄
+ *
+ * 每条命令在分派前必须先通过 {@link #claim(int)} 占用；超时后剩余的命令无法再被占用，
+ * 延迟分派的步骤到时直接跳过，逐个模式也不再调度下一步。
+ */
+final class TaskExecution implements TimeoutWheel.Timeout {
+
+    private final String taskId;
+    private final List<String> commands;
+    private final List<CompletableFuture<CommandResult>> results;
+    private final AtomicIntegerArray claimed;
+    private final long startNanos;
+    private final Consumer<TaskExecution> timeoutHandler;
+    private volatile boolean timedOut;
+
+    TaskExecution(String taskId, List<String> commands, long startNanos, Consumer<TaskExecution> timeoutHandler) {
+        this.taskId = taskId;
+        this.commands = commands;
+        this.results = new ArrayList<>(commands.size());
+        for (int i = 0; i < commands.size(); i++) {
+            results.add(new CompletableFuture<>());
+        }
+        this.claimed = new AtomicIntegerArray(commands.size());
+        this.startNanos = startNanos;
+        this.timeoutHandler = timeoutHandler;
+    }
+
+    /**
+     * 占用第 index 条命令，已被占用或执行已超时时返回false
+     */
+    boolean claim(int index) {
+        return !timedOut && claimed.compareAndSet(index, 0, 1);
+    }
+
+    /**
+     * 所有命令都已有结果
+     */
+    @Override
+    public boolean isDone() {
+        for (CompletableFuture<CommandResult> result : results) {
+            if (!result.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void expire() {
+        timeoutHandler.accept(this);
+    }
+
+    boolean isTimedOut() {
+        return timedOut;
+    }
+
+    /**
+     * 标记为超时并占用所有尚未开始的命令
+     *
+     * @return 尚未开始的命令下标为1、已开始的为0
+     */
+    int[] markTimedOut() {
+        timedOut = true;
+        int[] notStarted = new int[commands.size()];
+        for (int i = 0; i < notStarted.length; i++) {
+            notStarted[i] = claimed.compareAndSet(i, 0, 1) ? 1 : 0;
+        }
+        return notStarted;
+    }
+
+    String getTaskId() {
+        return taskId;
+    }
+
+    List<String> getCommands() {
+        return commands;
+    }
+
+    List<CompletableFuture<CommandResult>> getResults() {
+        return results;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+}
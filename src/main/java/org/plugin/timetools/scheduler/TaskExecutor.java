@@ -1,14 +1,24 @@
 package org.plugin.timetools.scheduler;
 
 import com.velocitypowered.api.proxy.ProxyServer;
+import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.api.scheduler.Scheduler;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.jfr.CommandCompletedEvent;
+import org.plugin.timetools.jfr.CommandDispatchedEvent;
+import org.plugin.timetools.log.ExecutionLog;
+import org.plugin.timetools.metrics.ExecutionMetrics;
 import org.plugin.timetools.model.ExecutionMode;
 import org.plugin.timetools.model.Task;
 import org.slf4j.Logger;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 /**
  * 任务执行器
@@ -17,79 +27,155 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public class TaskExecutor {
 
+    private static final int TIMEOUT_WHEEL_SLOTS = 64;
+
     private final Object plugin;
     private final ProxyServer server;
     private final Logger logger;
     private final Scheduler scheduler;
+    private final TaskEventDispatcher eventDispatcher;
+    private final ExecutionMetrics metrics;
+    private ExecutionLog executionLog;
+    
+    // 所有执行共用的超时时间轮，每秒推进一格
+    private final TimeoutWheel timeoutWheel = new TimeoutWheel(TIMEOUT_WHEEL_SLOTS);
+    private final Consumer<TaskExecution> timeoutHandler = this::timeout;
+    private long timeoutSeconds;
+    private ScheduledTask timeoutTicker;
 
-    public TaskExecutor(Object plugin, ProxyServer server, Logger logger) {
+    public TaskExecutor(Object plugin, ProxyServer server, Logger logger, TaskEventDispatcher eventDispatcher) {
+        this(plugin, server, logger, eventDispatcher, new ExecutionMetrics());
+    }
+
+    public TaskExecutor(Object plugin, ProxyServer server, Logger logger, TaskEventDispatcher eventDispatcher,
+                        ExecutionMetrics metrics) {
         this.plugin = plugin;
         this.server = server;
         this.logger = logger;
         this.scheduler = server.getScheduler();
+        this.eventDispatcher = eventDispatcher;
+        this.metrics = metrics;
     }
     
     /**
      * 执行任务
+     *
+     * @return 所有命令执行完成后完成的结果，顺序与任务命令一致
      */
-    public void executeTask(Task task) {
+    public CompletableFuture<List<CommandResult>> executeTask(Task task) {
         if (task == null || !task.isEnabled()) {
-            return;
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        
+        long startNanos = System.nanoTime();
+        metrics.recordFire(task.getId());
+        
+        if (task.hasCallback()) {
+            executeCallback(task);
         }
         
         List<String> commands = task.getCommands();
         if (commands.isEmpty()) {
-            logger.warn("任务 {} 没有要执行的命令", task.getId());
-            return;
+            if (!task.hasCallback()) {
+                logger.warn("任务 {} 没有要执行的命令", task.getId());
+            }
+            return completeExecution(task, Collections.emptyList(), startNanos);
         }
         
         ExecutionMode mode = task.getExecutionMode();
+        List<String> targets = mode == ExecutionMode.SINGLE ? commands.subList(0, 1) : commands;
+        TaskExecution execution = new TaskExecution(task.getId(), targets, startNanos, timeoutHandler);
         
         switch (mode) {
             case SINGLE:
-                executeSingleCommand(commands.get(0));
+                executeSingleCommand(execution);
                 break;
                 
             case ALL:
-                executeAllCommands(commands);
+                executeAllCommands(execution);
                 break;
                 
             case ONE_BY_ONE:
-                executeCommandsOneByOne(commands, task.getExecutionInterval());
+                executeCommandsOneByOne(execution, task.getExecutionInterval());
                 break;
                 
             default:
                 logger.warn("未知的执行模式: {}", mode);
+                return completeExecution(task, Collections.emptyList(), startNanos);
         }
+        
+        // 命令未全部完成时加入超时时间轮（未启动超时检查时不加入，避免条目堆积）
+        if (timeoutTicker != null && !execution.isDone()) {
+            timeoutWheel.schedule(execution, timeoutSeconds);
+        }
+        
+        return completeExecution(task, execution.getResults(), startNanos);
     }
     
     /**
-     * 执行单个命令
+     * 汇总命令结果，有监听器时触发执行后事件
      */
-    private void executeSingleCommand(String command) {
+    private CompletableFuture<List<CommandResult>> completeExecution(Task task,
+                                                                     List<CompletableFuture<CommandResult>> results,
+                                                                     long startNanos) {
+        CompletableFuture<List<CommandResult>> completion = CompletableFuture
+                .allOf(results.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> results.stream().map(CompletableFuture::join).toList());
+        
+        // 快速路径：没有监听器时不构造事件
+        if (eventDispatcher.hasListeners()) {
+            completion.thenAccept(commandResults ->
+                    eventDispatcher.firePostExecute(task, commandResults, System.nanoTime() - startNanos));
+        }
+        
+        return completion;
+    }
+    
+    /**
+     * 执行任务回调
+     */
+    private void executeCallback(Task task) {
         try {
-            executeCommand(command);
-            logger.debug("执行单个命令: {}", command);
+            task.getCallback().accept(task);
+            logger.debug("执行任务回调: {}", task.getId());
         } catch (Exception e) {
-            logger.error("执行单个命令失败: " + command, e);
+            logger.error("执行任务回调失败: " + task.getId(), e);
         }
     }
     
+    /**
+     * 执行单个命令
+     */
+    private void executeSingleCommand(TaskExecution execution) {
+        String command = execution.getCommands().get(0);
+        execution.claim(0);
+        executeCommand(execution.getTaskId(), command, execution.getStartNanos())
+                .thenAccept(execution.getResults().get(0)::complete);
+        logger.debug("执行单个命令: {}", command);
+    }
+    
     /**
      * 同时执行所有命令（伪同时，间隔1tick）
      */
-    private void executeAllCommands(List<String> commands) {
+    private void executeAllCommands(TaskExecution execution) {
+        List<String> commands = execution.getCommands();
+        
         for (int i = 0; i < commands.size(); i++) {
+            final int index = i;
             final String command = commands.get(i);
             final int delay = i; // 每个命令延迟i个tick
+            final long scheduledNanos = execution.getStartNanos() + TimeUnit.MILLISECONDS.toNanos(delay * 50L);
             
+            metrics.commandQueued();
             scheduler.buildTask(plugin, () -> {
-                try {
-                    executeCommand(command);
-                    logger.debug("执行命令 (ALL模式): {}", command);
-                } catch (Exception e) {
-                    logger.error("执行命令失败 (ALL模式): " + command, e);
+                metrics.commandDequeued();
+                // 超时后剩余的命令不再执行
+                if (!execution.claim(index)) {
+                    return;
                 }
+                executeCommand(execution.getTaskId(), command, scheduledNanos)
+                        .thenAccept(execution.getResults().get(index)::complete);
+                logger.debug("执行命令 (ALL模式): {}", command);
             }).delay(delay * 50, TimeUnit.MILLISECONDS).schedule(); // 1 tick = 50ms
         }
         
@@ -99,16 +185,21 @@ public class TaskExecutor {
     /**
      * 逐个执行命令
      */
-    private void executeCommandsOneByOne(List<String> commands, int intervalTicks) {
+    private void executeCommandsOneByOne(TaskExecution execution, int intervalTicks) {
         if (intervalTicks < 2) {
             intervalTicks = 2; // 最小间隔2ticks
         }
         
+        final List<String> commands = execution.getCommands();
+        final String taskId = execution.getTaskId();
         final int finalIntervalTicks = intervalTicks;
+        final long intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalTicks * 50L);
         final AtomicInteger index = new AtomicInteger(0);
         
         // 立即执行第一个命令
-        executeCommand(commands.get(0));
+        execution.claim(0);
+        executeCommand(taskId, commands.get(0), execution.getStartNanos())
+                .thenAccept(execution.getResults().get(0)::complete);
         logger.debug("执行命令 1/{} (OBO模式): {}", commands.size(), commands.get(0));
         
         // 如果只有一个命令，直接返回
@@ -117,23 +208,28 @@ public class TaskExecutor {
         }
         
         // 调度后续命令
+        metrics.commandQueued();
         scheduler.buildTask(plugin, new Runnable() {
+            // 本次计划的分派时刻，用于计算调度器的排队延迟
+            private long scheduledNanos = System.nanoTime() + intervalNanos;
+            
             @Override
             public void run() {
+                metrics.commandDequeued();
                 int currentIndex = index.incrementAndGet();
                 
-                if (currentIndex < commands.size()) {
+                // 超时后不再执行剩余命令，也不再调度下一步
+                if (currentIndex < commands.size() && execution.claim(currentIndex)) {
                     String command = commands.get(currentIndex);
-                    try {
-                        executeCommand(command);
-                        logger.debug("执行命令 {}/{} (OBO模式): {}", 
-                                currentIndex + 1, commands.size(), command);
-                    } catch (Exception e) {
-                        logger.error("执行命令失败 (OBO模式): " + command, e);
-                    }
+                    executeCommand(taskId, command, scheduledNanos)
+                            .thenAccept(execution.getResults().get(currentIndex)::complete);
+                    logger.debug("执行命令 {}/{} (OBO模式): {}", 
+                            currentIndex + 1, commands.size(), command);
                     
                     // 如果还有更多命令，继续调度
                     if (currentIndex + 1 < commands.size()) {
+                        scheduledNanos = System.nanoTime() + intervalNanos;
+                        metrics.commandQueued();
                         scheduler.buildTask(plugin, this)
                                 .delay(finalIntervalTicks * 50, TimeUnit.MILLISECONDS)
                                 .schedule();
@@ -145,38 +241,113 @@ public class TaskExecutor {
         logger.debug("启动 {} 个命令的逐个执行，间隔 {} ticks", commands.size(), finalIntervalTicks);
     }
     
+    /**
+     * 超时处理：未开始的命令标记为已取消，已分派但未完成的命令不再等待
+     */
+    private void timeout(TaskExecution execution) {
+        int[] notStarted = execution.markTimedOut();
+        long elapsedNanos = System.nanoTime() - execution.getStartNanos();
+        List<String> commands = execution.getCommands();
+        int cancelled = 0;
+        int abandoned = 0;
+        
+        for (int i = 0; i < commands.size(); i++) {
+            String command = stripSlash(commands.get(i));
+            boolean started = notStarted[i] == 0;
+            CommandResult result = new CommandResult(command, false, elapsedNanos,
+                    new TimeoutException(started ? "命令执行超时" : "任务执行超时，命令已取消"));
+            if (execution.getResults().get(i).complete(result)) {
+                if (started) {
+                    abandoned++;
+                } else {
+                    cancelled++;
+                }
+            }
+        }
+        
+        // 时间轮检查之后、标记超时之前命令可能已全部完成，此时不算超时
+        if (cancelled + abandoned == 0) {
+            return;
+        }
+        metrics.recordTimeout();
+        logger.warn("任务 {} 执行超过 {} 秒，已取消 {} 条未执行的命令，{} 条命令未完成",
+                execution.getTaskId(), timeoutSeconds, cancelled, abandoned);
+    }
+    
     /**
      * 执行具体的命令
+     *
+     * @param taskId 所属任务，用于按任务记录延迟，可以为null
+     * @param scheduledNanos 计划分派的时刻（System.nanoTime）
+     * @return 命令完成后完成的结果，不会异常完成
      */
-    private void executeCommand(String command) {
+    private CompletableFuture<CommandResult> executeCommand(String taskId, String command, long scheduledNanos) {
         if (command == null || command.trim().isEmpty()) {
             logger.warn("尝试执行空命令");
-            return;
+            return CompletableFuture.completedFuture(new CommandResult(command, false, 0, null));
         }
         
         // 移除命令前缀的斜杠（如果有）
-        String cleanCommand = command.startsWith("/") ? command.substring(1) : command;
+        String cleanCommand = stripSlash(command);
+        long dispatchNanos = System.nanoTime();
+        metrics.recordDispatchLag(taskId, cleanCommand, dispatchNanos - scheduledNanos);
+        CommandDispatchedEvent dispatched = new CommandDispatchedEvent();
+        if (dispatched.shouldCommit()) {
+            dispatched.taskId = taskId;
+            dispatched.command = cleanCommand;
+            dispatched.dispatchLag = dispatchNanos - scheduledNanos;
+            dispatched.commit();
+        }
         
         try {
             // 在Velocity中执行命令
-            server.getCommandManager().executeAsync(server.getConsoleCommandSource(), cleanCommand)
-                    .thenAccept(result -> {
+            return server.getCommandManager().executeAsync(server.getConsoleCommandSource(), cleanCommand)
+                    .thenApply(result -> {
                         if (result) {
                             logger.debug("命令执行成功: /{}", cleanCommand);
                         } else {
                             logger.warn("命令执行失败: /{}", cleanCommand);
                         }
+                        return complete(taskId, new CommandResult(cleanCommand, result,
+                                System.nanoTime() - dispatchNanos, null));
                     })
                     .exceptionally(throwable -> {
                         logger.error("命令执行异常: /" + cleanCommand, throwable);
-                        return null;
+                        return complete(taskId, new CommandResult(cleanCommand, false,
+                                System.nanoTime() - dispatchNanos, throwable));
                     });
                     
         } catch (Exception e) {
             logger.error("执行命令时发生异常: /" + cleanCommand, e);
+            return CompletableFuture.completedFuture(complete(taskId,
+                    new CommandResult(cleanCommand, false, System.nanoTime() - dispatchNanos, e)));
         }
     }
     
+    private static String stripSlash(String command) {
+        return command.startsWith("/") ? command.substring(1) : command;
+    }
+    
+    /**
+     * 记录命令完成耗时
+     */
+    private CommandResult complete(String taskId, CommandResult result) {
+        metrics.recordCompletion(taskId, result.getCommand(), result.getLatencyNanos(), result.isSuccess());
+        if (executionLog != null) {
+            executionLog.logCommand(taskId, result.getCommand(), result.isSuccess(), result.getLatencyNanos(),
+                    System.currentTimeMillis());
+        }
+        CommandCompletedEvent event = new CommandCompletedEvent();
+        if (event.shouldCommit()) {
+            event.taskId = taskId;
+            event.command = result.getCommand();
+            event.success = result.isSuccess();
+            event.latency = result.getLatencyNanos();
+            event.commit();
+        }
+        return result;
+    }
+    
     /**
      * 立即执行任务（用于测试或手动触发）
      */
@@ -195,7 +366,51 @@ public class TaskExecutor {
      */
     public void testCommand(String command) {
         logger.info("测试执行命令: {}", command);
-        executeCommand(command);
+        executeCommand(null, command, System.nanoTime());
+    }
+    
+    /**
+     * 设置任务执行超时（秒），0表示不限制；从触发到所有命令完成超过该时间时取消剩余命令
+     */
+    public void setTaskTimeoutSeconds(long timeoutSeconds) {
+        if (timeoutSeconds < 0) {
+            throw new IllegalArgumentException("超时时间不能为负数");
+        }
+        this.timeoutSeconds = timeoutSeconds;
+    }
+    
+    public long getTaskTimeoutSeconds() {
+        return timeoutSeconds;
+    }
+    
+    /**
+     * 启动超时检查（设置了超时时间时）
+     */
+    void startTimeouts() {
+        if (timeoutSeconds > 0 && timeoutTicker == null) {
+            timeoutTicker = scheduler.buildTask(plugin, timeoutWheel::tick).repeat(1, TimeUnit.SECONDS).schedule();
+        }
+    }
+    
+    void stopTimeouts() {
+        if (timeoutTicker != null) {
+            timeoutTicker.cancel();
+            timeoutTicker = null;
+        }
+    }
+    
+    /**
+     * 设置执行日志，为null时不记录命令结果
+     */
+    public void setExecutionLog(ExecutionLog executionLog) {
+        this.executionLog = executionLog;
+    }
+    
+    /**
+     * 获取命令执行延迟统计
+     */
+    public ExecutionMetrics getMetrics() {
+        return metrics;
     }
     
     /**
@@ -3,17 +3,37 @@ package org.plugin.timetools.scheduler;
 import com.velocitypowered.api.proxy.ProxyServer;
 import com.velocitypowered.api.scheduler.ScheduledTask;
 import com.velocitypowered.api.scheduler.Scheduler;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.jfr.SchedulerReloadEvent;
+import org.plugin.timetools.jfr.TaskFiredEvent;
+import org.plugin.timetools.log.ExecutionHistory;
+import org.plugin.timetools.log.ExecutionLog;
 import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.metrics.ExecutionMetrics;
+import org.plugin.timetools.metrics.SkewTracker;
+import org.plugin.timetools.model.FireSchedule;
+import org.plugin.timetools.model.MisfirePolicy;
+import org.plugin.timetools.model.OverlapPolicy;
 import org.plugin.timetools.model.Task;
 import org.plugin.timetools.model.TaskScheduleType;
 import org.slf4j.Logger;
 
+import java.time.Clock;
 import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 任务调度器
@@ -22,25 +42,88 @@ import java.util.concurrent.TimeUnit;
  */
 public class TaskScheduler {
 
+    /**
+     * 间隔小于该值（毫秒）的任务使用高精度定时器
+     */
+    public static final long PRECISION_THRESHOLD_MS = 1000;
+
+    // 保留的最近触发偏差样本数
+    private static final int SKEW_SAMPLES = 1024;
+
+    // 主检查在整分钟后稍晚执行，避免定时器略微提前时仍处于上一分钟
+    static final long MINUTE_ALIGN_GUARD_MS = 20;
+
+    // 触发偏差警告的最短间隔
+    private static final long SKEW_WARNING_COOLDOWN_MS = TimeUnit.MINUTES.toMillis(10);
+
     private final Object plugin;
     private final ProxyServer server;
     private final TaskManager taskManager;
     private final Logger logger;
     private final Scheduler scheduler;
     private final TaskExecutor taskExecutor;
+    private final TaskEventDispatcher eventDispatcher;
+    private final Clock clock;
 
     private ScheduledTask mainSchedulerTask;
     private final ConcurrentHashMap<String, ScheduledTask> intervalTasks;
+    private final ConcurrentHashMap<String, OverlapGuard> overlapGuards = new ConcurrentHashMap<>();
+    // 时间区间任务已触发的最大去重键（见 FireSchedule.windowKey），每个任务一个字
+    private final ConcurrentHashMap<String, AtomicLong> windowStates = new ConcurrentHashMap<>();
+    private final ExpiryQueue expiryQueue = new ExpiryQueue();
+    private final LongAdder expiredCount = new LongAdder();
+    private final FireTimeIndex fireTimeIndex;
+    private final PrecisionTimer precisionTimer;
+    private final SkewTracker skewTracker;
+    private ExecutionLog executionLog;
+    private ExecutionHistory executionHistory;
+    private volatile ExecutionPool executionPool;
+    private final long skewWarningMillis;
+    private final CatchUpDispatcher catchUp;
+    private final int maxCatchUp;
+    private final long misfireLookbackHours;
     private boolean running;
+    
+    // 以下字段只在主检查中访问
+    private long lastCheckedMinute = -1;
+    private long lastSkewCheckCount;
+    private long lastSkewWarning;
+    private boolean skewWarned;
+
+    public TaskScheduler(Object plugin, ProxyServer server, TaskManager taskManager, Logger logger,
+                         TaskEventDispatcher eventDispatcher) {
+        this(plugin, server, taskManager, logger, eventDispatcher, Clock.systemDefaultZone());
+    }
 
-    public TaskScheduler(Object plugin, ProxyServer server, TaskManager taskManager, Logger logger) {
+    /**
+     * @param clock 判断任务是否到期时使用的时钟（决定时区），测试中可替换为模拟时钟
+     */
+    public TaskScheduler(Object plugin, ProxyServer server, TaskManager taskManager, Logger logger,
+                         TaskEventDispatcher eventDispatcher, Clock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("时钟不能为空");
+        }
         this.plugin = plugin;
         this.server = server;
         this.taskManager = taskManager;
         this.logger = logger;
         this.scheduler = server.getScheduler();
-        this.taskExecutor = new TaskExecutor(plugin, server, logger);
+        this.eventDispatcher = eventDispatcher;
+        this.clock = clock;
+        this.taskExecutor = new TaskExecutor(plugin, server, logger, eventDispatcher, new ExecutionMetrics());
+        this.taskExecutor.setTaskTimeoutSeconds(
+                Math.max(0, taskManager.getConfigManager().getLong("performance.task-timeout", 30)));
         this.intervalTasks = new ConcurrentHashMap<>();
+        this.fireTimeIndex = new FireTimeIndex();
+        this.precisionTimer = new PrecisionTimer(logger,
+                taskManager.getConfigManager().getLong("performance.lateness-warning-ms", 50));
+        this.skewTracker = new SkewTracker(SKEW_SAMPLES);
+        this.skewWarningMillis = taskManager.getConfigManager().getLong("performance.skew-warning-ms", 5_000);
+        this.catchUp = new CatchUpDispatcher(plugin, scheduler,
+                Math.max(0, taskManager.getConfigManager().getLong("performance.misfire-dispatch-interval-ms", 500)),
+                this::fireCatchUp);
+        this.maxCatchUp = (int) Math.max(1, taskManager.getConfigManager().getLong("performance.misfire-max-catch-up", 10));
+        this.misfireLookbackHours = Math.max(0, taskManager.getConfigManager().getLong("performance.misfire-lookback-hours", 24));
         this.running = false;
     }
     
@@ -55,17 +138,30 @@ public class TaskScheduler {
         
         running = true;
         
-        // 启动主调度器，每分钟检查一次
-        mainSchedulerTask = scheduler.buildTask(plugin, this::checkAndExecuteTasks)
-                .repeat(1, TimeUnit.MINUTES)
-                .schedule();
+        // 建立触发时间索引和过期队列
+        fireTimeIndex.rebuild(taskManager.getEnabledTasks());
+        trackExpiry(taskManager.getAllTasks());
+        
+        // 启动主调度器，从下一个整分钟开始每分钟检查一次
+        scheduleNextCheck();
         
         // 启动间隔任务
         startIntervalTasks();
+        taskExecutor.startTimeouts();
+        
+        // 补执行插件停止期间错过的触发
+        catchUpSinceLastExecution(LocalDateTime.now(clock));
         
         logger.info("任务调度器已启动");
     }
     
+    /**
+     * 距离下一个整分钟的毫秒数
+     */
+    static long millisUntilNextMinute(LocalDateTime now) {
+        return TimeUnit.MINUTES.toMillis(1) - now.getSecond() * 1000L - now.getNano() / 1_000_000;
+    }
+    
     /**
      * 停止调度器
      */
@@ -83,10 +179,24 @@ public class TaskScheduler {
         
         // 停止所有间隔任务
         stopAllIntervalTasks();
+        taskExecutor.stopTimeouts();
+        catchUp.clear();
+        expiryQueue.clear();
+        precisionTimer.shutdown();
+        fireTimeIndex.clear();
         
         logger.info("任务调度器已停止");
     }
     
+    /**
+     * 安排下一次主检查。每次都按当前时间重新对齐到整分钟，时钟回拨或定时器漂移不会累积
+     */
+    private void scheduleNextCheck() {
+        mainSchedulerTask = scheduler.buildTask(plugin, this::checkAndExecuteTasks)
+                .delay(millisUntilNextMinute(LocalDateTime.now(clock)) + MINUTE_ALIGN_GUARD_MS, TimeUnit.MILLISECONDS)
+                .schedule();
+    }
+    
     /**
      * 检查并执行任务
      */
@@ -94,76 +204,458 @@ public class TaskScheduler {
         if (!running) {
             return;
         }
+        scheduleNextCheck();
+        checkAndExecuteTasksAt(LocalDateTime.now(clock));
+    }
+    
+    /**
+     * 按指定时间检查并执行任务（测试和基准测试直接调用）
+     */
+    void checkAndExecuteTasksAt(LocalDateTime now) {
+        if (!running) {
+            return;
+        }
         
-        LocalDateTime now = LocalDateTime.now();
+        long tickStartNanos = System.nanoTime();
         LocalTime currentTime = now.toLocalTime();
+        LocalDate currentDate = now.toLocalDate();
         DayOfWeek currentDay = now.getDayOfWeek();
         
-        // 只检查分钟级别的精度
-        LocalTime checkTime = LocalTime.of(currentTime.getHour(), currentTime.getMinute());
+        // 只检查分钟级别的精度，且只检查当前分钟可能触发的任务
+        int minuteOfDay = FireSchedule.minuteOf(currentTime);
+        long epochMinute = currentDate.toEpochDay() * FireSchedule.MINUTES_PER_DAY + minuteOfDay;
+        if (!trackSkippedMinutes(epochMinute, now)) {
+            // 已检查过的分钟（时钟回拨或检查提前）不再分派，否则固定时间任务会重复触发
+            logger.debug("分钟 {} 已检查过，跳过本次检查", now.withSecond(0).withNano(0));
+            return;
+        }
+        expireTasks(currentDate, epochMinute);
         
-        Collection<Task> enabledTasks = taskManager.getEnabledTasks();
+        // 主检查与整分钟对齐，计划时间为本分钟开始，偏差 = 本次检查相对整分钟的延迟 + 检查开始到分派该任务的耗时
+        long tickOffsetMillis = currentTime.getSecond() * 1000L + currentTime.getNano() / 1_000_000;
+        long scheduledMillis = now.withSecond(0).withNano(0).atZone(clock.getZone()).toInstant().toEpochMilli();
         
-        for (Task task : enabledTasks) {
+        fireTimeIndex.forEachCandidate(minuteOfDay, task -> {
             try {
-                if (shouldExecuteTask(task, checkTime, currentDay)) {
-                    executeTask(task);
+                if (shouldExecuteTask(task, minuteOfDay, currentDay) && isActiveOn(task, currentDate)
+                        && claimWindow(task, currentDate, minuteOfDay)) {
+                    skewTracker.record(tickOffsetMillis
+                            + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - tickStartNanos));
+                    executeTask(task, scheduledMillis);
                 }
             } catch (Exception e) {
                 logger.error("检查任务执行条件时发生错误: " + task.getId(), e);
             }
+        });
+        
+        checkSkew();
+        
+        if (executionLog != null) {
+            executionLog.logPerformance(clock.millis(), taskExecutor.getMetrics(), skewTracker);
+        }
+    }
+    
+    /**
+     * 将有效期已结束的任务移出调度并归档，只查看过期队列的队首
+     *
+     * 主检查线程上只移出调度；写归档文件和重写tasks.yml交给异步任务，不推迟本分钟的触发
+     */
+    private void expireTasks(LocalDate today, long epochMinute) {
+        List<String> due = expiryQueue.pollExpired(epochMinute);
+        if (due.isEmpty()) {
+            return;
+        }
+        Map<String, Task> expired = new LinkedHashMap<>();
+        for (String taskId : due) {
+            // 已删除或延长了有效期的任务，旧条目直接丢弃
+            Task task = taskManager.getTask(taskId);
+            if (task != null && task.isExpiredOn(today)) {
+                expired.put(taskId, task);
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        for (String taskId : expired.keySet()) {
+            removeTask(taskId);
+        }
+        scheduler.buildTask(plugin, () -> archiveExpired(expired.values())).schedule();
+    }
+    
+    private void archiveExpired(Collection<Task> expired) {
+        // 归档失败的任务留在任务列表中，已过期不会再触发，重载或重启时重新尝试
+        List<Task> archived = taskManager.archiveTasks(expired);
+        expiredCount.add(archived.size());
+        if (!archived.isEmpty()) {
+            logger.info("{} 个任务有效期已结束，已移出调度并归档: {}", archived.size(),
+                    archived.stream().map(Task::getId).toList());
+        }
+    }
+    
+    /**
+     * 更新任务的过期时间，结束日期未变化时不产生新条目
+     */
+    private void trackExpiry(Collection<Task> tasks) {
+        for (Task task : tasks) {
+            if (task.getValidUntil() != null) {
+                // 有效期最后一天结束时过期
+                expiryQueue.offer(task.getId(),
+                        task.getValidUntil().plusDays(1).toEpochDay() * FireSchedule.MINUTES_PER_DAY);
+            } else {
+                expiryQueue.remove(task.getId());
+            }
+        }
+    }
+    
+    /**
+     * 检测两次主检查之间被跳过的分钟（检查线程被阻塞或系统时间跳变）
+     *
+     * @return 该分钟是否尚未检查过
+     */
+    private boolean trackSkippedMinutes(long epochMinute, LocalDateTime now) {
+        long last = lastCheckedMinute;
+        if (epochMinute <= last) {
+            return false;
+        }
+        lastCheckedMinute = epochMinute;
+        if (last >= 0 && epochMinute > last + 1) {
+            long skipped = epochMinute - last - 1;
+            skewTracker.recordSkippedMinutes(skipped);
+            LocalDateTime current = now.withSecond(0).withNano(0);
+            int fires = catchUpBetween(current.minusMinutes(skipped), current);
+            if (fires > 0) {
+                logger.warn("主检查延迟，{} 之前跳过了 {} 分钟，按任务的错过触发策略补执行 {} 次",
+                        current, skipped, fires);
+            } else {
+                logger.warn("主检查延迟，{} 之前跳过了 {} 分钟，这些分钟内的定时任务没有执行", current, skipped);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 按任务上次执行时间补执行错过的触发（启动时调用，测试中直接调用）
+     */
+    void catchUpSinceLastExecution(LocalDateTime now) {
+        LocalDateTime current = now.withSecond(0).withNano(0);
+        int taskCount = 0;
+        int fires = 0;
+        for (Task task : taskManager.getEnabledTasks()) {
+            if (task.getMisfirePolicy() == MisfirePolicy.SKIP || task.getLastExecutionTime() <= 0) {
+                continue;
+            }
+            // 上次执行所在的分钟已经触发过，从下一分钟开始计算
+            LocalDateTime last = LocalDateTime.ofInstant(Instant.ofEpochMilli(task.getLastExecutionTime()),
+                    clock.getZone()).withSecond(0).withNano(0);
+            int count = catchUp(task, last.plusMinutes(1), current);
+            if (count > 0) {
+                taskCount++;
+                fires += count;
+            }
+        }
+        if (fires > 0) {
+            logger.info("{} 个任务在插件停止期间错过了触发，将补执行 {} 次", taskCount, fires);
+        }
+    }
+    
+    /**
+     * 补执行所有任务在 [from, to) 之间错过的触发
+     */
+    private int catchUpBetween(LocalDateTime from, LocalDateTime to) {
+        int fires = 0;
+        for (Task task : taskManager.getEnabledTasks()) {
+            if (task.getMisfirePolicy() != MisfirePolicy.SKIP) {
+                fires += catchUp(task, from, to);
+            }
+        }
+        return fires;
+    }
+    
+    /**
+     * 按任务的错过触发策略把 [from, to) 之间的触发加入补执行队列，最多回溯 misfire-lookback-hours 小时
+     *
+     * @return 加入队列的次数
+     */
+    private int catchUp(Task task, LocalDateTime from, LocalDateTime to) {
+        if (!taskManager.isTaskGroupActive(task)) {
+            return 0;
+        }
+        LocalDateTime earliest = to.minusHours(misfireLookbackHours);
+        int limit = task.getMisfirePolicy() == MisfirePolicy.FIRE_ONCE ? 1 : maxCatchUp;
+        List<LocalDateTime> missed = task.getFireSchedule()
+                .firesBetween(from.isBefore(earliest) ? earliest : from, to, limit);
+        int queued = 0;
+        for (LocalDateTime time : missed) {
+            // 加入队列时即占用窗口，之后的正常触发不会与补执行重复
+            if (isActiveOn(task, time.toLocalDate())
+                    && claimWindow(task, time.toLocalDate(), FireSchedule.minuteOf(time.toLocalTime()))) {
+                catchUp.offer(task, time.atZone(clock.getZone()).toInstant().toEpochMilli());
+                queued++;
+            }
+        }
+        if (queued > 0) {
+            logger.debug("任务 {} 错过的触发将补执行 {} 次: {}", task.getId(), queued, missed);
+        }
+        return queued;
+    }
+    
+    /**
+     * 执行一次补触发，任务在等待期间被删除或禁用时跳过
+     */
+    private void fireCatchUp(Task task, long scheduledMillis) {
+        Task current = taskManager.getTask(task.getId());
+        if (!running || current == null || !current.isEnabled()) {
+            return;
+        }
+        executeTask(current, scheduledMillis);
+    }
+    
+    /**
+     * 指定日期在任务有效期内且未被排除日历排除
+     */
+    private boolean isActiveOn(Task task, LocalDate date) {
+        return task.isValidOn(date) && !taskManager.isExcludedOn(task, date);
+    }
+    
+    /**
+     * 时间区间任务按窗口去重，同一去重键只触发一次：重复检查同一分钟、随机触发窗口内的后续分钟都不会再次触发。
+     * 首次检查时从上次执行时间恢复，重启后不会在同一窗口内重复触发
+     */
+    private boolean claimWindow(Task task, LocalDate date, int minuteOfDay) {
+        FireSchedule schedule = task.getFireSchedule();
+        if (!schedule.isWindowed()) {
+            return true;
+        }
+        long key = schedule.windowKey(date, minuteOfDay);
+        if (key == FireSchedule.NOT_DUE) {
+            return false;
+        }
+        AtomicLong state = windowStates.computeIfAbsent(task.getId(),
+                id -> new AtomicLong(lastExecutionMinute(task)));
+        long last;
+        do {
+            last = state.get();
+            if (last >= key) {
+                return false;
+            }
+        } while (!state.compareAndSet(last, key));
+        return true;
+    }
+    
+    private long lastExecutionMinute(Task task) {
+        if (task.getLastExecutionTime() <= 0) {
+            return Long.MIN_VALUE;
+        }
+        LocalDateTime last = LocalDateTime.ofInstant(Instant.ofEpochMilli(task.getLastExecutionTime()), clock.getZone());
+        return last.toLocalDate().toEpochDay() * FireSchedule.MINUTES_PER_DAY + FireSchedule.minuteOf(last.toLocalTime());
+    }
+    
+    /**
+     * 最近触发偏差的p99超过阈值时输出警告（同一问题每10分钟最多一次）
+     */
+    private void checkSkew() {
+        if (skewWarningMillis <= 0) {
+            return;
+        }
+        long recorded = skewTracker.getRecordedCount();
+        if (recorded == lastSkewCheckCount) {
+            return;
+        }
+        lastSkewCheckCount = recorded;
+        
+        long p99 = skewTracker.getPercentileMillis(99);
+        long nowMillis = clock.millis();
+        if (p99 > skewWarningMillis && (!skewWarned || nowMillis - lastSkewWarning >= SKEW_WARNING_COOLDOWN_MS)) {
+            skewWarned = true;
+            lastSkewWarning = nowMillis;
+            logger.warn("最近 {} 次触发的 p99 偏差为 {}ms，超过阈值 {}ms",
+                    Math.min(recorded, skewTracker.getCapacity()), p99, skewWarningMillis);
         }
     }
     
     /**
      * 判断任务是否应该执行
      */
-    private boolean shouldExecuteTask(Task task, LocalTime currentTime, DayOfWeek currentDay) {
+    boolean shouldExecuteTask(Task task, int minuteOfDay, DayOfWeek currentDay) {
         if (!task.isEnabled()) {
             return false;
         }
         
-        // 检查星期
-        if (!task.isEveryDay() && !task.getDaysOfWeek().contains(currentDay)) {
+        // 检查任务组是否被暂停
+        if (!taskManager.isTaskGroupActive(task)) {
             return false;
         }
         
-        // 根据调度类型检查时间
-        switch (task.getScheduleType()) {
-            case FIXED_TIME:
-                return currentTime.equals(task.getStartTime());
-                
-            case TIME_RANGE:
-                return !currentTime.isBefore(task.getStartTime()) && 
-                       !currentTime.isAfter(task.getEndTime());
-                       
-            case INTERVAL:
-                // 间隔任务由单独的调度器处理
-                return false;
-                
-            case TIME_RANGE_WITH_INTERVAL:
-                // 时间区间内的间隔任务由单独的调度器处理
-                return false;
-                
-            default:
-                return false;
+        // 星期和时间均由预编译的触发时间表判断；间隔任务由单独的调度器处理
+        return task.getFireSchedule().firesAt(currentDay, minuteOfDay);
+    }
+    
+    /**
+     * 执行任务，按任务的重叠策略处理上一次执行尚未完成的情况
+     *
+     * @param scheduledMillis 计划触发时间，用于执行历史
+     */
+    private void executeTask(Task task, long scheduledMillis) {
+        OverlapPolicy policy = task.getOverlapPolicy();
+        if (policy == OverlapPolicy.ALLOW) {
+            dispatch(task, scheduledMillis, null);
+            return;
+        }
+        
+        OverlapGuard guard = overlapGuards.computeIfAbsent(task.getId(), id -> new OverlapGuard());
+        if (guard.tryAcquire()) {
+            dispatch(task, scheduledMillis, guard);
+        } else if (policy == OverlapPolicy.QUEUE_ONE && guard.offer(scheduledMillis)) {
+            logger.debug("任务 {} 上一次执行尚未完成，本次触发等待执行", task.getId());
+            long next = guard.pollIfIdle();
+            if (next != OverlapGuard.NONE) {
+                dispatch(task, next, guard);
+            }
+        } else {
+            if (policy == OverlapPolicy.SKIP_IF_RUNNING) {
+                guard.skip();
+            }
+            logger.debug("任务 {} 上一次执行尚未完成，跳过本次触发", task.getId());
+        }
+    }
+    
+    /**
+     * 设置了执行池时交给执行池，否则在当前调度线程中执行
+     */
+    private void dispatch(Task task, long scheduledMillis, OverlapGuard guard) {
+        ExecutionPool pool = executionPool;
+        if (pool == null) {
+            runTask(task, scheduledMillis, guard);
+        } else if (!pool.execute(() -> runTask(task, scheduledMillis, guard))) {
+            logger.debug("执行池已满，丢弃任务 {} 的本次触发", task.getId());
+            if (guard != null) {
+                releaseOverlap(task, guard);
+            }
         }
     }
     
     /**
-     * 执行任务
+     * 执行完成后释放重叠控制，有等待的触发时立即执行
      */
-    private void executeTask(Task task) {
+    private void releaseOverlap(Task task, OverlapGuard guard) {
+        long next = guard.release();
+        if (next == OverlapGuard.NONE) {
+            return;
+        }
+        if (running && task.isEnabled()) {
+            dispatch(task, next, guard);
+        } else {
+            releaseOverlap(task, guard);
+        }
+    }
+    
+    private void runTask(Task task, long scheduledMillis, OverlapGuard guard) {
+        TaskFiredEvent fired = new TaskFiredEvent();
+        fired.begin();
+        long nowMillis = clock.millis();
+        
+        // 快速路径：没有监听器时不构造事件
+        if (!eventDispatcher.hasListeners()) {
+            startTask(task, scheduledMillis, nowMillis, guard, fired);
+            return;
+        }
+        
+        // 不在触发线程上等待监听器，处理完成后再继续，慢监听器不会推迟同一分钟的其他任务
+        eventDispatcher.firePreExecute(task).thenAcceptAsync(allowed -> {
+            if (allowed) {
+                startTask(task, scheduledMillis, nowMillis, guard, fired);
+                return;
+            }
+            logger.debug("任务 {} 被执行前事件取消", task.getId());
+            commitFired(fired, task, true);
+            if (executionHistory != null) {
+                executionHistory.append(task.getId(), scheduledMillis, nowMillis, 0, 0, 0, true, false);
+            }
+            if (guard != null) {
+                releaseOverlap(task, guard);
+            }
+        }, this::continueOnPool);
+    }
+    
+    /**
+     * 执行前事件处理完成后的后续执行交给执行池，未设置执行池或执行池已满时在完成事件的线程中执行
+     */
+    private void continueOnPool(Runnable continuation) {
+        ExecutionPool pool = executionPool;
+        if (pool == null || !pool.execute(continuation)) {
+            continuation.run();
+        }
+    }
+    
+    private void startTask(Task task, long scheduledMillis, long nowMillis, OverlapGuard guard,
+                           TaskFiredEvent fired) {
+        boolean started = false;
         try {
-            taskExecutor.executeTask(task);
+            long startNanos = System.nanoTime();
+            CompletableFuture<List<CommandResult>> completion = taskExecutor.executeTask(task);
+            if (guard != null) {
+                started = true;
+                completion.whenComplete((results, error) -> releaseOverlap(task, guard));
+            }
+            commitFired(fired, task, false);
+            if (executionHistory != null) {
+                recordHistory(task.getId(), scheduledMillis, nowMillis, startNanos, completion);
+            }
             
             // 更新最后执行时间
-            taskManager.updateLastExecutionTime(task.getId(), System.currentTimeMillis());
+            taskManager.updateLastExecutionTime(task.getId(), nowMillis);
+            taskManager.recordGroupFire(task);
             
-            logger.info("执行任务: {} - {}", task.getId(), task.getCommands());
+            // 每次触发的记录由执行日志在后台线程格式化，这里只在调试时输出
+            if (executionLog != null) {
+                executionLog.logFire(task, nowMillis);
+            }
+            logger.debug("执行任务: {} - {}", task.getId(), task.getCommands());
             
         } catch (Exception e) {
             logger.error("执行任务失败: " + task.getId(), e);
+        } finally {
+            // 没有开始执行命令（被取消或出错）时立即释放
+            if (guard != null && !started) {
+                releaseOverlap(task, guard);
+            }
+        }
+    }
+    
+    /**
+     * 所有命令完成后写入执行历史
+     */
+    private void recordHistory(String taskId, long scheduledMillis, long actualMillis, long startNanos,
+                               CompletableFuture<List<CommandResult>> completion) {
+        ExecutionHistory history = executionHistory;
+        completion.whenComplete((results, error) -> {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+            if (error != null) {
+                history.append(taskId, scheduledMillis, actualMillis, durationMillis, 0, 1, false, false);
+                return;
+            }
+            int failures = 0;
+            boolean timedOut = false;
+            for (CommandResult result : results) {
+                if (!result.isSuccess()) {
+                    failures++;
+                    timedOut |= result.getError() instanceof TimeoutException;
+                }
+            }
+            history.append(taskId, scheduledMillis, actualMillis, durationMillis, results.size(), failures,
+                    false, timedOut);
+        });
+    }
+    
+    private static void commitFired(TaskFiredEvent event, Task task, boolean cancelled) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.taskId = task.getId();
+            event.scheduleType = task.getScheduleType().name();
+            event.executionMode = task.getExecutionMode().name();
+            event.commandCount = task.getCommands().size();
+            event.cancelled = cancelled;
+            event.commit();
         }
     }
     
@@ -193,17 +685,41 @@ public class TaskScheduler {
         stopIntervalTask(task.getId());
         
         // 计算间隔时间（毫秒）
-        long intervalMs = task.getIntervalTicks() * 50; // 1 tick = 50ms
+        long intervalMs = task.getIntervalMillis();
+        Runnable action = () -> {
+            try {
+                if (shouldExecuteIntervalTask(task)) {
+                    // 高精度任务的延迟单独统计，计划时间按实际时间记录
+                    executeTask(task, clock.millis());
+                }
+            } catch (Exception e) {
+                logger.error("执行间隔任务失败: " + task.getId(), e);
+            }
+        };
         
-        ScheduledTask scheduledTask = scheduler.buildTask(plugin, () -> {
+        // 亚秒级间隔使用高精度定时器，按绝对时刻触发并统计延迟
+        if (intervalMs < PRECISION_THRESHOLD_MS) {
+            precisionTimer.schedule(task.getId(), TimeUnit.MILLISECONDS.toNanos(intervalMs), action);
+            logger.debug("启动高精度间隔任务: {} - 间隔: {}ms", task.getId(), intervalMs);
+            return;
+        }
+        
+        // 按固定周期执行，第k次的计划时间为 启动时间 + k × 间隔
+        long baseMillis = clock.millis();
+        AtomicLong runs = new AtomicLong();
+        Runnable trackedAction = () -> {
+            long expected = baseMillis + runs.getAndIncrement() * intervalMs;
             try {
                 if (shouldExecuteIntervalTask(task)) {
-                    executeTask(task);
+                    skewTracker.record(clock.millis() - expected);
+                    executeTask(task, expected);
                 }
             } catch (Exception e) {
                 logger.error("执行间隔任务失败: " + task.getId(), e);
             }
-        }).repeat(intervalMs, TimeUnit.MILLISECONDS).schedule();
+        };
+        ScheduledTask scheduledTask = scheduler.buildTask(plugin, trackedAction)
+                .repeat(intervalMs, TimeUnit.MILLISECONDS).schedule();
         
         intervalTasks.put(task.getId(), scheduledTask);
         logger.debug("启动间隔任务: {} - 间隔: {}ms", task.getId(), intervalMs);
@@ -218,6 +734,9 @@ public class TaskScheduler {
             scheduledTask.cancel();
             logger.debug("停止间隔任务: {}", taskId);
         }
+        if (precisionTimer.cancel(taskId)) {
+            logger.debug("停止高精度间隔任务: {}", taskId);
+        }
     }
     
     /**
@@ -228,6 +747,7 @@ public class TaskScheduler {
             task.cancel();
         }
         intervalTasks.clear();
+        precisionTimer.cancelAll();
         logger.debug("停止所有间隔任务");
     }
     
@@ -239,22 +759,15 @@ public class TaskScheduler {
             return false;
         }
         
-        LocalDateTime now = LocalDateTime.now();
-        DayOfWeek currentDay = now.getDayOfWeek();
-        
-        // 检查星期
-        if (!task.isEveryDay() && !task.getDaysOfWeek().contains(currentDay)) {
+        // 任务组暂停时计时器保持运行，仅跳过本次执行
+        if (!taskManager.isTaskGroupActive(task)) {
             return false;
         }
         
-        // 如果是时间区间内的间隔任务，检查当前时间是否在区间内
-        if (task.getScheduleType() == TaskScheduleType.TIME_RANGE_WITH_INTERVAL) {
-            LocalTime currentTime = now.toLocalTime();
-            return !currentTime.isBefore(task.getStartTime()) && 
-                   !currentTime.isAfter(task.getEndTime());
-        }
-        
-        return true;
+        // 检查星期，时间区间内的间隔任务同时检查当前时间是否在区间内（支持跨零点）
+        LocalDateTime now = LocalDateTime.now(clock);
+        return isActiveOn(task, now.toLocalDate())
+                && task.getFireSchedule().isWithinWindow(now.getDayOfWeek(), now.toLocalTime());
     }
     
     /**
@@ -262,21 +775,102 @@ public class TaskScheduler {
      */
     public void reloadTasks() {
         logger.info("重新加载任务调度");
+        SchedulerReloadEvent event = new SchedulerReloadEvent();
+        event.begin();
+        int stopped = getActiveIntervalTaskCount();
         
         // 停止所有间隔任务
         stopAllIntervalTasks();
         
-        // 重新启动间隔任务
+        // 重建触发时间索引并重新启动间隔任务
+        Collection<Task> enabledTasks = taskManager.getEnabledTasks();
+        fireTimeIndex.rebuild(enabledTasks);
+        expiryQueue.clear();
+        trackExpiry(taskManager.getAllTasks());
         startIntervalTasks();
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.mode = SchedulerReloadEvent.FULL;
+            event.changedCount = enabledTasks.size();
+            event.intervalStarted = getActiveIntervalTaskCount();
+            event.intervalStopped = stopped;
+            event.commit();
+        }
     }
     
+    /**
+     * 按差异更新调度（用于批量操作，避免完整重载）
+     *
+     * @param changed 状态或定义发生变化的任务
+     * @param removedIds 已删除的任务ID
+     */
+    public void applyTaskChanges(Collection<Task> changed, Collection<String> removedIds) {
+        SchedulerReloadEvent event = new SchedulerReloadEvent();
+        event.begin();
+        for (String taskId : removedIds) {
+            stopIntervalTask(taskId);
+            fireTimeIndex.remove(taskId);
+            taskExecutor.getMetrics().removeTask(taskId);
+            overlapGuards.remove(taskId);
+            windowStates.remove(taskId);
+            expiryQueue.remove(taskId);
+        }
+
+        trackExpiry(changed);
+        int started = 0;
+        int stopped = 0;
+        for (Task task : changed) {
+            if (!isIntervalType(task)) {
+                if (task.isEnabled()) {
+                    fireTimeIndex.put(task);
+                } else {
+                    fireTimeIndex.remove(task.getId());
+                }
+                continue;
+            }
+            if (task.isEnabled()) {
+                if (!isIntervalScheduled(task.getId())) {
+                    startIntervalTask(task);
+                    started++;
+                }
+            } else if (isIntervalScheduled(task.getId())) {
+                stopIntervalTask(task.getId());
+                stopped++;
+            }
+        }
+
+        logger.debug("差异更新调度: 启动 {} 个，停止 {} 个，移除 {} 个间隔任务", started, stopped, removedIds.size());
+        
+        event.end();
+        if (event.shouldCommit()) {
+            event.mode = SchedulerReloadEvent.INCREMENTAL;
+            event.changedCount = changed.size();
+            event.removedCount = removedIds.size();
+            event.intervalStarted = started;
+            event.intervalStopped = stopped;
+            event.commit();
+        }
+    }
+
+    private boolean isIntervalScheduled(String taskId) {
+        return intervalTasks.containsKey(taskId) || precisionTimer.isScheduled(taskId);
+    }
+
+    private boolean isIntervalType(Task task) {
+        return task.getScheduleType() == TaskScheduleType.INTERVAL ||
+               task.getScheduleType() == TaskScheduleType.TIME_RANGE_WITH_INTERVAL;
+    }
+
     /**
      * 添加新任务到调度器
      */
     public void addTask(Task task) {
-        if (task.getScheduleType() == TaskScheduleType.INTERVAL ||
-            task.getScheduleType() == TaskScheduleType.TIME_RANGE_WITH_INTERVAL) {
+        trackExpiry(List.of(task));
+        if (isIntervalType(task)) {
             startIntervalTask(task);
+        } else if (task.isEnabled()) {
+            fireTimeIndex.put(task);
         }
     }
     
@@ -285,6 +879,53 @@ public class TaskScheduler {
      */
     public void removeTask(String taskId) {
         stopIntervalTask(taskId);
+        fireTimeIndex.remove(taskId);
+        taskExecutor.getMetrics().removeTask(taskId);
+        overlapGuards.remove(taskId);
+        windowStates.remove(taskId);
+        expiryQueue.remove(taskId);
+    }
+    
+    /**
+     * 因有效期结束被移出调度并归档的任务数
+     */
+    public long getExpiredTaskCount() {
+        return expiredCount.sum();
+    }
+    
+    /**
+     * 等待过期的任务数
+     */
+    public int getPendingExpiryCount() {
+        return expiryQueue.size();
+    }
+    
+    /**
+     * 获取任务的重叠控制统计，重叠策略为ALLOW或任务尚未触发时为null
+     */
+    public OverlapGuard getOverlapGuard(String taskId) {
+        return overlapGuards.get(taskId);
+    }
+    
+    /**
+     * 已执行的补触发次数
+     */
+    public long getCatchUpFireCount() {
+        return catchUp.getFiredCount();
+    }
+    
+    /**
+     * 等待执行的补触发次数
+     */
+    public int getPendingCatchUpCount() {
+        return catchUp.size();
+    }
+    
+    /**
+     * 立即执行任务一次（不影响原有调度）
+     */
+    public void runTaskNow(Task task) {
+        taskExecutor.executeTaskImmediately(task);
     }
     
     /**
@@ -294,10 +935,95 @@ public class TaskScheduler {
         return running;
     }
     
+    /**
+     * 获取命令执行延迟统计
+     */
+    public ExecutionMetrics getExecutionMetrics() {
+        return taskExecutor.getMetrics();
+    }
+    
+    /**
+     * 设置执行日志，为null时不记录
+     */
+    public void setExecutionLog(ExecutionLog executionLog) {
+        this.executionLog = executionLog;
+        taskExecutor.setExecutionLog(executionLog);
+    }
+    
+    /**
+     * 设置执行池，为null时在调度线程中直接执行；执行池的生命周期由调用方管理
+     */
+    public void setExecutionPool(ExecutionPool executionPool) {
+        this.executionPool = executionPool;
+    }
+    
+    /**
+     * 获取执行池，未设置时为null
+     */
+    public ExecutionPool getExecutionPool() {
+        return executionPool;
+    }
+    
+    /**
+     * 设置执行历史，为null时不记录
+     */
+    public void setExecutionHistory(ExecutionHistory executionHistory) {
+        this.executionHistory = executionHistory;
+    }
+    
+    /**
+     * 获取执行历史，未启用时为null
+     */
+    public ExecutionHistory getExecutionHistory() {
+        return executionHistory;
+    }
+    
+    /**
+     * 获取触发偏差记录（高精度任务的延迟单独记录在 {@link #getLatenessStats(String)} 中）
+     */
+    public SkewTracker getSkewTracker() {
+        return skewTracker;
+    }
+    
+    /**
+     * 获取调度使用的时钟
+     */
+    public Clock getClock() {
+        return clock;
+    }
+    
+    /**
+     * 获取触发时间索引中的任务数量
+     */
+    public int getIndexedTaskCount() {
+        return fireTimeIndex.size();
+    }
+    
     /**
      * 获取活跃的间隔任务数量
      */
     public int getActiveIntervalTaskCount() {
+        return intervalTasks.size() + precisionTimer.size();
+    }
+    
+    /**
+     * 获取由代理调度器周期执行的间隔任务数量（不含高精度任务）
+     */
+    public int getSchedulerIntervalTaskCount() {
         return intervalTasks.size();
     }
+    
+    /**
+     * 获取使用高精度定时器的任务数量
+     */
+    public int getPrecisionTaskCount() {
+        return precisionTimer.size();
+    }
+    
+    /**
+     * 获取高精度任务的触发延迟统计，非高精度任务返回null
+     */
+    public LatenessStats getLatenessStats(String taskId) {
+        return precisionTimer.getStats(taskId);
+    }
 }
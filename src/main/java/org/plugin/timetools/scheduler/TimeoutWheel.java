@@ -0,0 +1,94 @@
+package org.plugin.timetools.scheduler;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 哈希时间轮
+ *
+ * 所有执行共用一个时间轮，由外部按固定周期调用 {@link #tick()} 推进（每次一格），
+ * 而不是为每次执行创建定时器。添加是无锁的；每格中的条目在到期或所属执行已完成时移除，
+ * 因此条目最多保留到其超时时间。
+ */
+final class TimeoutWheel {
+
+    /**
+     * 可被时间轮取消的对象
+     */
+    interface Timeout {
+        /**
+         * 已完成的条目到期时直接丢弃
+         */
+        boolean isDone();
+
+        void expire();
+    }
+
+    private final Queue<Entry>[] slots;
+    private volatile long currentTick;
+
+    @SuppressWarnings("unchecked")
+    TimeoutWheel(int slotCount) {
+        if (slotCount <= 0) {
+            throw new IllegalArgumentException("时间轮格数必须大于0");
+        }
+        this.slots = new Queue[slotCount];
+        for (int i = 0; i < slotCount; i++) {
+            slots[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    /**
+     * 在 ticks 格之后到期
+     */
+    void schedule(Timeout timeout, long ticks) {
+        long deadline = currentTick + Math.max(ticks, 1);
+        slots[(int) (deadline % slots.length)].offer(new Entry(timeout, deadline));
+    }
+
+    /**
+     * 推进一格并处理到期的条目（只应由一个线程调用）
+     *
+     * @return 本次到期且尚未完成的条目数
+     */
+    int tick() {
+        long tick = currentTick + 1;
+        currentTick = tick;
+
+        int expired = 0;
+        Iterator<Entry> iterator = slots[(int) (tick % slots.length)].iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entry.timeout.isDone()) {
+                iterator.remove();
+            } else if (entry.deadline <= tick) {
+                iterator.remove();
+                entry.timeout.expire();
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * 时间轮中的条目数（遍历计数，用于统计）
+     */
+    int size() {
+        int size = 0;
+        for (Queue<Entry> slot : slots) {
+            size += slot.size();
+        }
+        return size;
+    }
+
+    private static final class Entry {
+        private final Timeout timeout;
+        private final long deadline;
+
+        private Entry(Timeout timeout, long deadline) {
+            this.timeout = timeout;
+            this.deadline = deadline;
+        }
+    }
+}
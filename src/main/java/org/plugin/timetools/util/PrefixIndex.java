@@ -0,0 +1,62 @@
+package org.plugin.timetools.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * 前缀索引
+ *
+ * 基于有序并发集合，支持增量增删，按前缀取前K个匹配项的代价为 O(log n + K)，
+ * 不需要复制或遍历全部条目。用于任务ID和命令根的Tab补全。
+ */
+public class PrefixIndex {
+
+    private final NavigableSet<String> entries;
+
+    public PrefixIndex() {
+        this.entries = new ConcurrentSkipListSet<>();
+    }
+
+    public PrefixIndex(Collection<String> initial) {
+        this.entries = new ConcurrentSkipListSet<>(initial);
+    }
+
+    public void add(String entry) {
+        if (entry != null) {
+            entries.add(entry);
+        }
+    }
+
+    public void remove(String entry) {
+        if (entry != null) {
+            entries.remove(entry);
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 按字典序返回以指定前缀开头的前 limit 个条目
+     */
+    public List<String> complete(String prefix, int limit) {
+        String start = prefix == null ? "" : prefix;
+        List<String> result = new ArrayList<>(Math.min(limit, 16));
+
+        for (String entry : entries.tailSet(start, true)) {
+            if (result.size() >= limit || !entry.startsWith(start)) {
+                break;
+            }
+            result.add(entry);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,96 @@
+package org.plugin.timetools.api;
+
+import org.junit.jupiter.api.Test;
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.RangeMode;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TaskDefinition测试类
+ */
+public class TaskDefinitionTest {
+
+    @Test
+    public void testCommandTaskAtFixedTime() {
+        Task task = TaskDefinition.builder("restart-warning")
+                .commands("/say one", "/say two")
+                .at(LocalTime.of(4, 55, 30))
+                .days(DayOfWeek.MONDAY)
+                .persistent(true)
+                .build()
+                .toTask();
+
+        assertEquals(TaskScheduleType.FIXED_TIME, task.getScheduleType());
+        assertEquals(LocalTime.of(4, 55), task.getStartTime());
+        assertEquals(ExecutionMode.ALL, task.getExecutionMode());
+        assertFalse(task.isEveryDay());
+        assertTrue(task.getDaysOfWeek().contains(DayOfWeek.MONDAY));
+        assertTrue(task.isPersistent());
+    }
+
+    @Test
+    public void testCallbackIntervalTaskWithinRange() {
+        AtomicInteger calls = new AtomicInteger();
+        Task task = TaskDefinition.builder("broadcast")
+                .callback(calls::incrementAndGet)
+                .every(Duration.ofMinutes(5))
+                .between(LocalTime.of(9, 0), LocalTime.of(17, 0))
+                .tags("Rotation")
+                .build()
+                .toTask();
+
+        assertEquals(TaskScheduleType.TIME_RANGE_WITH_INTERVAL, task.getScheduleType());
+        assertEquals(6000L, task.getIntervalTicks());
+        assertEquals("m", task.getIntervalUnit());
+        assertTrue(task.isEveryDay());
+        assertTrue(task.hasTag("rotation"));
+        assertFalse(task.isPersistent());
+
+        task.getCallback().accept(task);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void testOneShotTask() {
+        Task task = TaskDefinition.builder("new-year")
+                .command("/say happy new year")
+                .once(LocalDateTime.of(2026, 12, 31, 23, 59))
+                .build()
+                .toTask();
+
+        assertEquals(TaskScheduleType.FIXED_TIME, task.getScheduleType());
+        assertEquals(LocalTime.of(23, 59), task.getStartTime());
+        assertTrue(task.isValidOn(LocalDate.of(2026, 12, 31)));
+        assertFalse(task.isValidOn(LocalDate.of(2026, 12, 30)));
+        assertTrue(task.isExpiredOn(LocalDate.of(2027, 1, 1)));
+    }
+
+    @Test
+    public void testInvalidDefinitions() {
+        assertThrows(IllegalArgumentException.class, () ->
+                TaskDefinition.builder("empty").at(LocalTime.NOON).build());
+        assertThrows(IllegalArgumentException.class, () ->
+                TaskDefinition.builder("no-schedule").command("/list").build());
+        assertThrows(IllegalArgumentException.class, () ->
+                TaskDefinition.builder("callback-persistent").callback(() -> { }).at(LocalTime.NOON).persistent(true).build());
+        assertThrows(IllegalArgumentException.class, () ->
+                TaskDefinition.builder("bad-range").command("/list").between(LocalTime.of(5, 0), LocalTime.of(5, 0)).build());
+        assertThrows(IllegalArgumentException.class, () ->
+                TaskDefinition.builder("step-interval").command("/list").step(Duration.ofMinutes(15)).every(Duration.ofMinutes(1)).build());
+        assertThrows(IllegalArgumentException.class, () ->
+                TaskDefinition.builder("once-fixed").command("/list").at(LocalTime.NOON).rangeMode(RangeMode.ONCE_AT_START).build());
+        assertThrows(IllegalArgumentException.class, () ->
+                TaskDefinition.builder("bad-validity").command("/list").at(LocalTime.NOON)
+                        .validFrom(LocalDate.of(2026, 2, 1)).validUntil(LocalDate.of(2026, 1, 1)).build());
+    }
+}
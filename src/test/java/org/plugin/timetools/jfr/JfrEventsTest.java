@@ -0,0 +1,109 @@
+package org.plugin.timetools.jfr;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+import org.plugin.timetools.scheduler.TaskScheduler;
+import org.plugin.timetools.support.FakeProxyServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JFR事件测试类
+ */
+public class JfrEventsTest {
+
+    private final Logger logger = LoggerFactory.getLogger(JfrEventsTest.class);
+
+    @TempDir
+    Path dataDirectory;
+
+    @Test
+    public void testEventsRecorded() throws IOException {
+        FakeProxyServer server = new FakeProxyServer();
+        Task task = new Task("jfr", List.of("/say a"), TaskScheduleType.INTERVAL, null, null,
+                new HashSet<>(), true, 1200, "m", ExecutionMode.SINGLE, 0, true);
+        // 高精度任务所在组暂停，计时器运行但不执行
+        Task precision = new Task("precision", List.of("/say b"), TaskScheduleType.INTERVAL, null, null,
+                new HashSet<>(), true, 10, "ms", ExecutionMode.SINGLE, 0, true);
+        precision.setIntervalMillis(500);
+        precision.setTags(List.of("idle"));
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            for (Class<? extends jdk.jfr.Event> type : List.of(TaskFiredEvent.class, CommandDispatchedEvent.class,
+                    CommandCompletedEvent.class, TasksSavedEvent.class, TasksLoadedEvent.class,
+                    SchedulerReloadEvent.class)) {
+                recording.enable(type);
+            }
+            recording.start();
+
+            TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+            taskManager.importTasks(List.of(task, precision));
+            taskManager.pauseGroup("idle");
+            TaskScheduler scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, logger,
+                    new TaskEventDispatcher(server.getEventManager(), logger, false));
+            scheduler.start();
+            // 间隔任务启动时立即执行一次
+            server.getScheduler().advance(1000);
+            scheduler.reloadTasks();
+            scheduler.shutdown();
+
+            recording.stop();
+            Path file = dataDirectory.resolve("events.jfr");
+            recording.dump(file);
+            events = RecordingFile.readAllEvents(file);
+        }
+
+        Set<String> names = new HashSet<>();
+        for (RecordedEvent event : events) {
+            names.add(event.getEventType().getName());
+        }
+        assertTrue(names.containsAll(Set.of("org.plugin.timetools.TaskFired", "org.plugin.timetools.CommandDispatched",
+                "org.plugin.timetools.CommandCompleted", "org.plugin.timetools.TasksSaved",
+                "org.plugin.timetools.TasksLoaded", "org.plugin.timetools.SchedulerReload")), names.toString());
+
+        RecordedEvent completed = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.plugin.timetools.CommandCompleted"))
+                .findFirst().orElseThrow();
+        assertEquals("jfr", completed.getString("taskId"));
+        assertEquals("say a", completed.getString("command"));
+        assertTrue(completed.getBoolean("success"));
+
+        RecordedEvent fired = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.plugin.timetools.TaskFired"))
+                .findFirst().orElseThrow();
+        assertEquals("INTERVAL", fired.getString("scheduleType"));
+        assertEquals(1, fired.getInt("commandCount"));
+        assertFalse(fired.getBoolean("cancelled"));
+
+        RecordedEvent saved = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.plugin.timetools.TasksSaved"))
+                .findFirst().orElseThrow();
+        assertEquals(2, saved.getInt("taskCount"));
+        assertTrue(saved.getLong("bytes") > 0);
+
+        // 高精度计时器只计一次
+        RecordedEvent reload = events.stream()
+                .filter(event -> event.getEventType().getName().equals("org.plugin.timetools.SchedulerReload"))
+                .findFirst().orElseThrow();
+        assertEquals(2, reload.getInt("intervalStopped"));
+        assertEquals(2, reload.getInt("intervalStarted"));
+    }
+}
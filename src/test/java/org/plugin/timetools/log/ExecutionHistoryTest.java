@@ -0,0 +1,127 @@
+package org.plugin.timetools.log;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExecutionHistory测试类
+ */
+public class ExecutionHistoryTest {
+
+    private final Logger logger = LoggerFactory.getLogger(ExecutionHistoryTest.class);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testQueryNewestFirst() throws IOException {
+        try (ExecutionHistory history = ExecutionHistory.open(directory.resolve("history.dat"), 16, logger)) {
+            history.append("a", 1000, 1500, 20, 2, 0, false, false);
+            history.append("b", 2000, 2000, 5, 1, 1, false, false);
+            history.append("a", 3000, 3100, 7, 3, 2, false, true);
+            history.append("a", 4000, 4000, 0, 0, 0, true, false);
+
+            List<ExecutionHistory.Record> records = history.query("a", 10);
+            assertEquals(3, records.size());
+            assertTrue(records.get(0).isCancelled());
+            assertFalse(records.get(0).isSuccess());
+
+            ExecutionHistory.Record failed = records.get(1);
+            assertEquals(3000, failed.getScheduledMillis());
+            assertEquals(3100, failed.getActualMillis());
+            assertEquals(7, failed.getDurationMillis());
+            assertEquals(3, failed.getCommandCount());
+            assertEquals(2, failed.getFailureCount());
+            assertFalse(failed.isSuccess());
+            assertTrue(failed.isTimedOut());
+
+            assertTrue(records.get(2).isSuccess());
+            assertFalse(records.get(2).isTimedOut());
+            assertEquals(2, history.query("a", 2).size());
+            assertTrue(history.query("missing", 10).isEmpty());
+        }
+    }
+
+    @Test
+    public void testQueryWhileAppendingNeverTorn() throws Exception {
+        try (ExecutionHistory history = ExecutionHistory.open(directory.resolve("history.dat"), 8, logger)) {
+            AtomicBoolean stop = new AtomicBoolean();
+            Thread writer = new Thread(() -> {
+                // 单个写入方，第i条记录的序号为i，各字段都由i推出
+                for (long i = 0; !stop.get(); i++) {
+                    history.append("task", i, i * 2, (int) (i % 100_000), (int) (i % 200), 0, false, false);
+                }
+            });
+            writer.start();
+            try {
+                long deadline = System.nanoTime() + 200_000_000L;
+                long checked = 0;
+                while (System.nanoTime() < deadline) {
+                    for (ExecutionHistory.Record record : history.query("task", 8)) {
+                        long i = record.getSequence();
+                        assertEquals(i, record.getScheduledMillis());
+                        assertEquals(i * 2, record.getActualMillis());
+                        assertEquals(i % 100_000, record.getDurationMillis());
+                        assertEquals(i % 200, record.getCommandCount());
+                        checked++;
+                    }
+                }
+                assertTrue(checked > 0);
+            } finally {
+                stop.set(true);
+                writer.join();
+            }
+        }
+    }
+
+    @Test
+    public void testRingOverwritesOldest() throws IOException {
+        try (ExecutionHistory history = ExecutionHistory.open(directory.resolve("history.dat"), 4, logger)) {
+            for (int i = 0; i < 10; i++) {
+                history.append("task", i, i, 0, 1, 0, false, false);
+            }
+            List<ExecutionHistory.Record> records = history.query("task", 10);
+            assertEquals(4, records.size());
+            assertEquals(9, records.get(0).getScheduledMillis());
+            assertEquals(6, records.get(3).getScheduledMillis());
+            assertEquals(4, history.getRecordCount());
+        }
+    }
+
+    @Test
+    public void testSurvivesReopen() throws IOException {
+        Path file = directory.resolve("history.dat");
+        try (ExecutionHistory history = ExecutionHistory.open(file, 8, logger)) {
+            for (int i = 0; i < 6; i++) {
+                history.append("task", i, i, 0, 1, 0, false, false);
+            }
+        }
+        try (ExecutionHistory history = ExecutionHistory.open(file, 8, logger)) {
+            assertEquals(6, history.getRecordCount());
+            // 从恢复的位置继续写入并覆盖最旧的记录
+            for (int i = 6; i < 10; i++) {
+                history.append("task", i, i, 0, 1, 0, false, false);
+            }
+            List<ExecutionHistory.Record> records = history.query("task", 100);
+            assertEquals(8, records.size());
+            assertEquals(9, records.get(0).getScheduledMillis());
+            assertEquals(2, records.get(7).getScheduledMillis());
+        }
+
+        // 容量变化时清空
+        try (ExecutionHistory history = ExecutionHistory.open(file, 4, logger)) {
+            assertEquals(0, history.getRecordCount());
+            assertTrue(history.query("task", 10).isEmpty());
+        }
+        assertThrows(IllegalArgumentException.class, () -> ExecutionHistory.open(file, 0, logger));
+    }
+}
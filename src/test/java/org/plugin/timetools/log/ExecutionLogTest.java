@@ -0,0 +1,110 @@
+package org.plugin.timetools.log;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExecutionLog测试类
+ */
+public class ExecutionLogTest {
+
+    private final Logger logger = LoggerFactory.getLogger(ExecutionLogTest.class);
+
+    @TempDir
+    Path directory;
+
+    private static Task task(String id, String... commands) {
+        return new Task(id, List.of(commands), TaskScheduleType.FIXED_TIME, LocalTime.NOON, null,
+                new HashSet<>(), true, 0, null, ExecutionMode.SINGLE, 0, true);
+    }
+
+    @Test
+    public void testWritesJsonLines() throws IOException {
+        ExecutionLog log = new ExecutionLog(directory, logger);
+        log.setLogExecutions(true);
+        log.setLogCommandResults(true);
+        log.start();
+
+        log.logFire(task("greet", "/say \"hi\"\\n", "/say 你好"), 0);
+        log.logCommand("greet", "say 你好", false, 1_500_000, 0);
+        // 未启用的类型不写入
+        log.logPerformance(0, null, null);
+        log.stop();
+
+        List<String> lines = Files.readAllLines(directory.resolve("executions.jsonl"), StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+        assertEquals("{\"time\":\"1970-01-01T00:00:00Z\",\"type\":\"fire\",\"task\":\"greet\",\"mode\":\"SINGLE\","
+                + "\"commands\":[\"/say \\\"hi\\\"\\\\n\",\"/say 你好\"]}", lines.get(0));
+        assertEquals("{\"time\":\"1970-01-01T00:00:00Z\",\"type\":\"command\",\"task\":\"greet\","
+                + "\"command\":\"say 你好\",\"success\":false,\"latencyMs\":1.5}", lines.get(1));
+
+        // 停止后不再记录
+        log.logFire(task("late", "/say late"), 0);
+        assertEquals(2, Files.readAllLines(directory.resolve("executions.jsonl")).size());
+    }
+
+    @Test
+    public void testDisabledWritesNothing() throws IOException {
+        ExecutionLog log = new ExecutionLog(directory, logger);
+        log.start();
+        log.logFire(task("greet", "/say hi"), 0);
+        log.stop();
+        assertFalse(Files.exists(directory.resolve("executions.jsonl")));
+    }
+
+    @Test
+    public void testRotationKeepsNewestFiles() throws IOException {
+        for (int cycle = 0; cycle < 4; cycle++) {
+            ExecutionLog log = new ExecutionLog(directory, logger);
+            log.setLogExecutions(true);
+            log.setMaxFileBytes(100);
+            log.setMaxFiles(2);
+            log.start();
+            for (int i = 0; i < 5; i++) {
+                log.logFire(task("cycle-" + cycle, "/say " + i), 0);
+            }
+            log.stop();
+        }
+
+        try (Stream<Path> files = Files.list(directory)) {
+            List<String> names = files.map(path -> path.getFileName().toString()).sorted().toList();
+            assertEquals(3, names.size(), names.toString());
+            assertTrue(names.contains("executions.jsonl"));
+        }
+        // 当前文件在最后一次写入后已轮换，内容为空
+        assertEquals(0, Files.size(directory.resolve("executions.jsonl")));
+    }
+
+    @Test
+    public void testQueueLimitDropsEntries() throws IOException {
+        ExecutionLog log = new ExecutionLog(directory, logger);
+        log.setLogExecutions(true);
+        log.setCapacity(1);
+        assertThrows(IllegalArgumentException.class, () -> log.setCapacity(0));
+        log.start();
+        Task task = task("burst", "/say hi");
+        for (int i = 0; i < 10_000; i++) {
+            log.logFire(task, 0);
+        }
+        log.stop();
+        assertTrue(log.getDroppedCount() > 0);
+        long written = Files.readAllLines(directory.resolve("executions.jsonl")).size();
+        assertEquals(10_000, written + log.getDroppedCount());
+    }
+}
@@ -0,0 +1,267 @@
+package org.plugin.timetools.manager;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.MisfirePolicy;
+import org.plugin.timetools.model.OverlapPolicy;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TaskManager测试类
+ */
+public class TaskManagerTest {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskManagerTest.class);
+
+    @TempDir
+    Path dataDirectory;
+
+    private static Task createTask(String id) {
+        return new Task(id, List.of("/say " + id), TaskScheduleType.FIXED_TIME,
+                LocalTime.of(12, 0), null, new HashSet<>(), true, 0, null,
+                ExecutionMode.SINGLE, 0, true);
+    }
+
+    @Test
+    public void testMatchesGlob() {
+        assertTrue(TaskManager.matchesGlob("event-*", "event-spring"));
+        assertTrue(TaskManager.matchesGlob("*", "anything"));
+        assertTrue(TaskManager.matchesGlob("daily-?", "daily-1"));
+        assertTrue(TaskManager.matchesGlob("*-end", "a-b-end"));
+        assertFalse(TaskManager.matchesGlob("event-*", "daily-event-1"));
+        assertFalse(TaskManager.matchesGlob("daily-?", "daily-10"));
+    }
+
+    @Test
+    public void testBulkDisableAndPersist() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+
+        for (int i = 0; i < 500; i++) {
+            taskManager.addTask(createTask("event-" + i));
+        }
+        taskManager.addTask(createTask("daily-backup"));
+
+        List<Task> selected = taskManager.selectTasks("event-*");
+        assertEquals(500, selected.size());
+
+        List<Task> changed = taskManager.disableTasks(selected);
+        assertEquals(500, changed.size());
+        assertEquals(1, taskManager.getEnabledTaskCount());
+
+        // 重复禁用不会产生变化
+        assertTrue(taskManager.disableTasks(selected).isEmpty());
+
+        // 重新加载后状态保持
+        TaskManager reloaded = new TaskManager(configManager, logger);
+        assertEquals(501, reloaded.getTaskCount());
+        assertEquals(1, reloaded.getEnabledTaskCount());
+    }
+
+    @Test
+    public void testOverlapPolicyPersisted() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+        taskManager.addTask(createTask("chain-1"));
+        taskManager.addTask(createTask("chain-2"));
+        taskManager.addTask(createTask("other"));
+
+        List<Task> changed = taskManager.setOverlapPolicy(taskManager.selectTasks("chain-*"), OverlapPolicy.QUEUE_ONE);
+        assertEquals(2, changed.size());
+        assertTrue(taskManager.setOverlapPolicy(taskManager.selectTasks("chain-*"), OverlapPolicy.QUEUE_ONE).isEmpty());
+
+        TaskManager reloaded = new TaskManager(configManager, logger);
+        assertEquals(OverlapPolicy.QUEUE_ONE, reloaded.getTask("chain-1").getOverlapPolicy());
+        assertEquals(OverlapPolicy.ALLOW, reloaded.getTask("other").getOverlapPolicy());
+    }
+
+    @Test
+    public void testArchivedTasksCanBeImported() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+        Task event = createTask("event");
+        event.setValidity(LocalDate.of(2026, 12, 1), LocalDate.of(2026, 12, 31));
+        taskManager.addTask(event);
+        taskManager.addTask(createTask("other"));
+
+        assertEquals(1, taskManager.archiveTasks(List.of(event)).size());
+        assertNull(taskManager.getTask("event"));
+        assertEquals(1, taskManager.getTaskCount());
+        // tasks.yml 已同步去掉归档的任务，重启后不会重复归档
+        assertNull(new TaskManager(configManager, logger).getTask("event"));
+
+        List<Task> archived = configManager.loadTasks(configManager.getArchiveFile());
+        assertEquals(1, archived.size());
+        assertEquals("event", archived.get(0).getId());
+        assertEquals(LocalDate.of(2026, 12, 31), archived.get(0).getValidUntil());
+    }
+
+    @Test
+    public void testFailedArchiveKeepsTasks() throws IOException {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+        Task event = createTask("event");
+        taskManager.addTask(event);
+        // 归档路径被目录占用，追加失败
+        Files.createDirectory(configManager.getArchiveFile());
+
+        assertTrue(taskManager.archiveTasks(List.of(event)).isEmpty());
+        assertNotNull(taskManager.getTask("event"));
+        assertNotNull(new TaskManager(configManager, logger).getTask("event"));
+    }
+
+    @Test
+    public void testRegisterTasksAllOrNothing() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+        taskManager.addTask(createTask("taken"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.registerTasks(List.of(createTask("new"), createTask("taken"))));
+        assertThrows(IllegalArgumentException.class,
+                () -> taskManager.registerTasks(List.of(createTask("twice"), createTask("twice"))));
+        assertNull(taskManager.getTask("new"));
+        assertNull(taskManager.getTask("twice"));
+        assertEquals(1, taskManager.getTaskCount());
+
+        assertEquals(2, taskManager.registerTasks(List.of(createTask("a"), createTask("b"))).size());
+        assertEquals(3, new TaskManager(configManager, logger).getTaskCount());
+    }
+
+    @Test
+    public void testMisfirePolicyPersisted() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+        taskManager.addTask(createTask("daily"));
+        taskManager.addTask(createTask("other"));
+
+        assertEquals(1, taskManager.setMisfirePolicy(taskManager.selectTasks("daily"), MisfirePolicy.FIRE_ONCE).size());
+
+        TaskManager reloaded = new TaskManager(configManager, logger);
+        assertEquals(MisfirePolicy.FIRE_ONCE, reloaded.getTask("daily").getMisfirePolicy());
+        assertEquals(MisfirePolicy.SKIP, reloaded.getTask("other").getMisfirePolicy());
+    }
+
+    @Test
+    public void testCalendarsPersistedAndMerged() throws IOException {
+        Files.writeString(dataDirectory.resolve("config.yml"),
+                "calendars:\n  holidays:\n    - \"12-25\"\n  maintenance:\n    - 2026-11-15\n");
+        Files.writeString(dataDirectory.resolve("calendars.yml"), "holidays:\n  - 2026-10-01..2026-10-07\n");
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+        taskManager.addTask(createTask("daily"));
+
+        assertEquals(1, taskManager.addCalendar(taskManager.selectTasks("daily"), "Holidays").size());
+        assertEquals(0, taskManager.addCalendar(taskManager.selectTasks("daily"), "holidays").size());
+
+        TaskManager reloaded = new TaskManager(configManager, logger);
+        Task task = reloaded.getTask("daily");
+        assertEquals(Set.of("holidays"), task.getCalendars());
+        // calendars.yml 中的同名日历覆盖 config.yml
+        assertEquals(2, reloaded.getCalendarManager().getCalendarCount());
+        assertTrue(reloaded.isExcludedOn(task, LocalDate.of(2026, 10, 3)));
+        assertFalse(reloaded.isExcludedOn(task, LocalDate.of(2026, 12, 25)));
+        assertTrue(reloaded.getCalendarManager().getCalendar("maintenance").contains(LocalDate.of(2026, 11, 15)));
+
+        assertEquals(1, reloaded.removeCalendar(reloaded.selectTasks("daily"), "holidays").size());
+        assertFalse(reloaded.isExcludedOn(task, LocalDate.of(2026, 10, 3)));
+    }
+
+    @Test
+    public void testBulkRemoveBySearch() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+
+        taskManager.addTask(createTask("a"));
+        taskManager.addTask(createTask("b"));
+        taskManager.addTask(createTask("c"));
+
+        List<Task> removed = taskManager.removeTasks(taskManager.selectTasks("search:say b"));
+        assertEquals(1, removed.size());
+        assertEquals("b", removed.get(0).getId());
+        assertEquals(2, taskManager.getTaskCount());
+    }
+
+    @Test
+    public void testImportSkipsExistingIds() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+
+        taskManager.addTask(createTask("existing"));
+
+        List<Task> imported = taskManager.importTasks(List.of(createTask("existing"), createTask("new-1"), createTask("new-2")));
+        assertEquals(2, imported.size());
+        assertEquals(3, taskManager.getTaskCount());
+    }
+
+    @Test
+    public void testTagsIndexAndGroupPause() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+
+        Task first = createTask("event-1");
+        Task second = createTask("event-2");
+        taskManager.addTask(first);
+        taskManager.addTask(second);
+        taskManager.addTask(createTask("daily"));
+
+        taskManager.addTags(taskManager.selectTasks("event-*"), List.of("Summer"));
+        assertEquals(2, taskManager.selectTasks("tag:summer").size());
+        assertTrue(taskManager.isTaskGroupActive(first));
+
+        taskManager.pauseGroup("summer");
+        assertFalse(taskManager.isTaskGroupActive(first));
+        assertTrue(first.isEnabled());
+        assertTrue(taskManager.isTaskGroupActive(taskManager.getTask("daily")));
+
+        // 标签和暂停状态在重新加载后保持
+        TaskManager reloaded = new TaskManager(configManager, logger);
+        assertEquals(2, reloaded.getTasksByTag("summer").size());
+        assertTrue(reloaded.getGroup("summer").isPaused());
+        assertFalse(reloaded.isTaskGroupActive(reloaded.getTask("event-2")));
+
+        reloaded.resumeGroup("summer");
+        assertTrue(reloaded.isTaskGroupActive(reloaded.getTask("event-2")));
+
+        reloaded.removeTags(reloaded.selectTasks("event-1"), List.of("summer"));
+        assertEquals(1, reloaded.getTasksByTag("summer").size());
+    }
+
+    @Test
+    public void testSuggestTaskIdsByPrefix() {
+        ConfigManager configManager = new ConfigManager(dataDirectory, logger);
+        TaskManager taskManager = new TaskManager(configManager, logger);
+
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(createTask(String.format("event-%03d", i)));
+        }
+        tasks.add(createTask("daily"));
+        taskManager.importTasks(tasks);
+
+        assertEquals(List.of("event-000", "event-001", "event-002"), taskManager.suggestTaskIds("event-", 3));
+        assertEquals(10, taskManager.suggestTaskIds("event-09", 50).size());
+        assertEquals(List.of("daily"), taskManager.suggestTaskIds("d", 50));
+        assertTrue(taskManager.suggestTaskIds("x", 50).isEmpty());
+
+        taskManager.removeTask("daily");
+        assertTrue(taskManager.suggestTaskIds("d", 50).isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package org.plugin.timetools.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LatencyHistogram测试类
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testBucketBoundsAreContiguous() {
+        assertEquals(0, LatencyHistogram.bucketIndex(0));
+        assertEquals(7, LatencyHistogram.bucketIndex(7));
+        for (int i = 1; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long lower = LatencyHistogram.upperBoundMicros(i - 1) + 1;
+            assertEquals(i, LatencyHistogram.bucketIndex(lower), "桶 " + i);
+            assertEquals(i, LatencyHistogram.bucketIndex(LatencyHistogram.upperBoundMicros(i)), "桶 " + i);
+        }
+        // 超出范围的值计入最后一个桶
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketIndex(Long.MAX_VALUE / 1000));
+    }
+
+    @Test
+    public void testPercentilesWithinRelativeError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1000.0, snapshot.getMaxMillis(), 0.001);
+        assertEquals(500.5, snapshot.getMeanMillis(), 0.01);
+        for (double p : new double[]{50, 90, 99}) {
+            double expected = p * 10;
+            double actual = snapshot.getPercentileMillis(p);
+            assertTrue(actual >= expected && actual <= expected * 1.125, "p" + p + " = " + actual);
+        }
+        assertEquals(1000.0, snapshot.getPercentileMillis(100), 0.001);
+    }
+
+    @Test
+    public void testCoarsePercentilesWithinFactorOfTwo() {
+        LatencyHistogram histogram = LatencyHistogram.coarse();
+        assertTrue(histogram.getBucketCount() < LatencyHistogram.BUCKET_COUNT / 4);
+        for (int ms = 1; ms <= 1000; ms++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(ms));
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(1000, snapshot.getCount());
+        for (double p : new double[]{50, 90, 99}) {
+            double expected = p * 10;
+            double actual = snapshot.getPercentileMillis(p);
+            assertTrue(actual >= expected && actual <= expected * 2, "p" + p + " = " + actual);
+        }
+        assertEquals(1000.0, snapshot.getPercentileMillis(100), 0.001);
+    }
+
+    @Test
+    public void testConcurrentRecordingLosesNothing() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    histogram.record(i * 1000L);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(400_000, histogram.getCount());
+        assertEquals(99.999, histogram.snapshot().getMaxMillis(), 0.0001);
+    }
+
+    @Test
+    public void testCommandRoot() {
+        assertEquals("say", ExecutionMetrics.commandRoot("/say hello world"));
+        assertEquals("server", ExecutionMetrics.commandRoot("Server lobby"));
+        assertEquals("save-all", ExecutionMetrics.commandRoot("save-all"));
+    }
+}
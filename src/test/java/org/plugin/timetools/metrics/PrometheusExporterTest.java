@@ -0,0 +1,137 @@
+package org.plugin.timetools.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+import org.plugin.timetools.scheduler.TaskScheduler;
+import org.plugin.timetools.support.FakeProxyServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PrometheusExporter测试类
+ */
+public class PrometheusExporterTest {
+
+    private final Logger logger = LoggerFactory.getLogger(PrometheusExporterTest.class);
+    private final FakeProxyServer server = new FakeProxyServer();
+    private TaskScheduler scheduler;
+    private PrometheusExporter exporter;
+
+    @TempDir
+    Path dataDirectory;
+
+    @AfterEach
+    public void tearDown() {
+        if (exporter != null) {
+            exporter.stop();
+        }
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private TaskManager start(Task... tasks) {
+        TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+        taskManager.importTasks(List.of(tasks));
+        scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, logger,
+                new TaskEventDispatcher(server.getEventManager(), logger, false));
+        scheduler.start();
+        exporter = new PrometheusExporter(taskManager, scheduler, logger);
+        return taskManager;
+    }
+
+    private static Task allMode(String id, boolean enabled) {
+        return new Task(id, List.of("/say a", "/say b"), TaskScheduleType.FIXED_TIME, LocalTime.of(12, 0), null,
+                new HashSet<>(), true, 0, null, ExecutionMode.ALL, 0, enabled);
+    }
+
+    @Test
+    public void testRenderCountsAndHistograms() {
+        start(allMode("on", true), allMode("off", false));
+        scheduler.getExecutionMetrics().recordFire(null);
+        scheduler.getSkewTracker().record(20);
+        scheduler.getSkewTracker().record(3_000);
+
+        String text = exporter.render().toString();
+        assertTrue(text.contains("timetools_tasks{state=\"enabled\"} 1\n"), text);
+        assertTrue(text.contains("timetools_tasks{state=\"disabled\"} 1\n"), text);
+        assertTrue(text.contains("timetools_fires_total 1\n"), text);
+        assertTrue(text.contains("# TYPE timetools_fire_lateness_seconds histogram\n"), text);
+        assertTrue(text.contains("timetools_fire_lateness_seconds_bucket{le=\"0.01\"} 0\n"), text);
+        assertTrue(text.contains("timetools_fire_lateness_seconds_bucket{le=\"0.05\"} 1\n"), text);
+        assertTrue(text.contains("timetools_fire_lateness_seconds_bucket{le=\"5.0\"} 2\n"), text);
+        assertTrue(text.contains("timetools_fire_lateness_seconds_bucket{le=\"+Inf\"} 2\n"), text);
+        assertTrue(text.contains("timetools_fire_lateness_seconds_count 2\n"), text);
+        // 导入任务时保存过一次任务文件
+        assertFalse(text.contains("timetools_persistence_flush_seconds_count 0\n"), text);
+    }
+
+    @Test
+    public void testIntervalTimersNotDoubleCounted() {
+        Task regular = new Task("regular", List.of("/say tick"), TaskScheduleType.INTERVAL, null, null,
+                new HashSet<>(), true, 1200, "m", ExecutionMode.SINGLE, 0, true);
+        Task precision = new Task("precision", List.of("/say tick"), TaskScheduleType.INTERVAL, null, null,
+                new HashSet<>(), true, 10, "ms", ExecutionMode.SINGLE, 0, true);
+        precision.setIntervalMillis(500);
+        start(regular, precision);
+
+        String text = exporter.render().toString();
+        assertTrue(text.contains("timetools_interval_timers{timer=\"scheduler\"} 1\n"), text);
+        assertTrue(text.contains("timetools_interval_timers{timer=\"precision\"} 1\n"), text);
+    }
+
+    @Test
+    public void testQueueDepthAndCommandResults() {
+        TaskManager taskManager = start(allMode("on", true));
+        scheduler.runTaskNow(taskManager.getTask("on"));
+        ExecutionMetrics metrics = scheduler.getExecutionMetrics();
+        assertEquals(2, metrics.getQueuedCommandCount());
+        assertTrue(exporter.render().toString().contains("timetools_dispatch_queue_depth 2\n"));
+
+        server.getScheduler().advance(1000);
+        assertEquals(0, metrics.getQueuedCommandCount());
+        assertEquals(2, metrics.getCommandSuccessCount());
+        assertTrue(exporter.render().toString().contains("timetools_commands_total{result=\"success\"} 2\n"));
+    }
+
+    @Test
+    public void testHttpScrape() throws IOException {
+        start(allMode("on", true));
+        exporter.start("127.0.0.1", 0);
+
+        URL url = new URL("http://127.0.0.1:" + exporter.getPort() + "/metrics");
+        for (int i = 0; i < 2; i++) {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+            try (InputStream input = connection.getInputStream()) {
+                String body = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+                assertTrue(body.contains("timetools_tasks{state=\"enabled\"} 1\n"), body);
+                assertTrue(body.contains("timetools_persistence_flush_seconds_bucket{le=\"+Inf\"} "), body);
+            }
+        }
+
+        HttpURLConnection post = (HttpURLConnection) url.openConnection();
+        post.setRequestMethod("POST");
+        assertEquals(405, post.getResponseCode());
+    }
+}
@@ -0,0 +1,51 @@
+package org.plugin.timetools.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SkewTracker测试类
+ */
+public class SkewTrackerTest {
+
+    @Test
+    public void testCapacityRoundedToPowerOfTwo() {
+        assertEquals(1, new SkewTracker(1).getCapacity());
+        assertEquals(8, new SkewTracker(5).getCapacity());
+        assertEquals(1024, new SkewTracker(1024).getCapacity());
+        assertThrows(IllegalArgumentException.class, () -> new SkewTracker(0));
+    }
+
+    @Test
+    public void testPercentiles() {
+        SkewTracker tracker = new SkewTracker(128);
+        assertEquals(0, tracker.getPercentileMillis(99));
+
+        for (int i = 100; i >= 1; i--) {
+            tracker.record(i);
+        }
+        assertEquals(100, tracker.getRecordedCount());
+        assertEquals(50, tracker.getPercentileMillis(50));
+        assertEquals(99, tracker.getPercentileMillis(99));
+        assertEquals(100, tracker.getPercentileMillis(100));
+        assertEquals(1, tracker.getPercentileMillis(0));
+    }
+
+    @Test
+    public void testRingKeepsMostRecentSamples() {
+        SkewTracker tracker = new SkewTracker(4);
+        for (int i = 1; i <= 10; i++) {
+            tracker.record(i * 1000L);
+        }
+        assertEquals(10, tracker.getRecordedCount());
+        assertEquals(4, tracker.recentSamples().length);
+        // 只剩最后4个样本：7000..10000
+        assertEquals(7000, tracker.getPercentileMillis(0));
+        assertEquals(10_000, tracker.getPercentileMillis(100));
+
+        tracker.recordSkippedMinutes(3);
+        tracker.recordSkippedMinutes(2);
+        assertEquals(5, tracker.getSkippedMinutes());
+    }
+}
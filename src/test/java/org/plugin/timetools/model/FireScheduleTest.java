@@ -0,0 +1,151 @@
+package org.plugin.timetools.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FireSchedule测试类
+ */
+public class FireScheduleTest {
+
+    private static Task task(TaskScheduleType type, LocalTime start, LocalTime end, Set<DayOfWeek> days) {
+        return new Task("t", List.of("/say hi"), type, start, end, days, days.isEmpty(),
+                type == TaskScheduleType.FIXED_TIME || type == TaskScheduleType.TIME_RANGE ? 0 : 1200, "m",
+                ExecutionMode.SINGLE, 0, true);
+    }
+
+    @Test
+    public void testFixedTimeList() {
+        Task task = task(TaskScheduleType.FIXED_TIME, LocalTime.of(6, 0), null, Set.of());
+        task.setFireTimes(List.of(LocalTime.of(18, 0), LocalTime.of(6, 0), LocalTime.of(12, 0), LocalTime.of(6, 0)));
+
+        FireSchedule schedule = task.getFireSchedule();
+        assertTrue(schedule.isMinuteDriven());
+        assertEquals(3, schedule.getFireMinuteCount());
+        assertArrayEquals(new int[]{360, 720, 1080}, schedule.fireMinutes());
+        assertTrue(schedule.firesAt(DayOfWeek.SUNDAY, LocalTime.of(12, 0)));
+        assertFalse(schedule.firesAt(DayOfWeek.SUNDAY, LocalTime.of(12, 1)));
+    }
+
+    @Test
+    public void testWrappingRangeBelongsToStartDay() {
+        Task task = task(TaskScheduleType.TIME_RANGE, LocalTime.of(22, 0), LocalTime.of(2, 0),
+                EnumSet.of(DayOfWeek.SUNDAY));
+
+        FireSchedule schedule = task.getFireSchedule();
+        assertEquals(4 * 60 + 1, schedule.getFireMinuteCount());
+        assertTrue(schedule.firesAt(DayOfWeek.SUNDAY, LocalTime.of(22, 0)));
+        assertTrue(schedule.firesAt(DayOfWeek.MONDAY, LocalTime.of(0, 0)));
+        assertTrue(schedule.firesAt(DayOfWeek.MONDAY, LocalTime.of(2, 0)));
+        assertFalse(schedule.firesAt(DayOfWeek.MONDAY, LocalTime.of(2, 1)));
+        assertFalse(schedule.firesAt(DayOfWeek.SUNDAY, LocalTime.of(1, 0)));
+        assertFalse(schedule.firesAt(DayOfWeek.MONDAY, LocalTime.of(23, 0)));
+    }
+
+    @Test
+    public void testStepAcrossMidnight() {
+        Task task = task(TaskScheduleType.TIME_RANGE, LocalTime.of(23, 0), LocalTime.of(1, 0), Set.of());
+        task.setStepMinutes(40);
+
+        assertArrayEquals(new int[]{20, 60, 1380, 1420}, task.getFireSchedule().fireMinutes());
+        assertEquals("*/40m within 23:00-01:00", task.describeTime());
+    }
+
+    @Test
+    public void testIntervalWindows() {
+        Task ranged = task(TaskScheduleType.TIME_RANGE_WITH_INTERVAL, LocalTime.of(9, 0), LocalTime.of(17, 0), Set.of());
+        assertFalse(ranged.getFireSchedule().isMinuteDriven());
+        assertFalse(ranged.getFireSchedule().firesAt(DayOfWeek.MONDAY, LocalTime.of(10, 0)));
+        assertTrue(ranged.getFireSchedule().isWithinWindow(DayOfWeek.MONDAY, LocalTime.of(17, 0)));
+        assertFalse(ranged.getFireSchedule().isWithinWindow(DayOfWeek.MONDAY, LocalTime.of(17, 1)));
+
+        Task interval = task(TaskScheduleType.INTERVAL, null, null, EnumSet.of(DayOfWeek.FRIDAY));
+        assertTrue(interval.getFireSchedule().isWithinWindow(DayOfWeek.FRIDAY, LocalTime.of(3, 0)));
+        assertFalse(interval.getFireSchedule().isWithinWindow(DayOfWeek.SATURDAY, LocalTime.of(3, 0)));
+    }
+
+    @Test
+    public void testFiresBetween() {
+        // 2024-01-01 是周一
+        LocalDate monday = LocalDate.of(2024, 1, 1);
+        Task task = task(TaskScheduleType.FIXED_TIME, LocalTime.of(6, 0), null, EnumSet.of(DayOfWeek.MONDAY));
+        task.setFireTimes(List.of(LocalTime.of(6, 0), LocalTime.of(12, 0), LocalTime.of(18, 0)));
+        FireSchedule schedule = task.getFireSchedule();
+
+        assertEquals(List.of(monday.atTime(12, 0), monday.atTime(18, 0)),
+                schedule.firesBetween(monday.atTime(6, 0, 30), monday.plusDays(1).atStartOfDay(), 10));
+        // 不包含 to，从最近的开始取
+        assertEquals(List.of(monday.atTime(6, 0)), schedule.firesBetween(monday.atStartOfDay(), monday.atTime(12, 0), 10));
+        assertEquals(List.of(monday.plusWeeks(1).atTime(18, 0)),
+                schedule.firesBetween(monday.atStartOfDay(), monday.plusWeeks(1).atTime(19, 0), 1));
+        assertEquals(6, schedule.firesBetween(monday.atStartOfDay(), monday.plusWeeks(1).atTime(19, 0), 10).size());
+        assertTrue(schedule.firesBetween(monday.plusDays(1).atStartOfDay(), monday.plusDays(7).atStartOfDay(), 10).isEmpty());
+    }
+
+    @Test
+    public void testFiresBetweenWrappingRange() {
+        LocalDate sunday = LocalDate.of(2024, 1, 7);
+        Task task = task(TaskScheduleType.TIME_RANGE, LocalTime.of(23, 0), LocalTime.of(1, 0),
+                EnumSet.of(DayOfWeek.SUNDAY));
+        task.setStepMinutes(30);
+
+        List<LocalDateTime> fires = task.getFireSchedule()
+                .firesBetween(sunday.atTime(22, 0), sunday.plusDays(1).atTime(12, 0), 10);
+        assertEquals(List.of(sunday.atTime(23, 0), sunday.atTime(23, 30), sunday.plusDays(1).atStartOfDay(),
+                sunday.plusDays(1).atTime(0, 30), sunday.plusDays(1).atTime(1, 0)), fires);
+
+        Task interval = task(TaskScheduleType.INTERVAL, null, null, Set.of());
+        assertTrue(interval.getFireSchedule().firesBetween(sunday.atStartOfDay(), sunday.plusDays(1).atStartOfDay(), 10)
+                .isEmpty());
+    }
+
+    @Test
+    public void testOnceAtStartCompilesStartMinute() {
+        Task task = task(TaskScheduleType.TIME_RANGE, LocalTime.of(4, 0), LocalTime.of(5, 0), Set.of());
+        task.setRangeMode(RangeMode.ONCE_AT_START);
+
+        FireSchedule schedule = task.getFireSchedule();
+        assertTrue(schedule.isWindowed());
+        assertArrayEquals(new int[]{240}, schedule.fireMinutes());
+        assertEquals("once within 04:00-05:00", task.describeTime());
+        assertFalse(task(TaskScheduleType.FIXED_TIME, LocalTime.NOON, null, Set.of()).getFireSchedule().isWindowed());
+    }
+
+    @Test
+    public void testRandomPointOncePerWindow() {
+        LocalDate sunday = LocalDate.of(2024, 1, 7);
+        Task task = task(TaskScheduleType.TIME_RANGE, LocalTime.of(23, 30), LocalTime.of(0, 30), Set.of());
+        task.setRangeMode(RangeMode.ONCE_RANDOM);
+        FireSchedule schedule = task.getFireSchedule();
+        assertEquals(61, schedule.getFireMinuteCount());
+
+        // 每个窗口恰好有一个随机时刻
+        LocalDateTime windowStart = sunday.atTime(23, 30);
+        List<LocalDateTime> fires = schedule.firesBetween(windowStart, windowStart.plusDays(7), 20);
+        assertEquals(7, fires.size());
+        List<LocalDateTime> first = schedule.firesBetween(windowStart, windowStart.plusMinutes(61), 20);
+        assertEquals(1, first.size());
+        LocalDateTime pick = first.get(0);
+        assertEquals(pick, fires.get(0));
+
+        // 随机时刻之前不到期，之后（包括跨零点部分）的去重键都是窗口开始分钟
+        long startKey = sunday.toEpochDay() * FireSchedule.MINUTES_PER_DAY + 23 * 60 + 30;
+        LocalDateTime beforePick = pick.minusMinutes(1);
+        if (!beforePick.isBefore(windowStart)) {
+            assertEquals(FireSchedule.NOT_DUE,
+                    schedule.windowKey(beforePick.toLocalDate(), FireSchedule.minuteOf(beforePick.toLocalTime())));
+        }
+        assertEquals(startKey, schedule.windowKey(pick.toLocalDate(), FireSchedule.minuteOf(pick.toLocalTime())));
+        assertEquals(startKey, schedule.windowKey(sunday.plusDays(1), 30));
+        assertEquals(fires, schedule.firesBetween(windowStart, windowStart.plusDays(7), 20));
+    }
+}
@@ -0,0 +1,55 @@
+package org.plugin.timetools.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * HolidayCalendar测试类
+ */
+public class HolidayCalendarTest {
+
+    @Test
+    public void testDatesAndRanges() {
+        HolidayCalendar calendar = HolidayCalendar.compile("holidays",
+                List.of("2026-12-25", "2026-10-01..2026-10-07", "2026-12-31..2027-01-02"));
+
+        assertTrue(calendar.contains(LocalDate.of(2026, 12, 25)));
+        assertFalse(calendar.contains(LocalDate.of(2025, 12, 25)));
+        assertTrue(calendar.contains(LocalDate.of(2026, 10, 1)));
+        assertTrue(calendar.contains(LocalDate.of(2026, 10, 7)));
+        assertFalse(calendar.contains(LocalDate.of(2026, 10, 8)));
+        assertTrue(calendar.contains(LocalDate.of(2027, 1, 2)));
+        assertFalse(calendar.contains(LocalDate.of(2027, 1, 3)));
+        assertFalse(calendar.contains(LocalDate.of(2030, 10, 1)));
+        assertEquals(11, calendar.getDateCount());
+    }
+
+    @Test
+    public void testAnnualDates() {
+        HolidayCalendar calendar = HolidayCalendar.compile("annual", List.of("12-30..01-01", "02-29", "03-01"));
+
+        assertTrue(calendar.contains(LocalDate.of(2024, 12, 30)));
+        assertTrue(calendar.contains(LocalDate.of(2031, 12, 31)));
+        assertTrue(calendar.contains(LocalDate.of(2025, 1, 1)));
+        assertFalse(calendar.contains(LocalDate.of(2025, 1, 2)));
+        // 闰年日序：平年的3月1日与闰年的3月1日是同一位
+        assertTrue(calendar.contains(LocalDate.of(2024, 2, 29)));
+        assertTrue(calendar.contains(LocalDate.of(2025, 3, 1)));
+        assertFalse(calendar.contains(LocalDate.of(2025, 2, 28)));
+        assertEquals(5, calendar.getDateCount());
+    }
+
+    @Test
+    public void testInvalidEntries() {
+        assertThrows(IllegalArgumentException.class, () -> HolidayCalendar.compile("bad", List.of("2026-13-01")));
+        assertThrows(IllegalArgumentException.class, () -> HolidayCalendar.compile("bad", List.of("tomorrow")));
+        assertThrows(IllegalArgumentException.class,
+                () -> HolidayCalendar.compile("bad", List.of("2026-10-07..2026-10-01")));
+        assertThrows(IllegalArgumentException.class,
+                () -> HolidayCalendar.compile("bad", List.of("2000-01-01..2099-12-31")));
+    }
+}
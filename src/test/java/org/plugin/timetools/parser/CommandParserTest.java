@@ -7,6 +7,7 @@ import org.plugin.timetools.model.TaskScheduleType;
 
 import java.time.DayOfWeek;
 import java.time.LocalTime;
+import java.util.HashSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -180,4 +181,194 @@ public class CommandParserTest {
         assertEquals(ExecutionMode.ONE_BY_ONE, task.getExecutionMode());
         assertEquals(5, task.getExecutionInterval());
     }
+
+    @Test
+    public void testErrorPositionPointsIntoInput() {
+        // 完整输入："create {/say hi} 14:0x Eve"
+        String[] args = {"create", "{/say hi}", "14:0x", "Eve"};
+        CommandParser.ParseException e = assertThrows(CommandParser.ParseException.class,
+                () -> CommandParser.parseCreateCommand(args));
+        assertEquals(20, e.getPosition());
+
+        String[] badDay = {"create", "{/say hi}", "14:00", "Mon,Fry"};
+        e = assertThrows(CommandParser.ParseException.class, () -> CommandParser.parseCreateCommand(badDay));
+        assertEquals("无效的星期或间隔: Fry", e.getMessage());
+        assertEquals(27, e.getPosition());
+
+        String[] badRange = {"create", "{/say hi}", "10:00-10:00", "Eve"};
+        e = assertThrows(CommandParser.ParseException.class, () -> CommandParser.parseCreateCommand(badRange));
+        assertEquals("结束时间不能与开始时间相同", e.getMessage());
+        assertEquals(23, e.getPosition());
+    }
+
+    @Test
+    public void testParseTimeList() throws CommandParser.ParseException {
+        String[] args = {"create", "{/say hi}", "18:00,6:00,12:00", "Eve"};
+        Task task = CommandParser.parseCreateCommand(args);
+
+        assertEquals(TaskScheduleType.FIXED_TIME, task.getScheduleType());
+        assertEquals(LocalTime.of(6, 0), task.getStartTime());
+        assertEquals(3, task.getFireTimes().size());
+        assertEquals(LocalTime.of(18, 0), task.getFireTimes().get(2));
+        assertEquals("06:00,12:00,18:00", task.describeTime());
+
+        String[] bad = {"create", "{/say hi}", "6:00,E", "Eve"};
+        assertThrows(CommandParser.ParseException.class, () -> CommandParser.parseCreateCommand(bad));
+    }
+
+    @Test
+    public void testParseWrappingRange() throws CommandParser.ParseException {
+        String[] args = {"create", "{/say night}", "22:00-02:00", "Fri"};
+        Task task = CommandParser.parseCreateCommand(args);
+
+        assertEquals(TaskScheduleType.TIME_RANGE, task.getScheduleType());
+        assertTrue(task.isWrapping());
+        assertTrue(task.shouldExecuteAt(LocalTime.of(23, 30), DayOfWeek.FRIDAY));
+        assertTrue(task.shouldExecuteAt(LocalTime.of(1, 0), DayOfWeek.SATURDAY));
+        assertFalse(task.shouldExecuteAt(LocalTime.of(1, 0), DayOfWeek.FRIDAY));
+
+        String[] withInterval = {"create", "{/say night}", "22:00-02:00,E", "Eve,5m"};
+        assertTrue(CommandParser.parseCreateCommand(withInterval).isWrapping());
+    }
+
+    @Test
+    public void testParseStepExpression() throws CommandParser.ParseException {
+        String[] args = {"create", "{/say tick}", "*/15m", "within", "9:00-17:00", "Mon,Tue"};
+        Task task = CommandParser.parseCreateCommand(args);
+
+        assertEquals(TaskScheduleType.TIME_RANGE, task.getScheduleType());
+        assertEquals(15, task.getStepMinutes());
+        assertEquals(LocalTime.of(9, 0), task.getStartTime());
+        assertEquals(LocalTime.of(17, 0), task.getEndTime());
+        assertEquals(2, task.getDaysOfWeek().size());
+        assertTrue(task.shouldExecuteAt(LocalTime.of(9, 45), DayOfWeek.MONDAY));
+        assertFalse(task.shouldExecuteAt(LocalTime.of(9, 46), DayOfWeek.MONDAY));
+        assertEquals(33, task.getFireSchedule().getFireMinuteCount());
+
+        String[] allDay = {"create", "{/say tick}", "*/2h", "Eve"};
+        Task allDayTask = CommandParser.parseCreateCommand(allDay);
+        assertEquals(120, allDayTask.getStepMinutes());
+        assertEquals(12, allDayTask.getFireSchedule().getFireMinuteCount());
+    }
+
+    @Test
+    public void testInvalidStepExpression() {
+        String[][] invalid = {
+                {"create", "{/a}", "*/0m", "Eve"},
+                {"create", "{/a}", "*/15s", "Eve"},
+                {"create", "{/a}", "*/25h", "Eve"},
+                {"create", "{/a}", "*/15m", "within", "9:00-17:00"},
+                {"create", "{/a}", "*/15m", "within", "9:00", "Eve"},
+                {"create", "{/a}", "*/m", "Eve"},
+        };
+        for (String[] args : invalid) {
+            assertThrows(CommandParser.ParseException.class, () -> CommandParser.parseCreateCommand(args),
+                    String.join(" ", args));
+        }
+    }
+
+    @Test
+    public void testLargeNumbersDoNotOverflow() {
+        String[] hugeInterval = {"create", "{/a,/b,Obo,99999999999999999999}", "10:00", "Eve"};
+        assertThrows(CommandParser.ParseException.class, () -> CommandParser.parseCreateCommand(hugeInterval));
+
+        String[] hugeTicks = {"create", "{/a}", "E", "Eve,99999999999999999999m"};
+        assertThrows(CommandParser.ParseException.class, () -> CommandParser.parseCreateCommand(hugeTicks));
+    }
+
+    @Test
+    public void testMatchesLegacyParser() {
+        String[][] corpus = {
+                {"{/say hello}", "14:00", "Eve"},
+                {"{/say hello}", "4:05", "mon,TUE,Wed"},
+                {"{/a,/b}", "00:00", "Sun"},
+                {"{/a,/b,All}", "23:59", "Sat,Sun"},
+                {"{/a,Obo,/b,7}", "9:00-17:30", "Eve"},
+                {"{ /a , /b , Obo }", "E", "Eve,10s"},
+                {"{velocity plugins}", "E", "Eve,2h"},
+                {"{/backup}", "02:00-04:00,E", "Eve,30m"},
+                {"{/backup}", "02:00-04:00,E", "Mon,Fri,1M"},
+                {"{/x}", "12:00", "Eve,"},
+                {"{/x}", "12:00", "Eve,,"},
+                {"{/x}", "E", "Eve,5m,1h"},
+                {"{/x}", "E", "Eve"},
+                {"{/x}", "02:00-04:00,E", "Eve"},
+                {"{/x}", "24:00", "Eve"},
+                {"{/x}", "12:60", "Eve"},
+                {"{/x}", "123:00", "Eve"},
+                {"{/x}", "12:0", "Eve"},
+                {"{/x}", "12-13", "Eve"},
+                {"{/x}", "12:00-12:00", "Eve"},
+                {"{/x}", "12:00-13:00,F", "Eve"},
+                {"{/x}", "12:00-13:00,E,E", "Eve"},
+                {"{/x}", "e", "Eve,1m"},
+                {"{/x}", "EE", "Eve,1m"},
+                {"{/x}", "12:00", "Mon,,Tue"},
+                {"{/x}", "12:00", ",Mon"},
+                {"{/x}", "12:00", "Monday"},
+                {"{/x}", "12:00", "Eve,1d"},
+                {"{/x}", "12:00", "Eve,m"},
+                {"{/x}", "12:00", ""},
+                {"{/x,1}", "12:00", "Eve"},
+                {"{/x,121}", "12:00", "Eve"},
+                {"{/x,2}", "12:00", "Eve"},
+                {"{x}", "12:00", "Eve"},
+                {"{}", "12:00", "Eve"},
+                {"{,}", "12:00", "Eve"},
+                {"/x}", "12:00", "Eve"},
+                {"{/x", "12:00", "Eve"},
+                {"{", "12:00", "Eve"},
+        };
+
+        for (String[] entry : corpus) {
+            String[] args = {"create", entry[0], entry[1], entry[2]};
+            String label = String.join(" ", args);
+
+            Task expected = null;
+            Task actual = null;
+            try {
+                expected = LegacyCommandParser.parseCreateCommand(args);
+            } catch (CommandParser.ParseException ignored) {
+            }
+            try {
+                actual = CommandParser.parseCreateCommand(args);
+            } catch (CommandParser.ParseException ignored) {
+            }
+
+            assertEquals(expected == null, actual == null, "解析结果不一致: " + label);
+            if (expected != null) {
+                assertEquals(expected.getCommands(), actual.getCommands(), label);
+                assertEquals(expected.getScheduleType(), actual.getScheduleType(), label);
+                assertEquals(expected.getStartTime(), actual.getStartTime(), label);
+                assertEquals(expected.getEndTime(), actual.getEndTime(), label);
+                assertEquals(new HashSet<>(expected.getDaysOfWeek()), new HashSet<>(actual.getDaysOfWeek()), label);
+                assertEquals(expected.isEveryDay(), actual.isEveryDay(), label);
+                assertEquals(expected.getIntervalTicks(), actual.getIntervalTicks(), label);
+                assertEquals(expected.getIntervalUnit(), actual.getIntervalUnit(), label);
+                assertEquals(expected.getExecutionMode(), actual.getExecutionMode(), label);
+                assertEquals(expected.getExecutionInterval(), actual.getExecutionInterval(), label);
+            }
+        }
+    }
+
+    @Test
+    public void testParseTickAndMillisUnits() throws CommandParser.ParseException {
+        Task ticks = CommandParser.parseCreateCommand(new String[]{"create", "{/say hi}", "E", "Eve,5t"});
+        assertEquals(5L, ticks.getIntervalTicks());
+        assertEquals("t", ticks.getIntervalUnit());
+        assertEquals(250L, ticks.getIntervalMillis());
+
+        Task millis = CommandParser.parseCreateCommand(new String[]{"create", "{/say hi}", "E", "Eve,120MS"});
+        assertEquals("ms", millis.getIntervalUnit());
+        assertEquals(120L, millis.getIntervalMillis());
+        assertEquals(2L, millis.getIntervalTicks());
+
+        Task seconds = CommandParser.parseCreateCommand(new String[]{"create", "{/say hi}", "E", "Eve,2s"});
+        assertEquals(2000L, seconds.getIntervalMillis());
+
+        assertThrows(CommandParser.ParseException.class, () ->
+                CommandParser.parseCreateCommand(new String[]{"create", "{/say hi}", "E", "Eve,5ms"}));
+        assertThrows(CommandParser.ParseException.class, () ->
+                CommandParser.parseCreateCommand(new String[]{"create", "{/say hi}", "E", "Eve,0t"}));
+    }
 }
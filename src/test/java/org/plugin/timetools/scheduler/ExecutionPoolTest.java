@@ -0,0 +1,96 @@
+package org.plugin.timetools.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExecutionPool测试类
+ */
+public class ExecutionPoolTest {
+
+    private final Logger logger = LoggerFactory.getLogger(ExecutionPoolTest.class);
+
+    /**
+     * 占满执行线程和等待队列，返回用于放行的闩
+     */
+    private static CountDownLatch saturate(ExecutionPool pool) throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        assertTrue(pool.execute(() -> {
+            started.countDown();
+            await(release);
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(pool.execute(() -> await(release)));
+        assertEquals(1, pool.getActiveCount());
+        assertEquals(1, pool.getQueuedCount());
+        return release;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    public void testDiscardWhenSaturated() throws InterruptedException {
+        ExecutionPool pool = new ExecutionPool(1, 1, ExecutionPool.RejectionPolicy.DISCARD, false, logger);
+        try {
+            CountDownLatch release = saturate(pool);
+            assertFalse(pool.execute(() -> fail("队列已满时不应执行")));
+            assertEquals(1, pool.getRejectedCount());
+
+            release.countDown();
+            pool.shutdown(5, TimeUnit.SECONDS);
+            assertEquals(2, pool.getCompletedCount());
+            assertEquals(0, pool.getActiveCount());
+            assertEquals(0, pool.getQueuedCount());
+        } finally {
+            pool.shutdown(0, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testCallerRunsWhenSaturated() throws InterruptedException {
+        ExecutionPool pool = new ExecutionPool(1, 1, ExecutionPool.RejectionPolicy.CALLER_RUNS, false, logger);
+        try {
+            CountDownLatch release = saturate(pool);
+            AtomicReference<Thread> runner = new AtomicReference<>();
+            assertTrue(pool.execute(() -> runner.set(Thread.currentThread())));
+            assertSame(Thread.currentThread(), runner.get());
+            assertEquals(1, pool.getCallerRunsCount());
+            assertEquals(0, pool.getRejectedCount());
+            release.countDown();
+        } finally {
+            pool.shutdown(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testVirtualThreadsFallBackBeforeJava21() throws InterruptedException {
+        ExecutionPool pool = new ExecutionPool(2, 4, ExecutionPool.RejectionPolicy.DISCARD, true, logger);
+        try {
+            assertEquals(Runtime.version().feature() >= 21, pool.isVirtual());
+            CountDownLatch done = new CountDownLatch(1);
+            assertTrue(pool.execute(done::countDown));
+            assertTrue(done.await(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdown(5, TimeUnit.SECONDS);
+        }
+
+        assertEquals(ExecutionPool.RejectionPolicy.CALLER_RUNS, ExecutionPool.parsePolicy(" Caller-Runs "));
+        assertThrows(IllegalArgumentException.class, () -> ExecutionPool.parsePolicy("block"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExecutionPool(0, 1, ExecutionPool.RejectionPolicy.DISCARD, false, logger));
+    }
+}
@@ -0,0 +1,51 @@
+package org.plugin.timetools.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ExpiryQueue测试类
+ */
+public class ExpiryQueueTest {
+
+    @Test
+    public void testPollsInExpiryOrder() {
+        ExpiryQueue queue = new ExpiryQueue();
+        queue.offer("c", 300);
+        queue.offer("a", 100);
+        queue.offer("b", 200);
+
+        assertTrue(queue.pollExpired(99).isEmpty());
+        assertEquals(List.of("a", "b"), queue.pollExpired(200));
+        assertEquals(1, queue.size());
+        assertEquals(List.of("c"), queue.pollExpired(1000));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testOneEntryPerTask() {
+        ExpiryQueue queue = new ExpiryQueue();
+        // 过期时间不变时重复加入不产生新条目
+        for (int i = 0; i < 1000; i++) {
+            queue.offer("a", 100);
+        }
+        assertEquals(1, queue.entryCount());
+
+        // 改变过期时间后旧条目作废
+        queue.offer("a", 400);
+        queue.offer("b", 200);
+        assertEquals(2, queue.size());
+        assertEquals(List.of("b"), queue.pollExpired(300));
+
+        // 移除后再次加入同一时间复用原条目
+        queue.remove("a");
+        assertEquals(0, queue.size());
+        queue.offer("a", 400);
+        assertEquals(1, queue.size());
+        assertEquals(List.of("a"), queue.pollExpired(400));
+        assertEquals(0, queue.entryCount());
+    }
+}
@@ -0,0 +1,69 @@
+package org.plugin.timetools.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PrecisionTimer测试类
+ */
+public class PrecisionTimerTest {
+
+    private final Logger logger = LoggerFactory.getLogger(PrecisionTimerTest.class);
+    private final PrecisionTimer timer = new PrecisionTimer(logger, 1000);
+
+    @AfterEach
+    public void tearDown() {
+        timer.shutdown();
+    }
+
+    @Test
+    public void testFiresOnAbsoluteSchedule() throws InterruptedException {
+        AtomicInteger fires = new AtomicInteger();
+        timer.schedule("fast", TimeUnit.MILLISECONDS.toNanos(20), fires::incrementAndGet);
+
+        Thread.sleep(500);
+        timer.cancel("fast");
+
+        // 计划时刻按绝对时间推进，500ms 内应触发约 25 次，不会因单次延迟而逐渐变少
+        assertTrue(fires.get() >= 20 && fires.get() <= 26, "触发次数: " + fires.get());
+        assertFalse(timer.isScheduled("fast"));
+    }
+
+    @Test
+    public void testSlowActionSkipsMissedFires() throws InterruptedException {
+        timer.schedule("slow", TimeUnit.MILLISECONDS.toNanos(10), () -> {
+            try {
+                Thread.sleep(35);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Thread.sleep(300);
+        LatenessStats stats = timer.getStats("slow");
+        timer.cancel("slow");
+
+        assertNotNull(stats);
+        assertTrue(stats.getFireCount() > 0);
+        assertTrue(stats.getMissedCount() >= stats.getFireCount() - 1, "跳过次数: " + stats.getMissedCount());
+        assertTrue(stats.getMaxLatenessMillis() < 35, "最大延迟: " + stats.getMaxLatenessMillis());
+    }
+
+    @Test
+    public void testRescheduleReplacesEntry() {
+        timer.schedule("task", TimeUnit.SECONDS.toNanos(10), () -> { });
+        timer.schedule("task", TimeUnit.SECONDS.toNanos(5), () -> { });
+
+        assertEquals(1, timer.size());
+        assertTrue(timer.cancel("task"));
+        assertEquals(0, timer.size());
+        assertNull(timer.getStats("task"));
+    }
+}
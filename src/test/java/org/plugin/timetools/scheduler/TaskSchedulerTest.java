@@ -0,0 +1,484 @@
+package org.plugin.timetools.scheduler;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.plugin.timetools.config.ConfigManager;
+import com.velocitypowered.api.event.ResultedEvent;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.event.TaskPreExecuteEvent;
+import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.log.ExecutionHistory;
+import org.plugin.timetools.metrics.ExecutionLatency;
+import org.plugin.timetools.metrics.SkewTracker;
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.MisfirePolicy;
+import org.plugin.timetools.model.OverlapPolicy;
+import org.plugin.timetools.model.RangeMode;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+import org.plugin.timetools.support.FakeProxyServer;
+import org.plugin.timetools.support.ScheduleSimulation;
+import org.plugin.timetools.support.SimulatedClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TaskScheduler测试类
+ */
+public class TaskSchedulerTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 1);
+
+    private final Logger logger = LoggerFactory.getLogger(TaskSchedulerTest.class);
+    private final FakeProxyServer server = new FakeProxyServer();
+    private TaskScheduler scheduler;
+
+    @TempDir
+    Path dataDirectory;
+
+    @AfterEach
+    public void tearDown() {
+        if (scheduler != null) {
+            scheduler.shutdown();
+        }
+    }
+
+    private TaskManager start(Task... tasks) {
+        TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+        taskManager.importTasks(List.of(tasks));
+        scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, logger,
+                new TaskEventDispatcher(server.getEventManager(), logger, false));
+        scheduler.start();
+        return taskManager;
+    }
+
+    private static Task fixed(String id, LocalTime time, Set<DayOfWeek> days) {
+        return new Task(id, List.of("/say " + id), TaskScheduleType.FIXED_TIME, time, null, days, days.isEmpty(),
+                0, null, ExecutionMode.SINGLE, 0, true);
+    }
+
+    @Test
+    public void testTickDispatchesDueTasks() {
+        start(fixed("noon", LocalTime.of(12, 0), new HashSet<>()),
+                fixed("monday", LocalTime.of(12, 0), EnumSet.of(DayOfWeek.MONDAY)),
+                fixed("tuesday", LocalTime.of(12, 0), EnumSet.of(DayOfWeek.TUESDAY)),
+                fixed("evening", LocalTime.of(18, 0), new HashSet<>()));
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(11, 59));
+        assertEquals(0, server.getDispatchedCount());
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0));
+        assertEquals(Set.of("say noon", "say monday"), Set.copyOf(server.getDispatchedCommands()));
+    }
+
+    @Test
+    public void testSlowPreExecuteListenerDoesNotBlockTick() throws InterruptedException {
+        server.setEventHandler(event -> {
+            if (event instanceof TaskPreExecuteEvent) {
+                TaskPreExecuteEvent preExecute = (TaskPreExecuteEvent) event;
+                if (preExecute.getTask().getId().equals("slow")) {
+                    return new CompletableFuture<>();
+                }
+                if (preExecute.getTask().getId().equals("denied")) {
+                    preExecute.setResult(ResultedEvent.GenericResult.denied());
+                }
+            }
+            return CompletableFuture.completedFuture(event);
+        });
+        TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+        taskManager.importTasks(List.of(fixed("slow", LocalTime.NOON, new HashSet<>()),
+                fixed("fast", LocalTime.NOON, new HashSet<>()),
+                fixed("denied", LocalTime.NOON, new HashSet<>())));
+        scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, logger,
+                new TaskEventDispatcher(server.getEventManager(), logger, true, 100));
+        scheduler.start();
+
+        // 检查不等待慢监听器，同一分钟的其他任务立即执行
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0));
+        assertEquals(List.of("say fast"), server.getDispatchedCommands());
+
+        // 超时后照常执行
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (server.getDispatchedCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(List.of("say fast", "say slow"), server.getDispatchedCommands());
+    }
+
+    @Test
+    public void testSkewAndSkippedMinutesTracked() {
+        start(fixed("noon", LocalTime.of(12, 0), new HashSet<>()),
+                fixed("late", LocalTime.of(12, 5), new HashSet<>()));
+        SkewTracker skew = scheduler.getSkewTracker();
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(11, 59));
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0, 30));
+        assertEquals(1, skew.getRecordedCount());
+        assertTrue(skew.getPercentileMillis(100) >= 30_000);
+        assertEquals(0, skew.getSkippedMinutes());
+
+        // 主检查被阻塞，12:01 - 12:04 没有检查
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 5));
+        assertEquals(2, skew.getRecordedCount());
+        assertEquals(4, skew.getSkippedMinutes());
+
+        // 重复检查同一分钟或时间回拨不计为跳过
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 5, 10));
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 2));
+        assertEquals(4, skew.getSkippedMinutes());
+    }
+
+    @Test
+    public void testExecutionHistoryRecorded() throws IOException {
+        start(fixed("noon", LocalTime.of(12, 0), new HashSet<>()));
+        try (ExecutionHistory history = ExecutionHistory.open(dataDirectory.resolve("history.dat"), 16, logger)) {
+            scheduler.setExecutionHistory(history);
+            scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0, 5));
+
+            List<ExecutionHistory.Record> records = history.query("noon", 10);
+            assertEquals(1, records.size());
+            assertEquals(MONDAY.atTime(12, 0).atZone(scheduler.getClock().getZone()).toInstant().toEpochMilli(),
+                    records.get(0).getScheduledMillis());
+            assertTrue(records.get(0).isSuccess());
+            assertEquals(1, records.get(0).getCommandCount());
+        }
+    }
+
+    @Test
+    public void testTaskTimeoutCancelsRemainingCommands() throws IOException {
+        Files.writeString(dataDirectory.resolve("config.yml"), "performance:\n  task-timeout: 3\n");
+        // 逐个执行，每2秒一条，第3秒超时后剩余命令不再执行
+        Task task = new Task("slow", List.of("/say 1", "/say 2", "/say 3", "/say 4", "/say 5"),
+                TaskScheduleType.FIXED_TIME, LocalTime.of(12, 0), null, new HashSet<>(), true,
+                0, null, ExecutionMode.ONE_BY_ONE, 40, true);
+        start(task);
+        try (ExecutionHistory history = ExecutionHistory.open(dataDirectory.resolve("history.dat"), 16, logger)) {
+            scheduler.setExecutionHistory(history);
+            scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0));
+            server.getScheduler().advance(TimeUnit.SECONDS.toMillis(20));
+
+            assertEquals(List.of("say 1", "say 2"), server.getDispatchedCommands());
+            assertEquals(1, scheduler.getExecutionMetrics().getTimeoutCount());
+            assertEquals(0, scheduler.getExecutionMetrics().getQueuedCommandCount());
+
+            List<ExecutionHistory.Record> records = history.query("slow", 10);
+            assertEquals(1, records.size());
+            assertTrue(records.get(0).isTimedOut());
+            assertEquals(5, records.get(0).getCommandCount());
+            assertEquals(3, records.get(0).getFailureCount());
+        }
+    }
+
+    @Test
+    public void testFiresRunOnExecutionPool() throws InterruptedException {
+        start(fixed("noon", LocalTime.of(12, 0), new HashSet<>()));
+        ExecutionPool pool = new ExecutionPool(2, 16, ExecutionPool.RejectionPolicy.DISCARD, false, logger);
+        try {
+            scheduler.setExecutionPool(pool);
+            scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0));
+        } finally {
+            pool.shutdown(5, TimeUnit.SECONDS);
+        }
+        assertEquals(1, pool.getCompletedCount());
+        assertEquals(List.of("say noon"), server.getDispatchedCommands());
+    }
+
+    /**
+     * 每3秒触发一次，每次逐个执行3条命令、间隔5秒，上一次执行要10秒才完成
+     */
+    private static Task overlapping(OverlapPolicy policy) {
+        Task task = new Task("chain", List.of("/say a", "/say b", "/say c"), TaskScheduleType.INTERVAL, null, null,
+                new HashSet<>(), true, 60, "s", ExecutionMode.ONE_BY_ONE, 100, true);
+        task.setOverlapPolicy(policy);
+        return task;
+    }
+
+    @Test
+    public void testOverlapSkipIfRunning() {
+        start(overlapping(OverlapPolicy.SKIP_IF_RUNNING));
+        // 0秒开始执行，3、6、9秒跳过，12秒上一次已完成后重新执行
+        server.getScheduler().advance(TimeUnit.SECONDS.toMillis(14));
+
+        assertEquals(List.of("say a", "say b", "say c", "say a"), server.getDispatchedCommands());
+        OverlapGuard guard = scheduler.getOverlapGuard("chain");
+        assertEquals(3, guard.getSkippedCount());
+        assertEquals(0, guard.getQueuedCount());
+        assertTrue(guard.isRunning());
+    }
+
+    @Test
+    public void testOverlapQueueOne() {
+        start(overlapping(OverlapPolicy.QUEUE_ONE));
+        // 3秒的触发等待，6、9秒已有等待的触发而跳过；10秒上一次完成后立即执行，12秒再次等待
+        server.getScheduler().advance(TimeUnit.SECONDS.toMillis(14));
+
+        assertEquals(List.of("say a", "say b", "say c", "say a"), server.getDispatchedCommands());
+        OverlapGuard guard = scheduler.getOverlapGuard("chain");
+        assertEquals(2, guard.getSkippedCount());
+        assertEquals(2, guard.getQueuedCount());
+
+        scheduler.removeTask("chain");
+        assertNull(scheduler.getOverlapGuard("chain"));
+    }
+
+    @Test
+    public void testMissedFiresCaughtUpAfterRestart() throws IOException {
+        Files.writeString(dataDirectory.resolve("config.yml"), "performance:\n  misfire-dispatch-interval-ms: 1000\n");
+        List<LocalTime> times = List.of(LocalTime.of(11, 0), LocalTime.of(11, 30), LocalTime.of(12, 0));
+        long stoppedAt = MONDAY.atTime(10, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+        Task all = fixed("all", LocalTime.of(11, 0), new HashSet<>());
+        Task once = fixed("once", LocalTime.of(11, 0), new HashSet<>());
+        Task skip = fixed("skip", LocalTime.of(11, 0), new HashSet<>());
+        for (Task task : List.of(all, once, skip)) {
+            task.setFireTimes(times);
+            task.setLastExecutionTime(stoppedAt);
+        }
+        all.setMisfirePolicy(MisfirePolicy.FIRE_ALL);
+        once.setMisfirePolicy(MisfirePolicy.FIRE_ONCE);
+
+        TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+        taskManager.importTasks(List.of(all, once, skip));
+        scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, logger,
+                new TaskEventDispatcher(server.getEventManager(), logger, false),
+                Clock.fixed(MONDAY.atTime(12, 20).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        scheduler.start();
+        assertEquals(4, scheduler.getPendingCatchUpCount());
+
+        // 补执行按间隔逐个分派
+        server.getScheduler().advance(1500);
+        assertEquals(2, server.getDispatchedCount());
+        server.getScheduler().advance(TimeUnit.SECONDS.toMillis(5));
+        assertEquals(4, server.getDispatchedCount());
+        assertEquals(3, server.getDispatchedCommands().stream().filter("say all"::equals).count());
+        assertEquals(1, server.getDispatchedCommands().stream().filter("say once"::equals).count());
+        assertEquals(4, scheduler.getCatchUpFireCount());
+        assertEquals(0, scheduler.getPendingCatchUpCount());
+    }
+
+    @Test
+    public void testMainCheckAlignedToMinute() {
+        assertEquals(14_500, TaskScheduler.millisUntilNextMinute(MONDAY.atTime(11, 59, 45, 500_000_000)));
+        assertEquals(60_000, TaskScheduler.millisUntilNextMinute(MONDAY.atTime(12, 0)));
+
+        TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+        taskManager.importTasks(List.of(fixed("noon", LocalTime.NOON, new HashSet<>())));
+        scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, logger,
+                new TaskEventDispatcher(server.getEventManager(), logger, false),
+                Clock.fixed(MONDAY.atTime(12, 0, 45, 500_000_000).toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+        scheduler.start();
+
+        // 首次检查在下一个整分钟之后，而不是启动时
+        server.getScheduler().advance(14_000);
+        assertEquals(0, server.getDispatchedCount());
+        server.getScheduler().advance(1_000);
+        assertEquals(List.of("say noon"), server.getDispatchedCommands());
+    }
+
+    @Test
+    public void testSameMinuteCheckedOnce() {
+        start(fixed("noon", LocalTime.NOON, new HashSet<>()));
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0, 0, 20_000_000));
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0, 59, 990_000_000));
+        assertEquals(List.of("say noon"), server.getDispatchedCommands());
+    }
+
+    @Test
+    public void testMainCheckRealignsAfterClockStepBack() {
+        SimulatedClock clock = new SimulatedClock(MONDAY.atTime(11, 59, 30), ZoneOffset.UTC);
+        FakeProxyServer simulated = new FakeProxyServer(clock);
+        TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+        taskManager.importTasks(List.of(fixed("noon", LocalTime.NOON, new HashSet<>()),
+                fixed("next", LocalTime.of(12, 1), new HashSet<>())));
+        scheduler = new TaskScheduler(new Object(), simulated.getServer(), taskManager, logger,
+                new TaskEventDispatcher(simulated.getEventManager(), logger, false), clock);
+        scheduler.start();
+
+        simulated.getScheduler().advance(30_020);
+        assertEquals(List.of("say noon"), simulated.getDispatchedCommands());
+
+        // 时钟回拨40ms，下一次检查落在12:00的末尾：不重复触发，并重新对齐到12:01
+        clock.advance(-40);
+        simulated.getScheduler().advance(60_000);
+        assertEquals(List.of("say noon"), simulated.getDispatchedCommands());
+        simulated.getScheduler().advance(40);
+        assertEquals(List.of("say noon", "say next"), simulated.getDispatchedCommands());
+        assertEquals(TaskScheduler.MINUTE_ALIGN_GUARD_MS, clock.now().getNano() / 1_000_000);
+    }
+
+    private static Task range(String id, RangeMode mode) {
+        Task task = new Task(id, List.of("/say " + id), TaskScheduleType.TIME_RANGE, LocalTime.of(4, 0),
+                LocalTime.of(5, 0), new HashSet<>(), true, 0, null, ExecutionMode.SINGLE, 0, true);
+        task.setRangeMode(mode);
+        return task;
+    }
+
+    @Test
+    public void testRangeModesFireOncePerWindow() {
+        start(range("every", RangeMode.EVERY), range("start", RangeMode.ONCE_AT_START),
+                range("random", RangeMode.ONCE_RANDOM));
+
+        for (LocalDate day = MONDAY; day.isBefore(MONDAY.plusDays(2)); day = day.plusDays(1)) {
+            for (int minute = 0; minute <= 60; minute++) {
+                // 同一分钟检查两次也只触发一次
+                scheduler.checkAndExecuteTasksAt(day.atTime(4, 0).plusMinutes(minute));
+                scheduler.checkAndExecuteTasksAt(day.atTime(4, 0, 30).plusMinutes(minute));
+            }
+        }
+
+        List<String> commands = server.getDispatchedCommands();
+        assertEquals(2 * 61, commands.stream().filter("say every"::equals).count());
+        assertEquals(2, commands.stream().filter("say start"::equals).count());
+        assertEquals(2, commands.stream().filter("say random"::equals).count());
+    }
+
+    @Test
+    public void testExpiredTasksArchived() throws IOException {
+        Task oneShot = fixed("one-shot", LocalTime.NOON, new HashSet<>());
+        oneShot.setValidity(MONDAY, MONDAY);
+        Task later = fixed("later", LocalTime.NOON, new HashSet<>());
+        later.setValidity(MONDAY.plusDays(1), null);
+        TaskManager taskManager = start(oneShot, later);
+        assertEquals(1, scheduler.getPendingExpiryCount());
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0));
+        assertEquals(List.of("say one-shot"), server.getDispatchedCommands());
+
+        // 最后一天结束后移出调度，归档在异步任务中完成
+        scheduler.checkAndExecuteTasksAt(MONDAY.plusDays(1).atStartOfDay());
+        assertNotNull(taskManager.getTask("one-shot"));
+        server.getScheduler().advance(0);
+        assertNull(taskManager.getTask("one-shot"));
+        assertEquals(1, scheduler.getExpiredTaskCount());
+        assertEquals(0, scheduler.getPendingExpiryCount());
+        assertTrue(Files.readString(dataDirectory.resolve("tasks-archive.yml")).contains("one-shot"));
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.plusDays(1).atTime(12, 0));
+        assertEquals(List.of("say one-shot", "say later"), server.getDispatchedCommands());
+    }
+
+    @Test
+    public void testCalendarExcludesDatesAndReloads() throws IOException {
+        Files.writeString(dataDirectory.resolve("calendars.yml"), "maintenance:\n  - 2024-01-01\n");
+        Task task = fixed("noon", LocalTime.NOON, new HashSet<>());
+        task.setCalendars(List.of("Maintenance"));
+        TaskManager taskManager = start(task);
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0));
+        scheduler.checkAndExecuteTasksAt(MONDAY.plusDays(1).atTime(12, 0));
+        assertEquals(List.of("say noon"), server.getDispatchedCommands());
+
+        // 只重载日历，任务不变
+        Files.writeString(dataDirectory.resolve("calendars.yml"), "maintenance:\n  - \"01-03\"\n");
+        assertEquals(1, taskManager.getCalendarManager().reload());
+        scheduler.checkAndExecuteTasksAt(MONDAY.plusDays(2).atTime(12, 0));
+        scheduler.checkAndExecuteTasksAt(MONDAY.plusDays(7).atTime(12, 0));
+        assertEquals(List.of("say noon", "say noon"), server.getDispatchedCommands());
+    }
+
+    @Test
+    public void testExecutionLatencyRecorded() {
+        Task task = new Task("all-mode", List.of("/say a", "/say b", "/server lobby"), TaskScheduleType.FIXED_TIME,
+                LocalTime.of(12, 0), null, new HashSet<>(), true, 0, null, ExecutionMode.ALL, 0, true);
+        start(task);
+
+        scheduler.checkAndExecuteTasksAt(MONDAY.atTime(12, 0));
+        server.getScheduler().advance(1000);
+
+        ExecutionLatency latency = scheduler.getExecutionMetrics().getTaskLatency("all-mode");
+        assertNotNull(latency);
+        assertEquals(3, latency.getCompletion().getCount());
+        assertEquals(3, latency.getDispatchLag().getCount());
+        assertEquals(2, scheduler.getExecutionMetrics().getCommandRootLatencies().get("say").getCompletion().getCount());
+        assertEquals(1, scheduler.getExecutionMetrics().getCommandRootLatencies().get("server").getCompletion().getCount());
+
+        scheduler.removeTask("all-mode");
+        assertNull(scheduler.getExecutionMetrics().getTaskLatency("all-mode"));
+        // 删除后才完成的命令不会重新创建任务的统计
+        scheduler.getExecutionMetrics().recordCompletion("all-mode", "say late", 1000, true);
+        assertNull(scheduler.getExecutionMetrics().getTaskLatency("all-mode"));
+        assertEquals(3, scheduler.getExecutionMetrics().getCommandRootLatencies().get("say").getCompletion().getCount());
+    }
+
+    @Test
+    public void testIntervalTasksRunOnVirtualScheduler() {
+        Task interval = new Task("every-minute", List.of("/say tick"), TaskScheduleType.INTERVAL, null, null,
+                new HashSet<>(), true, 1200, "m", ExecutionMode.SINGLE, 0, true);
+        start(interval);
+
+        assertEquals(1, scheduler.getActiveIntervalTaskCount());
+
+        // 虚拟时间中还有每分钟一次的主检查任务，因此按分发的命令数判断；间隔任务没有初始延迟，启动时立即执行一次
+        server.getScheduler().advance(TimeUnit.SECONDS.toMillis(59));
+        assertEquals(1, server.getDispatchedCount());
+        server.getScheduler().advance(TimeUnit.SECONDS.toMillis(1));
+        assertEquals(2, server.getDispatchedCount());
+        server.getScheduler().advance(TimeUnit.MINUTES.toMillis(3));
+        assertEquals(5, server.getDispatchedCount());
+
+        // 停止后不再执行
+        scheduler.stopIntervalTask("every-minute");
+        server.getScheduler().advance(TimeUnit.MINUTES.toMillis(5));
+        assertEquals(5, server.getDispatchedCount());
+    }
+
+    private static List<Task> weekTasks() {
+        Task range = new Task("friday-night", List.of("/say night"), TaskScheduleType.TIME_RANGE,
+                LocalTime.of(22, 0), LocalTime.of(2, 0), EnumSet.of(DayOfWeek.FRIDAY), false,
+                0, null, ExecutionMode.SINGLE, 0, true);
+        Task step = new Task("half-hourly", List.of("/say step"), TaskScheduleType.TIME_RANGE,
+                LocalTime.of(9, 0), LocalTime.of(10, 0), new HashSet<>(), true,
+                0, null, ExecutionMode.SINGLE, 0, true);
+        step.setStepMinutes(30);
+        Task hourly = new Task("hourly", List.of("/say hour"), TaskScheduleType.INTERVAL, null, null,
+                new HashSet<>(), true, 72000, "h", ExecutionMode.SINGLE, 0, true);
+        return List.of(fixed("noon", LocalTime.of(12, 0), new HashSet<>()),
+                fixed("monday", LocalTime.of(12, 0), EnumSet.of(DayOfWeek.MONDAY)),
+                range, step, hourly);
+    }
+
+    @Test
+    public void testSimulatedWeek() {
+        ScheduleSimulation.Report report = new ScheduleSimulation(weekTasks(), MONDAY.atStartOfDay(), ZoneOffset.UTC)
+                .run(Duration.ofDays(7));
+
+        assertEquals(7, report.getFireCount("noon"));
+        assertEquals(1, report.getFireCount("monday"));
+        assertEquals(120 + 121, report.getFireCount("friday-night"));
+        assertEquals(21, report.getFireCount("half-hourly"));
+        assertEquals(7 * 24, report.getFireCount("hourly"));
+        assertEquals(report.getTotalFires(), report.getCommandCount());
+        assertEquals(TaskScheduler.MINUTE_ALIGN_GUARD_MS, report.getMaxLatenessMillis());
+    }
+
+    @Test
+    public void testSimulatedStartOffsetStaysAligned() {
+        // 在整分钟后37秒启动，主检查仍从下一个整分钟开始执行，触发延迟与启动时间无关
+        ScheduleSimulation.Report report = new ScheduleSimulation(weekTasks(),
+                MONDAY.atStartOfDay().plusSeconds(37), ZoneOffset.UTC).run(Duration.ofDays(7));
+
+        assertEquals(7, report.getFireCount("noon"));
+        assertEquals(120 + 121, report.getFireCount("friday-night"));
+        assertEquals(TaskScheduler.MINUTE_ALIGN_GUARD_MS, report.getLatenessPercentileMillis(50));
+        assertEquals(TaskScheduler.MINUTE_ALIGN_GUARD_MS, report.getMaxLatenessMillis());
+    }
+}
@@ -0,0 +1,61 @@
+package org.plugin.timetools.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * TimeoutWheel测试类
+ */
+public class TimeoutWheelTest {
+
+    private static final class TestTimeout implements TimeoutWheel.Timeout {
+        private final AtomicInteger expired = new AtomicInteger();
+        private volatile boolean done;
+
+        @Override
+        public boolean isDone() {
+            return done;
+        }
+
+        @Override
+        public void expire() {
+            expired.incrementAndGet();
+        }
+    }
+
+    @Test
+    public void testExpiresAfterTicks() {
+        TimeoutWheel wheel = new TimeoutWheel(4);
+        TestTimeout timeout = new TestTimeout();
+        // 超过一圈的超时在经过的圈数中不会提前到期
+        wheel.schedule(timeout, 6);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, wheel.tick());
+        }
+        assertEquals(1, wheel.size());
+        assertEquals(1, wheel.tick());
+        assertEquals(1, timeout.expired.get());
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    public void testCompletedEntriesDropped() {
+        TimeoutWheel wheel = new TimeoutWheel(8);
+        TestTimeout finished = new TestTimeout();
+        TestTimeout pending = new TestTimeout();
+        wheel.schedule(finished, 2);
+        wheel.schedule(pending, 2);
+        finished.done = true;
+
+        wheel.tick();
+        assertEquals(1, wheel.tick());
+        assertEquals(0, finished.expired.get());
+        assertEquals(1, pending.expired.get());
+
+        assertThrows(IllegalArgumentException.class, () -> new TimeoutWheel(0));
+    }
+}
@@ -0,0 +1,195 @@
+package org.plugin.timetools.support;
+
+import com.velocitypowered.api.command.CommandManager;
+import com.velocitypowered.api.event.EventManager;
+import com.velocitypowered.api.proxy.ConsoleCommandSource;
+import com.velocitypowered.api.proxy.ProxyServer;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * 测试用的ProxyServer
+ *
+ * 只实现TimeTools用到的部分：调度器为 {@link VirtualScheduler}，命令管理器记录分发的命令并直接返回成功，
+ * 事件管理器原样返回事件。其余方法返回默认值。
+ */
+public final class FakeProxyServer {
+
+    private static final CompletableFuture<Boolean> SUCCESS = CompletableFuture.completedFuture(true);
+
+    private final VirtualScheduler scheduler;
+    private final LongAdder dispatched = new LongAdder();
+    private final List<String> dispatchedCommands = Collections.synchronizedList(new ArrayList<>());
+    private final CommandManager commandManager;
+    private final EventManager eventManager;
+    private final ConsoleCommandSource console;
+    private final ProxyServer server;
+    private volatile boolean recordCommands = true;
+    private volatile Function<Object, CompletableFuture<Object>> eventHandler = CompletableFuture::completedFuture;
+
+    public FakeProxyServer() {
+        this(null);
+    }
+
+    /**
+     * @param clock 随虚拟调度器推进的时钟，为null时不关联
+     */
+    public FakeProxyServer(SimulatedClock clock) {
+        this.scheduler = new VirtualScheduler(clock);
+        this.console = proxy(ConsoleCommandSource.class, FakeProxyServer::defaultValue);
+        this.commandManager = proxy(CommandManager.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "executeAsync":
+                case "executeImmediatelyAsync":
+                    dispatched.increment();
+                    if (recordCommands) {
+                        dispatchedCommands.add((String) args[1]);
+                    }
+                    return SUCCESS;
+                case "getAliases":
+                    return Set.of();
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+        this.eventManager = proxy(EventManager.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "fire":
+                    return eventHandler.apply(args[0]);
+                case "fireAndForget":
+                    return null;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+        this.server = proxy(ProxyServer.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "getScheduler":
+                    return scheduler.asScheduler();
+                case "getCommandManager":
+                    return commandManager;
+                case "getConsoleCommandSource":
+                    return console;
+                case "getEventManager":
+                    return eventManager;
+                default:
+                    return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    /**
+     * 替换 EventManager#fire 的处理，用于模拟慢监听器或取消事件
+     */
+    public void setEventHandler(Function<Object, CompletableFuture<Object>> eventHandler) {
+        this.eventHandler = eventHandler;
+    }
+
+    public ProxyServer getServer() {
+        return server;
+    }
+
+    public VirtualScheduler getScheduler() {
+        return scheduler;
+    }
+
+    public CommandManager getCommandManager() {
+        return commandManager;
+    }
+
+    public EventManager getEventManager() {
+        return eventManager;
+    }
+
+    /**
+     * 已分发的命令数量
+     */
+    public long getDispatchedCount() {
+        return dispatched.sum();
+    }
+
+    /**
+     * 已分发的命令（不含前缀斜杠），关闭记录后不再增加
+     */
+    public List<String> getDispatchedCommands() {
+        synchronized (dispatchedCommands) {
+            return new ArrayList<>(dispatchedCommands);
+        }
+    }
+
+    /**
+     * 是否记录分发的命令内容，基准测试中关闭以免列表无限增长
+     */
+    public void setRecordCommands(boolean recordCommands) {
+        this.recordCommands = recordCommands;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    /**
+     * 未实现方法的返回值：Object方法按身份处理，返回自身类型的方法（构建器）返回代理本身，其余返回默认值
+     */
+    static Object defaultValue(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "toString":
+                if (method.getParameterCount() == 0) {
+                    return method.getDeclaringClass().getSimpleName() + "@fake";
+                }
+                break;
+            case "hashCode":
+                if (method.getParameterCount() == 0) {
+                    return System.identityHashCode(proxy);
+                }
+                break;
+            case "equals":
+                if (method.getParameterCount() == 1) {
+                    return proxy == args[0];
+                }
+                break;
+            default:
+                break;
+        }
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType != Object.class && returnType.isInstance(proxy)) {
+            return proxy;
+        }
+        if (returnType == boolean.class) {
+            return false;
+        }
+        if (returnType == int.class) {
+            return 0;
+        }
+        if (returnType == long.class) {
+            return 0L;
+        }
+        if (returnType == double.class) {
+            return 0.0;
+        }
+        if (returnType == float.class) {
+            return 0.0f;
+        }
+        if (returnType == short.class) {
+            return (short) 0;
+        }
+        if (returnType == byte.class) {
+            return (byte) 0;
+        }
+        if (returnType == char.class) {
+            return '\0';
+        }
+        return null;
+    }
+}
@@ -0,0 +1,272 @@
+package org.plugin.timetools.support;
+
+import org.plugin.timetools.config.ConfigManager;
+import org.plugin.timetools.event.TaskEventDispatcher;
+import org.plugin.timetools.manager.TaskManager;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.scheduler.TaskScheduler;
+import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 快进的调度模拟
+ *
+ * 用 {@link FakeProxyServer} 和 {@link SimulatedClock} 运行真实的 {@link TaskScheduler}，
+ * 按分钟推进虚拟时间，几秒内即可模拟数天的触发。统计每个任务的触发次数、按分钟触发的任务相对
+ * 整分钟的延迟分布，以及单次检查（一分钟内）分发的命令数峰值，用于评估大量任务时的负载。
+ *
+ * 模拟会把任务设为不持久化并替换其回调。可直接运行：
+ * {@code ScheduleSimulation <任务数> [天数] [启动时间相对整分钟的偏移秒数]}
+ */
+public final class ScheduleSimulation {
+
+    private static final long MINUTE_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Collection<Task> tasks;
+    private final LocalDateTime start;
+    private final ZoneId zone;
+    private Logger logger = NOPLogger.NOP_LOGGER;
+
+    /**
+     * @param start 模拟开始时间，主检查从之后的下一个整分钟起每分钟执行一次
+     */
+    public ScheduleSimulation(Collection<Task> tasks, LocalDateTime start, ZoneId zone) {
+        this.tasks = tasks;
+        this.start = start;
+        this.zone = zone;
+    }
+
+    public void setLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    public Report run(Duration duration) {
+        Path dataDirectory;
+        try {
+            dataDirectory = Files.createTempDirectory("timetools-sim");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            return run(duration, dataDirectory);
+        } finally {
+            deleteRecursively(dataDirectory);
+        }
+    }
+
+    private Report run(Duration duration, Path dataDirectory) {
+        SimulatedClock clock = new SimulatedClock(start, zone);
+        FakeProxyServer server = new FakeProxyServer(clock);
+        server.setRecordCommands(false);
+
+        Report report = new Report(duration);
+        for (Task task : tasks) {
+            task.setPersistent(false);
+            long[] fires = new long[1];
+            report.fireCounts.put(task.getId(), fires);
+            boolean minuteDriven = task.getFireSchedule().isMinuteDriven();
+            task.setCallback(fired -> {
+                fires[0]++;
+                report.totalFires++;
+                if (minuteDriven) {
+                    long millis = clock.millis();
+                    report.recordLateness(millis - Math.floorDiv(millis, MINUTE_MILLIS) * MINUTE_MILLIS);
+                }
+            });
+        }
+
+        TaskManager taskManager = new TaskManager(new ConfigManager(dataDirectory, logger), logger);
+        taskManager.importTasks(tasks);
+        TaskScheduler scheduler = new TaskScheduler(new Object(), server.getServer(), taskManager, logger,
+                new TaskEventDispatcher(server.getEventManager(), logger, false), clock);
+
+        long wallStart = System.nanoTime();
+        scheduler.start();
+        try {
+            // 模拟区间为 [start, start + duration)，每次推进到下一次主检查（包含该次检查）并统计期间分发的命令
+            VirtualScheduler virtualScheduler = server.getScheduler();
+            long total = duration.toMillis();
+            for (long offset = 0; offset < total; offset += MINUTE_MILLIS) {
+                advanceTo(virtualScheduler, server, offset, report, clock);
+            }
+            advanceTo(virtualScheduler, server, total - 1, report, clock);
+        } finally {
+            scheduler.shutdown();
+        }
+
+        report.commandCount = server.getDispatchedCount();
+        report.wallTimeNanos = System.nanoTime() - wallStart;
+        return report;
+    }
+
+    private static void advanceTo(VirtualScheduler virtualScheduler, FakeProxyServer server, long offset,
+                                  Report report, SimulatedClock clock) {
+        long before = server.getDispatchedCount();
+        virtualScheduler.advance(offset - virtualScheduler.currentTimeMillis());
+        long dispatched = server.getDispatchedCount() - before;
+        if (dispatched > report.peakCommandsPerTick) {
+            report.peakCommandsPerTick = dispatched;
+            report.peakTickTime = clock.now();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * 模拟结果
+     */
+    public static final class Report {
+
+        // 延迟按毫秒计数，超过上限的计入最后一个桶
+        private static final int MAX_LATENESS_MS = (int) (2 * MINUTE_MILLIS);
+
+        private final Duration simulated;
+        private final Map<String, long[]> fireCounts = new HashMap<>();
+        private final long[] latenessCounts = new long[MAX_LATENESS_MS + 1];
+        private long latenessSamples;
+        private long maxLatenessMillis;
+        private long totalFires;
+        private long commandCount;
+        private long peakCommandsPerTick;
+        private LocalDateTime peakTickTime;
+        private long wallTimeNanos;
+
+        private Report(Duration simulated) {
+            this.simulated = simulated;
+        }
+
+        private void recordLateness(long millis) {
+            latenessCounts[(int) Math.min(Math.max(millis, 0), MAX_LATENESS_MS)]++;
+            latenessSamples++;
+            maxLatenessMillis = Math.max(maxLatenessMillis, millis);
+        }
+
+        public long getFireCount(String taskId) {
+            long[] fires = fireCounts.get(taskId);
+            return fires != null ? fires[0] : 0;
+        }
+
+        public Map<String, Long> getFireCounts() {
+            Map<String, Long> counts = new HashMap<>();
+            fireCounts.forEach((id, fires) -> counts.put(id, fires[0]));
+            return Collections.unmodifiableMap(counts);
+        }
+
+        public long getTotalFires() {
+            return totalFires;
+        }
+
+        /**
+         * 分发到CommandManager的命令总数
+         */
+        public long getCommandCount() {
+            return commandCount;
+        }
+
+        /**
+         * 一分钟内分发命令数的最大值
+         */
+        public long getPeakCommandsPerTick() {
+            return peakCommandsPerTick;
+        }
+
+        public LocalDateTime getPeakTickTime() {
+            return peakTickTime;
+        }
+
+        /**
+         * 按分钟触发的任务相对整分钟的延迟百分位（毫秒）
+         */
+        public long getLatenessPercentileMillis(double percentile) {
+            if (latenessSamples == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(percentile / 100.0 * latenessSamples);
+            long seen = 0;
+            for (int i = 0; i < latenessCounts.length; i++) {
+                seen += latenessCounts[i];
+                if (seen >= Math.max(rank, 1)) {
+                    return i;
+                }
+            }
+            return MAX_LATENESS_MS;
+        }
+
+        public long getMaxLatenessMillis() {
+            return maxLatenessMillis;
+        }
+
+        public Duration getWallTime() {
+            return Duration.ofNanos(wallTimeNanos);
+        }
+
+        public String format() {
+            long busiest = 0;
+            String busiestId = null;
+            for (Map.Entry<String, long[]> entry : fireCounts.entrySet()) {
+                if (entry.getValue()[0] > busiest) {
+                    busiest = entry.getValue()[0];
+                    busiestId = entry.getKey();
+                }
+            }
+
+            StringBuilder builder = new StringBuilder();
+            builder.append("模拟时长: ").append(simulated.toDays()).append("天")
+                    .append(simulated.toHoursPart()).append("小时，耗时 ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(wallTimeNanos)).append("ms\n");
+            builder.append("任务数: ").append(fireCounts.size())
+                    .append("，触发次数: ").append(totalFires)
+                    .append("，分发命令: ").append(commandCount).append('\n');
+            if (busiestId != null) {
+                builder.append("触发最多的任务: ").append(busiestId).append(" (").append(busiest).append("次)\n");
+            }
+            builder.append("单次检查命令数峰值: ").append(peakCommandsPerTick);
+            if (peakTickTime != null) {
+                builder.append(" (").append(peakTickTime).append(')');
+            }
+            builder.append('\n');
+            builder.append("触发延迟(ms): p50=").append(getLatenessPercentileMillis(50))
+                    .append(" p90=").append(getLatenessPercentileMillis(90))
+                    .append(" p99=").append(getLatenessPercentileMillis(99))
+                    .append(" max=").append(maxLatenessMillis);
+            return builder.toString();
+        }
+    }
+
+    public static void main(String[] args) {
+        int taskCount = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 7;
+        int offsetSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        List<Task> tasks = SyntheticTasks.generate(taskCount, 42);
+        LocalDateTime start = LocalDate.of(2024, 1, 1).atStartOfDay().plusSeconds(offsetSeconds);
+        Report report = new ScheduleSimulation(tasks, start, ZoneOffset.UTC).run(Duration.ofDays(days));
+        System.out.println(report.format());
+    }
+}
@@ -0,0 +1,75 @@
+package org.plugin.timetools.support;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 手动推进的时钟
+ *
+ * 与 {@link VirtualScheduler} 配合使用时由调度器随虚拟时间一起推进，使调度器读取的当前时间与任务的到期时间一致。
+ */
+public final class SimulatedClock extends Clock {
+
+    private final ZoneId zone;
+    private volatile Instant instant;
+
+    public SimulatedClock(Instant instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    public SimulatedClock(LocalDateTime start, ZoneId zone) {
+        this(start.atZone(zone).toInstant(), zone);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        // 时区视图共享同一个时间来源
+        SimulatedClock parent = this;
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return zone;
+            }
+
+            @Override
+            public Clock withZone(ZoneId other) {
+                return parent.withZone(other);
+            }
+
+            @Override
+            public Instant instant() {
+                return parent.instant();
+            }
+        };
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.ofInstant(instant, zone);
+    }
+
+    public void advance(long millis) {
+        instant = instant.plusMillis(millis);
+    }
+
+    public void advance(Duration duration) {
+        instant = instant.plus(duration);
+    }
+
+    public void setInstant(Instant instant) {
+        this.instant = instant;
+    }
+}
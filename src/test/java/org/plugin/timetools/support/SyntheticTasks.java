@@ -0,0 +1,67 @@
+package org.plugin.timetools.support;
+
+import org.plugin.timetools.model.ExecutionMode;
+import org.plugin.timetools.model.Task;
+import org.plugin.timetools.model.TaskScheduleType;
+
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 基准测试用的合成任务
+ *
+ * 按固定种子生成，类型分布为 60% 固定时间，20% 时间区间，10% 时间列表，10% 每分钟的间隔任务；
+ * 约四分之一的任务限定星期，约三分之一带标签。
+ */
+public final class SyntheticTasks {
+
+    private static final String[] TAGS = {"event", "backup", "broadcast", "maintenance"};
+
+    private SyntheticTasks() {
+    }
+
+    public static List<Task> generate(int count, long seed) {
+        Random random = new Random(seed);
+        List<Task> generated = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = "bench-" + i;
+            List<String> commands = random.nextInt(5) == 0
+                    ? List.of("/say " + id, "/velocity plugins")
+                    : List.of("/say " + id);
+            ExecutionMode mode = commands.size() > 1 ? ExecutionMode.ALL : ExecutionMode.SINGLE;
+            Set<DayOfWeek> days = random.nextInt(4) == 0
+                    ? EnumSet.of(DayOfWeek.of(1 + random.nextInt(7)))
+                    : new HashSet<>();
+            LocalTime start = LocalTime.of(random.nextInt(24), random.nextInt(60));
+            int kind = random.nextInt(10);
+
+            Task task;
+            if (kind < 6) {
+                task = new Task(id, commands, TaskScheduleType.FIXED_TIME, start, null, days, days.isEmpty(),
+                        0, null, mode, 0, true);
+            } else if (kind < 8) {
+                LocalTime end = start.plusMinutes(1 + random.nextInt(120));
+                task = new Task(id, commands, TaskScheduleType.TIME_RANGE, start, end, days, days.isEmpty(),
+                        0, null, mode, 0, true);
+            } else if (kind < 9) {
+                task = new Task(id, commands, TaskScheduleType.FIXED_TIME, start, null, days, days.isEmpty(),
+                        0, null, mode, 0, true);
+                task.setFireTimes(List.of(start, start.plusHours(6), start.plusHours(12), start.plusHours(18)));
+            } else {
+                task = new Task(id, commands, TaskScheduleType.INTERVAL, null, null, new HashSet<>(), true,
+                        1200, "m", mode, 0, true);
+            }
+            if (random.nextInt(3) == 0) {
+                task.setTags(List.of(TAGS[random.nextInt(TAGS.length)]));
+            }
+            generated.add(task);
+        }
+        return generated;
+    }
+}
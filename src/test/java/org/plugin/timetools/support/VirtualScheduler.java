@@ -0,0 +1,221 @@
+package org.plugin.timetools.support;
+
+import com.velocitypowered.api.scheduler.ScheduledTask;
+import com.velocitypowered.api.scheduler.Scheduler;
+import com.velocitypowered.api.scheduler.TaskStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 虚拟时间的调度器
+ *
+ * 实现Velocity的 {@link Scheduler} 接口，但任务不会自动运行：只有调用 {@link #advance(long)}
+ * 推进虚拟时间时，才会按到期顺序在调用线程上执行到期的任务。用于测试和基准测试中替代真实的调度器。
+ * 关联 {@link SimulatedClock} 时，时钟随虚拟时间同步推进，任务执行时读到的时间就是它的到期时间。
+ */
+public final class VirtualScheduler {
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Entry entry) -> entry.due).thenComparingLong(entry -> entry.sequence));
+    private final Scheduler scheduler;
+    private final SimulatedClock clock;
+    private long now;
+    private long sequence;
+
+    public VirtualScheduler() {
+        this(null);
+    }
+
+    public VirtualScheduler(SimulatedClock clock) {
+        this.clock = clock;
+        this.scheduler = FakeProxyServer.proxy(Scheduler.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "buildTask":
+                    return newBuilder(args[0], args[1]);
+                case "tasksByPlugin":
+                    return pendingTasks(args[0]);
+                default:
+                    return FakeProxyServer.defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    public Scheduler asScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * 当前虚拟时间（毫秒，从0开始）
+     */
+    public synchronized long currentTimeMillis() {
+        return now;
+    }
+
+    /**
+     * 推进虚拟时间，按到期顺序执行期间到期的所有任务（包括执行过程中新调度的任务）
+     *
+     * @return 执行的任务次数
+     */
+    public int advance(long millis) {
+        long target;
+        synchronized (this) {
+            target = now + millis;
+        }
+
+        int executed = 0;
+        while (true) {
+            Entry entry;
+            synchronized (this) {
+                Entry head = queue.peek();
+                if (head == null || head.due > target) {
+                    moveTo(target);
+                    return executed;
+                }
+                entry = queue.poll();
+                moveTo(entry.due);
+            }
+
+            if (entry.status == TaskStatus.CANCELLED) {
+                continue;
+            }
+            entry.run();
+            executed++;
+
+            synchronized (this) {
+                if (entry.repeat > 0 && entry.status != TaskStatus.CANCELLED) {
+                    entry.due += entry.repeat;
+                    entry.sequence = sequence++;
+                    queue.add(entry);
+                } else if (entry.status != TaskStatus.CANCELLED) {
+                    entry.status = TaskStatus.FINISHED;
+                }
+            }
+        }
+    }
+
+    public int advance(Duration duration) {
+        return advance(duration.toMillis());
+    }
+
+    private void moveTo(long time) {
+        if (clock != null) {
+            clock.advance(time - now);
+        }
+        now = time;
+    }
+
+    /**
+     * 等待执行的任务数量（已取消的除外）
+     */
+    public synchronized int pendingCount() {
+        int count = 0;
+        for (Entry entry : queue) {
+            if (entry.status != TaskStatus.CANCELLED) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 丢弃所有等待中的任务
+     */
+    public synchronized void clear() {
+        for (Entry entry : queue) {
+            entry.status = TaskStatus.CANCELLED;
+        }
+        queue.clear();
+    }
+
+    private synchronized List<ScheduledTask> pendingTasks(Object plugin) {
+        List<ScheduledTask> tasks = new ArrayList<>();
+        for (Entry entry : queue) {
+            if (entry.plugin == plugin && entry.status == TaskStatus.SCHEDULED) {
+                tasks.add(entry.handle);
+            }
+        }
+        return tasks;
+    }
+
+    private synchronized ScheduledTask schedule(Entry entry) {
+        entry.due = now + entry.delay;
+        entry.sequence = sequence++;
+        queue.add(entry);
+        return entry.handle;
+    }
+
+    private Scheduler.TaskBuilder newBuilder(Object plugin, Object task) {
+        Entry entry = new Entry(plugin, task);
+        return FakeProxyServer.proxy(Scheduler.TaskBuilder.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "delay":
+                    entry.delay = toMillis(args);
+                    return proxy;
+                case "repeat":
+                    entry.repeat = toMillis(args);
+                    return proxy;
+                case "clearDelay":
+                    entry.delay = 0;
+                    return proxy;
+                case "clearRepeat":
+                    entry.repeat = 0;
+                    return proxy;
+                case "schedule":
+                    return schedule(entry);
+                default:
+                    return FakeProxyServer.defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static long toMillis(Object[] args) {
+        if (args.length == 1) {
+            return ((Duration) args[0]).toMillis();
+        }
+        return ((TimeUnit) args[1]).toMillis((Long) args[0]);
+    }
+
+    private final class Entry {
+        private final Object plugin;
+        private final Object task;
+        private final ScheduledTask handle;
+        private long delay;
+        private long repeat;
+        private long due;
+        private long sequence;
+        private volatile TaskStatus status = TaskStatus.SCHEDULED;
+
+        Entry(Object plugin, Object task) {
+            this.plugin = plugin;
+            this.task = task;
+            this.handle = FakeProxyServer.proxy(ScheduledTask.class, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "plugin":
+                        return plugin;
+                    case "status":
+                        return status;
+                    case "cancel":
+                        status = TaskStatus.CANCELLED;
+                        return null;
+                    default:
+                        return FakeProxyServer.defaultValue(proxy, method, args);
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        void run() {
+            if (task instanceof Runnable) {
+                ((Runnable) task).run();
+            } else {
+                ((Consumer<ScheduledTask>) task).accept(handle);
+            }
+        }
+    }
+}